@@ -16,6 +16,20 @@ SET xmloption = content;
 SET client_min_messages = warning;
 SET row_security = off;
 
+--
+-- Name: pg_trgm; Type: EXTENSION; Schema: -; Owner: -
+--
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm WITH SCHEMA public;
+
+
+--
+-- Name: EXTENSION pg_trgm; Type: COMMENT; Schema: -; Owner: 
+--
+
+COMMENT ON EXTENSION pg_trgm IS 'text similarity measurement and index searching based on trigrams';
+
+
 --
 -- Name: order_status; Type: TYPE; Schema: public; Owner: postgres
 --
@@ -45,7 +59,9 @@ CREATE TABLE public.addresses (
     street character varying(100) NOT NULL,
     house_number character varying(10) NOT NULL,
     postal_code character varying(20),
-    apartment character varying(20)
+    apartment character varying(20),
+    fingerprint character varying(64),
+    ref_count integer
 );
 
 
@@ -81,7 +97,11 @@ CREATE TABLE public.orders (
     status character varying(20) NOT NULL,
     person_id bigint,
     pickup_location_id bigint,
-    address_id bigint
+    pickup_slot_id bigint,
+    address_id bigint,
+    version bigint DEFAULT 0 NOT NULL,
+    created_at timestamp(6) without time zone DEFAULT now() NOT NULL,
+    updated_at timestamp(6) without time zone DEFAULT now() NOT NULL
 );
 
 
@@ -134,6 +154,7 @@ CREATE TABLE public.people (
     role character varying(100) NOT NULL,
     address_id bigint,
     is_deleted boolean DEFAULT false NOT NULL,
+    deactivated_at timestamp without time zone,
     CONSTRAINT people_date_of_birth_check CHECK ((date_of_birth < CURRENT_DATE))
 );
 
@@ -170,7 +191,9 @@ CREATE TABLE public.pickup_locations (
     city character varying(100) NOT NULL,
     street character varying(100) NOT NULL,
     house_number character varying(10) NOT NULL,
-    active boolean DEFAULT true
+    active boolean DEFAULT true,
+    latitude double precision,
+    longitude double precision
 );
 
 
@@ -207,7 +230,8 @@ CREATE TABLE public.products (
     product_description character varying(600) NOT NULL,
     price numeric(10,2) NOT NULL,
     product_category character varying(100) NOT NULL,
-    availability boolean NOT NULL
+    availability boolean NOT NULL,
+    version bigint DEFAULT 0 NOT NULL
 );
 
 
@@ -277,6 +301,15 @@ ALTER TABLE ONLY public.addresses
     ADD CONSTRAINT addresses_pkey PRIMARY KEY (id);
 
 
+--
+-- Name: addresses addresses_fingerprint_key; Type: CONSTRAINT; Schema: public; Owner: postgres
+-- SHA-256 of the normalized city/street/house number/apartment; NULL only until the startup backfill has run.
+--
+
+ALTER TABLE ONLY public.addresses
+    ADD CONSTRAINT addresses_fingerprint_key UNIQUE (fingerprint);
+
+
 --
 -- Name: orders orders_pkey; Type: CONSTRAINT; Schema: public; Owner: postgres
 --
@@ -381,6 +414,380 @@ ALTER TABLE ONLY public.people
     ADD CONSTRAINT people_address_id_fkey FOREIGN KEY (address_id) REFERENCES public.addresses(id) ON DELETE SET NULL;
 
 
+--
+-- Name: outbox_events; Type: TABLE; Schema: public; Owner: postgres
+--
+
+CREATE TABLE public.outbox_events (
+    id bigint NOT NULL,
+    aggregate_type character varying(50) NOT NULL,
+    aggregate_id integer NOT NULL,
+    event_type character varying(50) NOT NULL,
+    payload character varying(4000) NOT NULL,
+    created_at timestamp(6) without time zone NOT NULL,
+    published_at timestamp(6) without time zone
+);
+
+
+ALTER TABLE public.outbox_events OWNER TO postgres;
+
+--
+-- Name: outbox_events_id_seq; Type: SEQUENCE; Schema: public; Owner: postgres
+--
+
+CREATE SEQUENCE public.outbox_events_id_seq
+    START WITH 1
+    INCREMENT BY 1
+    NO MINVALUE
+    NO MAXVALUE
+    CACHE 1;
+
+
+ALTER TABLE public.outbox_events_id_seq OWNER TO postgres;
+
+ALTER SEQUENCE public.outbox_events_id_seq OWNED BY public.outbox_events.id;
+
+ALTER TABLE ONLY public.outbox_events ALTER COLUMN id SET DEFAULT nextval('public.outbox_events_id_seq'::regclass);
+
+ALTER TABLE ONLY public.outbox_events
+    ADD CONSTRAINT outbox_events_pkey PRIMARY KEY (id);
+
+--
+-- Name: outbox_events_unpublished_idx; Type: INDEX; Schema: public; Owner: postgres
+-- Partial index: the publisher only ever scans rows that are still waiting to be sent.
+--
+
+CREATE INDEX outbox_events_unpublished_idx ON public.outbox_events USING btree (id) WHERE (published_at IS NULL);
+
+--
+-- Name: outbox_events_published_at_idx; Type: INDEX; Schema: public; Owner: postgres
+--
+
+CREATE INDEX outbox_events_published_at_idx ON public.outbox_events USING btree (published_at) WHERE (published_at IS NOT NULL);
+
+
+--
+-- Name: orders_archivable_idx; Type: INDEX; Schema: public; Owner: postgres
+-- Partial index: the archival job only looks at finished orders, ordered by last change.
+--
+
+CREATE INDEX orders_archivable_idx ON public.orders USING btree (updated_at) WHERE ((status)::text = ANY ((ARRAY['DELIVERED'::character varying, 'CANCELLED'::character varying])::text[]));
+
+--
+-- Name: orders_archive; Type: TABLE; Schema: public; Owner: postgres
+-- Cold storage for finished orders, range-partitioned by creation time.
+-- No FKs: archived rows must outlive the people, addresses and pickup locations they reference.
+--
+
+CREATE TABLE public.orders_archive (
+    id bigint NOT NULL,
+    status character varying(20) NOT NULL,
+    person_id bigint,
+    pickup_location_id bigint,
+    pickup_slot_id bigint,
+    address_id bigint,
+    version bigint NOT NULL,
+    created_at timestamp(6) without time zone NOT NULL,
+    updated_at timestamp(6) without time zone NOT NULL,
+    archived_at timestamp(6) without time zone NOT NULL
+)
+PARTITION BY RANGE (created_at);
+
+
+ALTER TABLE public.orders_archive OWNER TO postgres;
+
+CREATE TABLE public.orders_archive_2024 PARTITION OF public.orders_archive
+    FOR VALUES FROM ('2024-01-01 00:00:00') TO ('2025-01-01 00:00:00');
+
+CREATE TABLE public.orders_archive_2025 PARTITION OF public.orders_archive
+    FOR VALUES FROM ('2025-01-01 00:00:00') TO ('2026-01-01 00:00:00');
+
+CREATE TABLE public.orders_archive_2026 PARTITION OF public.orders_archive
+    FOR VALUES FROM ('2026-01-01 00:00:00') TO ('2027-01-01 00:00:00');
+
+CREATE TABLE public.orders_archive_default PARTITION OF public.orders_archive DEFAULT;
+
+ALTER TABLE ONLY public.orders_archive
+    ADD CONSTRAINT orders_archive_pkey PRIMARY KEY (id, created_at);
+
+CREATE INDEX orders_archive_id_idx ON public.orders_archive USING btree (id);
+
+CREATE INDEX orders_archive_person_id_idx ON public.orders_archive USING btree (person_id);
+
+--
+-- Name: orders_products_archive; Type: TABLE; Schema: public; Owner: postgres
+-- Items of archived orders, hash-partitioned by order so lookups prune to a single partition.
+--
+
+CREATE TABLE public.orders_products_archive (
+    order_id bigint NOT NULL,
+    product_id bigint NOT NULL
+)
+PARTITION BY HASH (order_id);
+
+
+ALTER TABLE public.orders_products_archive OWNER TO postgres;
+
+CREATE TABLE public.orders_products_archive_p0 PARTITION OF public.orders_products_archive
+    FOR VALUES WITH (MODULUS 4, REMAINDER 0);
+
+CREATE TABLE public.orders_products_archive_p1 PARTITION OF public.orders_products_archive
+    FOR VALUES WITH (MODULUS 4, REMAINDER 1);
+
+CREATE TABLE public.orders_products_archive_p2 PARTITION OF public.orders_products_archive
+    FOR VALUES WITH (MODULUS 4, REMAINDER 2);
+
+CREATE TABLE public.orders_products_archive_p3 PARTITION OF public.orders_products_archive
+    FOR VALUES WITH (MODULUS 4, REMAINDER 3);
+
+ALTER TABLE ONLY public.orders_products_archive
+    ADD CONSTRAINT orders_products_archive_pkey PRIMARY KEY (order_id, product_id);
+
+
+--
+-- Name: sales_daily_rollup; Type: TABLE; Schema: public; Owner: postgres
+-- Maintained incrementally on order status changes, repaired nightly by the reconcile job.
+--
+
+CREATE TABLE public.sales_daily_rollup (
+    id bigint NOT NULL,
+    sales_day date NOT NULL,
+    delivery_type character varying(20) NOT NULL,
+    order_count bigint DEFAULT 0 NOT NULL,
+    units bigint DEFAULT 0 NOT NULL,
+    revenue numeric(14,2) DEFAULT 0 NOT NULL
+);
+
+
+ALTER TABLE public.sales_daily_rollup OWNER TO postgres;
+
+CREATE SEQUENCE public.sales_daily_rollup_id_seq
+    START WITH 1
+    INCREMENT BY 1
+    NO MINVALUE
+    NO MAXVALUE
+    CACHE 1;
+
+
+ALTER TABLE public.sales_daily_rollup_id_seq OWNER TO postgres;
+
+ALTER SEQUENCE public.sales_daily_rollup_id_seq OWNED BY public.sales_daily_rollup.id;
+
+ALTER TABLE ONLY public.sales_daily_rollup ALTER COLUMN id SET DEFAULT nextval('public.sales_daily_rollup_id_seq'::regclass);
+
+ALTER TABLE ONLY public.sales_daily_rollup
+    ADD CONSTRAINT sales_daily_rollup_pkey PRIMARY KEY (id);
+
+ALTER TABLE ONLY public.sales_daily_rollup
+    ADD CONSTRAINT sales_daily_rollup_key UNIQUE (sales_day, delivery_type);
+
+
+--
+-- Name: sales_category_rollup; Type: TABLE; Schema: public; Owner: postgres
+-- Maintained incrementally on order status changes, repaired nightly by the reconcile job.
+--
+
+CREATE TABLE public.sales_category_rollup (
+    id bigint NOT NULL,
+    sales_day date NOT NULL,
+    product_category character varying(100) NOT NULL,
+    delivery_type character varying(20) NOT NULL,
+    order_count bigint DEFAULT 0 NOT NULL,
+    units bigint DEFAULT 0 NOT NULL,
+    revenue numeric(14,2) DEFAULT 0 NOT NULL
+);
+
+
+ALTER TABLE public.sales_category_rollup OWNER TO postgres;
+
+CREATE SEQUENCE public.sales_category_rollup_id_seq
+    START WITH 1
+    INCREMENT BY 1
+    NO MINVALUE
+    NO MAXVALUE
+    CACHE 1;
+
+
+ALTER TABLE public.sales_category_rollup_id_seq OWNER TO postgres;
+
+ALTER SEQUENCE public.sales_category_rollup_id_seq OWNED BY public.sales_category_rollup.id;
+
+ALTER TABLE ONLY public.sales_category_rollup ALTER COLUMN id SET DEFAULT nextval('public.sales_category_rollup_id_seq'::regclass);
+
+ALTER TABLE ONLY public.sales_category_rollup
+    ADD CONSTRAINT sales_category_rollup_pkey PRIMARY KEY (id);
+
+ALTER TABLE ONLY public.sales_category_rollup
+    ADD CONSTRAINT sales_category_rollup_key UNIQUE (sales_day, product_category, delivery_type);
+
+
+--
+-- Name: orders_person_created_idx; Type: INDEX; Schema: public; Owner: postgres
+-- Admin order search by customer: one customer's orders, newest first, read as a bounded range scan.
+--
+
+CREATE INDEX orders_person_created_idx ON public.orders USING btree (person_id, created_at DESC, id DESC);
+
+--
+-- Name: orders_status_created_idx; Type: INDEX; Schema: public; Owner: postgres
+-- Admin order search by status: keyset pages over (created_at, id) within one status.
+--
+
+CREATE INDEX orders_status_created_idx ON public.orders USING btree (status, created_at DESC, id DESC);
+
+--
+-- Name: orders_pending_updated_idx; Type: INDEX; Schema: public; Owner: postgres
+-- Expiry of abandoned PENDING orders: the timing wheel is (re)built from keyset pages over (updated_at, id).
+--
+
+CREATE INDEX orders_pending_updated_idx ON public.orders USING btree (updated_at, id) WHERE ((status)::text = 'PENDING'::text);
+
+--
+-- Name: people_role_id_idx; Type: INDEX; Schema: public; Owner: postgres
+-- Customer directory: keyset pages over id within one role.
+--
+
+CREATE INDEX people_role_id_idx ON public.people USING btree (role, id);
+
+--
+-- Name: people_lower_user_name_pattern_idx; Type: INDEX; Schema: public; Owner: postgres
+-- Customer search: case-insensitive prefix matches on username and email.
+--
+
+CREATE INDEX people_lower_user_name_pattern_idx ON public.people USING btree (lower((user_name)::text) text_pattern_ops);
+
+--
+-- Name: people_lower_email_pattern_idx; Type: INDEX; Schema: public; Owner: postgres
+--
+
+CREATE INDEX people_lower_email_pattern_idx ON public.people USING btree (lower((email)::text) text_pattern_ops);
+
+--
+-- Name: people_user_name_trgm_idx; Type: INDEX; Schema: public; Owner: postgres
+-- Customer search: case-insensitive substring matches (LIKE '%q%') on username and email.
+--
+
+CREATE INDEX people_user_name_trgm_idx ON public.people USING gin (lower((user_name)::text) public.gin_trgm_ops);
+
+--
+-- Name: people_email_trgm_idx; Type: INDEX; Schema: public; Owner: postgres
+--
+
+CREATE INDEX people_email_trgm_idx ON public.people USING gin (lower((email)::text) public.gin_trgm_ops);
+
+--
+-- Name: people_lower_user_name_key; Type: INDEX; Schema: public; Owner: postgres
+-- Usernames are unique regardless of letter case; registration relies on this instead of a pre-check.
+--
+
+CREATE UNIQUE INDEX people_lower_user_name_key ON public.people USING btree (lower((user_name)::text));
+
+--
+-- Name: people_lower_email_key; Type: INDEX; Schema: public; Owner: postgres
+--
+
+CREATE UNIQUE INDEX people_lower_email_key ON public.people USING btree (lower((email)::text));
+
+--
+-- Name: people_deactivated_at_idx; Type: INDEX; Schema: public; Owner: postgres
+-- Only deactivated accounts waiting for the retention purge; active accounts never enter it.
+--
+
+CREATE INDEX people_deactivated_at_idx ON public.people USING btree (deactivated_at, id) WHERE (is_deleted AND (deactivated_at IS NOT NULL));
+
+--
+-- Name: people_address_id_idx; Type: INDEX; Schema: public; Owner: postgres
+-- Address reference recounts, and the ON DELETE SET NULL check when an address row is deleted.
+--
+
+CREATE INDEX people_address_id_idx ON public.people USING btree (address_id);
+
+--
+-- Name: orders_address_id_idx; Type: INDEX; Schema: public; Owner: postgres
+--
+
+CREATE INDEX orders_address_id_idx ON public.orders USING btree (address_id);
+
+--
+-- Name: orders_archive_address_id_idx; Type: INDEX; Schema: public; Owner: postgres
+--
+
+CREATE INDEX orders_archive_address_id_idx ON public.orders_archive USING btree (address_id);
+
+--
+-- Name: addresses_unreferenced_idx; Type: INDEX; Schema: public; Owner: postgres
+-- Candidates for the address collector: no references left, or not counted yet (NULL).
+--
+
+CREATE INDEX addresses_unreferenced_idx ON public.addresses USING btree (id) WHERE ((ref_count IS NULL) OR (ref_count <= 0));
+
+--
+-- Name: pickup_slots; Type: TABLE; Schema: public; Owner: postgres
+-- Bookable pickup windows; reserved only moves through conditional UPDATEs, the CHECK is the last line of defence.
+--
+
+CREATE TABLE public.pickup_slots (
+    id bigint NOT NULL,
+    pickup_location_id bigint NOT NULL,
+    slot_start timestamp(6) without time zone NOT NULL,
+    slot_end timestamp(6) without time zone NOT NULL,
+    capacity integer NOT NULL,
+    reserved integer DEFAULT 0 NOT NULL,
+    CONSTRAINT pickup_slots_reserved_check CHECK (((reserved >= 0) AND (reserved <= capacity)))
+);
+
+
+ALTER TABLE public.pickup_slots OWNER TO postgres;
+
+CREATE SEQUENCE public.pickup_slots_id_seq
+    START WITH 1
+    INCREMENT BY 1
+    NO MINVALUE
+    NO MAXVALUE
+    CACHE 1;
+
+
+ALTER TABLE public.pickup_slots_id_seq OWNER TO postgres;
+
+ALTER SEQUENCE public.pickup_slots_id_seq OWNED BY public.pickup_slots.id;
+
+ALTER TABLE ONLY public.pickup_slots ALTER COLUMN id SET DEFAULT nextval('public.pickup_slots_id_seq'::regclass);
+
+ALTER TABLE ONLY public.pickup_slots
+    ADD CONSTRAINT pickup_slots_pkey PRIMARY KEY (id);
+
+-- Also serves the availability query: one location, slot_start range
+ALTER TABLE ONLY public.pickup_slots
+    ADD CONSTRAINT pickup_slots_location_start_key UNIQUE (pickup_location_id, slot_start);
+
+ALTER TABLE ONLY public.pickup_slots
+    ADD CONSTRAINT pickup_slots_pickup_location_id_fkey FOREIGN KEY (pickup_location_id) REFERENCES public.pickup_locations(id) ON DELETE CASCADE;
+
+ALTER TABLE ONLY public.orders
+    ADD CONSTRAINT orders_pickup_slot_id_fkey FOREIGN KEY (pickup_slot_id) REFERENCES public.pickup_slots(id) ON DELETE SET NULL;
+
+--
+-- Accounts deactivated before deactivated_at existed start their retention period when the column is added
+-- (the application repeats this on startup; anonymized accounts, password '!', keep NULL)
+--
+
+UPDATE public.people SET deactivated_at = LOCALTIMESTAMP
+WHERE is_deleted AND deactivated_at IS NULL AND password <> '!';
+
+--
+-- ref_count is added without a default so rows that already exist read NULL ("not counted"), never a
+-- wrong 0 the delete-on-last-detach path would trust. They are counted here once the referencing tables
+-- are in place; only then do new rows start at 0.
+--
+
+UPDATE public.addresses a SET ref_count =
+      (SELECT COUNT(*) FROM public.people p WHERE p.address_id = a.id)
+    + (SELECT COUNT(*) FROM public.orders o WHERE o.address_id = a.id)
+    + (SELECT COUNT(*) FROM public.orders_archive oa WHERE oa.address_id = a.id)
+WHERE a.ref_count IS NULL;
+
+ALTER TABLE ONLY public.addresses ALTER COLUMN ref_count SET DEFAULT 0;
+
 --
 -- PostgreSQL database dump complete
 --
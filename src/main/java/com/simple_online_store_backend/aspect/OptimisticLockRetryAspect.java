@@ -0,0 +1,73 @@
+package com.simple_online_store_backend.aspect;
+
+import com.simple_online_store_backend.exception.ConcurrentUpdateException;
+import jakarta.persistence.OptimisticLockException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retry policy behind {@link RetryOnConflict}: up to max-attempts tries with exponential backoff
+ * and full jitter between them. Runs outside the transaction advice (higher precedence), so every
+ * attempt gets its own transaction. When retries are exhausted a {@link ConcurrentUpdateException}
+ * is thrown, which the API reports as 409.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class OptimisticLockRetryAspect {
+    private static final Logger logger = LoggerFactory.getLogger(OptimisticLockRetryAspect.class);
+
+    private final int maxAttempts;
+    private final long baseBackoffMs;
+    private final long maxBackoffMs;
+
+    public OptimisticLockRetryAspect(@Value("${app.retry.optimistic.max-attempts:4}") int maxAttempts,
+                                     @Value("${app.retry.optimistic.base-backoff-ms:20}") long baseBackoffMs,
+                                     @Value("${app.retry.optimistic.max-backoff-ms:200}") long maxBackoffMs) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseBackoffMs = baseBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+    }
+
+    @Around("@annotation(com.simple_online_store_backend.aspect.RetryOnConflict)")
+    public Object retry(ProceedingJoinPoint pjp) throws Throwable {
+        // Inside someone else's transaction a retry would only see the same stale persistence context
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return pjp.proceed();
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return pjp.proceed();
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                if (attempt >= maxAttempts) {
+                    logger.warn("{} gave up after {} attempts on concurrent updates",
+                            pjp.getSignature().toShortString(), attempt);
+                    throw new ConcurrentUpdateException(
+                            "The resource was modified concurrently, please retry the request", e);
+                }
+                long sleepMs = backoff(attempt);
+                logger.debug("{} lost an optimistic-lock race (attempt {}), retrying in {} ms",
+                        pjp.getSignature().toShortString(), attempt, sleepMs);
+                Thread.sleep(sleepMs);
+            }
+        }
+    }
+
+    // Full jitter: uniform in [0, min(max, base * 2^(attempt-1))]
+    private long backoff(int attempt) {
+        long cap = Math.min(maxBackoffMs, baseBackoffMs << Math.min(attempt - 1, 20));
+        return cap <= 0 ? 0 : ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+}
@@ -0,0 +1,15 @@
+package com.simple_online_store_backend.aspect;
+
+import java.lang.annotation.*;
+
+/**
+ * Re-runs the annotated service method when its transaction loses an optimistic-lock race
+ * (a concurrent writer bumped the entity's @Version first). Each attempt starts a fresh
+ * transaction, so the method re-reads the current state and re-checks its business rules.
+ * Only takes effect when the method is the outermost transactional call.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RetryOnConflict {
+}
@@ -0,0 +1,102 @@
+package com.simple_online_store_backend.config;
+
+import com.simple_online_store_backend.entity.Address;
+import com.simple_online_store_backend.entity.ArchivedOrder;
+import com.simple_online_store_backend.entity.Order;
+import com.simple_online_store_backend.entity.Person;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.util.Objects;
+
+/**
+ * Keeps addresses.ref_count in step with every person, order and archived order saved through JPA.
+ * <p>
+ * After the row itself is written, the old address (if any) is decremented and the new one incremented with a
+ * plain UPDATE on the same connection, so the count commits or rolls back together with the change. Bulk JPQL and
+ * native statements bypass this listener; the repository methods that move addresses in bulk adjust the count
+ * themselves (see AddressRepository).
+ */
+@Component
+public class AddressReferenceCountListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    static final String ADJUST = "UPDATE addresses SET ref_count = ref_count + ? WHERE id = ?";
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public AddressReferenceCountListener(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (tracked(event.getEntity())) {
+            adjust(event.getSession(), addressId(event.getPersister(), event.getState()), 1);
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!tracked(event.getEntity()) || event.getOldState() == null) {
+            return;
+        }
+        Integer before = addressId(event.getPersister(), event.getOldState());
+        Integer after = addressId(event.getPersister(), event.getState());
+        if (!Objects.equals(before, after)) {
+            adjust(event.getSession(), before, -1);
+            adjust(event.getSession(), after, 1);
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (tracked(event.getEntity())) {
+            adjust(event.getSession(), addressId(event.getPersister(), event.getDeletedState()), -1);
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private static boolean tracked(Object entity) {
+        return entity instanceof Person || entity instanceof Order || entity instanceof ArchivedOrder;
+    }
+
+    private static Integer addressId(EntityPersister persister, Object[] state) {
+        if (state == null) {
+            return null;
+        }
+        // getId() does not initialize a lazy proxy
+        return state[persister.getPropertyIndex("address")] instanceof Address address ? address.getId() : null;
+    }
+
+    private static void adjust(EventSource session, Integer addressId, int delta) {
+        if (addressId == null) {
+            return;
+        }
+        session.doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(ADJUST)) {
+                statement.setInt(1, delta);
+                statement.setInt(2, addressId);
+                statement.executeUpdate();
+            }
+        });
+    }
+}
@@ -1,6 +1,7 @@
 package com.simple_online_store_backend.config;
 
 import com.auth0.jwt.interfaces.DecodedJWT;
+import com.simple_online_store_backend.security.CurrentUserContext;
 import com.simple_online_store_backend.security.JWTUtil;
 import com.simple_online_store_backend.security.PersonDetails;
 import com.simple_online_store_backend.service.PersonDetailsService;
@@ -30,12 +31,14 @@ public class JWTFilter extends OncePerRequestFilter {
     private final JWTUtil jwtUtil;
     private final PersonDetailsService personDetailsService;
     private final AuthenticationEntryPoint authenticationEntryPoint;
+    private final CurrentUserContext currentUserContext;
 
     private static final AntPathMatcher PATHS = new AntPathMatcher();
 
     private static final List<String> AUTH_WHITELIST = List.of(
             "/auth/login",
             "/auth/registration",
+            "/auth/username-availability",
             "/auth/refresh",
             "/auth/logout",
             "/auth/dev/**",
@@ -50,10 +53,12 @@ public class JWTFilter extends OncePerRequestFilter {
     @Autowired
     public JWTFilter(JWTUtil jwtUtil,
                      PersonDetailsService personDetailsService,
-                     AuthenticationEntryPoint authenticationEntryPoint) {
+                     AuthenticationEntryPoint authenticationEntryPoint,
+                     CurrentUserContext currentUserContext) {
         this.jwtUtil = jwtUtil;
         this.personDetailsService = personDetailsService;
         this.authenticationEntryPoint = authenticationEntryPoint;
+        this.currentUserContext = currentUserContext;
     }
 
     @Override
@@ -121,6 +126,7 @@ public class JWTFilter extends OncePerRequestFilter {
 
             var auth = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
             SecurityContextHolder.getContext().setAuthentication(auth);
+            currentUserContext.set(user.getPerson());
             chain.doFilter(request, response);
 
         } catch (com.auth0.jwt.exceptions.TokenExpiredException e) {
@@ -0,0 +1,34 @@
+package com.simple_online_store_backend.config;
+
+import com.simple_online_store_backend.service.OrderStatusStreamService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Subscribes this node to the order status channel so status changes made on any node reach the
+ * SSE connections held here. Tests (no Redis) switch it off with app.orders.stream.redis-enabled=false.
+ */
+@Configuration
+@ConditionalOnProperty(value = "app.orders.stream.redis-enabled", havingValue = "true", matchIfMissing = true)
+public class OrderStreamRedisConfig {
+
+    @Bean
+    public RedisMessageListenerContainer orderStreamListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                      OrderStatusStreamService streamService) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        // Delivery may block on a slow client's socket; virtual threads keep that cheap
+        container.setTaskExecutor(new VirtualThreadTaskExecutor("order-stream-"));
+        container.addMessageListener(
+                (message, pattern) -> streamService.onRedisMessage(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(OrderStatusStreamService.CHANNEL));
+        return container;
+    }
+}
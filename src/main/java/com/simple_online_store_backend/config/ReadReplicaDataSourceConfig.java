@@ -0,0 +1,81 @@
+package com.simple_online_store_backend.config;
+
+import com.simple_online_store_backend.datasource.ReadReplicaRoutingDataSource;
+import com.simple_online_store_backend.datasource.ReadYourWritesTracker;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the auto-configured DataSource with primary + read replicas when
+ * app.datasource.routing.enabled=true. The primary still comes from spring.datasource.*.
+ */
+@Configuration
+@ConditionalOnProperty(value = "app.datasource.routing.enabled", havingValue = "true")
+@EnableConfigurationProperties(ReadReplicaDataSourceConfig.ReplicaProperties.class)
+public class ReadReplicaDataSourceConfig {
+
+    @ConfigurationProperties("app.datasource.routing")
+    public record ReplicaProperties(List<Replica> replicas) {
+        public ReplicaProperties {
+            replicas = replicas == null ? List.of() : replicas;
+        }
+
+        public record Replica(String url, String username, String password, Integer maxPoolSize) {
+        }
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(
+            @Value("${app.datasource.routing.read-your-writes-window-ms:5000}") long windowMs) {
+        return new ReadYourWritesTracker(windowMs);
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReadReplicaRoutingDataSource readReplicaRoutingDataSource(
+            DataSourceProperties primaryProperties,
+            ReplicaProperties replicaProperties,
+            ReadYourWritesTracker readYourWritesTracker,
+            @Value("${app.datasource.routing.validation-timeout-seconds:2}") int validationTimeoutSeconds) {
+        HikariDataSource primary = primaryProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+
+        List<DataSource> replicas = new ArrayList<>();
+        int index = 0;
+        for (ReplicaProperties.Replica r : replicaProperties.replicas()) {
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(r.url())
+                    .username(r.username())
+                    .password(r.password())
+                    .build();
+            replica.setPoolName("replica-" + index++);
+            replica.setReadOnly(true);
+            if (r.maxPoolSize() != null) {
+                replica.setMaximumPoolSize(r.maxPoolSize());
+            }
+            // Start even if a replica is down; the health check brings it in later
+            replica.setInitializationFailTimeout(-1);
+            replicas.add(replica);
+        }
+        return new ReadReplicaRoutingDataSource(primary, replicas, readYourWritesTracker, validationTimeoutSeconds);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
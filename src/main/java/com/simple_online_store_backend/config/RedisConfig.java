@@ -32,6 +32,9 @@ public class RedisConfig {
          */
         template.setKeySerializer(new StringRedisSerializer()); // Specifies the serializer for Redis keys.
         template.setValueSerializer(new StringRedisSerializer()); // Specifies the serializer for Redis values.
+        // Hash fields and values (e.g. cart lines "productId" -> "quantity") are plain strings as well.
+        template.setHashKeySerializer(new StringRedisSerializer());
+        template.setHashValueSerializer(new StringRedisSerializer());
         return template;
     }
 }
@@ -0,0 +1,30 @@
+package com.simple_online_store_backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Turns on @Scheduled background jobs (outbox publisher, etc.).
+ * Tests switch it off with app.scheduling.enabled=false and call the jobs directly.
+ * <p>
+ * Jobs get a pool instead of Boot's single scheduler thread: long throttled runs (account retention, address
+ * collector) must not hold up the second-level ticks such as order expiry and its Redis lease renewal.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(value = "app.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(@Value("${app.scheduling.pool-size:8}") int poolSize) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("scheduling-");
+        scheduler.setWaitForTasksToCompleteOnShutdown(false);
+        return scheduler;
+    }
+}
@@ -83,16 +83,20 @@ public class SecurityConfig {
                                 "/v3/api-docs/**",
                                 "/v3/api-docs.yaml"
                         ).permitAll()
-                        .requestMatchers("/auth/login", "/auth/registration", "/auth/refresh", "/auth/logout", "/error",
-                                "/people/all-customers", "/people/restore-account", "/product").permitAll()
-                        .requestMatchers("/pickup/all-pickup-location", "/orders/{id}", "/product/all-active-products").hasAnyAuthority("ROLE_USER", "ROLE_ADMIN")
+                        .requestMatchers("/auth/login", "/auth/registration", "/auth/username-availability", "/auth/refresh", "/auth/logout", "/error",
+                                "/people/restore-account", "/product").permitAll()
+                        // Must precede "/orders/{id}", which would otherwise match these paths
+                        .requestMatchers("/orders/bulk-status", "/orders/status-counts", "/orders/export", "/orders/search", "/analytics/**").hasAuthority("ROLE_ADMIN")
+                        .requestMatchers("/orders/stream").hasAuthority("ROLE_USER")
+                        .requestMatchers("/pickup/all-pickup-location", "/pickup/nearest", "/pickup/{id}/available-slots", "/orders/{id}", "/product/all-active-products").hasAnyAuthority("ROLE_USER", "ROLE_ADMIN")
                         .requestMatchers("/auth/logout-dev/**", "/auth/refresh-dev/**", "/auth/dev/**").permitAll()
                         .requestMatchers("/address/add-address", "/address/update-address",
                                 "/people/deactivate-account", "/orders/create-order", "/orders/all-my-orders", "/orders/{id}/cancel-order",
-                                "/orders/{id}/reactivate-order", "/address/delete-address", "/people/promote").hasAuthority("ROLE_USER")
+                                "/orders/{id}/reactivate-order", "/address/delete-address", "/people/promote", "/cart/**").hasAuthority("ROLE_USER")
                         .requestMatchers("/product/add-product", "/product/{id}/update-product",
                                 "/pickup/add-pickup-location", "/pickup/{id}/close-pick-up-location", "/pickup/{id}/open-pick-up-location",
-                                "/pickup/{id}/update-pick-up-location", "/orders").hasAuthority("ROLE_ADMIN")
+                                "/pickup/{id}/update-pick-up-location", "/pickup/{id}/add-slots", "/pickup/bulk-status", "/orders", "/people/all-customers", "/people/search", "/people/deactivation-jobs",
+                                "/people/deactivation-jobs/{jobId}", "/people/provisioning").hasAuthority("ROLE_ADMIN")
                         .requestMatchers("/people/profile").authenticated()
                         .requestMatchers("/actuator/health", "/actuator/info").permitAll()
                         .anyRequest().authenticated()
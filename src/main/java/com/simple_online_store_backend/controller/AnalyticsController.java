@@ -0,0 +1,291 @@
+package com.simple_online_store_backend.controller;
+
+import com.simple_online_store_backend.dto.analytics.CategorySalesResponse;
+import com.simple_online_store_backend.dto.analytics.DailySalesResponse;
+import com.simple_online_store_backend.dto.analytics.DeliveryTypeSalesResponse;
+import com.simple_online_store_backend.exception.ErrorResponseDTO;
+import com.simple_online_store_backend.service.SalesRollupService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Tag(name = "Analytics", description = "Sales dashboards (admin)")
+@RestController
+@RequestMapping("/analytics")
+public class AnalyticsController {
+    private static final int DEFAULT_RANGE_DAYS = 30;
+
+    private final SalesRollupService salesRollupService;
+
+    public AnalyticsController(SalesRollupService salesRollupService) {
+        this.salesRollupService = salesRollupService;
+    }
+
+    @Operation(
+            summary = "Daily sales by delivery channel (admin)",
+            description = """
+        Returns one row per day and delivery channel (`PICKUP` / `COURIER`) with the number of booked
+        orders, ordered items and revenue. Figures come from pre-aggregated rollups that are updated
+        whenever an order is created, cancelled or reactivated, so the call reads a few rows per day
+        instead of scanning orders. Days without orders are omitted.
+
+        ### How to test in Swagger UI
+
+        **200 OK:**
+        1. `POST /auth/login` as admin → **Authorize**.
+        2. Create a few orders as a user (`POST /orders/create-order`), cancel one of them.
+        3. Call this endpoint without parameters → the last 30 days; cancelled orders are not counted.
+
+        **400 VALIDATION_ERROR:** `from` after `to`, or a range longer than 366 days.
+
+        **401 UNAUTHORIZED / 403 FORBIDDEN:**
+        - No token → `401`; token of a `ROLE_USER` → `403`.
+        """
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Daily figures ordered by day",
+                    content = @Content(
+                            mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = DailySalesResponse.class)),
+                            examples = @ExampleObject(name = "Two days", value = """
+                                [
+                                  { "day": "2025-01-10", "deliveryType": "COURIER", "orders": 3, "units": 5, "revenue": 1520.00 },
+                                  { "day": "2025-01-10", "deliveryType": "PICKUP",  "orders": 1, "units": 1, "revenue": 799.00 },
+                                  { "day": "2025-01-11", "deliveryType": "PICKUP",  "orders": 2, "units": 4, "revenue": 260.50 }
+                                ]""")
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Invalid date range",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class),
+                            examples = @ExampleObject(name = "VALIDATION_ERROR", value = """
+                                {
+                                  "status": 400,
+                                  "code": "VALIDATION_ERROR",
+                                  "message": "'from' must not be after 'to'",
+                                  "path": "/analytics/sales/daily"
+                                }""")
+                    )
+            ),
+            @ApiResponse(responseCode = "401", description = "Unauthorized",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class),
+                            examples = @ExampleObject(name = "MISSING_AUTH_HEADER", value = """
+                                {
+                                  "status": 401,
+                                  "code": "MISSING_AUTH_HEADER",
+                                  "message": "Missing or invalid Authorization header",
+                                  "path": "/analytics/sales/daily"
+                                }""")
+                    )
+            ),
+            @ApiResponse(responseCode = "403", description = "Forbidden",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class),
+                            examples = @ExampleObject(name = "ACCESS_DENIED", value = """
+                                {
+                                  "status": 403,
+                                  "code": "ACCESS_DENIED",
+                                  "message": "Access is denied",
+                                  "path": "/analytics/sales/daily"
+                                }""")
+                    )
+            )
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping("/sales/daily")
+    public ResponseEntity<List<DailySalesResponse>> dailySales(
+            @Parameter(description = "First day (inclusive), ISO date; defaults to 29 days before `to`", example = "2025-01-01")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day (inclusive), ISO date; defaults to today", example = "2025-01-31")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_RANGE_DAYS - 1);
+        return ResponseEntity.ok(salesRollupService.dailySales(start, end));
+    }
+
+    @Operation(
+            summary = "Sales by product category (admin)",
+            description = """
+        Returns booked sales per product category summed over the range, highest revenue first.
+        `orders` counts orders that contain at least one item of the category.
+
+        ### How to test in Swagger UI
+
+        **200 OK:**
+        1. `POST /auth/login` as admin → **Authorize**.
+        2. Create a few orders as a user (`POST /orders/create-order`), cancel one of them.
+        3. Call this endpoint without parameters → the last 30 days; cancelled orders are not counted.
+
+        **400 VALIDATION_ERROR:** `from` after `to`, or a range longer than 366 days.
+
+        **401 UNAUTHORIZED / 403 FORBIDDEN:**
+        - No token → `401`; token of a `ROLE_USER` → `403`.
+        """
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Category figures, highest revenue first",
+                    content = @Content(
+                            mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = CategorySalesResponse.class)),
+                            examples = @ExampleObject(name = "Two categories", value = """
+                                [
+                                  { "category": "LAPTOPS",     "orders": 4, "units": 4, "revenue": 5196.00 },
+                                  { "category": "SMARTPHONES", "orders": 6, "units": 7, "revenue": 4893.00 }
+                                ]""")
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Invalid date range",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class),
+                            examples = @ExampleObject(name = "VALIDATION_ERROR", value = """
+                                {
+                                  "status": 400,
+                                  "code": "VALIDATION_ERROR",
+                                  "message": "'from' must not be after 'to'",
+                                  "path": "/analytics/sales/categories"
+                                }""")
+                    )
+            ),
+            @ApiResponse(responseCode = "401", description = "Unauthorized",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class),
+                            examples = @ExampleObject(name = "MISSING_AUTH_HEADER", value = """
+                                {
+                                  "status": 401,
+                                  "code": "MISSING_AUTH_HEADER",
+                                  "message": "Missing or invalid Authorization header",
+                                  "path": "/analytics/sales/categories"
+                                }""")
+                    )
+            ),
+            @ApiResponse(responseCode = "403", description = "Forbidden",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class),
+                            examples = @ExampleObject(name = "ACCESS_DENIED", value = """
+                                {
+                                  "status": 403,
+                                  "code": "ACCESS_DENIED",
+                                  "message": "Access is denied",
+                                  "path": "/analytics/sales/categories"
+                                }""")
+                    )
+            )
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping("/sales/categories")
+    public ResponseEntity<List<CategorySalesResponse>> categorySales(
+            @Parameter(description = "First day (inclusive), ISO date; defaults to 29 days before `to`", example = "2025-01-01")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day (inclusive), ISO date; defaults to today", example = "2025-01-31")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_RANGE_DAYS - 1);
+        return ResponseEntity.ok(salesRollupService.categorySales(start, end));
+    }
+
+    @Operation(
+            summary = "Pickup vs courier split (admin)",
+            description = """
+        Returns booked sales per delivery channel summed over the range: orders with a pickup location
+        count as `PICKUP`, orders delivered to an address as `COURIER`.
+
+        ### How to test in Swagger UI
+
+        **200 OK:**
+        1. `POST /auth/login` as admin → **Authorize**.
+        2. Create a few orders as a user (`POST /orders/create-order`), cancel one of them.
+        3. Call this endpoint without parameters → the last 30 days; cancelled orders are not counted.
+
+        **400 VALIDATION_ERROR:** `from` after `to`, or a range longer than 366 days.
+
+        **401 UNAUTHORIZED / 403 FORBIDDEN:**
+        - No token → `401`; token of a `ROLE_USER` → `403`.
+        """
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Channel figures",
+                    content = @Content(
+                            mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = DeliveryTypeSalesResponse.class)),
+                            examples = @ExampleObject(name = "Both channels", value = """
+                                [
+                                  { "deliveryType": "COURIER", "orders": 12, "units": 25, "revenue": 8120.00 },
+                                  { "deliveryType": "PICKUP",  "orders": 9,  "units": 11, "revenue": 3075.50 }
+                                ]""")
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Invalid date range",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class),
+                            examples = @ExampleObject(name = "VALIDATION_ERROR", value = """
+                                {
+                                  "status": 400,
+                                  "code": "VALIDATION_ERROR",
+                                  "message": "'from' must not be after 'to'",
+                                  "path": "/analytics/sales/delivery-types"
+                                }""")
+                    )
+            ),
+            @ApiResponse(responseCode = "401", description = "Unauthorized",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class),
+                            examples = @ExampleObject(name = "MISSING_AUTH_HEADER", value = """
+                                {
+                                  "status": 401,
+                                  "code": "MISSING_AUTH_HEADER",
+                                  "message": "Missing or invalid Authorization header",
+                                  "path": "/analytics/sales/delivery-types"
+                                }""")
+                    )
+            ),
+            @ApiResponse(responseCode = "403", description = "Forbidden",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class),
+                            examples = @ExampleObject(name = "ACCESS_DENIED", value = """
+                                {
+                                  "status": 403,
+                                  "code": "ACCESS_DENIED",
+                                  "message": "Access is denied",
+                                  "path": "/analytics/sales/delivery-types"
+                                }""")
+                    )
+            )
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping("/sales/delivery-types")
+    public ResponseEntity<List<DeliveryTypeSalesResponse>> deliveryTypeSales(
+            @Parameter(description = "First day (inclusive), ISO date; defaults to 29 days before `to`", example = "2025-01-01")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day (inclusive), ISO date; defaults to today", example = "2025-01-31")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_RANGE_DAYS - 1);
+        return ResponseEntity.ok(salesRollupService.deliveryTypeSales(start, end));
+    }
+}
@@ -4,6 +4,8 @@ import com.simple_online_store_backend.dto.login.LoginRequestDTO;
 import com.simple_online_store_backend.dto.person.JwtResponse;
 import com.simple_online_store_backend.dto.person.PersonRequestDTO;
 import com.simple_online_store_backend.dto.person.PersonResponseDTO;
+import com.simple_online_store_backend.dto.person.UsernameAvailabilityRequest;
+import com.simple_online_store_backend.dto.person.UsernameAvailabilityResponse;
 import com.simple_online_store_backend.exception.ErrorResponseDTO;
 import com.simple_online_store_backend.exception.ErrorUtil;
 import com.simple_online_store_backend.exception.InvalidRefreshTokenException;
@@ -12,11 +14,12 @@ import com.simple_online_store_backend.security.PersonDetails;
 import com.simple_online_store_backend.service.PeopleService;
 import com.simple_online_store_backend.service.PersonDetailsService;
 import com.simple_online_store_backend.service.RefreshTokenService;
-import com.simple_online_store_backend.util.PersonValidator;
+import com.simple_online_store_backend.service.UsernameAvailabilityService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.headers.Header;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -40,6 +43,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.net.URI;
 import java.time.Duration;
+import java.util.List;
 import java.util.Map;
 
 @Tag(name = "Authentication", description = "Endpoints for user authentication and authorization")
@@ -49,18 +53,18 @@ public class AuthController {
     private final JWTUtil jwtUtil;
     private final AuthenticationManager authenticationManager;
     private final PeopleService peopleService;
-    private final PersonValidator personValidator;
     private final RefreshTokenService refreshTokenService;
     private final PersonDetailsService personDetailsService;
+    private final UsernameAvailabilityService usernameAvailabilityService;
     private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
 
-    public AuthController(JWTUtil jwtUtil, AuthenticationManager authenticationManager, PeopleService peopleService, PersonValidator personValidator, RefreshTokenService refreshTokenService, PersonDetailsService personDetailsService) {
+    public AuthController(JWTUtil jwtUtil, AuthenticationManager authenticationManager, PeopleService peopleService, RefreshTokenService refreshTokenService, PersonDetailsService personDetailsService, UsernameAvailabilityService usernameAvailabilityService) {
         this.jwtUtil = jwtUtil;
         this.authenticationManager = authenticationManager;
         this.peopleService = peopleService;
-        this.personValidator = personValidator;
         this.refreshTokenService = refreshTokenService;
         this.personDetailsService = personDetailsService;
+        this.usernameAvailabilityService = usernameAvailabilityService;
     }
 
     @Operation(summary = "Login a user",
@@ -191,7 +195,14 @@ public class AuthController {
     }
 
     @Operation(summary = "Register new user",
-            description = "Creates a new user account",
+            description = """
+                    Creates a new user account with a single INSERT.
+                    
+                    Usernames and emails are unique regardless of letter case (emails are stored lower-cased).
+                    A duplicate is rejected by the database constraints, so two concurrent sign-ups with the same
+                    name cannot both succeed; the loser gets the usual 400 field error, e.g.
+                    `userName - Person with this username is already existed!;` or `email - Person with this email already exists;`.
+                    """,
             requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
                     description = "Registration details",
                     required = true,
@@ -269,12 +280,11 @@ public class AuthController {
     public ResponseEntity<?> performRegistration(@RequestBody @Valid PersonRequestDTO dto,
                                                           BindingResult bindingResult) {
         logger.info("Beginning of the method performRegistration");
-        personValidator.validate(dto, bindingResult);
-        logger.info("Validation with personValidator was successful");
         if (bindingResult.hasErrors())
             ErrorUtil.returnErrorsToClient(bindingResult);
         logger.info("Middle of the method");
 
+        // Uniqueness is enforced by the insert itself, see PeopleService.register
         PersonResponseDTO saved = peopleService.register(dto);
 
         URI location = URI.create("/users/" + saved.getId());
@@ -282,6 +292,57 @@ public class AuthController {
         return ResponseEntity.created(location).body(saved);
     }
 
+    @Operation(summary = "Check which usernames are still free",
+            description = """
+                    Checks up to 50 candidate usernames at once, case-insensitively, for the sign-up form.
+                    
+                    Names are first looked up in an in-memory Bloom filter of taken usernames: a name the filter
+                    has never seen is reported free without touching the database, and only possible matches are
+                    confirmed with one query. The answer is advisory — a name can be taken between this call and
+                    `/auth/registration`, which remains the authoritative check.
+                    """,
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Candidate usernames",
+                    required = true,
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = UsernameAvailabilityRequest.class),
+                            examples = @ExampleObject(
+                                    name = "Two candidates",
+                                    value = "{ \"userNames\": [\"maria12\", \"maria_12\"] }"
+                            )
+                    )
+            ),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Availability per name, in request order",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    array = @ArraySchema(schema = @Schema(implementation = UsernameAvailabilityResponse.class)),
+                                    examples = @ExampleObject(
+                                            name = "OK",
+                                            value = "[ { \"userName\": \"maria12\", \"available\": false },\n" +
+                                                    "  { \"userName\": \"maria_12\", \"available\": true } ]"
+                                    ))),
+                    @ApiResponse(responseCode = "400", description = "Empty list, more than 50 names or a blank name",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ErrorResponseDTO.class),
+                                    examples = @ExampleObject(
+                                            name = "Bad Request",
+                                            value = "{ \"status\": 400,\n" +
+                                                    "    \"message\": \"userNames - No more than 50 usernames per request;\",\n" +
+                                                    "    \"path\": \"/auth/username-availability\",\n" +
+                                                    "    \"code\": \"VALIDATION_ERROR\"}"
+                                    )))
+            })
+    @PostMapping("/username-availability")
+    public ResponseEntity<List<UsernameAvailabilityResponse>> checkUsernameAvailability(
+            @RequestBody @Valid UsernameAvailabilityRequest request, BindingResult bindingResult) {
+        if (bindingResult.hasErrors())
+            ErrorUtil.returnErrorsToClient(bindingResult);
+        return ResponseEntity.ok(usernameAvailabilityService.check(request.getUserNames()));
+    }
+
     @Operation(
             summary = "Refresh user access token",
             description = """
@@ -0,0 +1,272 @@
+package com.simple_online_store_backend.controller;
+
+import com.simple_online_store_backend.dto.cart.*;
+import com.simple_online_store_backend.dto.order.OrderDetailsResponse;
+import com.simple_online_store_backend.exception.ErrorResponseDTO;
+import com.simple_online_store_backend.exception.ErrorUtil;
+import com.simple_online_store_backend.service.CartService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@Tag(name = "Cart", description = "Server-side shopping cart of the authenticated user")
+@RestController
+@RequestMapping("/cart")
+public class CartController {
+    private final CartService cartService;
+
+    public CartController(CartService cartService) {
+        this.cartService = cartService;
+    }
+
+    @Operation(
+            summary = "View the cart",
+            description = """
+        Returns the cart with current product names and prices. Products that were removed or are
+        no longer available stay in the cart with `available = false` and are left out of `total`;
+        checkout fails until they are removed. Viewing the cart extends its lifetime.
+
+        ### How to test in Swagger UI
+
+        **200 OK:**
+        1. `POST /auth/login` as a user with `ROLE_USER` → **Authorize**.
+        2. `POST /cart/items` a couple of times, then call this endpoint.
+
+        **401 UNAUTHORIZED / 403 FORBIDDEN:** no token → `401`; token of a `ROLE_ADMIN` → `403`.
+        """
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Current cart",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = CartResponse.class),
+                            examples = @ExampleObject(name = "Two lines", value = """
+                                {
+                                  "items": [
+                                    { "productId": 3, "productName": "Wireless Headphones", "price": 99.99, "quantity": 2, "available": true },
+                                    { "productId": 7, "productName": "USB-C Cable", "price": 9.99, "quantity": 1, "available": true }
+                                  ],
+                                  "totalQuantity": 3,
+                                  "total": 209.97
+                                }""")
+                    )
+            ),
+            @ApiResponse(responseCode = "401", description = "Unauthorized",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class))),
+            @ApiResponse(responseCode = "403", description = "Forbidden",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class)))
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping
+    public ResponseEntity<CartResponse> getCart() {
+        return ResponseEntity.ok(cartService.getCart());
+    }
+
+    @Operation(
+            summary = "Add a product to the cart",
+            description = """
+        Adds `quantity` units of the product to the cart (a new line or on top of the existing one)
+        and returns the raw cart lines. The product is not looked up here; it is checked on view and
+        at checkout.
+
+        ### How to test in Swagger UI
+
+        **200 OK:** `{ "productId": 1, "quantity": 2 }`.
+
+        **400 VALIDATION_ERROR:**
+        - missing/negative fields;
+        - more than 99 units of one product or more than 50 different products.
+        """
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Cart lines after the change",
+                    content = @Content(
+                            mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = CartLineResponse.class)),
+                            examples = @ExampleObject(name = "Lines", value = """
+                                [
+                                  { "productId": 1, "quantity": 2 },
+                                  { "productId": 4, "quantity": 1 }
+                                ]""")
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Validation failed",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class),
+                            examples = @ExampleObject(name = "VALIDATION_ERROR", value = """
+                                {
+                                  "status": 400,
+                                  "code": "VALIDATION_ERROR",
+                                  "message": "Quantity of a product cannot exceed 99",
+                                  "path": "/cart/items"
+                                }""")
+                    )
+            ),
+            @ApiResponse(responseCode = "401", description = "Unauthorized",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class))),
+            @ApiResponse(responseCode = "403", description = "Forbidden",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class)))
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    @PostMapping("/items")
+    public ResponseEntity<List<CartLineResponse>> addItem(@RequestBody @Valid CartItemRequest request,
+                                                          BindingResult bindingResult) {
+        if (bindingResult.hasErrors()) {
+            ErrorUtil.returnErrorsToClient(bindingResult);
+        }
+        return ResponseEntity.ok(cartService.addItem(request));
+    }
+
+    @Operation(
+            summary = "Set the quantity of a cart line",
+            description = """
+        Replaces the quantity of the product in the cart; `0` removes the line.
+
+        **400 VALIDATION_ERROR:** negative quantity, more than 99 units or more than 50 different products.
+        """
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Cart lines after the change",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = CartLineResponse.class)))),
+            @ApiResponse(responseCode = "400", description = "Validation failed",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class))),
+            @ApiResponse(responseCode = "401", description = "Unauthorized",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class))),
+            @ApiResponse(responseCode = "403", description = "Forbidden",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class)))
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    @PutMapping("/items/{productId}")
+    public ResponseEntity<List<CartLineResponse>> setQuantity(
+            @Parameter(description = "Product ID", example = "1") @PathVariable int productId,
+            @RequestBody @Valid CartQuantityRequest request, BindingResult bindingResult) {
+        if (bindingResult.hasErrors()) {
+            ErrorUtil.returnErrorsToClient(bindingResult);
+        }
+        return ResponseEntity.ok(cartService.setQuantity(productId, request.getQuantity()));
+    }
+
+    @Operation(summary = "Remove a product from the cart",
+            description = "Removes the line of the product; removing a product that is not in the cart is a no-op.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Cart lines after the change",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = CartLineResponse.class)))),
+            @ApiResponse(responseCode = "401", description = "Unauthorized",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class))),
+            @ApiResponse(responseCode = "403", description = "Forbidden",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class)))
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    @DeleteMapping("/items/{productId}")
+    public ResponseEntity<List<CartLineResponse>> removeItem(
+            @Parameter(description = "Product ID", example = "1") @PathVariable int productId) {
+        return ResponseEntity.ok(cartService.removeItem(productId));
+    }
+
+    @Operation(summary = "Empty the cart", description = "Deletes every line of the cart.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Cart emptied"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class))),
+            @ApiResponse(responseCode = "403", description = "Forbidden",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class)))
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    @DeleteMapping
+    public ResponseEntity<Void> clear() {
+        cartService.clear();
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(
+            summary = "Checkout: turn the cart into an order",
+            description = """
+        Creates a `PENDING` order from all cart lines (one order item per unit) with the chosen
+        delivery option, using the same rules as `POST /orders/create-order`. On success the cart is
+        gone; if the order cannot be created the lines are put back into the cart.
+        Two checkouts of the same cart running at once create at most one order.
+
+        ### How to test in Swagger UI
+
+        **200 OK:**
+        1. `POST /cart/items` → add products.
+        2. Call this endpoint with `{ "addressId": 1 }` or `{ "pickupLocationId": 1 }`.
+        3. `GET /cart` → empty.
+
+        **400 VALIDATION_ERROR:** empty cart, both or neither delivery options, unavailable product.
+
+        **404 ENTITY_NOT_FOUND:** a product, the address or the pickup location does not exist.
+        """
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Order created",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = OrderDetailsResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Validation failed",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class),
+                            examples = {
+                                    @ExampleObject(name = "VALIDATION_ERROR (empty cart)", value = """
+                                        {
+                                          "status": 400,
+                                          "code": "VALIDATION_ERROR",
+                                          "message": "Your cart is empty",
+                                          "path": "/cart/checkout"
+                                        }"""),
+                                    @ExampleObject(name = "VALIDATION_ERROR (unavailable)", value = """
+                                        {
+                                          "status": 400,
+                                          "code": "VALIDATION_ERROR",
+                                          "message": "Some products are not available for order",
+                                          "path": "/cart/checkout"
+                                        }""")
+                            })
+            ),
+            @ApiResponse(responseCode = "401", description = "Unauthorized",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class))),
+            @ApiResponse(responseCode = "403", description = "Forbidden",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Product, address or pickup location not found",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class)))
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    @PostMapping("/checkout")
+    public ResponseEntity<OrderDetailsResponse> checkout(@RequestBody @Valid CartCheckoutRequest request,
+                                                         BindingResult bindingResult) {
+        if (bindingResult.hasErrors()) {
+            ErrorUtil.returnErrorsToClient(bindingResult);
+        }
+        return ResponseEntity.ok(cartService.checkout(request));
+    }
+}
@@ -4,7 +4,14 @@ import com.simple_online_store_backend.dto.order.*;
 import com.simple_online_store_backend.exception.ErrorResponseDTO;
 import com.simple_online_store_backend.exception.ErrorUtil;
 import com.simple_online_store_backend.service.AdminService;
+import com.simple_online_store_backend.service.OrderFulfilmentService;
+import com.simple_online_store_backend.enums.ExportFormat;
+import com.simple_online_store_backend.enums.OrderStatus;
+import com.simple_online_store_backend.service.OrderExportService;
+import com.simple_online_store_backend.service.OrderSearchService;
 import com.simple_online_store_backend.service.OrderService;
+import com.simple_online_store_backend.service.OrderStatusCounterService;
+import com.simple_online_store_backend.service.OrderStatusStreamService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -17,10 +24,17 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.Parameter;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @Tag(name = "Order", description = "Endpoints for work with orders")
@@ -29,11 +43,23 @@ import java.util.List;
 public class OrderController {
     private final OrderService orderService;
     private final AdminService adminService;
+    private final OrderFulfilmentService orderFulfilmentService;
+    private final OrderStatusCounterService orderStatusCounterService;
+    private final OrderExportService orderExportService;
+    private final OrderSearchService orderSearchService;
+    private final OrderStatusStreamService orderStatusStreamService;
 
     @Autowired
-    public OrderController(OrderService orderService, AdminService adminService) {
+    public OrderController(OrderService orderService, AdminService adminService, OrderFulfilmentService orderFulfilmentService,
+                           OrderStatusCounterService orderStatusCounterService, OrderExportService orderExportService,
+                           OrderSearchService orderSearchService, OrderStatusStreamService orderStatusStreamService) {
         this.orderService = orderService;
         this.adminService = adminService;
+        this.orderFulfilmentService = orderFulfilmentService;
+        this.orderStatusCounterService = orderStatusCounterService;
+        this.orderExportService = orderExportService;
+        this.orderSearchService = orderSearchService;
+        this.orderStatusStreamService = orderStatusStreamService;
     }
 
     @Operation(
@@ -185,6 +211,52 @@ public class OrderController {
         return ResponseEntity.ok(list);
     }
 
+    @Operation(
+            summary = "Stream status changes of my orders (SSE)",
+            description = """
+        Opens a Server-Sent Events stream that pushes an `order-status` event whenever one of the
+        caller's orders is created or changes status, so there is no need to poll `GET /orders/{id}`.
+        Each event carries an `id`; a comment line is sent every 15 seconds to keep the connection open.
+
+        **Reconnect:** browsers' `EventSource` reconnects on its own and sends the last seen id in the
+        `Last-Event-ID` header; missed events are replayed. If the id is too old to replay, a `resync`
+        event is sent and the client should reload `GET /orders/all-my-orders`.
+
+        ### How to test
+        Swagger UI cannot show a stream. Use curl with a `ROLE_USER` token:
+        `curl -N -H "Authorization: Bearer <token>" http://localhost:8080/orders/stream`,
+        then cancel one of your orders in another window.
+
+        **401 UNAUTHORIZED / 403 FORBIDDEN:** no token → `401`; token of a `ROLE_ADMIN` → `403`.
+        """
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Event stream",
+                    content = @Content(
+                            mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                            schema = @Schema(implementation = OrderStatusUpdateResponse.class),
+                            examples = @ExampleObject(name = "order-status", value = """
+                                id:1741947330000-42-CANCELLED
+                                event:order-status
+                                data:{"eventId":"1741947330000-42-CANCELLED","orderId":42,"previousStatus":"PENDING","status":"CANCELLED","occurredAt":"2025-03-14T10:15:30"}
+                                """)
+                    )
+            ),
+            @ApiResponse(responseCode = "401", description = "Unauthorized",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class))),
+            @ApiResponse(responseCode = "403", description = "Forbidden",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class)))
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamMyOrders(
+            @Parameter(description = "Id of the last event received, sent by EventSource on reconnect")
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return orderStatusStreamService.subscribe(lastEventId);
+    }
+
     @Operation(
             summary = "Get order by id",
             description = """
@@ -739,6 +811,9 @@ public class OrderController {
         **404 ENTITY_NOT_FOUND:**
         - Use a non-existing order id (e.g., `1073741824`) → `404`.
 
+        **409 ORDER_ARCHIVED:**
+        - Use the id of an order already moved to the archive (finished orders older than `app.orders.archive.age-days`) → `409`; archived orders are read-only.
+
         **423 ACCOUNT_LOCKED:**
         1. Login as user → Authorize.
         2. `POST /auth/dev/_lock?username=user` → the account becomes locked.
@@ -857,6 +932,22 @@ public class OrderController {
                             )
                     )
             ),
+            @ApiResponse(responseCode = "409", description = "Order is archived",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class),
+                            examples = @ExampleObject(
+                                    name = "ORDER_ARCHIVED",
+                                    value = """
+                                {
+                                  "status": 409,
+                                  "code": "ORDER_ARCHIVED",
+                                  "message": "Order 101 is archived and can no longer be changed",
+                                  "path": "/orders/101/cancel-order"
+                                }"""
+                            )
+                    )
+            ),
             @ApiResponse(responseCode = "423", description = "Account is locked/deactivated",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = ErrorResponseDTO.class),
@@ -921,6 +1012,9 @@ public class OrderController {
         **404 ENTITY_NOT_FOUND:**
         - Use a non-existing order id (e.g., `1073741824`) → `404`.
 
+        **409 ORDER_ARCHIVED:**
+        - Use the id of an order already moved to the archive (finished orders older than `app.orders.archive.age-days`) → `409`; archived orders are read-only.
+
         **423 ACCOUNT_LOCKED:**
         - Log in as a blocked/deactivated user (check seeded demo data) → `423`.
 
@@ -1036,6 +1130,22 @@ public class OrderController {
                             )
                     )
             ),
+            @ApiResponse(responseCode = "409", description = "Order is archived",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class),
+                            examples = @ExampleObject(
+                                    name = "ORDER_ARCHIVED",
+                                    value = """
+                                {
+                                  "status": 409,
+                                  "code": "ORDER_ARCHIVED",
+                                  "message": "Order 102 is archived and can no longer be changed",
+                                  "path": "/orders/102/reactivate-order"
+                                }"""
+                            )
+                    )
+            ),
             @ApiResponse(responseCode = "423", description = "Account locked/deactivated",
                     content = @Content(
                             mediaType = "application/json",
@@ -1075,4 +1185,360 @@ public class OrderController {
         OrderResponseDTO response = orderService.reactivateOrder(orderId);
         return ResponseEntity.ok(response);
     }
+
+    @Operation(
+            summary = "Bulk status transition (admin)",
+            description = """
+        Moves many orders to the next fulfilment status in one call (e.g. closing a daily warehouse wave).
+
+        Allowed transitions: `PENDING -> PROCESSING | CANCELLED`, `PROCESSING -> SHIPPED | CANCELLED`,
+        `SHIPPED -> DELIVERED`, `CANCELLED -> PENDING`.
+
+        Two modes:
+        - **By ids** — `orderIds` (max 10000). Optional `fromStatus` narrows the accepted current status.
+        - **By filter** — `fromStatus` (required) and optional `pickupLocationId`; every matching order is moved.
+
+        Orders are processed in chunks; each chunk is a separate transaction guarded by `WHERE status = expected`,
+        so an order changed concurrently is reported as `INVALID_TRANSITION` instead of being overwritten.
+        A cancelled order whose pickup slot is full or has already started can't go back to `PENDING`;
+        it is reported as `SLOT_UNAVAILABLE` and stays cancelled, while the rest of the chunk is moved.
+
+        ### How to test in Swagger UI
+
+        **200 OK:**
+        1. `POST /auth/login` as admin → **Authorize**.
+        2. `PATCH /orders/bulk-status` with `{ "targetStatus": "PROCESSING", "orderIds": [1, 2, 999] }`.
+        3. Check `results`: `UPDATED` for pending orders, `INVALID_TRANSITION` for others, `NOT_FOUND` for 999.
+
+        **400 VALIDATION_ERROR:**
+        - Neither `orderIds` nor `fromStatus` given, or `fromStatus -> targetStatus` is not an allowed transition.
+
+        **401 UNAUTHORIZED / 403 FORBIDDEN:**
+        - No token → `401`; token of a `ROLE_USER` → `403`.
+        """
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Per-order outcomes",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = OrderBulkStatusResponse.class),
+                            examples = @ExampleObject(name = "OK", value = """
+                                {
+                                  "targetStatus": "SHIPPED",
+                                  "processed": 3,
+                                  "updated": 1,
+                                  "invalidTransition": 1,
+                                  "notFound": 1,
+                                  "slotUnavailable": 0,
+                                  "results": [
+                                    { "orderId": 101, "outcome": "UPDATED", "previousStatus": "PROCESSING" },
+                                    { "orderId": 102, "outcome": "INVALID_TRANSITION", "previousStatus": "PENDING" },
+                                    { "orderId": 999, "outcome": "NOT_FOUND", "previousStatus": null }
+                                  ]
+                                }""")
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Validation error",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class),
+                            examples = @ExampleObject(name = "VALIDATION_ERROR", value = """
+                                {
+                                  "status": 400,
+                                  "code": "VALIDATION_ERROR",
+                                  "message": "Transition PENDING -> SHIPPED is not allowed",
+                                  "path": "/orders/bulk-status"
+                                }""")
+                    )
+            ),
+            @ApiResponse(responseCode = "401", description = "Unauthorized",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class),
+                            examples = @ExampleObject(name = "MISSING_AUTH_HEADER", value = """
+                                {
+                                  "status": 401,
+                                  "code": "MISSING_AUTH_HEADER",
+                                  "message": "Missing or invalid Authorization header",
+                                  "path": "/orders/bulk-status"
+                                }""")
+                    )
+            ),
+            @ApiResponse(responseCode = "403", description = "Forbidden",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class),
+                            examples = @ExampleObject(name = "ACCESS_DENIED", value = """
+                                {
+                                  "status": 403,
+                                  "code": "ACCESS_DENIED",
+                                  "message": "Access is denied",
+                                  "path": "/orders/bulk-status"
+                                }""")
+                    )
+            )
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    @PatchMapping("/bulk-status")
+    public ResponseEntity<OrderBulkStatusResponse> bulkStatus(@RequestBody @Valid OrderBulkStatusRequest req,
+                                                              BindingResult bindingResult) {
+        if (bindingResult.hasErrors()) {
+            ErrorUtil.returnErrorsToClient(bindingResult);
+        }
+        return ResponseEntity.ok(orderFulfilmentService.bulkTransition(req));
+    }
+
+    @Operation(
+            summary = "Live order counts per status (admin)",
+            description = """
+        Returns how many orders are in each status without counting rows: the numbers come from
+        counters seeded at startup and adjusted on every status change (creation, cancel/reactivate,
+        bulk transitions, account deactivation). Archived orders are included.
+
+        `source` is `REDIS` when the cluster-wide mirror answered, or `LOCAL` when this node's
+        in-memory counters were used (Redis unavailable). Counters are re-seeded from the database
+        every `app.orders.status-counters.resync-interval-ms`. The same figures are exported as the
+        `orders.status.count` gauge (tag `status`) on `/actuator/metrics`.
+
+        ### How to test in Swagger UI
+
+        **200 OK:**
+        1. `POST /auth/login` as admin → **Authorize**.
+        2. Call `GET /orders/status-counts`, cancel an order as a user, call it again → `PENDING` decreased, `CANCELLED` increased.
+
+        **401 UNAUTHORIZED / 403 FORBIDDEN:**
+        - No token → `401`; token of a `ROLE_USER` → `403`.
+        """
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Counts per status",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = OrderStatusCountsResponse.class),
+                            examples = @ExampleObject(name = "Counts", value = """
+                                {
+                                  "counts": { "PENDING": 12, "PROCESSING": 4, "SHIPPED": 7, "DELIVERED": 230, "CANCELLED": 18 },
+                                  "total": 271,
+                                  "source": "REDIS",
+                                  "generatedAt": "2025-01-10T12:00:00"
+                                }""")
+                    )
+            ),
+            @ApiResponse(responseCode = "401", description = "Unauthorized",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class),
+                            examples = @ExampleObject(name = "MISSING_AUTH_HEADER", value = """
+                                {
+                                  "status": 401,
+                                  "code": "MISSING_AUTH_HEADER",
+                                  "message": "Missing or invalid Authorization header",
+                                  "path": "/orders/status-counts"
+                                }""")
+                    )
+            ),
+            @ApiResponse(responseCode = "403", description = "Forbidden",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class),
+                            examples = @ExampleObject(name = "ACCESS_DENIED", value = """
+                                {
+                                  "status": 403,
+                                  "code": "ACCESS_DENIED",
+                                  "message": "Access is denied",
+                                  "path": "/orders/status-counts"
+                                }""")
+                    )
+            )
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping("/status-counts")
+    public ResponseEntity<OrderStatusCountsResponse> statusCounts() {
+        return ResponseEntity.ok(orderStatusCounterService.getCounts());
+    }
+
+    @Operation(
+            summary = "Export orders as CSV or NDJSON (admin)",
+            description = """
+        Streams every matching order with its owner, delivery target and items. Rows are read through a
+        forward-only database cursor and written to the response as they arrive, so memory use does not
+        depend on the number of exported orders.
+
+        - `format=CSV` — one line per order; `items` holds `productId:name:price` entries separated by ` | `.
+        - `format=NDJSON` — one JSON object per line with nested `customer`, `pickupLocation`/`address` and `items`.
+        - `gzip=true` — the file is gzip-compressed (`.gz` file name, `application/gzip`).
+        - Optional filters: `status`, `from` / `to` (creation day, inclusive).
+        - `includeArchived=false` — skip orders already moved to the archive (included by default).
+
+        ### How to test in Swagger UI
+
+        **200 OK:**
+        1. `POST /auth/login` as admin → **Authorize**.
+        2. `GET /orders/export?format=CSV` → download starts; the first line is the CSV header.
+
+        **400 VALIDATION_ERROR:** `from` after `to`, or an unknown `format` / `status`.
+
+        **401 UNAUTHORIZED / 403 FORBIDDEN:**
+        - No token → `401`; token of a `ROLE_USER` → `403`.
+        """
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Export stream",
+                    content = {
+                            @Content(mediaType = "text/csv", examples = @ExampleObject(name = "CSV", value = """
+                                order_id,status,created_at,updated_at,customer_id,customer_username,customer_email,delivery_type,pickup_location_id,pickup_location,address_id,address,item_count,total,items
+                                101,PENDING,2025-01-10T12:30:00,2025-01-10T12:30:00,7,maria,maria@example.com,COURIER,,,3,"Berlin, Main Street 12A, apt 45, 10115",2,519.98,12:Phone:499.99 | 15:Case:19.99
+                                """)),
+                            @Content(mediaType = "application/x-ndjson", examples = @ExampleObject(name = "NDJSON", value = """
+                                {"id":101,"status":"PENDING","createdAt":"2025-01-10T12:30:00","updatedAt":"2025-01-10T12:30:00","customer":{"id":7,"userName":"maria","email":"maria@example.com"},"deliveryType":"PICKUP","pickupLocation":{"id":1,"label":"Berlin, Alexanderplatz 1"},"items":[{"productId":12,"name":"Phone","category":"SMARTPHONES","price":499.99}],"total":499.99}
+                                """))
+                    }
+            ),
+            @ApiResponse(responseCode = "400", description = "Invalid filter",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class),
+                            examples = @ExampleObject(name = "VALIDATION_ERROR", value = """
+                                {
+                                  "status": 400,
+                                  "code": "VALIDATION_ERROR",
+                                  "message": "'from' must not be after 'to'",
+                                  "path": "/orders/export"
+                                }""")
+                    )
+            ),
+            @ApiResponse(responseCode = "401", description = "Unauthorized",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class),
+                            examples = @ExampleObject(name = "MISSING_AUTH_HEADER", value = """
+                                {
+                                  "status": 401,
+                                  "code": "MISSING_AUTH_HEADER",
+                                  "message": "Missing or invalid Authorization header",
+                                  "path": "/orders/export"
+                                }""")
+                    )
+            ),
+            @ApiResponse(responseCode = "403", description = "Forbidden",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class),
+                            examples = @ExampleObject(name = "ACCESS_DENIED", value = """
+                                {
+                                  "status": 403,
+                                  "code": "ACCESS_DENIED",
+                                  "message": "Access is denied",
+                                  "path": "/orders/export"
+                                }""")
+                    )
+            )
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @Parameter(description = "CSV or NDJSON", example = "CSV")
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @Parameter(description = "Compress the file with gzip", example = "false")
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @Parameter(description = "Only orders in this status", example = "DELIVERED")
+            @RequestParam(required = false) OrderStatus status,
+            @Parameter(description = "Created on or after this day", example = "2025-01-01")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Created on or before this day", example = "2025-01-31")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "Also export archived orders", example = "true")
+            @RequestParam(defaultValue = "true") boolean includeArchived) {
+        StreamingResponseBody body = orderExportService.export(format, gzip, status, from, to, includeArchived);
+
+        String fileName = "orders." + (format == ExportFormat.CSV ? "csv" : "ndjson") + (gzip ? ".gz" : "");
+        MediaType mediaType = gzip ? MediaType.parseMediaType("application/gzip")
+                : format == ExportFormat.CSV ? MediaType.parseMediaType("text/csv;charset=UTF-8")
+                : MediaType.parseMediaType("application/x-ndjson;charset=UTF-8");
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(body);
+    }
+
+    @Operation(
+            summary = "Search orders (admin)",
+            description = """
+        Finds orders by customer username prefix (case-insensitive), status and creation date, newest first.
+        A username prefix or a status is required. Pages are cursor-based: pass `nextCursor`
+        of the previous page as `cursor` until it comes back `null`.
+
+        ### How to test in Swagger UI
+
+        **200 OK:**
+        1. `POST /auth/login` as an admin → **Authorize**.
+        2. Call with `username=jo` → first page; repeat with `cursor` from the response.
+        3. Call with `status=PENDING&from=2025-01-01&to=2025-01-31`.
+
+        **400 VALIDATION_ERROR:** neither `username` nor `status`, a `username` prefix matching more than
+        `app.orders.search.max-matched-customers` (100) customers, `from` after `to`,
+        `limit` outside 1..200 or a malformed `cursor`.
+
+        **403 FORBIDDEN:** token of a `ROLE_USER`.
+        """
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "One page of matching orders",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = OrderSearchPageResponse.class),
+                            examples = @ExampleObject(name = "Page", value = """
+                                {
+                                  "items": [
+                                    {
+                                      "id": 42,
+                                      "status": "PENDING",
+                                      "createdAt": "2025-03-14T10:15:30",
+                                      "updatedAt": "2025-03-14T10:15:30",
+                                      "customerId": 7,
+                                      "customerUserName": "john_doe",
+                                      "itemCount": 3
+                                    }
+                                  ],
+                                  "nextCursor": "MjAyNS0wMy0xNFQxMDoxNTozMHw0Mg"
+                                }""")
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Invalid filter",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class),
+                            examples = @ExampleObject(name = "VALIDATION_ERROR", value = """
+                                {
+                                  "status": 400,
+                                  "code": "VALIDATION_ERROR",
+                                  "message": "Specify a username prefix or a status",
+                                  "path": "/orders/search"
+                                }""")
+                    )
+            ),
+            @ApiResponse(responseCode = "401", description = "Unauthorized",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class))),
+            @ApiResponse(responseCode = "403", description = "Forbidden",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class)))
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping("/search")
+    public ResponseEntity<OrderSearchPageResponse> search(
+            @Parameter(description = "Customer username starts with", example = "jo")
+            @RequestParam(required = false) String username,
+            @Parameter(description = "Only orders in this status", example = "PENDING")
+            @RequestParam(required = false) OrderStatus status,
+            @Parameter(description = "Created on or after this day", example = "2025-01-01")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Created on or before this day", example = "2025-01-31")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "nextCursor of the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size, 1..200", example = "50")
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(orderSearchService.search(username, status, from, to, cursor, limit));
+    }
 }
@@ -2,13 +2,22 @@ package com.simple_online_store_backend.controller;
 
 import com.simple_online_store_backend.dto.code.CodeRequestDTO;
 import com.simple_online_store_backend.dto.login.LoginRequestDTO;
+import com.simple_online_store_backend.dto.person.CustomerDirectoryPageResponse;
+import com.simple_online_store_backend.dto.person.CustomerSearchPageResponse;
+import com.simple_online_store_backend.dto.person.DeactivationJobResponse;
+import com.simple_online_store_backend.dto.person.PersonBatchDeactivationRequest;
+import com.simple_online_store_backend.dto.person.PersonProvisioningRequest;
+import com.simple_online_store_backend.dto.person.PersonProvisioningResult;
 import com.simple_online_store_backend.dto.person.PersonResponseDTO;
 import com.simple_online_store_backend.exception.ErrorResponseDTO;
 import com.simple_online_store_backend.exception.ErrorUtil;
 import com.simple_online_store_backend.security.PersonDetails;
+import com.simple_online_store_backend.service.AccountDeactivationService;
+import com.simple_online_store_backend.service.PeopleProvisioningService;
+import com.simple_online_store_backend.service.PeopleSearchService;
 import com.simple_online_store_backend.service.PeopleService;
 import io.swagger.v3.oas.annotations.Operation;
-import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -16,16 +25,19 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.IOException;
 import java.util.Map;
 
 @Tag(name = "People", description = "Account management and user profile operations")
@@ -33,26 +45,42 @@ import java.util.Map;
 @RequestMapping("/people")
 public class PeopleController {
     private final PeopleService peopleService;
+    private final AccountDeactivationService accountDeactivationService;
+    private final PeopleSearchService peopleSearchService;
+    private final PeopleProvisioningService peopleProvisioningService;
     private static final Logger logger = LoggerFactory.getLogger(PeopleController.class);
 
-    public PeopleController(PeopleService peopleService) {
+    public PeopleController(PeopleService peopleService, AccountDeactivationService accountDeactivationService,
+                            PeopleSearchService peopleSearchService, PeopleProvisioningService peopleProvisioningService) {
         this.peopleService = peopleService;
+        this.accountDeactivationService = accountDeactivationService;
+        this.peopleSearchService = peopleSearchService;
+        this.peopleProvisioningService = peopleProvisioningService;
     }
 
     @Operation(
-            summary = "Get all customers (admin)",
+            summary = "Customer directory (admin)",
             description = """
-        Returns a list of all registered users with the `ROLE_USER` role.
+        Returns registered users with the `ROLE_USER` role, one page at a time, ordered by `id`.
 
-        Each item is a `PersonResponseDTO` (safe user profile) containing only:
-        `id`, `userName`, `dateOfBirth`, `phoneNumber`, `email`, `role`.
+        Each item is a `CustomerDirectoryItemResponse` containing only:
+        `id`, `userName`, `email`, `phoneNumber`, `dateOfBirth`, `deleted`.
+        The role and `deleted` filters run in the database and only these columns are read.
+
+        Pages are keyset-based: pass `nextAfterId` of a page as `afterId` to get the next one.
+        `nextAfterId` is `null` on the last page.
 
         ### How to test in Swagger UI
 
         **200 OK (success):**
         1) `POST /auth/login` as a user with `ROLE_ADMIN` and copy the access token.
         2) Click **Authorize** → `Bearer <access_token>`.
-        3) `GET /people/all-customers` → you'll get an array of customers (users with `ROLE_USER`).
+        3) `GET /people/all-customers?limit=2` → you'll get the first two customers and `nextAfterId`.
+        4) `GET /people/all-customers?limit=2&afterId=<nextAfterId>` → the next page.
+        5) Add `deleted=false` to list active accounts only, `deleted=true` for deactivated ones.
+
+        **400 VALIDATION_ERROR:**
+        - `limit` outside 1..200.
 
         **401 UNAUTHORIZED:**
         - No `Authorization` header or malformed/expired access token → `401`.
@@ -69,39 +97,56 @@ public class PeopleController {
         **Notes:**
         - Endpoint is **admin-only** (`hasRole('ROLE_ADMIN')`).
         - The list contains **only** users with role `ROLE_USER`.
+        - Default page size is 50, maximum 200.
         - This endpoint uses the access token (not the refresh token).
         """
     )
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "List of customers returned successfully",
+            @ApiResponse(responseCode = "200", description = "Page of customers returned successfully",
                     content = @Content(
                             mediaType = "application/json",
-                            array = @ArraySchema(schema = @Schema(implementation = PersonResponseDTO.class)),
+                            schema = @Schema(implementation = CustomerDirectoryPageResponse.class),
                             examples = @ExampleObject(
                                     name = "OK",
                                     value = """
-                                    [
-                                      {
-                                        "id": 12,
-                                        "userName": "alice",
-                                        "dateOfBirth": "1990-01-01",
-                                        "phoneNumber": "+49-111",
-                                        "email": "alice@example.com",
-                                        "role": "ROLE_USER"
-                                      },
-                                      {
-                                        "id": 27,
-                                        "userName": "bob",
-                                        "dateOfBirth": "1992-02-02",
-                                        "phoneNumber": "+49-222",
-                                        "email": "bob@example.com",
-                                        "role": "ROLE_USER"
-                                      }
-                                    ]
+                                    {
+                                      "items": [
+                                        {
+                                          "id": 12,
+                                          "userName": "alice",
+                                          "email": "alice@example.com",
+                                          "phoneNumber": "+49-111",
+                                          "dateOfBirth": "1990-01-01",
+                                          "deleted": false
+                                        },
+                                        {
+                                          "id": 27,
+                                          "userName": "bob",
+                                          "email": "bob@example.com",
+                                          "phoneNumber": "+49-222",
+                                          "dateOfBirth": "1992-02-02",
+                                          "deleted": true
+                                        }
+                                      ],
+                                      "nextAfterId": 27
+                                    }
                                     """
                             )
                     )
             ),
+            @ApiResponse(responseCode = "400", description = "Invalid page size",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class),
+                            examples = @ExampleObject(name = "VALIDATION_ERROR", value = """
+                            {
+                              "status": 400,
+                              "code": "VALIDATION_ERROR",
+                              "message": "'limit' must be between 1 and 200",
+                              "path": "/people/all-customers"
+                            }""")
+                    )
+            ),
             @ApiResponse(responseCode = "401", description = "Unauthorized",
                     content = @Content(
                             mediaType = "application/json",
@@ -175,8 +220,94 @@ public class PeopleController {
     })
     @SecurityRequirement(name = "bearerAuth")
     @GetMapping("/all-customers")
-    public List<PersonResponseDTO> getAllCustomers() {
-        return peopleService.getAllConsumers();
+    public CustomerDirectoryPageResponse getAllCustomers(
+            @Parameter(description = "nextAfterId of the previous page", example = "27")
+            @RequestParam(required = false) Integer afterId,
+            @Parameter(description = "true: deactivated accounts only, false: active only, omitted: both", example = "false")
+            @RequestParam(required = false) Boolean deleted,
+            @Parameter(description = "Page size, 1..200", example = "50")
+            @RequestParam(required = false) Integer limit) {
+        return peopleService.getCustomers(afterId, deleted, limit);
+    }
+
+    @Operation(
+            summary = "Search customers by username or email (admin)",
+            description = """
+        Finds customers (`ROLE_USER`) whose username or email contains `q`, ignoring case.
+
+        Results are ranked: exact username/email match first, then username prefix matches,
+        then email prefix matches, then any other substring match; alphabetically by username within each group.
+        Queries shorter than 3 characters match prefixes only.
+
+        Pages are keyset-based: pass `nextCursor` of a page as `cursor` to get the next one.
+
+        ### How to test in Swagger UI
+
+        **200 OK (success):**
+        1) `POST /auth/login` as a user with `ROLE_ADMIN` and copy the access token.
+        2) Click **Authorize** → `Bearer <access_token>`.
+        3) `GET /people/search?q=user` → the seeded `user` account comes first (exact match).
+        4) `GET /people/search?q=example.com&limit=1` → one customer and a `nextCursor`; repeat with `cursor=<nextCursor>`.
+
+        **400 VALIDATION_ERROR:**
+        - `q` missing or blank, longer than 100 characters, `limit` outside 1..50, or a malformed `cursor`.
+
+        **401 UNAUTHORIZED / 403 FORBIDDEN:**
+        - No valid access token → `401`; authenticated without `ROLE_ADMIN` → `403`.
+        """
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Page of matching customers",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = CustomerSearchPageResponse.class),
+                            examples = @ExampleObject(name = "OK", value = """
+                                    {
+                                      "items": [
+                                        {
+                                          "id": 12,
+                                          "userName": "alice",
+                                          "email": "alice@example.com",
+                                          "phoneNumber": "+49-111",
+                                          "dateOfBirth": "1990-01-01",
+                                          "deleted": false
+                                        }
+                                      ],
+                                      "nextCursor": "MXwxMnxhbGljZQ"
+                                    }
+                                    """)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Invalid query",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class),
+                            examples = @ExampleObject(name = "VALIDATION_ERROR", value = """
+                            {
+                              "status": 400,
+                              "code": "VALIDATION_ERROR",
+                              "message": "'q' must not be blank",
+                              "path": "/people/search"
+                            }""")
+                    )
+            ),
+            @ApiResponse(responseCode = "401", description = "Unauthorized",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class))),
+            @ApiResponse(responseCode = "403", description = "Forbidden",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class)))
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping("/search")
+    public CustomerSearchPageResponse searchCustomers(
+            @Parameter(description = "Part of the username or email", example = "ali")
+            @RequestParam(required = false) String q,
+            @Parameter(description = "nextCursor of the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size, 1..50", example = "20")
+            @RequestParam(required = false) Integer limit) {
+        return peopleSearchService.search(q, cursor, limit);
     }
 
     @Operation(
@@ -749,5 +880,279 @@ public class PeopleController {
         logger.info("Promotion was successful");
         return ResponseEntity.ok(Map.of("message", "You have been successfully promoted to administrator. Please log in again, colleague."));
     }
-}
 
+    @Operation(
+            summary = "Deactivate many accounts (admin)",
+            description = """
+        Starts a background job that deactivates the given accounts, e.g. during a fraud sweep.
+
+        For every account the job does the same as `PATCH /people/deactivate-account`: active orders
+        (`PENDING`, `PROCESSING`) are cancelled and the account is marked `deleted=true`.
+        Ids are processed in chunks, each chunk in its own short transaction, so a large sweep
+        never holds long locks. Administrator accounts are skipped.
+
+        The response is `202 Accepted` with a job snapshot; poll `GET /people/deactivation-jobs/{jobId}`
+        to follow progress.
+
+        ### How to test in Swagger UI
+
+        **202 ACCEPTED:**
+        1. `POST /auth/login` as admin → **Authorize**.
+        2. `POST /people/deactivation-jobs` with `{ "personIds": [2, 3, 999] }`.
+        3. Copy `jobId` and poll `GET /people/deactivation-jobs/{jobId}` until `status` is `COMPLETED`.
+
+        **400 VALIDATION_ERROR:**
+        - Empty or missing `personIds`, non-positive ids, more than 50000 ids.
+
+        **401 UNAUTHORIZED / 403 FORBIDDEN:**
+        - No token → `401`; token of a `ROLE_USER` → `403`.
+        """
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Job accepted",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = DeactivationJobResponse.class),
+                            examples = @ExampleObject(name = "ACCEPTED", value = """
+                                {
+                                  "jobId": "1f0c6a4e-8a43-4b4e-9d7a-3b1a2f7e9c11",
+                                  "status": "RUNNING",
+                                  "total": 3,
+                                  "processed": 0,
+                                  "deactivated": 0,
+                                  "alreadyInactive": 0,
+                                  "skippedAdmins": 0,
+                                  "notFound": 0,
+                                  "ordersCancelled": 0,
+                                  "startedAt": "2025-01-10T12:00:00",
+                                  "finishedAt": null,
+                                  "error": null
+                                }""")
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Validation error",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class),
+                            examples = @ExampleObject(name = "VALIDATION_ERROR", value = """
+                                {
+                                  "status": 400,
+                                  "code": "VALIDATION_ERROR",
+                                  "message": "personIds: At least one person id is required",
+                                  "path": "/people/deactivation-jobs"
+                                }""")
+                    )
+            ),
+            @ApiResponse(responseCode = "401", description = "Unauthorized",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class),
+                            examples = @ExampleObject(name = "MISSING_AUTH_HEADER", value = """
+                                {
+                                  "status": 401,
+                                  "code": "MISSING_AUTH_HEADER",
+                                  "message": "Missing or invalid Authorization header",
+                                  "path": "/people/deactivation-jobs"
+                                }""")
+                    )
+            ),
+            @ApiResponse(responseCode = "403", description = "Forbidden",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class),
+                            examples = @ExampleObject(name = "ACCESS_DENIED", value = """
+                                {
+                                  "status": 403,
+                                  "code": "ACCESS_DENIED",
+                                  "message": "Access is denied",
+                                  "path": "/people/deactivation-jobs"
+                                }""")
+                    )
+            )
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    @PostMapping("/deactivation-jobs")
+    public ResponseEntity<DeactivationJobResponse> startDeactivationJob(@RequestBody @Valid PersonBatchDeactivationRequest request,
+                                                                        BindingResult bindingResult) {
+        if (bindingResult.hasErrors())
+            ErrorUtil.returnErrorsToClient(bindingResult);
+
+        return ResponseEntity.accepted().body(accountDeactivationService.startBatchDeactivation(request));
+    }
+
+    @Operation(
+            summary = "Provision customer accounts in bulk (admin)",
+            description = """
+        Creates many customer accounts from one upload, e.g. when onboarding a corporate customer.
+
+        The body is NDJSON: one JSON object per line with the registration fields (`userName`, `password`,
+        `email`, optional `phoneNumber`, `dateOfBirth`); every account gets `ROLE_USER`. The response is
+        NDJSON as well, one result per non-blank input line and in the same order, written while the upload
+        is being read.
+
+        Each line is validated like `POST /auth/registration`. Lines are processed in chunks
+        (`app.people.provisioning.batch-size`): taken usernames and emails are found with one query per chunk,
+        passwords are hashed in parallel on one thread per core, and the chunk is inserted as one JDBC batch
+        in its own transaction. A failed line never affects the others.
+
+        - `CREATED` — the account exists; `id` is set.
+        - `DUPLICATE` — the username or email (in any letter case) is taken, or repeats an earlier line.
+        - `INVALID` — malformed JSON or a validation error; `error` lists the fields.
+
+        ### How to test in Swagger UI
+
+        **200 OK:**
+        1. `POST /auth/login` as admin → **Authorize**.
+        2. `POST /people/provisioning` with two lines, the second one reusing the first username.
+        3. The response has one `CREATED` and one `DUPLICATE` line.
+
+        **401 UNAUTHORIZED / 403 FORBIDDEN:**
+        - No token → `401`; token of a `ROLE_USER` → `403`.
+        """,
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "One account per line",
+                    required = true,
+                    content = @Content(
+                            mediaType = "application/x-ndjson",
+                            schema = @Schema(implementation = PersonProvisioningRequest.class),
+                            examples = @ExampleObject(name = "Two accounts", value = """
+                                {"userName":"acme_anna","password":"Test234!","email":"anna@acme.example"}
+                                {"userName":"acme_ben","password":"Test234!","email":"ben@acme.example","phoneNumber":"+4915112345678"}
+                                """)
+                    )
+            )
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Result stream, one line per input line",
+                    content = @Content(
+                            mediaType = "application/x-ndjson",
+                            schema = @Schema(implementation = PersonProvisioningResult.class),
+                            examples = @ExampleObject(name = "Results", value = """
+                                {"line":1,"userName":"acme_anna","outcome":"CREATED","id":42,"error":null}
+                                {"line":2,"userName":"acme_ben","outcome":"DUPLICATE","id":null,"error":"userName - Person with this username is already existed!;"}
+                                """)
+                    )
+            ),
+            @ApiResponse(responseCode = "401", description = "Unauthorized",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class),
+                            examples = @ExampleObject(name = "MISSING_AUTH_HEADER", value = """
+                                {
+                                  "status": 401,
+                                  "code": "MISSING_AUTH_HEADER",
+                                  "message": "Missing or invalid Authorization header",
+                                  "path": "/people/provisioning"
+                                }""")
+                    )
+            ),
+            @ApiResponse(responseCode = "403", description = "Forbidden",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class),
+                            examples = @ExampleObject(name = "ACCESS_DENIED", value = """
+                                {
+                                  "status": 403,
+                                  "code": "ACCESS_DENIED",
+                                  "message": "Access is denied",
+                                  "path": "/people/provisioning"
+                                }""")
+                    )
+            )
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    @PostMapping(value = "/provisioning", consumes = {"application/x-ndjson", MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<StreamingResponseBody> provision(HttpServletRequest request) throws IOException {
+        StreamingResponseBody body = peopleProvisioningService.provision(request.getInputStream());
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson;charset=UTF-8"))
+                .body(body);
+    }
+
+    @Operation(
+            summary = "Get batch deactivation progress (admin)",
+            description = """
+        Returns the current progress of a job started with `POST /people/deactivation-jobs`.
+
+        `processed` grows chunk by chunk; `status` becomes `COMPLETED` when every id was handled,
+        or `FAILED` with `error` set if a chunk could not be committed (earlier chunks stay applied).
+        Finished jobs are kept in memory for a limited time (`app.people.deactivation.job-retention-minutes`).
+
+        ### How to test in Swagger UI
+
+        **200 OK:** use the `jobId` returned by `POST /people/deactivation-jobs`.
+
+        **404 ENTITY_NOT_FOUND:** unknown or already evicted `jobId`.
+
+        **401 UNAUTHORIZED / 403 FORBIDDEN:**
+        - No token → `401`; token of a `ROLE_USER` → `403`.
+        """
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Job snapshot",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = DeactivationJobResponse.class),
+                            examples = @ExampleObject(name = "COMPLETED", value = """
+                                {
+                                  "jobId": "1f0c6a4e-8a43-4b4e-9d7a-3b1a2f7e9c11",
+                                  "status": "COMPLETED",
+                                  "total": 3,
+                                  "processed": 3,
+                                  "deactivated": 2,
+                                  "alreadyInactive": 0,
+                                  "skippedAdmins": 0,
+                                  "notFound": 1,
+                                  "ordersCancelled": 4,
+                                  "startedAt": "2025-01-10T12:00:00",
+                                  "finishedAt": "2025-01-10T12:00:01",
+                                  "error": null
+                                }""")
+                    )
+            ),
+            @ApiResponse(responseCode = "404", description = "Job not found",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class),
+                            examples = @ExampleObject(name = "ENTITY_NOT_FOUND", value = """
+                                {
+                                  "status": 404,
+                                  "code": "ENTITY_NOT_FOUND",
+                                  "message": "Deactivation job 1f0c6a4e-8a43-4b4e-9d7a-3b1a2f7e9c11 wasn't found",
+                                  "path": "/people/deactivation-jobs/1f0c6a4e-8a43-4b4e-9d7a-3b1a2f7e9c11"
+                                }""")
+                    )
+            ),
+            @ApiResponse(responseCode = "401", description = "Unauthorized",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class),
+                            examples = @ExampleObject(name = "MISSING_AUTH_HEADER", value = """
+                                {
+                                  "status": 401,
+                                  "code": "MISSING_AUTH_HEADER",
+                                  "message": "Missing or invalid Authorization header",
+                                  "path": "/people/deactivation-jobs/1f0c6a4e-8a43-4b4e-9d7a-3b1a2f7e9c11"
+                                }""")
+                    )
+            ),
+            @ApiResponse(responseCode = "403", description = "Forbidden",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class),
+                            examples = @ExampleObject(name = "ACCESS_DENIED", value = """
+                                {
+                                  "status": 403,
+                                  "code": "ACCESS_DENIED",
+                                  "message": "Access is denied",
+                                  "path": "/people/deactivation-jobs/1f0c6a4e-8a43-4b4e-9d7a-3b1a2f7e9c11"
+                                }""")
+                    )
+            )
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping("/deactivation-jobs/{jobId}")
+    public ResponseEntity<DeactivationJobResponse> getDeactivationJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(accountDeactivationService.getJob(jobId));
+    }
+}
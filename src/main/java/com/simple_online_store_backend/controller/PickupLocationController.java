@@ -1,11 +1,17 @@
 package com.simple_online_store_backend.controller;
 
+import com.simple_online_store_backend.dto.pickup_location.NearestPickupLocationResponse;
+import com.simple_online_store_backend.dto.pickup_location.PickupLocationBulkStatusRequest;
+import com.simple_online_store_backend.dto.pickup_location.PickupLocationBulkStatusResponse;
 import com.simple_online_store_backend.dto.pickup_location.PickupLocationRequestDTO;
 import com.simple_online_store_backend.dto.pickup_location.PickupLocationResponseDTO;
+import com.simple_online_store_backend.dto.pickup_location.PickupSlotResponse;
+import com.simple_online_store_backend.dto.pickup_location.PickupSlotScheduleRequest;
 import com.simple_online_store_backend.exception.ErrorResponseDTO;
 import com.simple_online_store_backend.exception.ErrorUtil;
 import com.simple_online_store_backend.security.PersonDetails;
 import com.simple_online_store_backend.service.PickupLocationService;
+import com.simple_online_store_backend.service.PickupSlotService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -33,9 +39,11 @@ import java.util.Map;
 @RequestMapping("/pickup")
 public class PickupLocationController {
     private final PickupLocationService service;
+    private final PickupSlotService pickupSlotService;
 
-    public PickupLocationController(PickupLocationService service) {
+    public PickupLocationController(PickupLocationService service, PickupSlotService pickupSlotService) {
         this.service = service;
+        this.pickupSlotService = pickupSlotService;
     }
 
     @Operation(
@@ -63,7 +71,10 @@ public class PickupLocationController {
 
     **Notes:**
     - Endpoint requires authentication but is **not** admin-only.
-    - Response is a *list* of `PickupLocationResponseDTO`.
+    - Response is a *list* of `PickupLocationResponseDTO`, ordered by id.
+    - Optional `city` narrows the list to one city (case-insensitive).
+    - Served from an in-memory registry that follows every admin change; edits made directly
+      in the database show up within `app.pickup.registry.refresh-interval-ms`.
     """
     )
     @ApiResponses({
@@ -143,16 +154,78 @@ public class PickupLocationController {
     })
     @SecurityRequirement(name = "bearerAuth")
     @GetMapping("/all-pickup-location")
-    public ResponseEntity<List<PickupLocationResponseDTO>> getAllPickupLocations() {
+    public ResponseEntity<List<PickupLocationResponseDTO>> getAllPickupLocations(
+            @Parameter(description = "Only locations in this city (case-insensitive)", example = "Berlin")
+            @RequestParam(required = false) String city) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String role = ((PersonDetails) authentication.getPrincipal())
                 .getAuthorities().stream()
                 .findFirst()
                 .map(GrantedAuthority::getAuthority)
                 .orElse("ROLE_USER");
+        if (city != null && !city.isBlank()) {
+            return ResponseEntity.ok(service.getPickupLocationsInCity(role, city));
+        }
         return ResponseEntity.ok(service.getAllPickupLocations(role));
     }
 
+    @Operation(
+            summary = "Closest open pickup locations",
+            description = """
+    Returns up to `limit` **open** pickup locations nearest to the given point, closest first, with the
+    great-circle distance in kilometres. Answered from an in-memory index, so checkout can call it freely.
+    Locations without coordinates are never suggested.
+
+    ### How to test in Swagger UI
+
+    **200 OK:**
+    1. As an admin, add or update a location with `latitude`/`longitude`.
+    2. Log in as a user → **Authorize** → `GET /pickup/nearest?lat=52.52&lon=13.405&limit=3`.
+
+    **400 VALIDATION_ERROR:** missing `lat`/`lon`, `lat` outside -90..90, `lon` outside -180..180,
+    or `limit` outside 1..20.
+
+    **401 UNAUTHORIZED:** no or invalid token.
+    """
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Nearest open locations",
+                    content = @Content(
+                            mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = NearestPickupLocationResponse.class)),
+                            examples = @ExampleObject(name = "Nearest", value = """
+                            [
+                              { "id": 1, "city": "Berlin", "street": "Main", "houseNumber": "1A", "latitude": 52.5200, "longitude": 13.4050, "distanceKm": 0.0 },
+                              { "id": 3, "city": "Potsdam", "street": "Brandenburger Str.", "houseNumber": "7", "latitude": 52.3989, "longitude": 13.0657, "distanceKm": 26.87 }
+                            ]""")
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Validation failed",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class),
+                            examples = @ExampleObject(name = "VALIDATION_ERROR", value = """
+                            {
+                              "status": 400,
+                              "code": "VALIDATION_ERROR",
+                              "message": "'lat' must be between -90 and 90",
+                              "path": "/pickup/nearest"
+                            }""")
+                    )
+            ),
+            @ApiResponse(responseCode = "401", description = "Unauthorized",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class)))
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping("/nearest")
+    public ResponseEntity<List<NearestPickupLocationResponse>> getNearestPickupLocations(
+            @Parameter(description = "Latitude in degrees", example = "52.52") @RequestParam(required = false) Double lat,
+            @Parameter(description = "Longitude in degrees", example = "13.405") @RequestParam(required = false) Double lon,
+            @Parameter(description = "How many locations, 1..20", example = "5") @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(service.findNearest(lat, lon, limit));
+    }
+
     @Operation(
             summary = "Add a new pickup location (admin-only)",
             description = """
@@ -872,4 +945,196 @@ public class PickupLocationController {
 
         return ResponseEntity.ok(service.updatePickupLocation(dto, id));
     }
+
+    @Operation(
+            summary = "Open or close many pickup locations (admin-only)",
+            description = """
+    Opens (`active: true`) or closes (`active: false`) a set of locations in one call, e.g. when a region
+    goes offline.
+
+    Two modes, exactly one must be given:
+    - **By ids** — `ids` (max 1000).
+    - **By city** — `city`; every location in that city (case-insensitive).
+
+    The rows are locked and read with one query and changed with one guarded UPDATE. Each location is reported
+    as `CHANGED`, `UNCHANGED` (already in that state) or `NOT_FOUND`. Changed locations are applied to the
+    location list, checkout and `GET /pickup/nearest` right away.
+
+    ### How to test in Swagger UI
+
+    **200 OK:**
+    1. `POST /auth/login` as admin → **Authorize**.
+    2. `PATCH /pickup/bulk-status` with `{ "active": false, "ids": [1, 2, 999] }`.
+    3. Check `results`: `CHANGED` for open locations, `UNCHANGED` for closed ones, `NOT_FOUND` for 999.
+
+    **400 VALIDATION_ERROR:** `active` missing, both or neither of `ids` and `city`, or more than 1000 ids.
+
+    **401 UNAUTHORIZED / 403 FORBIDDEN:** no token → `401`; token of a `ROLE_USER` → `403`.
+    """
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Per-location outcomes",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = PickupLocationBulkStatusResponse.class),
+                            examples = @ExampleObject(name = "OK", value = """
+                            {
+                              "active": false,
+                              "processed": 3,
+                              "changed": 1,
+                              "unchanged": 1,
+                              "notFound": 1,
+                              "results": [
+                                { "id": 1, "outcome": "CHANGED" },
+                                { "id": 2, "outcome": "UNCHANGED" },
+                                { "id": 999, "outcome": "NOT_FOUND" }
+                              ]
+                            }""")
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Validation error",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class),
+                            examples = @ExampleObject(name = "VALIDATION_ERROR", value = """
+                            {
+                              "status": 400,
+                              "code": "VALIDATION_ERROR",
+                              "message": "Exactly one of ids or city must be provided",
+                              "path": "/pickup/bulk-status"
+                            }""")
+                    )
+            ),
+            @ApiResponse(responseCode = "401", description = "Unauthorized",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class))),
+            @ApiResponse(responseCode = "403", description = "Forbidden",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class)))
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    @PatchMapping("/bulk-status")
+    public ResponseEntity<PickupLocationBulkStatusResponse> bulkStatus(@RequestBody @Valid PickupLocationBulkStatusRequest request,
+                                                                       BindingResult bindingResult) {
+        if (bindingResult.hasErrors()) {
+            ErrorUtil.returnErrorsToClient(bindingResult);
+        }
+        return ResponseEntity.ok(service.bulkSetActive(request));
+    }
+
+    @Operation(
+            summary = "Free pickup slots of a location",
+            description = """
+    Returns the slots of an active pickup location that start within the next `days` days and still
+    have free places, earliest first. Pass the chosen `id` as `pickupSlotId` when creating the order
+    (or at cart checkout). Locations without slots return an empty list and take orders without one.
+
+    ### How to test in Swagger UI
+
+    **200 OK:**
+    1. As an admin, `POST /pickup/{id}/add-slots` for the coming days.
+    2. Log in as a user → **Authorize** → call this endpoint with the same `id`.
+
+    **400 VALIDATION_ERROR:** `days` outside 1..14.
+    """
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Free slots",
+                    content = @Content(
+                            mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = PickupSlotResponse.class)),
+                            examples = @ExampleObject(name = "Slots", value = """
+                            [
+                              { "id": 15, "start": "2025-03-14T10:00:00", "end": "2025-03-14T11:00:00", "capacity": 10, "available": 4 },
+                              { "id": 16, "start": "2025-03-14T11:00:00", "end": "2025-03-14T12:00:00", "capacity": 10, "available": 10 }
+                            ]""")
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Validation failed",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class))),
+            @ApiResponse(responseCode = "401", description = "Unauthorized",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class)))
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping("/{id}/available-slots")
+    public ResponseEntity<List<PickupSlotResponse>> getAvailableSlots(
+            @Parameter(description = "Pickup location ID", example = "1") @PathVariable("id") int id,
+            @Parameter(description = "How many days ahead, 1..14", example = "7")
+            @RequestParam(defaultValue = "7") int days) {
+        return ResponseEntity.ok(pickupSlotService.getAvailableSlots(id, days));
+    }
+
+    @Operation(
+            summary = "Create pickup slots for a date range (admin-only)",
+            description = """
+    Splits every day from `fromDate` to `toDate` into `slotMinutes`-long slots between `opensAt` and
+    `closesAt`, each taking up to `capacity` orders. Slots that already exist at the same start time get
+    the new capacity (never less than what is already booked); nothing is deleted.
+    Once a location has future slots, pickup orders for it must choose one.
+
+    ### How to test in Swagger UI
+
+    **200 OK:** body below with tomorrow's date → returns every slot of the range.
+
+    **400 VALIDATION_ERROR:** missing fields, `fromDate` after `toDate`, more than 31 days,
+    or no slot fits between `opensAt` and `closesAt`.
+
+    **404 ENTITY_NOT_FOUND:** unknown location.
+    """
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Slots of the range",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = PickupSlotResponse.class)))),
+            @ApiResponse(responseCode = "400", description = "Validation failed",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class),
+                            examples = @ExampleObject(name = "VALIDATION_ERROR", value = """
+                            {
+                              "status": 400,
+                              "code": "VALIDATION_ERROR",
+                              "message": "Slots can be scheduled for at most 31 days at once",
+                              "path": "/pickup/1/add-slots"
+                            }""")
+                    )
+            ),
+            @ApiResponse(responseCode = "401", description = "Unauthorized",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class))),
+            @ApiResponse(responseCode = "403", description = "Forbidden",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Pickup location not found",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponseDTO.class)))
+    })
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(
+            required = true,
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = PickupSlotScheduleRequest.class),
+                    examples = @ExampleObject(name = "Hourly, one week", value = """
+                    {
+                      "fromDate": "2025-03-14",
+                      "toDate": "2025-03-20",
+                      "opensAt": "09:00",
+                      "closesAt": "18:00",
+                      "slotMinutes": 60,
+                      "capacity": 10
+                    }""")
+            )
+    )
+    @SecurityRequirement(name = "bearerAuth")
+    @PostMapping("/{id}/add-slots")
+    public ResponseEntity<List<PickupSlotResponse>> addSlots(@PathVariable("id") int id,
+                                                             @RequestBody @Valid PickupSlotScheduleRequest request,
+                                                             BindingResult bindingResult) {
+        if (bindingResult.hasErrors())
+            ErrorUtil.returnErrorsToClient(bindingResult);
+
+        return ResponseEntity.ok(pickupSlotService.schedule(id, request));
+    }
 }
@@ -0,0 +1,151 @@
+package com.simple_online_store_backend.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Sends connections of read-only transactions to replicas (round-robin over healthy ones) and
+ * everything else to the primary. Must sit behind a LazyConnectionDataSourceProxy: the transaction
+ * managers ask for a connection before the read-only flag is bound, the lazy proxy defers the real
+ * getConnection() to the first statement, when the flag is known.
+ *
+ * Falls back to the primary when no replica is healthy, when a replica refuses a connection
+ * (it is then marked down until the next health check) and when ReadYourWritesTracker says the
+ * caller has just written.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractDataSource {
+    private static final Logger logger = LoggerFactory.getLogger(ReadReplicaRoutingDataSource.class);
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final ReadYourWritesTracker readYourWrites;
+    private final int validationTimeoutSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReadReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas,
+                                        ReadYourWritesTracker readYourWrites, int validationTimeoutSeconds) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.readYourWrites = readYourWrites;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    /**
+     * Routed like getConnection(); whether explicit credentials are accepted is up to the chosen pool.
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(ds -> ds.getConnection(username, password));
+    }
+
+    private Connection route(ConnectionOpener opener) throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                readYourWrites.recordWrite();
+            }
+            return opener.open(primary);
+        }
+        if (readYourWrites.mustReadFromPrimary()) {
+            return opener.open(primary);
+        }
+
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                return opener.open(replica.dataSource);
+            } catch (SQLFeatureNotSupportedException e) {
+                // The pool rejects the call itself (Hikari does for explicit credentials); the replica is fine
+                throw e;
+            } catch (SQLException e) {
+                replica.markDown(e);
+            }
+        }
+        return opener.open(primary);
+    }
+
+    /**
+     * Validates every replica and flips its healthy flag; also drops expired read-your-writes entries.
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.routing.health-check-interval-ms:5000}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (connection.isValid(validationTimeoutSeconds)) {
+                    replica.markUp();
+                } else {
+                    replica.markDown(new SQLException("Connection validation failed"));
+                }
+            } catch (SQLException e) {
+                replica.markDown(e);
+            }
+        }
+        readYourWrites.evictExpired();
+    }
+
+    public int healthyReplicaCount() {
+        return (int) replicas.stream().filter(r -> r.healthy).count();
+    }
+
+    public void close() {
+        for (DataSource ds : Stream.concat(Stream.of(primary), replicas.stream().map(r -> r.dataSource)).toList()) {
+            if (ds instanceof Closeable closeable) {
+                try {
+                    closeable.close();
+                } catch (IOException e) {
+                    logger.warn("Failed to close pool {}: {}", ds, e.getMessage());
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionOpener {
+        Connection open(DataSource dataSource) throws SQLException;
+    }
+
+    private static final class Replica {
+        final DataSource dataSource;
+        volatile boolean healthy = true;
+
+        Replica(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        void markDown(SQLException e) {
+            if (healthy) {
+                logger.warn("Read replica {} marked down, reads fall back: {}", dataSource, e.getMessage());
+            }
+            healthy = false;
+        }
+
+        void markUp() {
+            if (!healthy) {
+                logger.info("Read replica {} is back", dataSource);
+            }
+            healthy = true;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.simple_online_store_backend.datasource;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers who has just written so their next reads are served by the primary instead of a
+ * replica that may not have caught up yet. Two scopes: the current HTTP request (any read after a
+ * write in the same request) and the authenticated user for a short window (the follow-up request
+ * that typically re-reads what was just saved).
+ */
+public class ReadYourWritesTracker {
+    static final String REQUEST_ATTRIBUTE = ReadYourWritesTracker.class.getName() + ".WROTE";
+
+    private final long windowNanos;
+    private final Map<String, Long> recentWriters = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(long windowMillis) {
+        this.windowNanos = windowMillis * 1_000_000L;
+    }
+
+    public void recordWrite() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            request.setAttribute(REQUEST_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+        String user = currentUser();
+        if (user != null && windowNanos > 0) {
+            recentWriters.put(user, System.nanoTime() + windowNanos);
+        }
+    }
+
+    public boolean mustReadFromPrimary() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null && request.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null) {
+            return true;
+        }
+        String user = currentUser();
+        if (user == null) {
+            return false;
+        }
+        Long until = recentWriters.get(user);
+        return until != null && until - System.nanoTime() > 0;
+    }
+
+    public void evictExpired() {
+        long now = System.nanoTime();
+        recentWriters.values().removeIf(until -> until - now <= 0);
+    }
+
+    private static String currentUser() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth == null || !auth.isAuthenticated() ? null : auth.getName();
+    }
+}
@@ -0,0 +1,41 @@
+package com.simple_online_store_backend.dto.analytics;
+
+import com.simple_online_store_backend.enums.ProductCategory;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+
+@Schema(name = "CategorySalesResponse", description = "Booked sales of one product category over the requested range")
+public class CategorySalesResponse {
+
+    @Schema(description = "Product category", implementation = ProductCategory.class, example = "SMARTPHONES")
+    private ProductCategory category;
+
+    @Schema(description = "Number of orders containing at least one item of the category", example = "18")
+    private long orders;
+
+    @Schema(description = "Number of ordered items of the category", example = "23")
+    private long units;
+
+    @Schema(description = "Sum of item prices", example = "8900.00")
+    private BigDecimal revenue;
+
+    public CategorySalesResponse() {
+    }
+
+    public CategorySalesResponse(ProductCategory category, long orders, long units, BigDecimal revenue) {
+        this.category = category;
+        this.orders = orders;
+        this.units = units;
+        this.revenue = revenue;
+    }
+
+    public ProductCategory getCategory() { return category; }
+    public void setCategory(ProductCategory category) { this.category = category; }
+    public long getOrders() { return orders; }
+    public void setOrders(long orders) { this.orders = orders; }
+    public long getUnits() { return units; }
+    public void setUnits(long units) { this.units = units; }
+    public BigDecimal getRevenue() { return revenue; }
+    public void setRevenue(BigDecimal revenue) { this.revenue = revenue; }
+}
@@ -0,0 +1,48 @@
+package com.simple_online_store_backend.dto.analytics;
+
+import com.simple_online_store_backend.enums.DeliveryType;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Schema(name = "DailySalesResponse", description = "Booked (non-cancelled) orders of one day for one delivery channel")
+public class DailySalesResponse {
+
+    @Schema(description = "Day the orders were placed", example = "2025-01-10")
+    private LocalDate day;
+
+    @Schema(description = "Delivery channel: PICKUP or COURIER", implementation = DeliveryType.class, example = "PICKUP")
+    private DeliveryType deliveryType;
+
+    @Schema(description = "Number of orders", example = "42")
+    private long orders;
+
+    @Schema(description = "Number of ordered items", example = "97")
+    private long units;
+
+    @Schema(description = "Sum of item prices", example = "12450.00")
+    private BigDecimal revenue;
+
+    public DailySalesResponse() {
+    }
+
+    public DailySalesResponse(LocalDate day, DeliveryType deliveryType, long orders, long units, BigDecimal revenue) {
+        this.day = day;
+        this.deliveryType = deliveryType;
+        this.orders = orders;
+        this.units = units;
+        this.revenue = revenue;
+    }
+
+    public LocalDate getDay() { return day; }
+    public void setDay(LocalDate day) { this.day = day; }
+    public DeliveryType getDeliveryType() { return deliveryType; }
+    public void setDeliveryType(DeliveryType deliveryType) { this.deliveryType = deliveryType; }
+    public long getOrders() { return orders; }
+    public void setOrders(long orders) { this.orders = orders; }
+    public long getUnits() { return units; }
+    public void setUnits(long units) { this.units = units; }
+    public BigDecimal getRevenue() { return revenue; }
+    public void setRevenue(BigDecimal revenue) { this.revenue = revenue; }
+}
@@ -0,0 +1,41 @@
+package com.simple_online_store_backend.dto.analytics;
+
+import com.simple_online_store_backend.enums.DeliveryType;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+
+@Schema(name = "DeliveryTypeSalesResponse", description = "Booked sales of one delivery channel over the requested range")
+public class DeliveryTypeSalesResponse {
+
+    @Schema(description = "Delivery channel: PICKUP or COURIER", implementation = DeliveryType.class, example = "COURIER")
+    private DeliveryType deliveryType;
+
+    @Schema(description = "Number of orders", example = "120")
+    private long orders;
+
+    @Schema(description = "Number of ordered items", example = "264")
+    private long units;
+
+    @Schema(description = "Sum of item prices", example = "40210.50")
+    private BigDecimal revenue;
+
+    public DeliveryTypeSalesResponse() {
+    }
+
+    public DeliveryTypeSalesResponse(DeliveryType deliveryType, long orders, long units, BigDecimal revenue) {
+        this.deliveryType = deliveryType;
+        this.orders = orders;
+        this.units = units;
+        this.revenue = revenue;
+    }
+
+    public DeliveryType getDeliveryType() { return deliveryType; }
+    public void setDeliveryType(DeliveryType deliveryType) { this.deliveryType = deliveryType; }
+    public long getOrders() { return orders; }
+    public void setOrders(long orders) { this.orders = orders; }
+    public long getUnits() { return units; }
+    public void setUnits(long units) { this.units = units; }
+    public BigDecimal getRevenue() { return revenue; }
+    public void setRevenue(BigDecimal revenue) { this.revenue = revenue; }
+}
@@ -0,0 +1,43 @@
+package com.simple_online_store_backend.dto.cart;
+
+import com.simple_online_store_backend.dto.order.DeliveryOptionRequest;
+import com.simple_online_store_backend.util.SwaggerConstants;
+import com.simple_online_store_backend.validation.annotation.ValidDeliveryOption;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(name = "CartCheckoutRequest", description = "Turns the cart into an order with the chosen delivery option")
+@ValidDeliveryOption
+public class CartCheckoutRequest implements DeliveryOptionRequest {
+
+    @Schema(
+            description = SwaggerConstants.ORDER_ADDRESS_ID_DESC,
+            example = SwaggerConstants.ID_EXAMPLE,
+            minimum = "1",
+            nullable = true
+    )
+    private Integer addressId;
+
+    @Schema(
+            description = SwaggerConstants.ORDER_PICKUP_LOCATION_ID_DESC,
+            example = SwaggerConstants.ID_EXAMPLE,
+            minimum = "1",
+            nullable = true
+    )
+    private Integer pickupLocationId;
+
+    @Schema(
+            description = "Pickup slot at the chosen pickup location (GET /pickup/{id}/available-slots); "
+                    + "required when the location hands out slots",
+            example = SwaggerConstants.ID_EXAMPLE,
+            minimum = "1",
+            nullable = true
+    )
+    private Integer pickupSlotId;
+
+    public Integer getAddressId() { return addressId; }
+    public void setAddressId(Integer addressId) { this.addressId = addressId; }
+    public Integer getPickupLocationId() { return pickupLocationId; }
+    public void setPickupLocationId(Integer pickupLocationId) { this.pickupLocationId = pickupLocationId; }
+    public Integer getPickupSlotId() { return pickupSlotId; }
+    public void setPickupSlotId(Integer pickupSlotId) { this.pickupSlotId = pickupSlotId; }
+}
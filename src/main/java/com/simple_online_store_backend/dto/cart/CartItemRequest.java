@@ -0,0 +1,25 @@
+package com.simple_online_store_backend.dto.cart;
+
+import com.simple_online_store_backend.util.SwaggerConstants;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+@Schema(name = "CartItemRequest", description = "Adds units of a product to the cart")
+public class CartItemRequest {
+
+    @NotNull(message = "Product ID is required")
+    @Min(value = 1, message = "Product ID must be positive")
+    @Schema(description = SwaggerConstants.PRODUCT_ID_DESC, example = SwaggerConstants.ID_EXAMPLE, minimum = "1")
+    private Integer productId;
+
+    @NotNull(message = "Quantity is required")
+    @Min(value = 1, message = "Quantity must be at least 1")
+    @Schema(description = "Units to add to the current quantity", example = "2", minimum = "1")
+    private Integer quantity;
+
+    public Integer getProductId() { return productId; }
+    public void setProductId(Integer productId) { this.productId = productId; }
+    public Integer getQuantity() { return quantity; }
+    public void setQuantity(Integer quantity) { this.quantity = quantity; }
+}
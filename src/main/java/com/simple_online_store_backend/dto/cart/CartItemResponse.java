@@ -0,0 +1,36 @@
+package com.simple_online_store_backend.dto.cart;
+
+import com.simple_online_store_backend.util.SwaggerConstants;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+
+@Schema(name = "CartItemResponse", description = "Cart line enriched with current product data")
+public class CartItemResponse {
+
+    @Schema(description = SwaggerConstants.PRODUCT_ID_DESC, example = SwaggerConstants.ID_EXAMPLE)
+    private Integer productId;
+
+    @Schema(description = SwaggerConstants.PRODUCT_NAME_DESC, example = SwaggerConstants.PRODUCT_NAME_EXAMPLE)
+    private String productName;
+
+    @Schema(description = SwaggerConstants.PRODUCT_PRICE_DESC, example = SwaggerConstants.PRODUCT_PRICE_EXAMPLE)
+    private BigDecimal price;
+
+    @Schema(description = "Units of the product in the cart", example = "2")
+    private Integer quantity;
+
+    @Schema(description = "False when the product was removed or is no longer available; checkout will fail", example = "true")
+    private boolean available;
+
+    public Integer getProductId() { return productId; }
+    public void setProductId(Integer productId) { this.productId = productId; }
+    public String getProductName() { return productName; }
+    public void setProductName(String productName) { this.productName = productName; }
+    public BigDecimal getPrice() { return price; }
+    public void setPrice(BigDecimal price) { this.price = price; }
+    public Integer getQuantity() { return quantity; }
+    public void setQuantity(Integer quantity) { this.quantity = quantity; }
+    public boolean isAvailable() { return available; }
+    public void setAvailable(boolean available) { this.available = available; }
+}
@@ -0,0 +1,27 @@
+package com.simple_online_store_backend.dto.cart;
+
+import com.simple_online_store_backend.util.SwaggerConstants;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(name = "CartLineResponse", description = "Product and quantity as stored in the cart")
+public class CartLineResponse {
+
+    @Schema(description = SwaggerConstants.PRODUCT_ID_DESC, example = SwaggerConstants.ID_EXAMPLE)
+    private Integer productId;
+
+    @Schema(description = "Units of the product in the cart", example = "2")
+    private Integer quantity;
+
+    public CartLineResponse() {
+    }
+
+    public CartLineResponse(Integer productId, Integer quantity) {
+        this.productId = productId;
+        this.quantity = quantity;
+    }
+
+    public Integer getProductId() { return productId; }
+    public void setProductId(Integer productId) { this.productId = productId; }
+    public Integer getQuantity() { return quantity; }
+    public void setQuantity(Integer quantity) { this.quantity = quantity; }
+}
@@ -0,0 +1,17 @@
+package com.simple_online_store_backend.dto.cart;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+@Schema(name = "CartQuantityRequest", description = "Sets the quantity of a cart line; 0 removes the line")
+public class CartQuantityRequest {
+
+    @NotNull(message = "Quantity is required")
+    @Min(value = 0, message = "Quantity must not be negative")
+    @Schema(description = "New quantity of the product", example = "3", minimum = "0")
+    private Integer quantity;
+
+    public Integer getQuantity() { return quantity; }
+    public void setQuantity(Integer quantity) { this.quantity = quantity; }
+}
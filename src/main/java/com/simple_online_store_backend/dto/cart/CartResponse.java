@@ -0,0 +1,26 @@
+package com.simple_online_store_backend.dto.cart;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Schema(name = "CartResponse", description = "Current cart of the authenticated user")
+public class CartResponse {
+
+    @Schema(description = "Cart lines ordered by product ID")
+    private List<CartItemResponse> items;
+
+    @Schema(description = "Sum of all quantities", example = "3")
+    private int totalQuantity;
+
+    @Schema(description = "Sum of price × quantity over available products", example = "1019.97")
+    private BigDecimal total;
+
+    public List<CartItemResponse> getItems() { return items; }
+    public void setItems(List<CartItemResponse> items) { this.items = items; }
+    public int getTotalQuantity() { return totalQuantity; }
+    public void setTotalQuantity(int totalQuantity) { this.totalQuantity = totalQuantity; }
+    public BigDecimal getTotal() { return total; }
+    public void setTotal(BigDecimal total) { this.total = total; }
+}
@@ -0,0 +1,10 @@
+package com.simple_online_store_backend.dto.order;
+
+/**
+ * Request that chooses exactly one delivery option; checked by {@code @ValidDeliveryOption}.
+ */
+public interface DeliveryOptionRequest {
+    Integer getAddressId();
+    Integer getPickupLocationId();
+    Integer getPickupSlotId();
+}
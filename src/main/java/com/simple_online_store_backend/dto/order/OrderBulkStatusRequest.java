@@ -0,0 +1,43 @@
+package com.simple_online_store_backend.dto.order;
+
+import com.simple_online_store_backend.enums.OrderStatus;
+import com.simple_online_store_backend.util.SwaggerConstants;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+@Schema(name = "OrderBulkStatusRequest", description = "Moves many orders to the next fulfilment status at once")
+public class OrderBulkStatusRequest {
+
+    @NotNull(message = "Target status is required")
+    @Schema(description = SwaggerConstants.ORDER_BULK_TARGET_STATUS_DESC, implementation = OrderStatus.class, example = "SHIPPED")
+    private OrderStatus targetStatus;
+
+    @Size(max = 10000, message = "No more than 10000 order ids per request")
+    @ArraySchema(
+            arraySchema = @Schema(description = SwaggerConstants.ORDER_BULK_IDS_DESC, example = "[101, 102, 103]", nullable = true),
+            schema = @Schema(minimum = "1")
+    )
+    private List<@NotNull @Min(1) Integer> orderIds;
+
+    @Schema(description = SwaggerConstants.ORDER_BULK_FROM_STATUS_DESC, implementation = OrderStatus.class,
+            example = "PROCESSING", nullable = true)
+    private OrderStatus fromStatus;
+
+    @Min(value = 1, message = "Pickup location id must be positive")
+    @Schema(description = SwaggerConstants.ORDER_BULK_PICKUP_FILTER_DESC, example = SwaggerConstants.ID_EXAMPLE, nullable = true)
+    private Integer pickupLocationId;
+
+    public OrderStatus getTargetStatus() { return targetStatus; }
+    public void setTargetStatus(OrderStatus targetStatus) { this.targetStatus = targetStatus; }
+    public List<Integer> getOrderIds() { return orderIds; }
+    public void setOrderIds(List<Integer> orderIds) { this.orderIds = orderIds; }
+    public OrderStatus getFromStatus() { return fromStatus; }
+    public void setFromStatus(OrderStatus fromStatus) { this.fromStatus = fromStatus; }
+    public Integer getPickupLocationId() { return pickupLocationId; }
+    public void setPickupLocationId(Integer pickupLocationId) { this.pickupLocationId = pickupLocationId; }
+}
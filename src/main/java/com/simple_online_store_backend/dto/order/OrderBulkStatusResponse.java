@@ -0,0 +1,65 @@
+package com.simple_online_store_backend.dto.order;
+
+import com.simple_online_store_backend.enums.OrderStatus;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(name = "OrderBulkStatusResponse", description = "Summary and per-order outcomes of a bulk status transition")
+public class OrderBulkStatusResponse {
+
+    @Schema(description = "Status the orders were moved to", implementation = OrderStatus.class, example = "SHIPPED")
+    private OrderStatus targetStatus;
+
+    @Schema(description = "Number of distinct orders processed", example = "3")
+    private int processed;
+
+    @Schema(description = "Number of orders moved to the target status", example = "2")
+    private int updated;
+
+    @Schema(description = "Number of orders whose current status doesn't allow the transition", example = "1")
+    private int invalidTransition;
+
+    @Schema(description = "Number of requested ids that don't exist", example = "0")
+    private int notFound;
+
+    @Schema(description = "Number of cancelled orders whose pickup slot can no longer take them back", example = "0")
+    private int slotUnavailable;
+
+    @ArraySchema(arraySchema = @Schema(description = "Per-order outcomes, in request order"),
+            schema = @Schema(implementation = OrderTransitionResult.class))
+    private List<OrderTransitionResult> results;
+
+    public OrderBulkStatusResponse() {
+    }
+
+    public OrderBulkStatusResponse(OrderStatus targetStatus, List<OrderTransitionResult> results) {
+        this.targetStatus = targetStatus;
+        this.results = results;
+        this.processed = results.size();
+        for (OrderTransitionResult r : results) {
+            switch (r.getOutcome()) {
+                case UPDATED -> updated++;
+                case INVALID_TRANSITION -> invalidTransition++;
+                case NOT_FOUND -> notFound++;
+                case SLOT_UNAVAILABLE -> slotUnavailable++;
+            }
+        }
+    }
+
+    public OrderStatus getTargetStatus() { return targetStatus; }
+    public void setTargetStatus(OrderStatus targetStatus) { this.targetStatus = targetStatus; }
+    public int getProcessed() { return processed; }
+    public void setProcessed(int processed) { this.processed = processed; }
+    public int getUpdated() { return updated; }
+    public void setUpdated(int updated) { this.updated = updated; }
+    public int getInvalidTransition() { return invalidTransition; }
+    public void setInvalidTransition(int invalidTransition) { this.invalidTransition = invalidTransition; }
+    public int getNotFound() { return notFound; }
+    public void setNotFound(int notFound) { this.notFound = notFound; }
+    public int getSlotUnavailable() { return slotUnavailable; }
+    public void setSlotUnavailable(int slotUnavailable) { this.slotUnavailable = slotUnavailable; }
+    public List<OrderTransitionResult> getResults() { return results; }
+    public void setResults(List<OrderTransitionResult> results) { this.results = results; }
+}
@@ -12,7 +12,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 
 @Schema(name = "OrderCreateRequest", description = "Request to create an order")
 @ValidDeliveryOption
-public class OrderCreateRequest {
+public class OrderCreateRequest implements DeliveryOptionRequest {
 
     @NotEmpty(message = "You must add at least one product")
     @ArraySchema(
@@ -44,10 +44,21 @@ public class OrderCreateRequest {
     )
     private Integer pickupLocationId;
 
+    @Schema(
+            description = "Pickup slot at the chosen pickup location (GET /pickup/{id}/available-slots); "
+                    + "required when the location hands out slots",
+            example = SwaggerConstants.ID_EXAMPLE,
+            minimum = "1",
+            nullable = true
+    )
+    private Integer pickupSlotId;
+
     public List<Integer> getProductIds() { return productIds; }
     public void setProductIds(List<Integer> productIds) { this.productIds = productIds; }
     public Integer getAddressId() { return addressId; }
     public void setAddressId(Integer addressId) { this.addressId = addressId; }
     public Integer getPickupLocationId() { return pickupLocationId; }
     public void setPickupLocationId(Integer pickupLocationId) { this.pickupLocationId = pickupLocationId; }
+    public Integer getPickupSlotId() { return pickupSlotId; }
+    public void setPickupSlotId(Integer pickupSlotId) { this.pickupSlotId = pickupSlotId; }
 }
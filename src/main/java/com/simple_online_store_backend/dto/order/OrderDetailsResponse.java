@@ -2,6 +2,7 @@ package com.simple_online_store_backend.dto.order;
 
 import com.simple_online_store_backend.dto.address.AddressResponseDTO;
 import com.simple_online_store_backend.dto.pickup_location.PickupLocationResponseDTO;
+import com.simple_online_store_backend.dto.pickup_location.PickupSlotResponse;
 import com.simple_online_store_backend.enums.OrderStatus;
 import com.simple_online_store_backend.util.SwaggerConstants;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -51,6 +52,9 @@ public class OrderDetailsResponse {
     )
     private PickupLocationResponseDTO pickup;
 
+    @Schema(description = "Booked pickup window (id, start, end); null if none", nullable = true)
+    private PickupSlotResponse pickupSlot;
+
     @ArraySchema(
             arraySchema = @Schema(description = SwaggerConstants.ORDER_ITEMS_DESC),
             schema = @Schema(implementation = OrderItemResponse.class),
@@ -70,6 +74,8 @@ public class OrderDetailsResponse {
     public void setAddress(AddressResponseDTO address) { this.address = address; }
     public PickupLocationResponseDTO getPickup() { return pickup; }
     public void setPickup(PickupLocationResponseDTO pickup) { this.pickup = pickup; }
+    public PickupSlotResponse getPickupSlot() { return pickupSlot; }
+    public void setPickupSlot(PickupSlotResponse pickupSlot) { this.pickupSlot = pickupSlot; }
     public List<OrderItemResponse> getItems() { return items; }
     public void setItems(List<OrderItemResponse> items) { this.items = items; }
 }
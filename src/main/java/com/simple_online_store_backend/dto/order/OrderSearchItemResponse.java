@@ -0,0 +1,47 @@
+package com.simple_online_store_backend.dto.order;
+
+import com.simple_online_store_backend.enums.OrderStatus;
+import com.simple_online_store_backend.util.SwaggerConstants;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+
+@Schema(name = "OrderSearchItemResponse", description = "One order matched by the admin order search")
+public class OrderSearchItemResponse {
+
+    @Schema(description = SwaggerConstants.ID_DESC + "order.", example = SwaggerConstants.ID_EXAMPLE, minimum = "1")
+    private Integer id;
+
+    @Schema(description = SwaggerConstants.ORDER_STATUS_DESC, implementation = OrderStatus.class, example = "PENDING")
+    private OrderStatus status;
+
+    @Schema(description = "When the order was created", example = "2025-03-14T10:15:30")
+    private LocalDateTime createdAt;
+
+    @Schema(description = "When the order was last changed", example = "2025-03-14T11:02:00")
+    private LocalDateTime updatedAt;
+
+    @Schema(description = SwaggerConstants.ID_DESC + "customer.", example = SwaggerConstants.ID_EXAMPLE, nullable = true)
+    private Integer customerId;
+
+    @Schema(description = "Username of the customer", example = "john_doe", nullable = true)
+    private String customerUserName;
+
+    @Schema(description = SwaggerConstants.ORDER_PRODUCT_COUNT_DESC, example = SwaggerConstants.ORDER_PRODUCT_COUNT_EXAMPLE, minimum = "0")
+    private Integer itemCount;
+
+    public Integer getId() { return id; }
+    public void setId(Integer id) { this.id = id; }
+    public OrderStatus getStatus() { return status; }
+    public void setStatus(OrderStatus status) { this.status = status; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+    public Integer getCustomerId() { return customerId; }
+    public void setCustomerId(Integer customerId) { this.customerId = customerId; }
+    public String getCustomerUserName() { return customerUserName; }
+    public void setCustomerUserName(String customerUserName) { this.customerUserName = customerUserName; }
+    public Integer getItemCount() { return itemCount; }
+    public void setItemCount(Integer itemCount) { this.itemCount = itemCount; }
+}
@@ -0,0 +1,28 @@
+package com.simple_online_store_backend.dto.order;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(name = "OrderSearchPageResponse", description = "One page of the admin order search, newest orders first")
+public class OrderSearchPageResponse {
+
+    @Schema(description = "Orders of this page")
+    private List<OrderSearchItemResponse> items;
+
+    @Schema(description = "Opaque cursor for the next page; null on the last page", example = "MjAyNS0wMy0xNFQxMDoxNTozMHw0Mg", nullable = true)
+    private String nextCursor;
+
+    public OrderSearchPageResponse() {
+    }
+
+    public OrderSearchPageResponse(List<OrderSearchItemResponse> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<OrderSearchItemResponse> getItems() { return items; }
+    public void setItems(List<OrderSearchItemResponse> items) { this.items = items; }
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
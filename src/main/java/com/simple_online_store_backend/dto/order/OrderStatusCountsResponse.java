@@ -0,0 +1,43 @@
+package com.simple_online_store_backend.dto.order;
+
+import com.simple_online_store_backend.enums.OrderStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Schema(name = "OrderStatusCountsResponse", description = "Number of orders per status")
+public class OrderStatusCountsResponse {
+
+    @Schema(description = "Orders per status (every status is present, zero if none)",
+            example = "{\"PENDING\": 12, \"PROCESSING\": 4, \"SHIPPED\": 7, \"DELIVERED\": 230, \"CANCELLED\": 18}")
+    private Map<OrderStatus, Long> counts;
+
+    @Schema(description = "Sum over all statuses", example = "271")
+    private long total;
+
+    @Schema(description = "REDIS when the cluster-wide mirror answered, LOCAL for this node's in-memory counters", example = "REDIS")
+    private String source;
+
+    @Schema(description = "When the snapshot was taken", example = "2025-01-10T12:00:00")
+    private LocalDateTime generatedAt;
+
+    public OrderStatusCountsResponse() {
+    }
+
+    public OrderStatusCountsResponse(Map<OrderStatus, Long> counts, String source, LocalDateTime generatedAt) {
+        this.counts = counts;
+        this.total = counts.values().stream().mapToLong(Long::longValue).sum();
+        this.source = source;
+        this.generatedAt = generatedAt;
+    }
+
+    public Map<OrderStatus, Long> getCounts() { return counts; }
+    public void setCounts(Map<OrderStatus, Long> counts) { this.counts = counts; }
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+    public String getSource() { return source; }
+    public void setSource(String source) { this.source = source; }
+    public LocalDateTime getGeneratedAt() { return generatedAt; }
+    public void setGeneratedAt(LocalDateTime generatedAt) { this.generatedAt = generatedAt; }
+}
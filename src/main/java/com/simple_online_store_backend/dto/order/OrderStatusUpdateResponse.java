@@ -0,0 +1,38 @@
+package com.simple_online_store_backend.dto.order;
+
+import com.simple_online_store_backend.enums.OrderStatus;
+import com.simple_online_store_backend.util.SwaggerConstants;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+
+@Schema(name = "OrderStatusUpdateResponse", description = "Status change of one of the caller's orders, pushed over the order stream")
+public class OrderStatusUpdateResponse {
+
+    @Schema(description = "Event id; send it back as Last-Event-ID when reconnecting", example = "1741947330000-42-SHIPPED")
+    private String eventId;
+
+    @Schema(description = SwaggerConstants.ID_DESC + "order.", example = SwaggerConstants.ID_EXAMPLE, minimum = "1")
+    private Integer orderId;
+
+    @Schema(description = "Status before the change; null for a new order", implementation = OrderStatus.class,
+            example = "PROCESSING", nullable = true)
+    private OrderStatus previousStatus;
+
+    @Schema(description = SwaggerConstants.ORDER_STATUS_DESC, implementation = OrderStatus.class, example = "SHIPPED")
+    private OrderStatus status;
+
+    @Schema(description = "When the change happened", example = "2025-03-14T10:15:30")
+    private LocalDateTime occurredAt;
+
+    public String getEventId() { return eventId; }
+    public void setEventId(String eventId) { this.eventId = eventId; }
+    public Integer getOrderId() { return orderId; }
+    public void setOrderId(Integer orderId) { this.orderId = orderId; }
+    public OrderStatus getPreviousStatus() { return previousStatus; }
+    public void setPreviousStatus(OrderStatus previousStatus) { this.previousStatus = previousStatus; }
+    public OrderStatus getStatus() { return status; }
+    public void setStatus(OrderStatus status) { this.status = status; }
+    public LocalDateTime getOccurredAt() { return occurredAt; }
+    public void setOccurredAt(LocalDateTime occurredAt) { this.occurredAt = occurredAt; }
+}
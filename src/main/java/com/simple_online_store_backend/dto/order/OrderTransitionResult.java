@@ -0,0 +1,34 @@
+package com.simple_online_store_backend.dto.order;
+
+import com.simple_online_store_backend.enums.OrderStatus;
+import com.simple_online_store_backend.enums.OrderTransitionOutcome;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(name = "OrderTransitionResult", description = "Outcome of a status transition for a single order")
+public class OrderTransitionResult {
+
+    @Schema(description = "Order id", example = "101")
+    private Integer orderId;
+
+    @Schema(description = "What happened to the order", implementation = OrderTransitionOutcome.class, example = "UPDATED")
+    private OrderTransitionOutcome outcome;
+
+    @Schema(description = "Status before the transition (null when the order doesn't exist)", example = "PROCESSING", nullable = true)
+    private OrderStatus previousStatus;
+
+    public OrderTransitionResult() {
+    }
+
+    public OrderTransitionResult(Integer orderId, OrderTransitionOutcome outcome, OrderStatus previousStatus) {
+        this.orderId = orderId;
+        this.outcome = outcome;
+        this.previousStatus = previousStatus;
+    }
+
+    public Integer getOrderId() { return orderId; }
+    public void setOrderId(Integer orderId) { this.orderId = orderId; }
+    public OrderTransitionOutcome getOutcome() { return outcome; }
+    public void setOutcome(OrderTransitionOutcome outcome) { this.outcome = outcome; }
+    public OrderStatus getPreviousStatus() { return previousStatus; }
+    public void setPreviousStatus(OrderStatus previousStatus) { this.previousStatus = previousStatus; }
+}
@@ -0,0 +1,55 @@
+package com.simple_online_store_backend.dto.person;
+
+import com.simple_online_store_backend.util.SwaggerConstants;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+
+@Schema(name = "CustomerDirectoryItemResponse", description = "One customer in the admin customer directory")
+public class CustomerDirectoryItemResponse {
+
+    @Schema(description = SwaggerConstants.ID_DESC + " person", example = SwaggerConstants.ID_EXAMPLE)
+    private Integer id;
+
+    @Schema(description = SwaggerConstants.USERNAME_DESC, example = SwaggerConstants.USERNAME_EXAMPLE)
+    private String userName;
+
+    @Schema(description = SwaggerConstants.EMAIL_DESC, example = SwaggerConstants.EMAIL_EXAMPLE)
+    private String email;
+
+    @Schema(description = SwaggerConstants.PHONE_NUMBER_DESC, example = SwaggerConstants.PHONE_NUMBER_EXAMPLE)
+    private String phoneNumber;
+
+    @Schema(description = SwaggerConstants.DATE_OF_BIRTH_DESC, example = SwaggerConstants.DATE_OF_BIRTH_EXAMPLE)
+    private LocalDate dateOfBirth;
+
+    @Schema(description = "Whether the account is deactivated", example = "false")
+    private boolean deleted;
+
+    public CustomerDirectoryItemResponse() {
+    }
+
+    // Used by the JPQL constructor projection in PeopleRepository
+    public CustomerDirectoryItemResponse(Integer id, String userName, String email, String phoneNumber,
+                                         LocalDate dateOfBirth, Boolean deleted) {
+        this.id = id;
+        this.userName = userName;
+        this.email = email;
+        this.phoneNumber = phoneNumber;
+        this.dateOfBirth = dateOfBirth;
+        this.deleted = Boolean.TRUE.equals(deleted);
+    }
+
+    public Integer getId() { return id; }
+    public void setId(Integer id) { this.id = id; }
+    public String getUserName() { return userName; }
+    public void setUserName(String userName) { this.userName = userName; }
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+    public String getPhoneNumber() { return phoneNumber; }
+    public void setPhoneNumber(String phoneNumber) { this.phoneNumber = phoneNumber; }
+    public LocalDate getDateOfBirth() { return dateOfBirth; }
+    public void setDateOfBirth(LocalDate dateOfBirth) { this.dateOfBirth = dateOfBirth; }
+    public boolean isDeleted() { return deleted; }
+    public void setDeleted(boolean deleted) { this.deleted = deleted; }
+}
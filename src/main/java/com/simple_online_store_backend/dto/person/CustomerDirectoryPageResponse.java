@@ -0,0 +1,28 @@
+package com.simple_online_store_backend.dto.person;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(name = "CustomerDirectoryPageResponse", description = "One page of the customer directory, ordered by id")
+public class CustomerDirectoryPageResponse {
+
+    @Schema(description = "Customers of this page")
+    private List<CustomerDirectoryItemResponse> items;
+
+    @Schema(description = "Pass as afterId to get the next page; null on the last page", example = "128", nullable = true)
+    private Integer nextAfterId;
+
+    public CustomerDirectoryPageResponse() {
+    }
+
+    public CustomerDirectoryPageResponse(List<CustomerDirectoryItemResponse> items, Integer nextAfterId) {
+        this.items = items;
+        this.nextAfterId = nextAfterId;
+    }
+
+    public List<CustomerDirectoryItemResponse> getItems() { return items; }
+    public void setItems(List<CustomerDirectoryItemResponse> items) { this.items = items; }
+    public Integer getNextAfterId() { return nextAfterId; }
+    public void setNextAfterId(Integer nextAfterId) { this.nextAfterId = nextAfterId; }
+}
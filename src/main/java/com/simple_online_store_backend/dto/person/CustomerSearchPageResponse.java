@@ -0,0 +1,28 @@
+package com.simple_online_store_backend.dto.person;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(name = "CustomerSearchPageResponse", description = "One page of customer search results, best matches first")
+public class CustomerSearchPageResponse {
+
+    @Schema(description = "Matching customers of this page")
+    private List<CustomerDirectoryItemResponse> items;
+
+    @Schema(description = "Opaque cursor for the next page; null on the last page", example = "MXw0MnxhbGljZQ", nullable = true)
+    private String nextCursor;
+
+    public CustomerSearchPageResponse() {
+    }
+
+    public CustomerSearchPageResponse(List<CustomerDirectoryItemResponse> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<CustomerDirectoryItemResponse> getItems() { return items; }
+    public void setItems(List<CustomerDirectoryItemResponse> items) { this.items = items; }
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
@@ -0,0 +1,79 @@
+package com.simple_online_store_backend.dto.person;
+
+import com.simple_online_store_backend.enums.DeactivationJobStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+
+@Schema(name = "DeactivationJobResponse", description = "Progress snapshot of a batch deactivation job")
+public class DeactivationJobResponse {
+
+    @Schema(description = "Job identifier to poll with", example = "1f0c6a4e-8a43-4b4e-9d7a-3b1a2f7e9c11")
+    private String jobId;
+
+    @Schema(description = "Current job state", implementation = DeactivationJobStatus.class, example = "RUNNING")
+    private DeactivationJobStatus status;
+
+    @Schema(description = "Number of distinct person ids in the job", example = "1200")
+    private int total;
+
+    @Schema(description = "Number of ids handled so far", example = "400")
+    private int processed;
+
+    @Schema(description = "Accounts deactivated by this job", example = "380")
+    private int deactivated;
+
+    @Schema(description = "Accounts that were already deactivated", example = "15")
+    private int alreadyInactive;
+
+    @Schema(description = "Administrator accounts left untouched", example = "1")
+    private int skippedAdmins;
+
+    @Schema(description = "Ids that don't exist", example = "4")
+    private int notFound;
+
+    @Schema(description = "PENDING/PROCESSING orders cancelled along the way", example = "57")
+    private int ordersCancelled;
+
+    @Schema(description = "When the job was submitted", example = "2025-01-10T12:00:00")
+    private LocalDateTime startedAt;
+
+    @Schema(description = "When the job finished, null while running", example = "2025-01-10T12:00:05", nullable = true)
+    private LocalDateTime finishedAt;
+
+    @Schema(description = "Failure reason for FAILED jobs", nullable = true)
+    private String error;
+
+    public DeactivationJobResponse() {
+    }
+
+    public DeactivationJobResponse(String jobId, DeactivationJobStatus status, int total, int processed,
+                                   int deactivated, int alreadyInactive, int skippedAdmins, int notFound,
+                                   int ordersCancelled, LocalDateTime startedAt, LocalDateTime finishedAt, String error) {
+        this.jobId = jobId;
+        this.status = status;
+        this.total = total;
+        this.processed = processed;
+        this.deactivated = deactivated;
+        this.alreadyInactive = alreadyInactive;
+        this.skippedAdmins = skippedAdmins;
+        this.notFound = notFound;
+        this.ordersCancelled = ordersCancelled;
+        this.startedAt = startedAt;
+        this.finishedAt = finishedAt;
+        this.error = error;
+    }
+
+    public String getJobId() { return jobId; }
+    public DeactivationJobStatus getStatus() { return status; }
+    public int getTotal() { return total; }
+    public int getProcessed() { return processed; }
+    public int getDeactivated() { return deactivated; }
+    public int getAlreadyInactive() { return alreadyInactive; }
+    public int getSkippedAdmins() { return skippedAdmins; }
+    public int getNotFound() { return notFound; }
+    public int getOrdersCancelled() { return ordersCancelled; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public String getError() { return error; }
+}
@@ -0,0 +1,25 @@
+package com.simple_online_store_backend.dto.person;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+@Schema(name = "PersonBatchDeactivationRequest", description = "Accounts to deactivate in one background job")
+public class PersonBatchDeactivationRequest {
+
+    @NotEmpty(message = "At least one person id is required")
+    @Size(max = 50000, message = "No more than 50000 person ids per job")
+    @ArraySchema(
+            arraySchema = @Schema(description = "Ids of the accounts to deactivate; duplicates are ignored", example = "[12, 15, 31]"),
+            schema = @Schema(minimum = "1")
+    )
+    private List<@NotNull @Min(1) Integer> personIds;
+
+    public List<Integer> getPersonIds() { return personIds; }
+    public void setPersonIds(List<Integer> personIds) { this.personIds = personIds; }
+}
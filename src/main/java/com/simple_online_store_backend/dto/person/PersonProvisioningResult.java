@@ -0,0 +1,46 @@
+package com.simple_online_store_backend.dto.person;
+
+import com.simple_online_store_backend.enums.ProvisioningOutcome;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(name = "PersonProvisioningResult", description = "Outcome of one line of a bulk provisioning upload (one NDJSON line)")
+public class PersonProvisioningResult {
+
+    @Schema(description = "1-based line number in the upload", example = "3")
+    private int line;
+
+    @Schema(description = "Username from the line; null when the line is not valid JSON", example = "maria12", nullable = true)
+    private String userName;
+
+    @Schema(description = "CREATED, DUPLICATE (username or email already taken) or INVALID", example = "CREATED")
+    private ProvisioningOutcome outcome;
+
+    @Schema(description = "Id of the created account", example = "42", nullable = true)
+    private Integer id;
+
+    @Schema(description = "Why the line was not created, in the `field - message;` form of validation errors",
+            example = "userName - Person with this username is already existed!;", nullable = true)
+    private String error;
+
+    public PersonProvisioningResult() {
+    }
+
+    public PersonProvisioningResult(int line, String userName, ProvisioningOutcome outcome, Integer id, String error) {
+        this.line = line;
+        this.userName = userName;
+        this.outcome = outcome;
+        this.id = id;
+        this.error = error;
+    }
+
+    public int getLine() { return line; }
+    public void setLine(int line) { this.line = line; }
+    public String getUserName() { return userName; }
+    public void setUserName(String userName) { this.userName = userName; }
+    public ProvisioningOutcome getOutcome() { return outcome; }
+    public void setOutcome(ProvisioningOutcome outcome) { this.outcome = outcome; }
+    public Integer getId() { return id; }
+    public void setId(Integer id) { this.id = id; }
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
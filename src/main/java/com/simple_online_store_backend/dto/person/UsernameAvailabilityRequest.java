@@ -0,0 +1,24 @@
+package com.simple_online_store_backend.dto.person;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+@Schema(name = "UsernameAvailabilityRequest", description = "Usernames to check before registration")
+public class UsernameAvailabilityRequest {
+
+    @NotEmpty(message = "At least one username is required")
+    @Size(max = 50, message = "No more than 50 usernames per request")
+    @ArraySchema(
+            arraySchema = @Schema(description = "Candidate usernames; compared case-insensitively", example = "[\"maria12\", \"maria_12\"]"),
+            schema = @Schema(maxLength = 100)
+    )
+    private List<@NotBlank @Size(max = 100) String> userNames;
+
+    public List<String> getUserNames() { return userNames; }
+    public void setUserNames(List<String> userNames) { this.userNames = userNames; }
+}
@@ -0,0 +1,26 @@
+package com.simple_online_store_backend.dto.person;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(name = "UsernameAvailabilityResponse", description = "Whether a username can still be registered")
+public class UsernameAvailabilityResponse {
+
+    @Schema(description = "Username as sent, trimmed", example = "maria12")
+    private String userName;
+
+    @Schema(description = "False when an account with this name (in any letter case) already exists", example = "true")
+    private boolean available;
+
+    public UsernameAvailabilityResponse() {
+    }
+
+    public UsernameAvailabilityResponse(String userName, boolean available) {
+        this.userName = userName;
+        this.available = available;
+    }
+
+    public String getUserName() { return userName; }
+    public void setUserName(String userName) { this.userName = userName; }
+    public boolean isAvailable() { return available; }
+    public void setAvailable(boolean available) { this.available = available; }
+}
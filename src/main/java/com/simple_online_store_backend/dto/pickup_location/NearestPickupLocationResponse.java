@@ -0,0 +1,57 @@
+package com.simple_online_store_backend.dto.pickup_location;
+
+import com.simple_online_store_backend.util.SwaggerConstants;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(name = "NearestPickupLocationResponse", description = "Open pickup location with its distance from the given point")
+public class NearestPickupLocationResponse {
+    @Schema(description = SwaggerConstants.ID_DESC + " pick-up location", example = SwaggerConstants.ID_EXAMPLE)
+    private Integer id;
+
+    @Schema(description = SwaggerConstants.CITY_DESC, example = SwaggerConstants.CITY_EXAMPLE)
+    private String city;
+
+    @Schema(description = SwaggerConstants.STREET_DESC, example = SwaggerConstants.STREET_EXAMPLE)
+    private String street;
+
+    @Schema(description = SwaggerConstants.HOUSE_NUMBER_DESC, example = SwaggerConstants.HOUSE_NUMBER_EXAMPLE)
+    private String houseNumber;
+
+    @Schema(description = "Latitude in degrees", example = "52.5200")
+    private Double latitude;
+
+    @Schema(description = "Longitude in degrees", example = "13.4050")
+    private Double longitude;
+
+    @Schema(description = "Great-circle distance from the given point in kilometres", example = "1.84")
+    private Double distanceKm;
+
+    public NearestPickupLocationResponse() {
+    }
+
+    public NearestPickupLocationResponse(Integer id, String city, String street, String houseNumber,
+                                         Double latitude, Double longitude, Double distanceKm) {
+        this.id = id;
+        this.city = city;
+        this.street = street;
+        this.houseNumber = houseNumber;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.distanceKm = distanceKm;
+    }
+
+    public Integer getId() { return id; }
+    public void setId(Integer id) { this.id = id; }
+    public String getCity() { return city; }
+    public void setCity(String city) { this.city = city; }
+    public String getStreet() { return street; }
+    public void setStreet(String street) { this.street = street; }
+    public String getHouseNumber() { return houseNumber; }
+    public void setHouseNumber(String houseNumber) { this.houseNumber = houseNumber; }
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+    public Double getDistanceKm() { return distanceKm; }
+    public void setDistanceKm(Double distanceKm) { this.distanceKm = distanceKm; }
+}
@@ -0,0 +1,35 @@
+package com.simple_online_store_backend.dto.pickup_location;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+@Schema(name = "PickupLocationBulkStatusRequest", description = "Opens or closes many pickup locations at once")
+public class PickupLocationBulkStatusRequest {
+
+    @NotNull(message = "active is required")
+    @Schema(description = "true opens the locations, false closes them", example = "false")
+    private Boolean active;
+
+    @Size(max = 1000, message = "No more than 1000 ids per request")
+    @ArraySchema(
+            arraySchema = @Schema(description = "Locations to change; give either ids or city", example = "[3, 4, 5]", nullable = true),
+            schema = @Schema(minimum = "1")
+    )
+    private List<@NotNull @Min(1) Integer> ids;
+
+    @Size(max = 100, message = "City name must be at most 100 characters")
+    @Schema(description = "Every location in this city (case-insensitive); give either ids or city", example = "Berlin", nullable = true)
+    private String city;
+
+    public Boolean getActive() { return active; }
+    public void setActive(Boolean active) { this.active = active; }
+    public List<Integer> getIds() { return ids; }
+    public void setIds(List<Integer> ids) { this.ids = ids; }
+    public String getCity() { return city; }
+    public void setCity(String city) { this.city = city; }
+}
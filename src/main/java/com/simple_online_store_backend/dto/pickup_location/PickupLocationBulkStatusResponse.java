@@ -0,0 +1,58 @@
+package com.simple_online_store_backend.dto.pickup_location;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(name = "PickupLocationBulkStatusResponse", description = "Summary and per-location outcomes of a bulk open/close")
+public class PickupLocationBulkStatusResponse {
+
+    @Schema(description = "State the locations were put in", example = "false")
+    private boolean active;
+
+    @Schema(description = "Number of distinct locations processed", example = "3")
+    private int processed;
+
+    @Schema(description = "Number of locations whose state changed", example = "2")
+    private int changed;
+
+    @Schema(description = "Number of locations that were already in that state", example = "1")
+    private int unchanged;
+
+    @Schema(description = "Number of requested ids that don't exist", example = "0")
+    private int notFound;
+
+    @ArraySchema(arraySchema = @Schema(description = "Per-location outcomes, in request order (by id for a city)"),
+            schema = @Schema(implementation = PickupLocationStatusResult.class))
+    private List<PickupLocationStatusResult> results;
+
+    public PickupLocationBulkStatusResponse() {
+    }
+
+    public PickupLocationBulkStatusResponse(boolean active, List<PickupLocationStatusResult> results) {
+        this.active = active;
+        this.results = results;
+        this.processed = results.size();
+        for (PickupLocationStatusResult r : results) {
+            switch (r.getOutcome()) {
+                case CHANGED -> changed++;
+                case UNCHANGED -> unchanged++;
+                case NOT_FOUND -> notFound++;
+            }
+        }
+    }
+
+    public boolean isActive() { return active; }
+    public void setActive(boolean active) { this.active = active; }
+    public int getProcessed() { return processed; }
+    public void setProcessed(int processed) { this.processed = processed; }
+    public int getChanged() { return changed; }
+    public void setChanged(int changed) { this.changed = changed; }
+    public int getUnchanged() { return unchanged; }
+    public void setUnchanged(int unchanged) { this.unchanged = unchanged; }
+    public int getNotFound() { return notFound; }
+    public void setNotFound(int notFound) { this.notFound = notFound; }
+    public List<PickupLocationStatusResult> getResults() { return results; }
+    public void setResults(List<PickupLocationStatusResult> results) { this.results = results; }
+}
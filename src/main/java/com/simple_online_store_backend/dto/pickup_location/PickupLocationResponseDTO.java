@@ -16,6 +16,12 @@ public class PickupLocationResponseDTO {
     @Schema(description = SwaggerConstants.HOUSE_NUMBER_DESC, example = SwaggerConstants.HOUSE_NUMBER_EXAMPLE)
     private String houseNumber;
 
+    @Schema(description = "Latitude in degrees, null if not set", example = "52.5200")
+    private Double latitude;
+
+    @Schema(description = "Longitude in degrees, null if not set", example = "13.4050")
+    private Double longitude;
+
     public PickupLocationResponseDTO() {
     }
 
@@ -50,4 +56,20 @@ public class PickupLocationResponseDTO {
     public void setHouseNumber(String houseNumber) {
         this.houseNumber = houseNumber;
     }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
 }
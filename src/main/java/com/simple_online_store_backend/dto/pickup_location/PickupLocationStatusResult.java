@@ -0,0 +1,27 @@
+package com.simple_online_store_backend.dto.pickup_location;
+
+import com.simple_online_store_backend.enums.PickupLocationStatusOutcome;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(name = "PickupLocationStatusResult", description = "Outcome of opening or closing a single pickup location")
+public class PickupLocationStatusResult {
+
+    @Schema(description = "Pickup location id", example = "3")
+    private Integer id;
+
+    @Schema(description = "What happened to the location", implementation = PickupLocationStatusOutcome.class, example = "CHANGED")
+    private PickupLocationStatusOutcome outcome;
+
+    public PickupLocationStatusResult() {
+    }
+
+    public PickupLocationStatusResult(Integer id, PickupLocationStatusOutcome outcome) {
+        this.id = id;
+        this.outcome = outcome;
+    }
+
+    public Integer getId() { return id; }
+    public void setId(Integer id) { this.id = id; }
+    public PickupLocationStatusOutcome getOutcome() { return outcome; }
+    public void setOutcome(PickupLocationStatusOutcome outcome) { this.outcome = outcome; }
+}
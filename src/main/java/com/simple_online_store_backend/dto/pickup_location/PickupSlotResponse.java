@@ -0,0 +1,46 @@
+package com.simple_online_store_backend.dto.pickup_location;
+
+import com.simple_online_store_backend.util.SwaggerConstants;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+
+@Schema(name = "PickupSlotResponse", description = "Pickup time window at a location")
+public class PickupSlotResponse {
+    @Schema(description = SwaggerConstants.ID_DESC + "pickup slot.", example = SwaggerConstants.ID_EXAMPLE)
+    private Integer id;
+
+    @Schema(description = "Start of the window", example = "2025-03-14T10:00:00")
+    private LocalDateTime start;
+
+    @Schema(description = "End of the window", example = "2025-03-14T11:00:00")
+    private LocalDateTime end;
+
+    @Schema(description = "Orders the slot can take", example = "10")
+    private Integer capacity;
+
+    @Schema(description = "Places still free", example = "4")
+    private Integer available;
+
+    public PickupSlotResponse() {
+    }
+
+    public PickupSlotResponse(Integer id, LocalDateTime start, LocalDateTime end, Integer capacity, Integer available) {
+        this.id = id;
+        this.start = start;
+        this.end = end;
+        this.capacity = capacity;
+        this.available = available;
+    }
+
+    public Integer getId() { return id; }
+    public void setId(Integer id) { this.id = id; }
+    public LocalDateTime getStart() { return start; }
+    public void setStart(LocalDateTime start) { this.start = start; }
+    public LocalDateTime getEnd() { return end; }
+    public void setEnd(LocalDateTime end) { this.end = end; }
+    public Integer getCapacity() { return capacity; }
+    public void setCapacity(Integer capacity) { this.capacity = capacity; }
+    public Integer getAvailable() { return available; }
+    public void setAvailable(Integer available) { this.available = available; }
+}
@@ -0,0 +1,54 @@
+package com.simple_online_store_backend.dto.pickup_location;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Schema(name = "PickupSlotScheduleRequest", description = "Creates equal pickup slots for every day of a date range")
+public class PickupSlotScheduleRequest {
+
+    @NotNull(message = "fromDate is required")
+    @Schema(description = "First day (inclusive)", example = "2025-03-14")
+    private LocalDate fromDate;
+
+    @NotNull(message = "toDate is required")
+    @Schema(description = "Last day (inclusive), at most 31 days after fromDate", example = "2025-03-20")
+    private LocalDate toDate;
+
+    @NotNull(message = "opensAt is required")
+    @Schema(description = "Start of the first slot of each day", example = "09:00", type = "string")
+    private LocalTime opensAt;
+
+    @NotNull(message = "closesAt is required")
+    @Schema(description = "No slot ends after this time", example = "18:00", type = "string")
+    private LocalTime closesAt;
+
+    @NotNull(message = "slotMinutes is required")
+    @Min(value = 5, message = "slotMinutes must be between 5 and 240")
+    @Max(value = 240, message = "slotMinutes must be between 5 and 240")
+    @Schema(description = "Length of one slot in minutes", example = "60")
+    private Integer slotMinutes;
+
+    @NotNull(message = "capacity is required")
+    @Min(value = 1, message = "capacity must be between 1 and 1000")
+    @Max(value = 1000, message = "capacity must be between 1 and 1000")
+    @Schema(description = "Orders one slot can take", example = "10")
+    private Integer capacity;
+
+    public LocalDate getFromDate() { return fromDate; }
+    public void setFromDate(LocalDate fromDate) { this.fromDate = fromDate; }
+    public LocalDate getToDate() { return toDate; }
+    public void setToDate(LocalDate toDate) { this.toDate = toDate; }
+    public LocalTime getOpensAt() { return opensAt; }
+    public void setOpensAt(LocalTime opensAt) { this.opensAt = opensAt; }
+    public LocalTime getClosesAt() { return closesAt; }
+    public void setClosesAt(LocalTime closesAt) { this.closesAt = closesAt; }
+    public Integer getSlotMinutes() { return slotMinutes; }
+    public void setSlotMinutes(Integer slotMinutes) { this.slotMinutes = slotMinutes; }
+    public Integer getCapacity() { return capacity; }
+    public void setCapacity(Integer capacity) { this.capacity = capacity; }
+}
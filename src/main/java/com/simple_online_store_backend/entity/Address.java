@@ -1,11 +1,18 @@
 package com.simple_online_store_backend.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 
-import java.util.List;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.HexFormat;
+import java.util.Locale;
 
 @Entity
-@Table(name = "addresses")
+@Table(name = "addresses", uniqueConstraints =
+        @UniqueConstraint(name = "addresses_fingerprint_key", columnNames = "fingerprint"))
 public class Address {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -26,15 +33,52 @@ public class Address {
     @Column(name = "postal_code", length = 20)
     private String postalCode;
 
-    @OneToMany(mappedBy = "address", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
-    private List<Person> residents;
+    // SHA-256 of the canonical city/street/house number/apartment; kept in sync on every insert and update
+    @Column(name = "fingerprint", length = 64)
+    private String fingerprint;
 
-    @OneToMany(mappedBy = "address", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
-    private List<Order> orders;
+    // People, orders and archived orders pointing here. Rows that predate the column are counted by the
+    // migration in init.sql; a NULL left behind means "not counted" and is settled by AddressCollectorService.
+    // Adjusted by AddressReferenceCountListener and the bulk repository methods, never written through the entity
+    @ColumnDefault("0")
+    @Column(name = "ref_count", insertable = false, updatable = false)
+    private Integer refCount;
 
     public Address() {
     }
 
+    /**
+     * Identity of an address for deduplication: fields are NFKC-normalized, trimmed, lower-cased and have
+     * inner whitespace collapsed, so "Main  St" and "main st" are the same street. The postal code is left
+     * out, as it was in the old field-by-field lookup.
+     */
+    public static String fingerprintOf(String city, String street, String houseNumber, String apartment) {
+        String canonical = String.join("\u001F",
+                canonical(city), canonical(street), canonical(houseNumber), canonical(apartment));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String canonical(String value) {
+        if (value == null) {
+            return "";
+        }
+        return Normalizer.normalize(value, Normalizer.Form.NFKC)
+                .trim()
+                .replaceAll("\\s+", " ")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    @PrePersist
+    @PreUpdate
+    void updateFingerprint() {
+        fingerprint = fingerprintOf(city, street, houseNumber, apartment);
+    }
+
     public Integer getId() {
         return id;
     }
@@ -83,19 +127,15 @@ public class Address {
         this.postalCode = postalCode;
     }
 
-    public List<Person> getResidents() {
-        return residents;
-    }
-
-    public void setResidents(List<Person> residents) {
-        this.residents = residents;
+    public String getFingerprint() {
+        return fingerprint;
     }
 
-    public List<Order> getOrders() {
-        return orders;
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
     }
 
-    public void setOrders(List<Order> orders) {
-        this.orders = orders;
+    public Integer getRefCount() {
+        return refCount;
     }
 }
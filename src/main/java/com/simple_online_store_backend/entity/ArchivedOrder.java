@@ -0,0 +1,133 @@
+package com.simple_online_store_backend.entity;
+
+import com.simple_online_store_backend.enums.OrderStatus;
+import jakarta.persistence.*;
+import org.hibernate.annotations.NotFound;
+import org.hibernate.annotations.NotFoundAction;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read-only copy of a DELIVERED/CANCELLED order moved out of the hot orders table by OrderArchivalService.
+ * References are kept as plain ids without FK constraints (the archive must outlive the referenced
+ * rows), so missing targets are tolerated on read.
+ */
+@Entity
+@Table(name = "orders_archive")
+public class ArchivedOrder {
+    @Id
+    private Integer id;
+
+    @ManyToMany
+    @JoinTable(
+            name = "orders_products_archive",
+            joinColumns = @JoinColumn(name = "order_id"),
+            inverseJoinColumns = @JoinColumn(name = "product_id"),
+            foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT),
+            inverseForeignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT)
+    )
+    private List<Product> products = new ArrayList<>();
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderStatus status;
+
+    @ManyToOne
+    @NotFound(action = NotFoundAction.IGNORE)
+    @JoinColumn(name = "person_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private Person person;
+
+    @ManyToOne
+    @NotFound(action = NotFoundAction.IGNORE)
+    @JoinColumn(name = "pickup_location_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private PickupLocation pickupLocation;
+
+    @ManyToOne
+    @NotFound(action = NotFoundAction.IGNORE)
+    @JoinColumn(name = "pickup_slot_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private PickupSlot pickupSlot;
+
+    @ManyToOne
+    @NotFound(action = NotFoundAction.IGNORE)
+    @JoinColumn(name = "address_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private Address address;
+
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    public ArchivedOrder() {
+    }
+
+    /**
+     * Detached Order view of the archived row, so the regular OrderMapper can render it.
+     */
+    public Order toOrder() {
+        Order order = new Order();
+        order.setId(id);
+        order.setStatus(status);
+        order.setPerson(person);
+        order.setPickupLocation(pickupLocation);
+        order.setPickupSlot(pickupSlot);
+        order.setAddress(address);
+        order.setProducts(new ArrayList<>(products));
+        order.setVersion(version);
+        order.setCreatedAt(createdAt);
+        order.setUpdatedAt(updatedAt);
+        return order;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public List<Product> getProducts() {
+        return products;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public Person getPerson() {
+        return person;
+    }
+
+    public PickupLocation getPickupLocation() {
+        return pickupLocation;
+    }
+
+    public PickupSlot getPickupSlot() {
+        return pickupSlot;
+    }
+
+    public Address getAddress() {
+        return address;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+}
@@ -2,9 +2,12 @@ package com.simple_online_store_backend.entity;
 
 import com.simple_online_store_backend.enums.OrderStatus;
 import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -37,11 +40,30 @@ public class Order {
     @OnDelete(action = OnDeleteAction.SET_NULL)
     private PickupLocation pickupLocation;
 
+    // Reserved pickup window, if the location hands out slots
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "pickup_slot_id")
+    @OnDelete(action = OnDeleteAction.SET_NULL)
+    private PickupSlot pickupSlot;
+
     @ManyToOne
     @JoinColumn(name = "address_id")
     @OnDelete(action = OnDeleteAction.SET_NULL)
     private Address address;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // Also bumped by the bulk status UPDATEs in OrderRepository; archival age is measured from it
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
     public Order() {
     }
 
@@ -85,6 +107,14 @@ public class Order {
         this.pickupLocation = pickupLocation;
     }
 
+    public PickupSlot getPickupSlot() {
+        return pickupSlot;
+    }
+
+    public void setPickupSlot(PickupSlot pickupSlot) {
+        this.pickupSlot = pickupSlot;
+    }
+
     public Address getAddress() {
         return address;
     }
@@ -92,5 +122,28 @@ public class Order {
     public void setAddress(Address address) {
         this.address = address;
     }
-}
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -6,10 +6,14 @@ import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "people")
+@Table(name = "people", uniqueConstraints = {
+        @UniqueConstraint(name = "people_user_name_key", columnNames = "user_name"),
+        @UniqueConstraint(name = "people_email_key", columnNames = "email")
+})
 public class Person {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -36,6 +40,10 @@ public class Person {
     @Column(name = "is_deleted", nullable = false)
     private Boolean isDeleted = false;
 
+    // When the account was last deactivated; drives the retention purge
+    @Column(name = "deactivated_at")
+    private LocalDateTime deactivatedAt;
+
     @OneToMany(mappedBy = "person", fetch = FetchType.LAZY)
     @JsonIgnore // Instructs Jackson to ignore this field during serialization.
     private List<Order> orders;
@@ -112,6 +120,14 @@ public class Person {
         isDeleted = deleted;
     }
 
+    public LocalDateTime getDeactivatedAt() {
+        return deactivatedAt;
+    }
+
+    public void setDeactivatedAt(LocalDateTime deactivatedAt) {
+        this.deactivatedAt = deactivatedAt;
+    }
+
     public List<Order> getOrders() {
         return orders;
     }
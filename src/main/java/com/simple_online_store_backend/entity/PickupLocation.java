@@ -23,6 +23,10 @@ public class PickupLocation {
     @Column(nullable = false)
     private Boolean active;
 
+    private Double latitude;
+
+    private Double longitude;
+
     @OneToMany(mappedBy = "pickupLocation", fetch = FetchType.LAZY)
     private List<Order> orderList;
 
@@ -69,6 +73,22 @@ public class PickupLocation {
         this.active = active;
     }
 
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
     public List<Order> getOrderList() {
         return orderList;
     }
@@ -0,0 +1,89 @@
+package com.simple_online_store_backend.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+
+/**
+ * A pickup time window at one location with a fixed number of orders it can take.
+ * {@code reserved} is only changed by conditional UPDATEs in PickupSlotRepository, never through the entity,
+ * so concurrent checkouts cannot overbook a slot.
+ */
+@Entity
+@Table(name = "pickup_slots",
+        uniqueConstraints = @UniqueConstraint(name = "pickup_slots_location_start_key", columnNames = {"pickup_location_id", "slot_start"}))
+public class PickupSlot {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "pickup_location_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private PickupLocation pickupLocation;
+
+    @Column(name = "slot_start", nullable = false)
+    private LocalDateTime slotStart;
+
+    @Column(name = "slot_end", nullable = false)
+    private LocalDateTime slotEnd;
+
+    @Column(nullable = false)
+    private int capacity;
+
+    @Column(nullable = false)
+    private int reserved;
+
+    public PickupSlot() {
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public PickupLocation getPickupLocation() {
+        return pickupLocation;
+    }
+
+    public void setPickupLocation(PickupLocation pickupLocation) {
+        this.pickupLocation = pickupLocation;
+    }
+
+    public LocalDateTime getSlotStart() {
+        return slotStart;
+    }
+
+    public void setSlotStart(LocalDateTime slotStart) {
+        this.slotStart = slotStart;
+    }
+
+    public LocalDateTime getSlotEnd() {
+        return slotEnd;
+    }
+
+    public void setSlotEnd(LocalDateTime slotEnd) {
+        this.slotEnd = slotEnd;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public int getReserved() {
+        return reserved;
+    }
+
+    public void setReserved(int reserved) {
+        this.reserved = reserved;
+    }
+}
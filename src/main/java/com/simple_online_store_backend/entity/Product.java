@@ -36,6 +36,10 @@ public class Product {
     @ManyToMany(mappedBy = "products")
     private List<Order> orders = new ArrayList<>();
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     public Product() {
     }
 
@@ -94,4 +98,12 @@ public class Product {
     public void setOrders(List<Order> orders) {
         this.orders = orders;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,8 @@
+package com.simple_online_store_backend.enums;
+
+public enum OrderEventType {
+    ORDER_CREATED,
+    ORDER_CANCELLED,
+    ORDER_REACTIVATED,
+    ORDER_STATUS_CHANGED
+}
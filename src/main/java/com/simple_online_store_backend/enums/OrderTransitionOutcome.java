@@ -0,0 +1,8 @@
+package com.simple_online_store_backend.enums;
+
+public enum OrderTransitionOutcome {
+    UPDATED,
+    INVALID_TRANSITION,
+    NOT_FOUND,
+    SLOT_UNAVAILABLE
+}
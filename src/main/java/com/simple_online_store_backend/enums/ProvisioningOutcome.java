@@ -0,0 +1,7 @@
+package com.simple_online_store_backend.enums;
+
+public enum ProvisioningOutcome {
+    CREATED,
+    DUPLICATE,
+    INVALID
+}
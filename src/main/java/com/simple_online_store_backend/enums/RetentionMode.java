@@ -0,0 +1,6 @@
+package com.simple_online_store_backend.enums;
+
+public enum RetentionMode {
+    PURGE,
+    ANONYMIZE
+}
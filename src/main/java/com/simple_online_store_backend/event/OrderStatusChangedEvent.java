@@ -0,0 +1,17 @@
+package com.simple_online_store_backend.event;
+
+import com.simple_online_store_backend.enums.OrderStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published (in-process) for every order status change, inside the transaction that makes it.
+ * previousStatus is null for a newly created order.
+ * Listeners that must only see committed changes use @TransactionalEventListener or a synchronization.
+ */
+public record OrderStatusChangedEvent(Integer orderId,
+                                      Integer personId,
+                                      OrderStatus previousStatus,
+                                      OrderStatus status,
+                                      LocalDateTime occurredAt) {
+}
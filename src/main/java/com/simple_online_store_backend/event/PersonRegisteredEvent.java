@@ -0,0 +1,7 @@
+package com.simple_online_store_backend.event;
+
+/**
+ * Published (in-process) when an account is created, inside the registration transaction.
+ */
+public record PersonRegisteredEvent(Integer personId, String userName) {
+}
@@ -0,0 +1,9 @@
+package com.simple_online_store_backend.event;
+
+/**
+ * Published (in-process) when a pickup location is created, edited, opened or closed, inside the same transaction.
+ * Carries the state after the change.
+ */
+public record PickupLocationChangedEvent(Integer id, String city, String street, String houseNumber,
+                                         Double latitude, Double longitude, boolean active) {
+}
@@ -8,6 +8,7 @@ import jakarta.persistence.EntityNotFoundException;
 import jakarta.persistence.PersistenceException;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -167,6 +168,17 @@ public class GlobalExceptionHandler {
         );
     }
 
+    @ExceptionHandler(OrderArchivedException.class)
+    public ResponseEntity<ErrorResponseDTO> handleOrderArchived(OrderArchivedException ex, HttpServletRequest req) {
+        return error(HttpStatus.CONFLICT, "ORDER_ARCHIVED", ex.getMessage(), req.getRequestURI());
+    }
+
+    @ExceptionHandler({ConcurrentUpdateException.class, OptimisticLockingFailureException.class})
+    public ResponseEntity<ErrorResponseDTO> handleConcurrentUpdate(Exception ex, HttpServletRequest req) {
+        return error(HttpStatus.CONFLICT, "CONCURRENT_MODIFICATION",
+                "The resource was modified concurrently, please retry the request", req.getRequestURI());
+    }
+
     private ResponseEntity<ErrorResponseDTO> error(HttpStatus status, String code, String message, String path) {
         ErrorResponseDTO dto = new ErrorResponseDTO();
         dto.setStatus(status.value());
@@ -0,0 +1,7 @@
+package com.simple_online_store_backend.exception;
+
+public class OrderArchivedException extends RuntimeException {
+    public OrderArchivedException(String message) {
+        super(message);
+    }
+}
@@ -2,6 +2,8 @@ package com.simple_online_store_backend.mapper;
 
 import com.simple_online_store_backend.dto.order.*;
 import com.simple_online_store_backend.dto.person.PersonShortDTO;
+import com.simple_online_store_backend.dto.pickup_location.PickupLocationResponseDTO;
+import com.simple_online_store_backend.dto.pickup_location.PickupSlotResponse;
 import com.simple_online_store_backend.dto.product.ProductShortDTO;
 import com.simple_online_store_backend.entity.Address;
 import com.simple_online_store_backend.entity.Order;
@@ -88,19 +90,32 @@ public class OrderMapper {
     }
 
     public OrderDetailsResponse toDetails(Order order) {
+        return toDetails(order, order.getPerson());
+    }
+
+    // Owner is passed separately when order.getPerson() is an uninitialised reference
+    public OrderDetailsResponse toDetails(Order order, Person owner) {
+        PickupLocation pickupLocation = order.getPickupLocation();
+        return toDetails(order, owner, pickupLocation == null ? null : pickupLocationMapper.mapEntityToResponse(pickupLocation));
+    }
+
+    // Same for the pickup location: a reference taken at checkout is described from PickupLocationRegistry
+    public OrderDetailsResponse toDetails(Order order, Person owner, PickupLocationResponseDTO pickup) {
         OrderDetailsResponse dto = new OrderDetailsResponse();
         dto.setId(order.getId());
         dto.setStatus(order.getStatus());
 
-        if (order.getPerson() != null) {
-            dto.setOwnerId(order.getPerson().getId());
-            dto.setOwnerUserName(order.getPerson().getUserName());
+        if (owner != null) {
+            dto.setOwnerId(owner.getId());
+            dto.setOwnerUserName(owner.getUserName());
         }
         if (order.getAddress() != null) {
             dto.setAddress(addressMapper.mapAddressToResponseDTO(order.getAddress()));
         }
-        if (order.getPickupLocation() != null) {
-            dto.setPickup(pickupLocationMapper.mapEntityToResponse(order.getPickupLocation()));
+        dto.setPickup(pickup);
+        if (order.getPickupSlot() != null) {
+            var slot = order.getPickupSlot();
+            dto.setPickupSlot(new PickupSlotResponse(slot.getId(), slot.getSlotStart(), slot.getSlotEnd(), null, null));
         }
 
         if (order.getProducts() != null) {
@@ -2,9 +2,105 @@ package com.simple_online_store_backend.repository;
 
 import com.simple_online_store_backend.entity.Address;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface AddressRepository extends JpaRepository<Address, Integer> {
-    Optional<Address> findByCityAndStreetAndHouseNumberAndApartment(String city, String street, String houseNumber, String apartment);
+    Optional<Address> findByFingerprint(String fingerprint);
+
+    // Upsert half of addAddress: a concurrent insert of the same fingerprint makes this a no-op instead of a
+    // duplicate or an error, and findByFingerprint then sees whichever row won
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            INSERT INTO addresses (city, street, house_number, apartment, postal_code, fingerprint)
+            VALUES (:city, :street, :houseNumber, :apartment, :postalCode, :fingerprint)
+            ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("city") String city,
+                       @Param("street") String street,
+                       @Param("houseNumber") String houseNumber,
+                       @Param("apartment") String apartment,
+                       @Param("postalCode") String postalCode,
+                       @Param("fingerprint") String fingerprint);
+
+    // Reference counting: every attach/detach done outside JPA entity saves goes through these
+
+    @Modifying
+    @Query(value = "UPDATE addresses SET ref_count = ref_count + 1 WHERE fingerprint = :fingerprint", nativeQuery = true)
+    int incrementByFingerprint(@Param("fingerprint") String fingerprint);
+
+    @Modifying
+    @Query(value = "UPDATE addresses SET ref_count = ref_count + :delta WHERE id = :id", nativeQuery = true)
+    int adjustReferenceCount(@Param("id") int addressId, @Param("delta") int delta);
+
+    // O(1): a primary-key delete guarded by the counter; returns 0 for a shared (or not yet counted) address
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Address a WHERE a.id = :id AND a.refCount = 0")
+    int deleteIfUnreferenced(@Param("id") int addressId);
+
+    @Modifying
+    @Query(value = "DELETE FROM addresses WHERE id IN (:ids) AND ref_count = 0", nativeQuery = true)
+    int deleteUnreferencedByIdIn(@Param("ids") Collection<Integer> ids);
+
+    // Exact recount from the referencing tables (each lookup served by its address_id index)
+    @Modifying
+    @Query(value = """
+            UPDATE addresses a SET ref_count =
+                  (SELECT COUNT(*) FROM people p WHERE p.address_id = a.id)
+                + (SELECT COUNT(*) FROM orders o WHERE o.address_id = a.id)
+                + (SELECT COUNT(*) FROM orders_archive oa WHERE oa.address_id = a.id)
+            WHERE a.id IN (:ids)
+            """, nativeQuery = true)
+    int recountReferences(@Param("ids") Collection<Integer> ids);
+
+    // Collector candidates: unreferenced or never counted; served by addresses_unreferenced_idx
+    @Query(value = """
+            SELECT id FROM addresses
+            WHERE ref_count IS NULL OR ref_count <= 0
+            ORDER BY id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<Number> lockUnreferencedCandidates(@Param("limit") int limit);
+
+    // Merging duplicates: everything pointing at one of :from is moved to :into, then :from can go
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE people SET address_id = :into WHERE address_id IN (:from)", nativeQuery = true)
+    int repointPeople(@Param("from") Collection<Integer> from, @Param("into") int into);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE orders SET address_id = :into WHERE address_id IN (:from)", nativeQuery = true)
+    int repointOrders(@Param("from") Collection<Integer> from, @Param("into") int into);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE orders_archive SET address_id = :into WHERE address_id IN (:from)", nativeQuery = true)
+    int repointArchivedOrders(@Param("from") Collection<Integer> from, @Param("into") int into);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM addresses WHERE id IN (:ids)", nativeQuery = true)
+    int deleteByIdIn(@Param("ids") Collection<Integer> ids);
+
+    // Backfill of rows written before the fingerprint column existed; Row = [id, city, street, house_number, apartment]
+    @Query(value = """
+            SELECT id, city, street, house_number, apartment FROM addresses
+            WHERE fingerprint IS NULL
+            ORDER BY id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<Object[]> lockUnfingerprinted(@Param("limit") int limit);
+
+    // Row = [fingerprint, id]
+    @Query(value = "SELECT fingerprint, id FROM addresses WHERE fingerprint IN (:fingerprints)", nativeQuery = true)
+    List<Object[]> findIdsByFingerprintIn(@Param("fingerprints") Collection<String> fingerprints);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE addresses SET fingerprint = :fingerprint WHERE id = :id", nativeQuery = true)
+    int setFingerprint(@Param("id") int id, @Param("fingerprint") String fingerprint);
 }
@@ -0,0 +1,63 @@
+package com.simple_online_store_backend.repository;
+
+import com.simple_online_store_backend.entity.ArchivedOrder;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Integer> {
+    @EntityGraph(attributePaths = {"products", "person", "address", "pickupLocation", "pickupSlot"})
+    Optional<ArchivedOrder> findWithDetailsById(Integer id);
+
+    @EntityGraph(attributePaths = {"products"})
+    List<ArchivedOrder> findByPerson_IdOrderByIdDesc(Integer personId);
+
+    // Row = [status, count]
+    @Query("SELECT o.status, COUNT(o) FROM ArchivedOrder o GROUP BY o.status")
+    List<Object[]> countGroupedByStatus();
+
+    // Archival runs as plain INSERT ... SELECT / DELETE statements so no order is ever loaded into the persistence context
+
+    @Query(value = """
+            SELECT id FROM orders
+            WHERE status IN (:statuses) AND updated_at < :cutoff
+            ORDER BY id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<Number> lockArchivableIds(@Param("statuses") Collection<String> statuses,
+                                   @Param("cutoff") LocalDateTime cutoff,
+                                   @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO orders_archive (id, status, person_id, pickup_location_id, pickup_slot_id, address_id, version,
+                                        created_at, updated_at, archived_at)
+            SELECT id, status, person_id, pickup_location_id, pickup_slot_id, address_id, version,
+                   created_at, updated_at, :archivedAt
+            FROM orders WHERE id IN (:ids)
+            """, nativeQuery = true)
+    int copyOrders(@Param("ids") Collection<Integer> ids, @Param("archivedAt") LocalDateTime archivedAt);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO orders_products_archive (order_id, product_id)
+            SELECT order_id, product_id FROM orders_products WHERE order_id IN (:ids)
+            """, nativeQuery = true)
+    int copyOrderItems(@Param("ids") Collection<Integer> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM orders_products WHERE order_id IN (:ids)", nativeQuery = true)
+    int deleteOrderItems(@Param("ids") Collection<Integer> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM orders WHERE id IN (:ids)", nativeQuery = true)
+    int deleteOrders(@Param("ids") Collection<Integer> ids);
+}
@@ -3,9 +3,15 @@ package com.simple_online_store_backend.repository;
 import com.simple_online_store_backend.entity.Order;
 import com.simple_online_store_backend.entity.Person;
 import com.simple_online_store_backend.enums.OrderStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,8 +19,101 @@ public interface OrderRepository extends JpaRepository<Order, Integer> {
     List<Order> findByPerson(Person person);
     List<Order> findByPersonAndStatus(Person person, OrderStatus status);
     Boolean existsByPerson_Id(Integer id);
-    @EntityGraph(attributePaths = {"products", "person", "address", "pickupLocation"})
+    @EntityGraph(attributePaths = {"products", "person", "address", "pickupLocation", "pickupSlot"})
     Optional<Order> findWithDetailsById(Integer id);
 
     List<Order> findByPerson_Id(Integer personId);
+
+    // Row = [id, status, person_id]; rows stay locked until the surrounding transaction ends
+    @Query(value = "SELECT id, status, person_id FROM orders WHERE id IN (:ids) FOR UPDATE", nativeQuery = true)
+    List<Object[]> lockStatusesByIdIn(@Param("ids") Collection<Integer> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :target, o.version = o.version + 1, o.updatedAt = LOCAL DATETIME WHERE o.id IN :ids AND o.status IN :expected")
+    int updateStatusWhereStatusIn(@Param("ids") Collection<Integer> ids,
+                                  @Param("expected") Collection<OrderStatus> expected,
+                                  @Param("target") OrderStatus target);
+
+    // Row = [id, status, person_id] of the given owners' orders in the given statuses, locked like lockStatusesByIdIn
+    @Query(value = "SELECT id, status, person_id FROM orders WHERE person_id IN (:personIds) AND status IN (:statuses) FOR UPDATE",
+            nativeQuery = true)
+    List<Object[]> lockByPersonIdInAndStatusIn(@Param("personIds") Collection<Integer> personIds,
+                                               @Param("statuses") Collection<String> statuses);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :target, o.version = o.version + 1, o.updatedAt = LOCAL DATETIME WHERE o.person.id IN :personIds AND o.status IN :expected")
+    int updateStatusByPersonIdInWhereStatusIn(@Param("personIds") Collection<Integer> personIds,
+                                              @Param("expected") Collection<OrderStatus> expected,
+                                              @Param("target") OrderStatus target);
+
+    // Row = [id, person_id, updated_at] of the given orders that are still PENDING, locked like lockStatusesByIdIn
+    @Query(value = "SELECT id, person_id, updated_at FROM orders WHERE id IN (:ids) AND status = 'PENDING' FOR UPDATE",
+            nativeQuery = true)
+    List<Object[]> lockPendingByIdIn(@Param("ids") Collection<Integer> ids);
+
+    // Row = [id, updated_at]; keyset page of PENDING orders after (afterUpdatedAt, afterId), served by orders_pending_updated_idx
+    @Query(value = """
+            SELECT id, updated_at FROM orders
+            WHERE status = 'PENDING' AND (updated_at, id) > (:afterUpdatedAt, :afterId)
+            ORDER BY updated_at, id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Object[]> findPendingAfter(@Param("afterUpdatedAt") LocalDateTime afterUpdatedAt,
+                                    @Param("afterId") int afterId,
+                                    @Param("limit") int limit);
+
+    // Row = [status, count]
+    @Query("SELECT o.status, COUNT(o) FROM Order o GROUP BY o.status")
+    List<Object[]> countGroupedByStatus();
+
+    // Row = [order_id, order day, pickup_location_id, product_category, price]; one row per item,
+    // a single row with null product columns for orders without items
+    @Query(value = """
+            SELECT o.id, CAST(o.created_at AS DATE), o.pickup_location_id, p.product_category, p.price
+            FROM orders o
+            LEFT JOIN orders_products op ON op.order_id = o.id
+            LEFT JOIN products p ON p.id = op.product_id
+            WHERE o.id IN (:ids)
+            """, nativeQuery = true)
+    List<Object[]> findSalesLinesByIdIn(@Param("ids") Collection<Integer> ids);
+
+    // Row = [order day, channel, orders, units, revenue] for booked (non-cancelled) orders created in [from, to)
+    @Query(value = """
+            SELECT CAST(o.created_at AS DATE),
+                   CASE WHEN o.pickup_location_id IS NULL THEN 'COURIER' ELSE 'PICKUP' END,
+                   COUNT(DISTINCT o.id), COUNT(p.id), COALESCE(SUM(p.price), 0)
+            FROM orders o
+            LEFT JOIN orders_products op ON op.order_id = o.id
+            LEFT JOIN products p ON p.id = op.product_id
+            WHERE o.status <> 'CANCELLED' AND o.created_at >= :from AND o.created_at < :to
+            GROUP BY CAST(o.created_at AS DATE), CASE WHEN o.pickup_location_id IS NULL THEN 'COURIER' ELSE 'PICKUP' END
+            """, nativeQuery = true)
+    List<Object[]> aggregateBookedSalesByDay(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Row = [order day, category, channel, orders, units, revenue] for booked orders created in [from, to)
+    @Query(value = """
+            SELECT CAST(o.created_at AS DATE), p.product_category,
+                   CASE WHEN o.pickup_location_id IS NULL THEN 'COURIER' ELSE 'PICKUP' END,
+                   COUNT(DISTINCT o.id), COUNT(p.id), COALESCE(SUM(p.price), 0)
+            FROM orders o
+            JOIN orders_products op ON op.order_id = o.id
+            JOIN products p ON p.id = op.product_id
+            WHERE o.status <> 'CANCELLED' AND o.created_at >= :from AND o.created_at < :to
+            GROUP BY CAST(o.created_at AS DATE), p.product_category,
+                     CASE WHEN o.pickup_location_id IS NULL THEN 'COURIER' ELSE 'PICKUP' END
+            """, nativeQuery = true)
+    List<Object[]> aggregateBookedSalesByDayAndCategory(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Keyset page of ids for filter-based bulk transitions
+    @Query("""
+            SELECT o.id FROM Order o
+            WHERE o.status = :status
+              AND o.id > :afterId
+              AND (:pickupLocationId IS NULL OR o.pickupLocation.id = :pickupLocationId)
+            ORDER BY o.id
+            """)
+    List<Integer> findIdsByStatusAfter(@Param("status") OrderStatus status,
+                                       @Param("pickupLocationId") Integer pickupLocationId,
+                                       @Param("afterId") Integer afterId,
+                                       Pageable page);
 }
@@ -1,16 +1,94 @@
 package com.simple_online_store_backend.repository;
 
+import com.simple_online_store_backend.dto.person.CustomerDirectoryItemResponse;
 import com.simple_online_store_backend.entity.Address;
 import com.simple_online_store_backend.entity.Person;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface PeopleRepository extends JpaRepository<Person, Integer> {
     Optional<Person> findByUserName(String userName);
     Optional<Person> findFirstByEmail(String email);
-    List<Person> findAllByRole(String role);
     Optional<Address> findAddressById(int addressId);
-    Boolean existsByAddress(Address address);
+
+    // Row = [id, role, is_deleted]; rows stay locked until the surrounding transaction ends
+    @Query(value = "SELECT id, role, is_deleted FROM people WHERE id IN (:ids) FOR UPDATE", nativeQuery = true)
+    List<Object[]> lockAccountStatesByIdIn(@Param("ids") Collection<Integer> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Person p SET p.isDeleted = true, p.deactivatedAt = LOCAL DATETIME WHERE p.id IN :ids AND p.isDeleted = false")
+    int deactivateByIdIn(@Param("ids") Collection<Integer> ids);
+
+    // Retention runs as plain SQL so no expired account is ever loaded into the persistence context
+
+    // Row = [id, user_name, address_id]; served by people_deactivated_at_idx, locked until the transaction ends
+    @Query(value = """
+            SELECT id, user_name, address_id FROM people
+            WHERE is_deleted = true AND deactivated_at IS NOT NULL AND deactivated_at < :cutoff
+            ORDER BY deactivated_at, id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<Object[]> lockExpiredDeactivated(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    @Query(value = "SELECT COUNT(*) FROM people WHERE is_deleted = true AND deactivated_at IS NOT NULL AND deactivated_at < :cutoff",
+            nativeQuery = true)
+    long countExpiredDeactivated(@Param("cutoff") LocalDateTime cutoff);
+
+    // Accounts deactivated before deactivated_at existed start their retention period now. Anonymized accounts
+    // (password '!', never a valid hash) also have it NULL on purpose and are left alone
+    @Modifying
+    @Query(value = """
+            UPDATE people SET deactivated_at = LOCALTIMESTAMP
+            WHERE is_deleted = true AND deactivated_at IS NULL AND password <> '!'
+            """, nativeQuery = true)
+    int startRetentionOfUndatedDeactivated();
+
+    // orders.person_id is ON DELETE SET NULL, so order history survives without an owner
+    @Modifying
+    @Query(value = "DELETE FROM people WHERE id IN (:ids)", nativeQuery = true)
+    int purgeByIdIn(@Param("ids") Collection<Integer> ids);
+
+    // Keeps the row (and the order history pointing at it) but drops everything that identifies the person;
+    // deactivated_at is cleared so the account is never picked up again
+    @Modifying
+    @Query(value = """
+            UPDATE people
+            SET user_name = CONCAT('deleted-', id), email = CONCAT('deleted-', id, '@invalid'), password = '!',
+                phone_number = NULL, date_of_birth = NULL, address_id = NULL, deactivated_at = NULL
+            WHERE id IN (:ids)
+            """, nativeQuery = true)
+    int anonymizeByIdIn(@Param("ids") Collection<Integer> ids);
+
+    // Row = [id, address_id]; empty when there is no such person. Locks the row so the address swap and the
+    // reference counts of both addresses stay consistent
+    @Query(value = "SELECT id, address_id FROM people WHERE id = :id FOR UPDATE", nativeQuery = true)
+    List<Object[]> lockAddressRef(@Param("id") int personId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Person p SET p.address = :address WHERE p.id = :id")
+    int assignAddress(@Param("id") int personId, @Param("address") Address address);
+
+    // Keyset page of the directory, read column by column so neither the address nor the password hash is loaded
+    @Query("""
+            SELECT new com.simple_online_store_backend.dto.person.CustomerDirectoryItemResponse(
+                   p.id, p.userName, p.email, p.phoneNumber, p.dateOfBirth, p.isDeleted)
+            FROM Person p
+            WHERE p.role = :role
+              AND p.id > :afterId
+              AND (:deleted IS NULL OR p.isDeleted = :deleted)
+            ORDER BY p.id
+            """)
+    List<CustomerDirectoryItemResponse> findDirectoryPage(@Param("role") String role,
+                                                          @Param("deleted") Boolean deleted,
+                                                          @Param("afterId") int afterId,
+                                                          Pageable page);
 }
@@ -2,7 +2,11 @@ package com.simple_online_store_backend.repository;
 
 import com.simple_online_store_backend.entity.PickupLocation;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,7 +17,19 @@ public interface PickupLocationRepository extends JpaRepository<PickupLocation,
             String city, String street, String houseNumber
     );
 
-    boolean existsByIdAndActiveTrue(int id);
-
     Optional<PickupLocation> findByIdAndActiveTrue(int id);
+
+    // Row = [id, city, street, house_number, latitude, longitude, active]; rows stay locked until the surrounding transaction ends
+    @Query(value = "SELECT id, city, street, house_number, latitude, longitude, active FROM pickup_locations WHERE id IN (:ids) ORDER BY id FOR UPDATE",
+            nativeQuery = true)
+    List<Object[]> lockByIdIn(@Param("ids") Collection<Integer> ids);
+
+    // Same row shape as lockByIdIn, for every location in the city (case-insensitive)
+    @Query(value = "SELECT id, city, street, house_number, latitude, longitude, active FROM pickup_locations WHERE LOWER(city) = LOWER(:city) ORDER BY id FOR UPDATE",
+            nativeQuery = true)
+    List<Object[]> lockByCity(@Param("city") String city);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE PickupLocation p SET p.active = :active WHERE p.id IN :ids AND p.active <> :active")
+    int updateActiveWhereIdIn(@Param("ids") Collection<Integer> ids, @Param("active") boolean active);
 }
@@ -0,0 +1,71 @@
+package com.simple_online_store_backend.repository;
+
+import com.simple_online_store_backend.dto.pickup_location.PickupSlotResponse;
+import com.simple_online_store_backend.entity.PickupSlot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface PickupSlotRepository extends JpaRepository<PickupSlot, Integer> {
+
+    boolean existsByPickupLocation_IdAndSlotStartAfter(int pickupLocationId, LocalDateTime after);
+
+    List<PickupSlot> findByPickupLocation_IdAndSlotStartGreaterThanEqualAndSlotStartLessThanOrderBySlotStart(
+            int pickupLocationId, LocalDateTime from, LocalDateTime to);
+
+    // Free slots of an active location; capacity check and location state in the same statement
+    @Query("""
+            SELECT new com.simple_online_store_backend.dto.pickup_location.PickupSlotResponse(
+                   s.id, s.slotStart, s.slotEnd, s.capacity, s.capacity - s.reserved)
+            FROM PickupSlot s
+            WHERE s.pickupLocation.id = :locationId AND s.pickupLocation.active = true
+              AND s.slotStart > :from AND s.slotStart < :to AND s.reserved < s.capacity
+            ORDER BY s.slotStart
+            """)
+    List<PickupSlotResponse> findAvailable(@Param("locationId") int locationId,
+                                           @Param("from") LocalDateTime from,
+                                           @Param("to") LocalDateTime to);
+
+    // Takes one place if the slot belongs to the location, has not started and is not full; 0 rows otherwise
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            UPDATE PickupSlot s SET s.reserved = s.reserved + 1
+            WHERE s.id = :slotId AND s.pickupLocation.id = :locationId AND s.slotStart > :now AND s.reserved < s.capacity
+            """)
+    int reserve(@Param("slotId") int slotId, @Param("locationId") int locationId, @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            UPDATE pickup_slots SET reserved = reserved - 1
+            WHERE reserved > 0 AND id = (SELECT o.pickup_slot_id FROM orders o WHERE o.id = :orderId)
+            """, nativeQuery = true)
+    int releaseForOrder(@Param("orderId") int orderId);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            UPDATE pickup_slots SET reserved = reserved + 1
+            WHERE slot_start > :now AND reserved < capacity
+              AND id = (SELECT o.pickup_slot_id FROM orders o WHERE o.id = :orderId)
+            """, nativeQuery = true)
+    int reserveForOrder(@Param("orderId") int orderId, @Param("now") LocalDateTime now);
+
+    // Row = [order_id, slot_id, free places] for the given orders that hold a slot; a started slot has none left.
+    // Slot rows stay locked until the surrounding transaction ends
+    @Query(value = """
+            SELECT o.id, s.id, CASE WHEN s.slot_start > :now THEN s.capacity - s.reserved ELSE 0 END
+            FROM orders o JOIN pickup_slots s ON s.id = o.pickup_slot_id
+            WHERE o.id IN (:orderIds)
+            ORDER BY s.id, o.id
+            FOR UPDATE
+            """, nativeQuery = true)
+    List<Object[]> lockSlotsOfOrders(@Param("orderIds") Collection<Integer> orderIds, @Param("now") LocalDateTime now);
+
+    @Query(value = "SELECT pickup_slot_id FROM orders WHERE id = :orderId AND pickup_slot_id IS NOT NULL", nativeQuery = true)
+    Optional<Integer> findSlotIdOfOrder(@Param("orderId") int orderId);
+}
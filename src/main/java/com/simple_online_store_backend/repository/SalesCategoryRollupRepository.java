@@ -0,0 +1,52 @@
+package com.simple_online_store_backend.repository;
+
+import com.simple_online_store_backend.entity.SalesCategoryRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface SalesCategoryRollupRepository extends JpaRepository<SalesCategoryRollup, Long> {
+    // Row = [category, orders, units, revenue] summed over the range
+    @Query("""
+            SELECT r.category, SUM(r.orderCount), SUM(r.units), SUM(r.revenue)
+            FROM SalesCategoryRollup r
+            WHERE r.day BETWEEN :from AND :to
+            GROUP BY r.category
+            ORDER BY SUM(r.revenue) DESC
+            """)
+    List<Object[]> sumByCategory(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Row = [sales_day, product_category, delivery_type, order_count, units, revenue]; same lock order as applyDeltas
+    @Query(value = """
+            SELECT sales_day, product_category, delivery_type, order_count, units, revenue
+            FROM sales_category_rollup
+            WHERE sales_day BETWEEN :from AND :to
+            ORDER BY sales_day, product_category, delivery_type
+            FOR UPDATE
+            """, nativeQuery = true)
+    List<Object[]> lockDayRange(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO sales_category_rollup (sales_day, product_category, delivery_type, order_count, units, revenue)
+            VALUES (:day, :category, :deliveryType, 0, 0, 0)
+            ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("day") LocalDate day, @Param("category") String category,
+                       @Param("deliveryType") String deliveryType);
+
+    @Modifying
+    @Query(value = """
+            UPDATE sales_category_rollup
+            SET order_count = order_count + :orders, units = units + :units, revenue = revenue + :revenue
+            WHERE sales_day = :day AND product_category = :category AND delivery_type = :deliveryType
+            """, nativeQuery = true)
+    int applyDelta(@Param("day") LocalDate day, @Param("category") String category,
+                   @Param("deliveryType") String deliveryType,
+                   @Param("orders") long orders, @Param("units") long units, @Param("revenue") BigDecimal revenue);
+}
@@ -0,0 +1,54 @@
+package com.simple_online_store_backend.repository;
+
+import com.simple_online_store_backend.entity.SalesDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface SalesDailyRollupRepository extends JpaRepository<SalesDailyRollup, Long> {
+    List<SalesDailyRollup> findByDayBetweenOrderByDayAscDeliveryTypeAsc(LocalDate from, LocalDate to);
+
+    // Row = [delivery_type, orders, units, revenue] summed over the range
+    @Query("""
+            SELECT r.deliveryType, SUM(r.orderCount), SUM(r.units), SUM(r.revenue)
+            FROM SalesDailyRollup r
+            WHERE r.day BETWEEN :from AND :to
+            GROUP BY r.deliveryType
+            ORDER BY r.deliveryType
+            """)
+    List<Object[]> sumByDeliveryType(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Row = [sales_day, delivery_type, order_count, units, revenue]; locked in the same key order applyDeltas uses
+    @Query(value = """
+            SELECT sales_day, delivery_type, order_count, units, revenue
+            FROM sales_daily_rollup
+            WHERE sales_day BETWEEN :from AND :to
+            ORDER BY sales_day, delivery_type
+            FOR UPDATE
+            """, nativeQuery = true)
+    List<Object[]> lockDayRange(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Two statements instead of an upsert with DO UPDATE: the empty row is created at most once,
+    // the increment is a single-row atomic UPDATE
+    @Modifying
+    @Query(value = """
+            INSERT INTO sales_daily_rollup (sales_day, delivery_type, order_count, units, revenue)
+            VALUES (:day, :deliveryType, 0, 0, 0)
+            ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("day") LocalDate day, @Param("deliveryType") String deliveryType);
+
+    @Modifying
+    @Query(value = """
+            UPDATE sales_daily_rollup
+            SET order_count = order_count + :orders, units = units + :units, revenue = revenue + :revenue
+            WHERE sales_day = :day AND delivery_type = :deliveryType
+            """, nativeQuery = true)
+    int applyDelta(@Param("day") LocalDate day, @Param("deliveryType") String deliveryType,
+                   @Param("orders") long orders, @Param("units") long units, @Param("revenue") BigDecimal revenue);
+}
@@ -0,0 +1,49 @@
+package com.simple_online_store_backend.security;
+
+import com.simple_online_store_backend.entity.Person;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Request-scoped view of the authenticated {@link Person}.
+ * <p>
+ * {@code JWTFilter} already loads the caller once per request; services read it from here instead of
+ * re-querying {@code people}. The snapshot is detached, so use it for reads and id-based references only.
+ * Outside a request (or with a non-{@link PersonDetails} principal) nothing is available and callers
+ * fall back to the repository.
+ */
+@Component
+public class CurrentUserContext {
+
+    static final String ATTRIBUTE = CurrentUserContext.class.getName() + ".person";
+
+    public void set(Person person) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(ATTRIBUTE, person, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    public Optional<Person> current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null && attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof Person person) {
+            return Optional.of(person);
+        }
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getPrincipal() instanceof PersonDetails pd) {
+            return Optional.ofNullable(pd.getPerson());
+        }
+        return Optional.empty();
+    }
+
+    public Optional<Person> find(int personId) {
+        return current().filter(p -> Objects.equals(p.getId(), personId));
+    }
+}
@@ -54,4 +54,8 @@ public class PersonDetails implements org.springframework.security.core.userdeta
     public Integer getId() {
         return person.getId();
     }
+
+    public Person getPerson() {
+        return person;
+    }
 }
@@ -0,0 +1,177 @@
+package com.simple_online_store_backend.service;
+
+import com.simple_online_store_backend.dto.person.DeactivationJobResponse;
+import com.simple_online_store_backend.dto.person.PersonBatchDeactivationRequest;
+import com.simple_online_store_backend.enums.DeactivationJobStatus;
+import com.simple_online_store_backend.repository.PeopleRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Batch account deactivation for admin sweeps (e.g. fraud). A job runs in the background and
+ * handles its ids in chunks; each chunk is one short transaction that locks the accounts,
+ * cancels their active orders with a single UPDATE and flips is_deleted with another.
+ * Progress is kept in memory and can be polled by job id.
+ */
+@Service
+public class AccountDeactivationService {
+    private static final Logger logger = LoggerFactory.getLogger(AccountDeactivationService.class);
+
+    private final PeopleRepository peopleRepository;
+    private final PeopleService peopleService;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor taskExecutor;
+    private final int chunkSize;
+    private final Duration jobRetention;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    public AccountDeactivationService(PeopleRepository peopleRepository,
+                                      PeopleService peopleService,
+                                      PlatformTransactionManager transactionManager,
+                                      @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                                      @Value("${app.people.deactivation.chunk-size:200}") int chunkSize,
+                                      @Value("${app.people.deactivation.job-retention-minutes:60}") long jobRetentionMinutes) {
+        this.peopleRepository = peopleRepository;
+        this.peopleService = peopleService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.taskExecutor = taskExecutor;
+        this.chunkSize = chunkSize;
+        this.jobRetention = Duration.ofMinutes(jobRetentionMinutes);
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public DeactivationJobResponse startBatchDeactivation(PersonBatchDeactivationRequest req) {
+        List<Integer> ids = new ArrayList<>(new LinkedHashSet<>(req.getPersonIds()));
+        evictFinishedJobs();
+
+        Job job = new Job(UUID.randomUUID().toString(), ids.size());
+        jobs.put(job.id, job);
+        try {
+            taskExecutor.execute(() -> run(job, ids));
+        } catch (RuntimeException e) {
+            jobs.remove(job.id);
+            throw e;
+        }
+        logger.info("Deactivation job {} submitted for {} accounts", job.id, ids.size());
+        return job.snapshot();
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public DeactivationJobResponse getJob(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            throw new EntityNotFoundException("Deactivation job " + jobId + " wasn't found");
+        }
+        return job.snapshot();
+    }
+
+    private void run(Job job, List<Integer> ids) {
+        try {
+            for (int from = 0; from < ids.size(); from += chunkSize) {
+                List<Integer> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+                ChunkResult result = transactionTemplate.execute(status -> deactivateChunk(chunk));
+                job.add(chunk.size(), result);
+                logger.info("Deactivation job {}: {}/{} processed", job.id, job.processed, job.total);
+            }
+            job.finish(DeactivationJobStatus.COMPLETED, null);
+        } catch (RuntimeException e) {
+            logger.error("Deactivation job {} failed after {}/{} accounts", job.id, job.processed, job.total, e);
+            job.finish(DeactivationJobStatus.FAILED, e.getMessage());
+        }
+    }
+
+    private ChunkResult deactivateChunk(List<Integer> ids) {
+        Map<Integer, Object[]> current = new HashMap<>();
+        for (Object[] row : peopleRepository.lockAccountStatesByIdIn(ids)) {
+            current.put(((Number) row[0]).intValue(), row);
+        }
+
+        ChunkResult result = new ChunkResult();
+        List<Integer> toDeactivate = new ArrayList<>();
+        for (Integer id : ids) {
+            Object[] row = current.get(id);
+            if (row == null) {
+                result.notFound++;
+            } else if ("ROLE_ADMIN".equals(row[1])) {
+                result.skippedAdmins++;
+            } else if (Boolean.TRUE.equals(row[2])) {
+                result.alreadyInactive++;
+            } else {
+                toDeactivate.add(id);
+            }
+        }
+
+        if (!toDeactivate.isEmpty()) {
+            result.ordersCancelled = peopleService.cancelActiveOrdersOf(toDeactivate);
+            result.deactivated = peopleRepository.deactivateByIdIn(toDeactivate);
+        }
+        return result;
+    }
+
+    private void evictFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(jobRetention);
+        jobs.values().removeIf(j -> j.finishedAt != null && j.finishedAt.isBefore(cutoff));
+    }
+
+    private static final class ChunkResult {
+        int deactivated;
+        int alreadyInactive;
+        int skippedAdmins;
+        int notFound;
+        int ordersCancelled;
+    }
+
+    // Updated by the worker thread and read by pollers, so every access goes through the monitor
+    private static final class Job {
+        final String id;
+        final int total;
+        final LocalDateTime startedAt = LocalDateTime.now();
+        DeactivationJobStatus status = DeactivationJobStatus.RUNNING;
+        int processed;
+        int deactivated;
+        int alreadyInactive;
+        int skippedAdmins;
+        int notFound;
+        int ordersCancelled;
+        LocalDateTime finishedAt;
+        String error;
+
+        Job(String id, int total) {
+            this.id = id;
+            this.total = total;
+        }
+
+        synchronized void add(int size, ChunkResult r) {
+            deactivated += r.deactivated;
+            alreadyInactive += r.alreadyInactive;
+            skippedAdmins += r.skippedAdmins;
+            notFound += r.notFound;
+            ordersCancelled += r.ordersCancelled;
+            processed += size;
+        }
+
+        synchronized void finish(DeactivationJobStatus status, String error) {
+            this.error = error;
+            this.finishedAt = LocalDateTime.now();
+            this.status = status;
+        }
+
+        synchronized DeactivationJobResponse snapshot() {
+            return new DeactivationJobResponse(id, status, total, processed, deactivated, alreadyInactive,
+                    skippedAdmins, notFound, ordersCancelled, startedAt, finishedAt, error);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.simple_online_store_backend.service;
+
+import com.simple_online_store_backend.enums.RetentionMode;
+import com.simple_online_store_backend.repository.AddressRepository;
+import com.simple_online_store_backend.repository.PeopleRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Removes customer accounts deactivated more than app.people.retention.after-days ago, so soft-deleted
+ * rows stop weighing on every people query. Depending on app.people.retention.mode an account is either
+ * deleted (its orders keep a NULL owner) or anonymized in place; either way its refresh session is revoked,
+ * its address loses a reference and addresses left without any are deleted with it.
+ * <p>
+ * Work is done in small batches claimed with FOR UPDATE SKIP LOCKED through the partial index on
+ * deactivated_at, each in its own short transaction. Between batches the job sleeps at least as long as
+ * the previous batch took (and never less than pause-between-batches-ms), so it holds locks and a
+ * connection at most half of the time and a run is capped by max-batches-per-run.
+ * <p>
+ * Accounts deactivated before deactivated_at was recorded get it set on startup, so their retention period
+ * starts then instead of never.
+ */
+@Service
+public class AccountRetentionService {
+    private static final Logger logger = LoggerFactory.getLogger(AccountRetentionService.class);
+
+    private final PeopleRepository peopleRepository;
+    private final AddressRepository addressRepository;
+    private final RefreshTokenService refreshTokenService;
+    private final TransactionTemplate transactionTemplate;
+    private final long afterDays;
+    private final RetentionMode mode;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final long pauseMs;
+
+    private final Counter accountsCounter;
+    private final Counter addressesCounter;
+    private final Counter batchesCounter;
+    private final AtomicLong backlog = new AtomicLong();
+
+    public AccountRetentionService(PeopleRepository peopleRepository,
+                                   AddressRepository addressRepository,
+                                   RefreshTokenService refreshTokenService,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.people.retention.after-days:365}") long afterDays,
+                                   @Value("${app.people.retention.mode:PURGE}") RetentionMode mode,
+                                   @Value("${app.people.retention.batch-size:200}") int batchSize,
+                                   @Value("${app.people.retention.max-batches-per-run:50}") int maxBatchesPerRun,
+                                   @Value("${app.people.retention.pause-between-batches-ms:200}") long pauseMs) {
+        this.peopleRepository = peopleRepository;
+        this.addressRepository = addressRepository;
+        this.refreshTokenService = refreshTokenService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.afterDays = afterDays;
+        this.mode = mode;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.pauseMs = pauseMs;
+
+        this.accountsCounter = Counter.builder("people.retention.accounts")
+                .description("Expired deactivated accounts removed by the retention job")
+                .tag("mode", mode.name())
+                .register(meterRegistry);
+        this.addressesCounter = Counter.builder("people.retention.addresses")
+                .description("Orphaned addresses deleted by the retention job")
+                .register(meterRegistry);
+        this.batchesCounter = Counter.builder("people.retention.batches")
+                .description("Committed retention batches")
+                .register(meterRegistry);
+        Gauge.builder("people.retention.backlog", backlog, AtomicLong::get)
+                .description("Expired deactivated accounts still waiting, as of the end of the last run")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        try {
+            startUndatedRetention();
+        } catch (Exception e) {
+            logger.warn("Could not date legacy deactivated accounts: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return number of deactivated accounts whose retention period starts now
+     */
+    public int startUndatedRetention() {
+        Integer dated = transactionTemplate.execute(status -> peopleRepository.startRetentionOfUndatedDeactivated());
+        if (dated != null && dated > 0) {
+            logger.info("Retention period started for {} accounts deactivated without a date", dated);
+        }
+        return dated == null ? 0 : dated;
+    }
+
+    @Scheduled(cron = "${app.people.retention.cron:0 15 4 * * *}")
+    public int purgeExpiredAccounts() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(afterDays);
+        int removed = 0;
+        try {
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                long started = System.nanoTime();
+                int count = purgeBatch(cutoff);
+                removed += count;
+                if (count < batchSize || i == maxBatchesPerRun - 1) {
+                    break;
+                }
+                long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+                Thread.sleep(Math.max(pauseMs, elapsedMs));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Account retention interrupted after {} accounts", removed);
+        } catch (Exception e) {
+            // The failed batch was rolled back and is picked up again by the next run
+            logger.warn("Account retention stopped after {} accounts: {}", removed, e.getMessage());
+        }
+        try {
+            backlog.set(peopleRepository.countExpiredDeactivated(cutoff));
+        } catch (Exception e) {
+            logger.warn("Could not count the retention backlog: {}", e.getMessage());
+        }
+        if (removed > 0) {
+            logger.info("Retention ({}) removed {} accounts deactivated before {}, {} left", mode, removed, cutoff, backlog.get());
+        }
+        return removed;
+    }
+
+    public int purgeBatch(LocalDateTime cutoff) {
+        List<String> userNames = new ArrayList<>();
+        int[] deletedAddresses = new int[1];
+        Integer count = transactionTemplate.execute(status -> {
+            List<Object[]> rows = peopleRepository.lockExpiredDeactivated(cutoff, batchSize);
+            if (rows.isEmpty()) {
+                return 0;
+            }
+
+            List<Integer> ids = new ArrayList<>(rows.size());
+            Map<Integer, Integer> addressRefs = new LinkedHashMap<>();
+            for (Object[] row : rows) {
+                ids.add(((Number) row[0]).intValue());
+                userNames.add((String) row[1]);
+                if (row[2] != null) {
+                    addressRefs.merge(((Number) row[2]).intValue(), 1, Integer::sum);
+                }
+            }
+
+            int affected = mode == RetentionMode.PURGE
+                    ? peopleRepository.purgeByIdIn(ids)
+                    : peopleRepository.anonymizeByIdIn(ids);
+            if (affected != ids.size()) {
+                throw new IllegalStateException("Expected to remove " + ids.size() + " accounts but removed " + affected);
+            }
+            if (!addressRefs.isEmpty()) {
+                // Both modes detach the address with plain SQL, so the reference counts are adjusted here
+                addressRefs.forEach((addressId, refs) -> addressRepository.adjustReferenceCount(addressId, -refs));
+                deletedAddresses[0] = addressRepository.deleteUnreferencedByIdIn(addressRefs.keySet());
+            }
+            return affected;
+        });
+        int removed = count == null ? 0 : count;
+        if (removed == 0) {
+            return 0;
+        }
+        accountsCounter.increment(removed);
+        addressesCounter.increment(deletedAddresses[0]);
+        batchesCounter.increment();
+
+        // Sessions live in Redis, outside the transaction: revoke them only once the batch is committed
+        for (String userName : userNames) {
+            try {
+                refreshTokenService.deleteRefreshToken(userName);
+            } catch (Exception e) {
+                logger.warn("Could not revoke the refresh token of removed account {}: {}", userName, e.getMessage());
+            }
+        }
+        return removed;
+    }
+}
@@ -0,0 +1,79 @@
+package com.simple_online_store_backend.service;
+
+import com.simple_online_store_backend.repository.AddressRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Background sweep of addresses nobody references any more.
+ * <p>
+ * Most addresses are deleted the moment their last reference goes (AddressService.deleteAddress), but orders
+ * and accounts removed in bulk, merged duplicates and any row still uncounted (NULL) are left to this job.
+ * Candidates (ref_count NULL or &lt;= 0) are claimed in batches with FOR UPDATE SKIP LOCKED,
+ * recounted exactly from people, orders and orders_archive, and deleted only if the recount is zero, so a
+ * drifted counter is repaired rather than trusted.
+ */
+@Service
+public class AddressCollectorService {
+    private static final Logger logger = LoggerFactory.getLogger(AddressCollectorService.class);
+
+    private final AddressRepository addressRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    public AddressCollectorService(AddressRepository addressRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${app.addresses.collector.batch-size:500}") int batchSize,
+                                   @Value("${app.addresses.collector.max-batches-per-run:20}") int maxBatchesPerRun) {
+        this.addressRepository = addressRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    @Scheduled(fixedDelayString = "${app.addresses.collector.interval-ms:600000}",
+            initialDelayString = "${app.addresses.collector.interval-ms:600000}")
+    public int collectUnreferenced() {
+        int deleted = 0;
+        try {
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                int[] counts = collectBatch();
+                deleted += counts[1];
+                if (counts[0] < batchSize) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            // The failed batch was rolled back; its rows are candidates again next run
+            logger.warn("Address collection stopped after {} addresses: {}", deleted, e.getMessage());
+        }
+        if (deleted > 0) {
+            logger.info("Collected {} unreferenced addresses", deleted);
+        }
+        return deleted;
+    }
+
+    /**
+     * @return {candidates claimed, addresses deleted}
+     */
+    public int[] collectBatch() {
+        int[] counts = transactionTemplate.execute(status -> {
+            List<Integer> ids = addressRepository.lockUnreferencedCandidates(batchSize)
+                    .stream().map(Number::intValue).toList();
+            if (ids.isEmpty()) {
+                return new int[2];
+            }
+            addressRepository.recountReferences(ids);
+            return new int[]{ids.size(), addressRepository.deleteUnreferencedByIdIn(ids)};
+        });
+        return counts == null ? new int[2] : counts;
+    }
+}
@@ -0,0 +1,130 @@
+package com.simple_online_store_backend.service;
+
+import com.simple_online_store_backend.entity.Address;
+import com.simple_online_store_backend.repository.AddressRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+/**
+ * One-off backfill of addresses.fingerprint for rows written before the column existed.
+ * <p>
+ * Rows without a fingerprint are claimed in id order with FOR UPDATE SKIP LOCKED. Each one either gets its
+ * fingerprint or, when that fingerprint is already taken (by an older row, an earlier row of the same batch or
+ * a concurrent addAddress), is merged into the holder: people and orders are repointed and the duplicate is
+ * deleted. Every batch is one short transaction; once no unfingerprinted row is left the job does nothing.
+ */
+@Service
+public class AddressFingerprintBackfillService {
+    private static final Logger logger = LoggerFactory.getLogger(AddressFingerprintBackfillService.class);
+
+    private final AddressRepository addressRepository;
+    private final AddressService addressService;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+
+    public AddressFingerprintBackfillService(AddressRepository addressRepository,
+                                             AddressService addressService,
+                                             PlatformTransactionManager transactionManager,
+                                             @Value("${app.addresses.fingerprint-backfill.enabled:true}") boolean enabled,
+                                             @Value("${app.addresses.fingerprint-backfill.batch-size:500}") int batchSize) {
+        this.addressRepository = addressRepository;
+        this.addressService = addressService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (enabled) {
+            backfill();
+        }
+    }
+
+    /**
+     * @return number of duplicate rows merged away
+     */
+    public int backfill() {
+        int fingerprinted = 0;
+        int merged = 0;
+        boolean retried = false;
+        while (true) {
+            int[] counts;
+            try {
+                counts = backfillBatch();
+            } catch (DataIntegrityViolationException e) {
+                // A concurrent addAddress took one of the fingerprints; the retry sees it and merges instead
+                if (retried) {
+                    logger.warn("Address fingerprint backfill stopped after {} rows: {}", fingerprinted + merged, e.getMessage());
+                    break;
+                }
+                retried = true;
+                continue;
+            }
+            retried = false;
+            fingerprinted += counts[0];
+            merged += counts[1];
+            if (counts[0] + counts[1] < batchSize) {
+                break;
+            }
+        }
+        if (fingerprinted + merged > 0) {
+            logger.info("Address fingerprint backfill: {} rows fingerprinted, {} duplicates merged", fingerprinted, merged);
+        }
+        return merged;
+    }
+
+    /**
+     * @return {fingerprinted, merged} for one batch
+     */
+    int[] backfillBatch() {
+        int[] counts = transactionTemplate.execute(status -> {
+            List<Object[]> rows = addressRepository.lockUnfingerprinted(batchSize);
+            if (rows.isEmpty()) {
+                return new int[2];
+            }
+
+            Map<Integer, String> fingerprints = new LinkedHashMap<>();
+            for (Object[] row : rows) {
+                fingerprints.put(((Number) row[0]).intValue(),
+                        Address.fingerprintOf((String) row[1], (String) row[2], (String) row[3], (String) row[4]));
+            }
+
+            Map<String, Integer> holders = new HashMap<>();
+            for (Object[] row : addressRepository.findIdsByFingerprintIn(new HashSet<>(fingerprints.values()))) {
+                holders.put((String) row[0], ((Number) row[1]).intValue());
+            }
+
+            // Rows come in id order, so within a batch the oldest copy of an address is the one kept
+            Map<Integer, List<Integer>> duplicatesByHolder = new LinkedHashMap<>();
+            int fingerprinted = 0;
+            for (Map.Entry<Integer, String> entry : fingerprints.entrySet()) {
+                Integer holder = holders.putIfAbsent(entry.getValue(), entry.getKey());
+                if (holder == null) {
+                    addressRepository.setFingerprint(entry.getKey(), entry.getValue());
+                    fingerprinted++;
+                } else {
+                    duplicatesByHolder.computeIfAbsent(holder, h -> new ArrayList<>()).add(entry.getKey());
+                }
+            }
+
+            int merged = 0;
+            for (Map.Entry<Integer, List<Integer>> entry : duplicatesByHolder.entrySet()) {
+                addressService.mergeInto(entry.getValue(), entry.getKey());
+                merged += entry.getValue().size();
+            }
+            return new int[]{fingerprinted, merged};
+        });
+        return counts == null ? new int[2] : counts;
+    }
+}
@@ -3,10 +3,10 @@ package com.simple_online_store_backend.service;
 import com.simple_online_store_backend.dto.address.AddressRequestDTO;
 import com.simple_online_store_backend.dto.address.AddressResponseDTO;
 import com.simple_online_store_backend.entity.Address;
-import com.simple_online_store_backend.entity.Person;
 import com.simple_online_store_backend.mapper.AddressMapper;
 import com.simple_online_store_backend.repository.AddressRepository;
 import com.simple_online_store_backend.repository.PeopleRepository;
+import com.simple_online_store_backend.security.CurrentUserContext;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Service;
@@ -16,39 +16,76 @@ import java.beans.IntrospectionException;
 import java.beans.Introspector;
 import java.beans.PropertyDescriptor;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 
 @Service
 public class AddressService {
+    private static final int MAX_ATTACH_ATTEMPTS = 3;
+
     private final AddressRepository addressRepository;
     private final PeopleRepository peopleRepository;
     private final AddressMapper addressMapper;
+    private final CurrentUserContext currentUserContext;
 
-    public AddressService(AddressRepository addressRepository, PeopleRepository peopleRepository, AddressMapper addressMapper) {
+    public AddressService(AddressRepository addressRepository, PeopleRepository peopleRepository, AddressMapper addressMapper, CurrentUserContext currentUserContext) {
         this.addressRepository = addressRepository;
         this.peopleRepository = peopleRepository;
         this.addressMapper = addressMapper;
+        this.currentUserContext = currentUserContext;
     }
 
     @Transactional
     public AddressResponseDTO addAddress(AddressRequestDTO dto, int personId) {
-        Person person = peopleRepository.findById(personId)
-                .orElseThrow(() -> new EntityNotFoundException("Person with this id wasn't found!"));
-
-        Optional<Address> exiting = addressRepository
-                .findByCityAndStreetAndHouseNumberAndApartment(dto.getCity(), dto.getStreet(), dto.getHouseNumber(),
-                        dto.getApartment());
-
-        if (exiting.isPresent()) {
-            person.setAddress(exiting.get());
-            return addressMapper.mapAddressToResponseDTO(exiting.get());
-        } else {
-            Address addressToAdd = addressMapper.mapRequestDTOToAddress(dto);
-            addressRepository.save(addressToAdd);
-            person.setAddress(addressToAdd);
-            return addressMapper.mapAddressToResponseDTO(addressToAdd);
+        List<Object[]> ref = peopleRepository.lockAddressRef(personId);
+        if (ref.isEmpty()) {
+            throw new EntityNotFoundException("Person with this id wasn't found!");
+        }
+        Integer previousAddressId = ref.get(0)[1] == null ? null : ((Number) ref.get(0)[1]).intValue();
+
+        String fingerprint = Address.fingerprintOf(dto.getCity(), dto.getStreet(), dto.getHouseNumber(), dto.getApartment());
+        Address address = attach(dto, fingerprint);
+        if (address.getId().equals(previousAddressId)) {
+            // Same address again: undo the extra reference taken by attach
+            addressRepository.adjustReferenceCount(address.getId(), -1);
+            return addressMapper.mapAddressToResponseDTO(address);
+        }
+
+        // Sets the FK directly; a missing person rolls back the freshly inserted address as well
+        if (peopleRepository.assignAddress(personId, address) == 0) {
+            throw new EntityNotFoundException("Person with this id wasn't found!");
+        }
+        if (previousAddressId != null) {
+            detach(previousAddressId);
         }
+        currentUserContext.find(personId).ifPresent(p -> p.setAddress(address));
+
+        return addressMapper.mapAddressToResponseDTO(address);
+    }
+
+    /**
+     * Insert-or-keep on the unique fingerprint, so two users saving the same address at once share one row,
+     * plus one reference on that row. The increment locks the row: the collector or a concurrent detach can
+     * only delete it before that point, in which case the upsert simply runs again.
+     */
+    private Address attach(AddressRequestDTO dto, String fingerprint) {
+        for (int attempt = 0; attempt < MAX_ATTACH_ATTEMPTS; attempt++) {
+            addressRepository.insertIfAbsent(dto.getCity(), dto.getStreet(), dto.getHouseNumber(), dto.getApartment(),
+                    dto.getPostalCode(), fingerprint);
+            if (addressRepository.incrementByFingerprint(fingerprint) > 0) {
+                return addressRepository.findByFingerprint(fingerprint)
+                        .orElseThrow(() -> new IllegalStateException("Address vanished while referenced"));
+            }
+        }
+        throw new IllegalStateException("Address kept disappearing while being attached");
+    }
+
+    // Drops one reference and deletes the row by primary key if that was the last one
+    private void detach(int addressId) {
+        addressRepository.adjustReferenceCount(addressId, -1);
+        addressRepository.deleteIfUnreferenced(addressId);
     }
 
     @Transactional
@@ -56,29 +93,57 @@ public class AddressService {
         Address addressToUpdate = addressRepository.findById(addressId).orElseThrow(() ->
                 new EntityNotFoundException("There is no address with ID" + addressId));
 
-        BeanUtils.copyProperties(dto, addressToUpdate, getNullPropertyNames(dto));
+        // The edited address may be one that already exists: fold this row into it instead of breaking uniqueness.
+        // Checked before copying, so the managed entity is never flushed with a taken fingerprint
+        String fingerprint = Address.fingerprintOf(
+                dto.getCity() != null ? dto.getCity() : addressToUpdate.getCity(),
+                dto.getStreet() != null ? dto.getStreet() : addressToUpdate.getStreet(),
+                dto.getHouseNumber() != null ? dto.getHouseNumber() : addressToUpdate.getHouseNumber(),
+                dto.getApartment() != null ? dto.getApartment() : addressToUpdate.getApartment());
+        Optional<Address> existing = addressRepository.findByFingerprint(fingerprint)
+                .filter(a -> !a.getId().equals(addressId));
+        if (existing.isPresent()) {
+            Address target = existing.get();
+            mergeInto(List.of(addressId), target.getId());
+            currentUserContext.current()
+                    .filter(p -> p.getAddress() != null && addressId.equals(p.getAddress().getId()))
+                    .ifPresent(p -> p.setAddress(target));
+            return addressMapper.mapAddressToResponseDTO(target);
+        }
 
+        BeanUtils.copyProperties(dto, addressToUpdate, getNullPropertyNames(dto));
         addressRepository.save(addressToUpdate);
         return addressMapper.mapAddressToResponseDTO(addressToUpdate);
     }
 
+    /**
+     * Moves people, orders and archived orders from the duplicate rows onto {@code into} and deletes the duplicates.
+     */
+    public void mergeInto(Collection<Integer> duplicates, int into) {
+        addressRepository.repointPeople(duplicates, into);
+        addressRepository.repointOrders(duplicates, into);
+        addressRepository.repointArchivedOrders(duplicates, into);
+        addressRepository.deleteByIdIn(duplicates);
+        // The duplicates' references now belong to the target; recount rather than add up possibly uncounted rows
+        addressRepository.recountReferences(List.of(into));
+    }
+
     @Transactional
     public void deleteAddress(int userId) {
-        Person person = peopleRepository.findById(userId)
-                .orElseThrow(() -> new EntityNotFoundException("User not found"));
-
-        Address address = person.getAddress();
-        if (address == null) {
+        // Same as addAddress: the address to release comes from the locked person row, never from a snapshot,
+        // so concurrent deletes and replacements drop each reference exactly once
+        List<Object[]> ref = peopleRepository.lockAddressRef(userId);
+        if (ref.isEmpty()) {
+            throw new EntityNotFoundException("User not found");
+        }
+        if (ref.get(0)[1] == null) {
             throw new EntityNotFoundException("User has not yet specified any address");
         }
+        int addressId = ((Number) ref.get(0)[1]).intValue();
 
-        person.setAddress(null);
-        peopleRepository.save(person);
-
-        boolean usedByOthers = peopleRepository.existsByAddress(address);
-        if (!usedByOthers) {
-            addressRepository.delete(address);
-        }
+        peopleRepository.assignAddress(userId, null);
+        detach(addressId);
+        currentUserContext.find(userId).ifPresent(p -> p.setAddress(null));
     }
 
     private String[] getNullPropertyNames(Object source) {
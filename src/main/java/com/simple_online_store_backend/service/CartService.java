@@ -0,0 +1,237 @@
+package com.simple_online_store_backend.service;
+
+import com.simple_online_store_backend.dto.cart.*;
+import com.simple_online_store_backend.dto.order.OrderCreateRequest;
+import com.simple_online_store_backend.dto.order.OrderDetailsResponse;
+import com.simple_online_store_backend.entity.Product;
+import com.simple_online_store_backend.exception.ValidationException;
+import com.simple_online_store_backend.repository.ProductRepository;
+import com.simple_online_store_backend.security.CurrentUserContext;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Server-side cart kept in one Redis hash per user ({@code cart:<personId>}, field = product id,
+ * value = quantity). Every edit is a single Lua call that also slides the TTL, so carts never touch
+ * PostgreSQL until they are viewed or checked out.
+ *
+ * Checkout first renames the hash to a private key: a concurrent second checkout finds no cart, and
+ * items added meanwhile land in a fresh cart instead of being lost. The claimed lines become an
+ * order through {@link OrderService#createOrder}, which runs in its own transaction with one batched
+ * product lookup; the claimed key is deleted after commit, or merged back into the cart on failure.
+ */
+@Service
+public class CartService {
+    private static final Logger logger = LoggerFactory.getLogger(CartService.class);
+    static final String KEY_PREFIX = "cart:";
+
+    // KEYS[1] cart; ARGV: productId, quantity, mode (add|set), maxQuantity, maxLines, ttlMs.
+    // Returns the new quantity, -1 when the line limit is hit, -2 when the quantity limit is hit.
+    static final RedisScript<Long> UPSERT_LINE = new DefaultRedisScript<>("""
+            local current = tonumber(redis.call('HGET', KEYS[1], ARGV[1]) or '0')
+            local quantity = tonumber(ARGV[2])
+            if ARGV[3] == 'add' then quantity = current + quantity end
+            if quantity <= 0 then
+              redis.call('HDEL', KEYS[1], ARGV[1])
+            else
+              if current == 0 and redis.call('HLEN', KEYS[1]) >= tonumber(ARGV[5]) then return -1 end
+              if quantity > tonumber(ARGV[4]) then return -2 end
+              redis.call('HSET', KEYS[1], ARGV[1], quantity)
+            end
+            if redis.call('EXISTS', KEYS[1]) == 1 then redis.call('PEXPIRE', KEYS[1], ARGV[6]) end
+            return quantity
+            """, Long.class);
+
+    // KEYS[1] cart, KEYS[2] checkout key; ARGV[1] ttlMs. Returns 0 when there is nothing to claim.
+    static final RedisScript<Long> CLAIM = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end
+            redis.call('RENAME', KEYS[1], KEYS[2])
+            redis.call('PEXPIRE', KEYS[2], ARGV[1])
+            return 1
+            """, Long.class);
+
+    // KEYS[1] cart, KEYS[2] checkout key; ARGV[1] ttlMs. Adds the claimed lines back to the cart.
+    static final RedisScript<Long> RESTORE = new DefaultRedisScript<>("""
+            local lines = redis.call('HGETALL', KEYS[2])
+            for i = 1, #lines, 2 do redis.call('HINCRBY', KEYS[1], lines[i], lines[i + 1]) end
+            redis.call('DEL', KEYS[2])
+            if #lines > 0 then redis.call('PEXPIRE', KEYS[1], ARGV[1]) end
+            return #lines / 2
+            """, Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ProductRepository productRepository;
+    private final OrderService orderService;
+    private final CurrentUserContext currentUserContext;
+    private final Duration ttl;
+    private final int maxLines;
+    private final int maxQuantity;
+
+    public CartService(RedisTemplate<String, String> redisTemplate,
+                       ProductRepository productRepository,
+                       OrderService orderService,
+                       CurrentUserContext currentUserContext,
+                       @Value("${app.cart.ttl-days:14}") long ttlDays,
+                       @Value("${app.cart.max-lines:50}") int maxLines,
+                       @Value("${app.cart.max-quantity:99}") int maxQuantity) {
+        this.redisTemplate = redisTemplate;
+        this.productRepository = productRepository;
+        this.orderService = orderService;
+        this.currentUserContext = currentUserContext;
+        this.ttl = Duration.ofDays(ttlDays);
+        this.maxLines = maxLines;
+        this.maxQuantity = maxQuantity;
+    }
+
+    @PreAuthorize("hasRole('ROLE_USER')")
+    public List<CartLineResponse> addItem(CartItemRequest request) {
+        return upsert(request.getProductId(), request.getQuantity(), "add");
+    }
+
+    @PreAuthorize("hasRole('ROLE_USER')")
+    public List<CartLineResponse> setQuantity(int productId, int quantity) {
+        return upsert(productId, quantity, "set");
+    }
+
+    @PreAuthorize("hasRole('ROLE_USER')")
+    public List<CartLineResponse> removeItem(int productId) {
+        return upsert(productId, 0, "set");
+    }
+
+    @PreAuthorize("hasRole('ROLE_USER')")
+    public void clear() {
+        redisTemplate.delete(cartKey());
+    }
+
+    @PreAuthorize("hasRole('ROLE_USER')")
+    public CartResponse getCart() {
+        String key = cartKey();
+        Map<Integer, Integer> lines = readLines(key);
+        if (!lines.isEmpty()) {
+            redisTemplate.expire(key, ttl);
+        }
+
+        Map<Integer, Product> products = productRepository.findAllById(lines.keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        List<CartItemResponse> items = new ArrayList<>(lines.size());
+        BigDecimal total = BigDecimal.ZERO;
+        int totalQuantity = 0;
+        for (Map.Entry<Integer, Integer> line : lines.entrySet()) {
+            Product product = products.get(line.getKey());
+            CartItemResponse item = new CartItemResponse();
+            item.setProductId(line.getKey());
+            item.setQuantity(line.getValue());
+            item.setAvailable(product != null && Boolean.TRUE.equals(product.getAvailability()));
+            if (product != null) {
+                item.setProductName(product.getProductName());
+                item.setPrice(product.getPrice());
+            }
+            if (item.isAvailable()) {
+                total = total.add(product.getPrice().multiply(BigDecimal.valueOf(line.getValue())));
+            }
+            totalQuantity += line.getValue();
+            items.add(item);
+        }
+
+        CartResponse response = new CartResponse();
+        response.setItems(items);
+        response.setTotalQuantity(totalQuantity);
+        response.setTotal(total);
+        return response;
+    }
+
+    @PreAuthorize("hasRole('ROLE_USER')")
+    public OrderDetailsResponse checkout(CartCheckoutRequest request) {
+        String key = cartKey();
+        String claimedKey = key + ":checkout:" + UUID.randomUUID();
+
+        Long claimed = redisTemplate.execute(CLAIM, List.of(key, claimedKey), ttlMillis());
+        if (claimed == null || claimed == 0) {
+            throw new ValidationException("Your cart is empty");
+        }
+
+        OrderDetailsResponse order;
+        try {
+            Map<Integer, Integer> lines = readLines(claimedKey);
+            if (lines.isEmpty()) {
+                throw new ValidationException("Your cart is empty");
+            }
+
+            // One entry per unit: orders store each unit as its own order_products row
+            List<Integer> productIds = new ArrayList<>();
+            lines.forEach((productId, quantity) -> productIds.addAll(Collections.nCopies(quantity, productId)));
+
+            OrderCreateRequest orderRequest = new OrderCreateRequest();
+            orderRequest.setProductIds(productIds);
+            orderRequest.setAddressId(request.getAddressId());
+            orderRequest.setPickupLocationId(request.getPickupLocationId());
+            orderRequest.setPickupSlotId(request.getPickupSlotId());
+            order = orderService.createOrder(orderRequest);
+        } catch (RuntimeException e) {
+            restore(key, claimedKey);
+            throw e;
+        }
+
+        redisTemplate.delete(claimedKey);
+        return order;
+    }
+
+    private List<CartLineResponse> upsert(int productId, int quantity, String mode) {
+        String key = cartKey();
+        Long result = redisTemplate.execute(UPSERT_LINE, List.of(key),
+                String.valueOf(productId), String.valueOf(quantity), mode,
+                String.valueOf(maxQuantity), String.valueOf(maxLines), ttlMillis());
+
+        if (result != null && result == -1) {
+            throw new ValidationException("Cart cannot contain more than " + maxLines + " different products");
+        }
+        if (result != null && result == -2) {
+            throw new ValidationException("Quantity of a product cannot exceed " + maxQuantity);
+        }
+
+        return readLines(key).entrySet().stream()
+                .map(e -> new CartLineResponse(e.getKey(), e.getValue()))
+                .toList();
+    }
+
+    private void restore(String key, String claimedKey) {
+        try {
+            redisTemplate.execute(RESTORE, List.of(key, claimedKey), ttlMillis());
+        } catch (RuntimeException e) {
+            logger.error("Failed to restore cart {} from {}", key, claimedKey, e);
+        }
+    }
+
+    private Map<Integer, Integer> readLines(String key) {
+        Map<Object, Object> raw = redisTemplate.opsForHash().entries(key);
+        Map<Integer, Integer> lines = new TreeMap<>();
+        raw.forEach((productId, quantity) ->
+                lines.put(Integer.valueOf(productId.toString()), Integer.valueOf(quantity.toString())));
+        return lines;
+    }
+
+    private String cartKey() {
+        Integer personId = currentUserContext.current()
+                .map(p -> p.getId())
+                .orElseThrow(() -> new EntityNotFoundException("User not found"));
+        return KEY_PREFIX + personId;
+    }
+
+    private String ttlMillis() {
+        return String.valueOf(ttl.toMillis());
+    }
+}
@@ -0,0 +1,88 @@
+package com.simple_online_store_backend.service;
+
+import com.simple_online_store_backend.enums.OrderStatus;
+import com.simple_online_store_backend.repository.ArchivedOrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves finished orders (DELIVERED/CANCELLED, untouched for app.orders.archive.age-days) from
+ * orders/orders_products into orders_archive/orders_products_archive, so the hot tables and their
+ * indexes only hold live orders. Each batch is claimed with FOR UPDATE SKIP LOCKED and copied +
+ * deleted in one short transaction; concurrent nodes simply pick different rows.
+ */
+@Service
+public class OrderArchivalService {
+    private static final Logger logger = LoggerFactory.getLogger(OrderArchivalService.class);
+    private static final List<String> ARCHIVABLE_STATUSES =
+            List.of(OrderStatus.DELIVERED.name(), OrderStatus.CANCELLED.name());
+
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long ageDays;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    public OrderArchivalService(ArchivedOrderRepository archivedOrderRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.orders.archive.age-days:180}") long ageDays,
+                                @Value("${app.orders.archive.batch-size:500}") int batchSize,
+                                @Value("${app.orders.archive.max-batches-per-run:20}") int maxBatchesPerRun) {
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ageDays = ageDays;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    @Scheduled(cron = "${app.orders.archive.cron:0 30 3 * * *}")
+    public int archiveFinishedOrders() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(ageDays);
+        int archived = 0;
+        try {
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                int count = archiveBatch(cutoff);
+                archived += count;
+                if (count < batchSize) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            // The failed batch was rolled back and stays in the hot table until the next run
+            logger.warn("Order archival stopped after {} orders: {}", archived, e.getMessage());
+        }
+        if (archived > 0) {
+            logger.info("Archived {} orders finished before {}", archived, cutoff);
+        }
+        return archived;
+    }
+
+    public int archiveBatch(LocalDateTime cutoff) {
+        Integer count = transactionTemplate.execute(status -> {
+            List<Integer> ids = archivedOrderRepository.lockArchivableIds(ARCHIVABLE_STATUSES, cutoff, batchSize)
+                    .stream().map(Number::intValue).toList();
+            if (ids.isEmpty()) {
+                return 0;
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            archivedOrderRepository.copyOrders(ids, now);
+            archivedOrderRepository.copyOrderItems(ids);
+            archivedOrderRepository.deleteOrderItems(ids);
+            int deleted = archivedOrderRepository.deleteOrders(ids);
+            if (deleted != ids.size()) {
+                throw new IllegalStateException("Expected to archive " + ids.size() + " orders but moved " + deleted);
+            }
+            return deleted;
+        });
+        return count == null ? 0 : count;
+    }
+}
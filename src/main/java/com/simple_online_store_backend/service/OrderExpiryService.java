@@ -0,0 +1,371 @@
+package com.simple_online_store_backend.service;
+
+import com.simple_online_store_backend.enums.OrderStatus;
+import com.simple_online_store_backend.event.OrderStatusChangedEvent;
+import com.simple_online_store_backend.repository.OrderRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * Cancels PENDING orders nobody touched for app.orders.expiry.pending-ttl-minutes.
+ * <p>
+ * Deadlines live in an in-memory hashed {@link TimingWheel} instead of being found by scanning orders:
+ * the wheel is built from keyset pages over {@code orders_pending_updated_idx} when this node becomes
+ * the expiry leader, fed by {@link OrderStatusChangedEvent} for orders changed on this node, and caught
+ * up periodically with orders changed on other nodes. Due orders are cancelled in batches, each one
+ * short transaction that locks the still-PENDING rows and applies one guarded UPDATE; an order whose
+ * {@code updated_at} moved in the meantime is simply rescheduled.
+ * <p>
+ * Only the holder of a Redis lease runs the loop. Should two nodes ever overlap, the row locks and the
+ * {@code status = PENDING} guard still cancel each order once.
+ */
+@Service
+public class OrderExpiryService {
+    private static final Logger logger = LoggerFactory.getLogger(OrderExpiryService.class);
+
+    static final String LEASE_KEY = "orders:expiry:lease";
+    // Orders committed on other nodes may carry an updated_at slightly behind the sync watermark
+    static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+    static final long RETRY_DELAY_MS = 60_000;
+    private static final LocalDateTime KEYSET_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    // KEYS[1] = lease key, ARGV[1] = node token, ARGV[2] = lease ttl in ms
+    static final RedisScript<Long> RENEW = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+              return redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            end
+            return 0
+            """, Long.class);
+
+    static final RedisScript<Long> RELEASE = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+              return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private final OrderRepository orderRepository;
+    private final OutboxService outboxService;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration pendingTtl;
+    private final boolean redisLeaseEnabled;
+    private final long leaseTtlMs;
+    private final long syncIntervalMs;
+    private final int batchSize;
+
+    private final String nodeToken = UUID.randomUUID().toString();
+    private final TimingWheel wheel;
+
+    // Written by the scheduler thread only; read by event listeners on request threads
+    private volatile boolean leader;
+    private long leaseRenewedAt;
+    private long lastSyncAt;
+    private LocalDateTime syncWatermark;
+
+    public OrderExpiryService(OrderRepository orderRepository,
+                              OutboxService outboxService,
+                              RedisTemplate<String, String> redisTemplate,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.orders.expiry.enabled:true}") boolean enabled,
+                              @Value("${app.orders.expiry.pending-ttl-minutes:1440}") long pendingTtlMinutes,
+                              @Value("${app.orders.expiry.tick-ms:1000}") long tickMs,
+                              @Value("${app.orders.expiry.wheel-size:512}") int wheelSize,
+                              @Value("${app.orders.expiry.batch-size:500}") int batchSize,
+                              @Value("${app.orders.expiry.sync-interval-ms:30000}") long syncIntervalMs,
+                              @Value("${app.orders.expiry.redis-lease-enabled:true}") boolean redisLeaseEnabled,
+                              @Value("${app.orders.expiry.lease-ttl-ms:30000}") long leaseTtlMs) {
+        this.orderRepository = orderRepository;
+        this.outboxService = outboxService;
+        this.redisTemplate = redisTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.pendingTtl = Duration.ofMinutes(pendingTtlMinutes);
+        this.redisLeaseEnabled = redisLeaseEnabled;
+        this.leaseTtlMs = leaseTtlMs;
+        this.syncIntervalMs = syncIntervalMs;
+        this.batchSize = batchSize;
+        this.wheel = new TimingWheel(tickMs, wheelSize, System.currentTimeMillis());
+    }
+
+    @Scheduled(fixedDelayString = "${app.orders.expiry.tick-ms:1000}")
+    public void tick() {
+        if (enabled) {
+            advance(System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * One turn of the expiry loop at the given wall-clock time; returns the number of orders cancelled.
+     */
+    public int advance(long nowMillis) {
+        if (!holdLease(nowMillis)) {
+            return 0;
+        }
+        try {
+            if (syncWatermark == null) {
+                rebuild(nowMillis);
+            } else if (nowMillis - lastSyncAt >= syncIntervalMs) {
+                load(syncWatermark.minus(SYNC_OVERLAP), 0);
+                lastSyncAt = nowMillis;
+            }
+        } catch (RuntimeException e) {
+            // Keep expiring what the wheel already knows; the next sync retries
+            logger.warn("Order expiry: loading pending orders failed: {}", e.getMessage());
+        }
+        return expire(wheel.advance(nowMillis), nowMillis);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        if (!leader) {
+            return;
+        }
+        if (event.status() == OrderStatus.PENDING) {
+            wheel.schedule(event.orderId(), toMillis(event.occurredAt().plus(pendingTtl)));
+        } else {
+            wheel.cancel(event.orderId());
+        }
+    }
+
+    public int scheduledCount() {
+        return wheel.size();
+    }
+
+    @PreDestroy
+    public void releaseLease() {
+        if (leader && redisLeaseEnabled) {
+            try {
+                redisTemplate.execute(RELEASE, List.of(LEASE_KEY), nodeToken);
+            } catch (RuntimeException e) {
+                logger.debug("Order expiry: lease release failed, it will lapse on its own: {}", e.getMessage());
+            }
+        }
+        leader = false;
+    }
+
+    private boolean holdLease(long nowMillis) {
+        if (!redisLeaseEnabled) {
+            leader = true;
+            return true;
+        }
+        // Renew well before the lease lapses; in between the last renewal is trusted
+        if (leader && nowMillis - leaseRenewedAt < leaseTtlMs / 3) {
+            return true;
+        }
+        boolean held;
+        try {
+            if (leader) {
+                Long renewed = redisTemplate.execute(RENEW, List.of(LEASE_KEY), nodeToken, String.valueOf(leaseTtlMs));
+                held = renewed != null && renewed == 1L;
+            } else {
+                held = Boolean.TRUE.equals(redisTemplate.opsForValue()
+                        .setIfAbsent(LEASE_KEY, nodeToken, Duration.ofMillis(leaseTtlMs)));
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Order expiry: lease check failed, pausing expiry on this node: {}", e.getMessage());
+            held = false;
+        }
+
+        if (held) {
+            if (!leader) {
+                logger.info("Order expiry: this node took over the expiry lease");
+            }
+            leader = true;
+            leaseRenewedAt = nowMillis;
+        } else if (leader) {
+            logger.info("Order expiry: expiry lease lost");
+            leader = false;
+            syncWatermark = null;
+            wheel.clear(nowMillis);
+        }
+        return held;
+    }
+
+    private void rebuild(long nowMillis) {
+        wheel.clear(nowMillis);
+        syncWatermark = KEYSET_START;
+        load(KEYSET_START, 0);
+        lastSyncAt = nowMillis;
+        logger.info("Order expiry: scheduled {} pending orders", wheel.size());
+    }
+
+    private void load(LocalDateTime afterUpdatedAt, int afterId) {
+        while (true) {
+            List<Object[]> page = orderRepository.findPendingAfter(afterUpdatedAt, afterId, batchSize);
+            for (Object[] row : page) {
+                int id = ((Number) row[0]).intValue();
+                LocalDateTime updatedAt = toLocalDateTime(row[1]);
+                wheel.schedule(id, toMillis(updatedAt.plus(pendingTtl)));
+                afterUpdatedAt = updatedAt;
+                afterId = id;
+            }
+            if (afterUpdatedAt.isAfter(syncWatermark)) {
+                syncWatermark = afterUpdatedAt;
+            }
+            if (page.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    private int expire(List<Integer> due, long nowMillis) {
+        if (due.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime cutoff = toLocalDateTime(nowMillis).minus(pendingTtl);
+        int expired = 0;
+        for (int from = 0; from < due.size(); from += batchSize) {
+            List<Integer> chunk = due.subList(from, Math.min(from + batchSize, due.size()));
+            try {
+                expired += expireChunk(chunk, cutoff);
+            } catch (RuntimeException e) {
+                logger.warn("Order expiry: batch of {} orders failed, retrying later: {}", chunk.size(), e.getMessage());
+                chunk.forEach(id -> wheel.schedule(id, nowMillis + RETRY_DELAY_MS));
+            }
+        }
+        if (expired > 0) {
+            logger.info("Order expiry: cancelled {} pending orders not updated since {}", expired, cutoff);
+        }
+        return expired;
+    }
+
+    private int expireChunk(List<Integer> ids, LocalDateTime cutoff) {
+        Integer count = transactionTemplate.execute(status -> {
+            Map<Integer, Integer> owners = new LinkedHashMap<>();
+            for (Object[] row : orderRepository.lockPendingByIdIn(ids)) {
+                int id = ((Number) row[0]).intValue();
+                LocalDateTime updatedAt = toLocalDateTime(row[2]);
+                if (updatedAt.isAfter(cutoff)) {
+                    // Touched since it was scheduled: wait for its new deadline
+                    wheel.schedule(id, toMillis(updatedAt.plus(pendingTtl)));
+                } else {
+                    owners.put(id, row[1] == null ? null : ((Number) row[1]).intValue());
+                }
+            }
+            if (owners.isEmpty()) {
+                return 0;
+            }
+
+            int updated = orderRepository.updateStatusWhereStatusIn(
+                    owners.keySet(), EnumSet.of(OrderStatus.PENDING), OrderStatus.CANCELLED);
+            if (updated != owners.size()) {
+                throw new IllegalStateException("Expected to expire " + owners.size() + " orders but updated " + updated);
+            }
+            owners.forEach((id, personId) ->
+                    outboxService.recordStatusChange(id, personId, OrderStatus.PENDING, OrderStatus.CANCELLED));
+            return updated;
+        });
+        return count == null ? 0 : count;
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return value instanceof Timestamp ts ? ts.toLocalDateTime() : (LocalDateTime) value;
+    }
+
+    /**
+     * Hashed timing wheel of order deadlines: a deadline goes into bucket {@code tick % size} and each
+     * tick only looks at one bucket, so scheduling and expiring are O(1) per order however many are pending.
+     * Entries further away than one rotation simply stay in their bucket until their tick comes round.
+     * Rescheduling or cancelling an order leaves its old entry behind; it is dropped lazily because it
+     * no longer matches the deadline recorded in {@code deadlines}.
+     */
+    static final class TimingWheel {
+        private final long tickMs;
+        private final List<List<Entry>> buckets;
+        private final Map<Integer, Long> deadlines = new HashMap<>();
+        private long currentTick;
+
+        TimingWheel(long tickMs, int size, long nowMillis) {
+            this.tickMs = tickMs;
+            this.buckets = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                buckets.add(new ArrayList<>());
+            }
+            this.currentTick = nowMillis / tickMs;
+        }
+
+        synchronized void schedule(int orderId, long deadlineMillis) {
+            deadlines.put(orderId, deadlineMillis);
+            // Past deadlines fire on the next tick rather than a full rotation later
+            long tick = Math.max(deadlineMillis / tickMs, currentTick + 1);
+            bucket(tick).add(new Entry(orderId, deadlineMillis));
+        }
+
+        synchronized void cancel(int orderId) {
+            deadlines.remove(orderId);
+        }
+
+        synchronized void clear(long nowMillis) {
+            buckets.forEach(List::clear);
+            deadlines.clear();
+            currentTick = nowMillis / tickMs;
+        }
+
+        synchronized int size() {
+            return deadlines.size();
+        }
+
+        /**
+         * Moves the wheel to {@code nowMillis} and returns the orders whose deadline has passed.
+         */
+        synchronized List<Integer> advance(long nowMillis) {
+            long targetTick = nowMillis / tickMs;
+            if (targetTick <= currentTick) {
+                return List.of();
+            }
+            // After a long pause every bucket is visited once instead of once per missed tick
+            long visits = Math.min(targetTick - currentTick, buckets.size());
+            List<Integer> due = new ArrayList<>();
+            for (long tick = targetTick - visits + 1; tick <= targetTick; tick++) {
+                Iterator<Entry> it = bucket(tick).iterator();
+                while (it.hasNext()) {
+                    Entry entry = it.next();
+                    Long deadline = deadlines.get(entry.orderId());
+                    if (deadline == null || deadline != entry.deadlineMillis()) {
+                        it.remove();
+                    } else if (entry.deadlineMillis() / tickMs <= targetTick) {
+                        it.remove();
+                        deadlines.remove(entry.orderId());
+                        due.add(entry.orderId());
+                    }
+                }
+            }
+            currentTick = targetTick;
+            return due;
+        }
+
+        private List<Entry> bucket(long tick) {
+            return buckets.get((int) Math.floorMod(tick, (long) buckets.size()));
+        }
+
+        private record Entry(int orderId, long deadlineMillis) {
+        }
+    }
+}
@@ -0,0 +1,362 @@
+package com.simple_online_store_backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.simple_online_store_backend.enums.DeliveryType;
+import com.simple_online_store_backend.enums.ExportFormat;
+import com.simple_online_store_backend.enums.OrderStatus;
+import com.simple_online_store_backend.exception.ValidationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.sql.DataSource;
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams orders (live and, unless excluded, archived) with owner, delivery target and items straight from a forward-only cursor to the
+ * response. One order is buffered at a time (rows arrive ordered by order id), so memory stays flat
+ * regardless of the export size. On PostgreSQL the fetch size only turns into a server-side cursor
+ * inside a transaction, hence the read-only transaction around the query.
+ */
+@Service
+public class OrderExportService {
+    private static final Logger logger = LoggerFactory.getLogger(OrderExportService.class);
+
+    static final String CSV_HEADER = "order_id,status,created_at,updated_at,customer_id,customer_username,customer_email,"
+            + "delivery_type,pickup_location_id,pickup_location,address_id,address,item_count,total,items";
+
+    /**
+     * One branch per order table: %1$s is the orders table, %2$s its order-to-product join table and
+     * %3$s the filter. Both branches share the column list so they can be glued with UNION ALL.
+     */
+    private static final String BRANCH = """
+            SELECT o.id, o.status, o.created_at, o.updated_at,
+                   pe.id AS person_id, pe.user_name, pe.email,
+                   pl.id AS pickup_id, pl.city AS pickup_city, pl.street AS pickup_street, pl.house_number AS pickup_house,
+                   a.id AS address_id, a.city, a.street, a.house_number, a.apartment, a.postal_code,
+                   p.id AS product_id, p.product_name, p.product_category, p.price
+            FROM %1$s o
+            LEFT JOIN people pe ON pe.id = o.person_id
+            LEFT JOIN pickup_locations pl ON pl.id = o.pickup_location_id
+            LEFT JOIN addresses a ON a.id = o.address_id
+            LEFT JOIN %2$s op ON op.order_id = o.id
+            LEFT JOIN products p ON p.id = op.product_id
+            WHERE 1 = 1%3$s
+            """;
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final TransactionTemplate readOnlyTx;
+    private final ObjectMapper objectMapper;
+    private final int flushEvery;
+
+    public OrderExportService(DataSource dataSource,
+                              PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper,
+                              @Value("${app.orders.export.fetch-size:1000}") int fetchSize,
+                              @Value("${app.orders.export.flush-every:500}") int flushEvery) {
+        JdbcTemplate cursorTemplate = new JdbcTemplate(dataSource);
+        cursorTemplate.setFetchSize(fetchSize);
+        this.jdbc = new NamedParameterJdbcTemplate(cursorTemplate);
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.flushEvery = flushEvery;
+    }
+
+    /**
+     * Validates the filter on the calling thread and returns a body that runs the query when the
+     * container starts writing the response.
+     */
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public StreamingResponseBody export(ExportFormat format, boolean gzip, OrderStatus status, LocalDate from, LocalDate to,
+                                        boolean includeArchived) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new ValidationException("'from' must not be after 'to'");
+        }
+
+        StringBuilder filter = new StringBuilder();
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        if (status != null) {
+            filter.append(" AND o.status = :status");
+            params.addValue("status", status.name());
+        }
+        if (from != null) {
+            filter.append(" AND o.created_at >= :from");
+            params.addValue("from", from.atStartOfDay());
+        }
+        if (to != null) {
+            filter.append(" AND o.created_at < :to");
+            params.addValue("to", to.plusDays(1).atStartOfDay());
+        }
+
+        String sql = BRANCH.formatted("orders", "orders_products", filter);
+        if (includeArchived) {
+            // Ids are unique across both tables (rows keep their id when archived), so the union
+            // still arrives grouped by order
+            sql = "SELECT * FROM (" + sql + " UNION ALL " + BRANCH.formatted("orders_archive", "orders_products_archive", filter)
+                    + ") x";
+        }
+        String query = sql + " ORDER BY id, product_id";
+
+        return out -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, 64 * 1024) : out;
+            Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), 64 * 1024);
+            OrderSink sink = format == ExportFormat.CSV ? new CsvSink(writer) : new NdjsonSink(writer, objectMapper);
+            long[] exported = {0};
+            try {
+                sink.begin();
+                readOnlyTx.executeWithoutResult(tx -> jdbc.query(query, params, new OrderAssembler(sink, exported)));
+                writer.flush();
+                if (target instanceof GZIPOutputStream gz) {
+                    gz.finish();
+                }
+                logger.info("Exported {} orders as {}{}", exported[0], format, gzip ? " (gzip)" : "");
+            } catch (UncheckedIOException e) {
+                // Client went away mid-stream; the cursor and the transaction are already closed
+                logger.warn("Order export aborted after {} orders: {}", exported[0], e.getCause().getMessage());
+                throw e.getCause();
+            }
+        };
+    }
+
+    /**
+     * Folds consecutive rows of the same order into one ExportedOrder and hands it to the sink.
+     */
+    private final class OrderAssembler implements ResultSetExtractor<Void> {
+        private final OrderSink sink;
+        private final long[] exported;
+        private ExportedOrder current;
+
+        OrderAssembler(OrderSink sink, long[] exported) {
+            this.sink = sink;
+            this.exported = exported;
+        }
+
+        @Override
+        public Void extractData(ResultSet rs) throws SQLException {
+            while (rs.next()) {
+                long orderId = rs.getLong("id");
+                if (current == null || current.id != orderId) {
+                    emit();
+                    current = ExportedOrder.from(rs, orderId);
+                }
+                long productId = rs.getLong("product_id");
+                if (!rs.wasNull()) {
+                    current.items.add(new ExportedItem(productId, rs.getString("product_name"),
+                            rs.getString("product_category"), rs.getBigDecimal("price")));
+                }
+            }
+            emit();
+            return null;
+        }
+
+        private void emit() {
+            if (current == null) {
+                return;
+            }
+            try {
+                sink.write(current);
+                exported[0]++;
+                if (exported[0] % flushEvery == 0) {
+                    sink.flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            current = null;
+        }
+    }
+
+    private record ExportedItem(long productId, String name, String category, BigDecimal price) {
+    }
+
+    private static final class ExportedOrder {
+        long id;
+        String status;
+        String createdAt;
+        String updatedAt;
+        Long customerId;
+        String customerUsername;
+        String customerEmail;
+        Long pickupLocationId;
+        String pickupLocation;
+        Long addressId;
+        String address;
+        final List<ExportedItem> items = new ArrayList<>();
+
+        static ExportedOrder from(ResultSet rs, long orderId) throws SQLException {
+            ExportedOrder o = new ExportedOrder();
+            o.id = orderId;
+            o.status = rs.getString("status");
+            o.createdAt = timestamp(rs.getTimestamp("created_at"));
+            o.updatedAt = timestamp(rs.getTimestamp("updated_at"));
+            o.customerId = nullableLong(rs, "person_id");
+            o.customerUsername = rs.getString("user_name");
+            o.customerEmail = rs.getString("email");
+            o.pickupLocationId = nullableLong(rs, "pickup_id");
+            if (o.pickupLocationId != null) {
+                o.pickupLocation = rs.getString("pickup_city") + ", " + rs.getString("pickup_street") + " " + rs.getString("pickup_house");
+            }
+            o.addressId = nullableLong(rs, "address_id");
+            if (o.addressId != null) {
+                StringBuilder a = new StringBuilder()
+                        .append(rs.getString("city")).append(", ")
+                        .append(rs.getString("street")).append(' ').append(rs.getString("house_number"));
+                String apartment = rs.getString("apartment");
+                if (apartment != null) a.append(", apt ").append(apartment);
+                String postalCode = rs.getString("postal_code");
+                if (postalCode != null) a.append(", ").append(postalCode);
+                o.address = a.toString();
+            }
+            return o;
+        }
+
+        String deliveryType() {
+            if (pickupLocationId != null) return DeliveryType.PICKUP.name();
+            if (addressId != null) return DeliveryType.COURIER.name();
+            return null;
+        }
+
+        BigDecimal total() {
+            return items.stream().map(ExportedItem::price).reduce(BigDecimal.ZERO, BigDecimal::add);
+        }
+
+        private static Long nullableLong(ResultSet rs, String column) throws SQLException {
+            long v = rs.getLong(column);
+            return rs.wasNull() ? null : v;
+        }
+
+        private static String timestamp(Timestamp ts) {
+            return ts == null ? null : ts.toLocalDateTime().toString();
+        }
+    }
+
+    private interface OrderSink {
+        void begin() throws IOException;
+        void write(ExportedOrder order) throws IOException;
+        void flush() throws IOException;
+    }
+
+    private static final class CsvSink implements OrderSink {
+        private final Writer writer;
+
+        CsvSink(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void begin() throws IOException {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        @Override
+        public void write(ExportedOrder o) throws IOException {
+            StringBuilder items = new StringBuilder();
+            for (ExportedItem item : o.items) {
+                if (!items.isEmpty()) items.append(" | ");
+                items.append(item.productId()).append(':').append(item.name()).append(':').append(item.price().toPlainString());
+            }
+            String[] cells = {
+                    String.valueOf(o.id), o.status, o.createdAt, o.updatedAt,
+                    str(o.customerId), o.customerUsername, o.customerEmail,
+                    o.deliveryType(), str(o.pickupLocationId), o.pickupLocation, str(o.addressId), o.address,
+                    String.valueOf(o.items.size()), o.total().toPlainString(), items.toString()
+            };
+            for (int i = 0; i < cells.length; i++) {
+                if (i > 0) writer.write(',');
+                writer.write(escape(cells[i]));
+            }
+            writer.write('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        private static String str(Long v) {
+            return v == null ? null : v.toString();
+        }
+
+        private static String escape(String v) {
+            if (v == null) return "";
+            if (v.indexOf(',') < 0 && v.indexOf('"') < 0 && v.indexOf('\n') < 0 && v.indexOf('\r') < 0) return v;
+            return '"' + v.replace("\"", "\"\"") + '"';
+        }
+    }
+
+    private static final class NdjsonSink implements OrderSink {
+        private final Writer writer;
+        private final ObjectMapper objectMapper;
+
+        NdjsonSink(Writer writer, ObjectMapper objectMapper) {
+            this.writer = writer;
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        public void begin() {
+        }
+
+        @Override
+        public void write(ExportedOrder o) throws IOException {
+            ObjectNode node = objectMapper.createObjectNode();
+            node.put("id", o.id);
+            node.put("status", o.status);
+            node.put("createdAt", o.createdAt);
+            node.put("updatedAt", o.updatedAt);
+            if (o.customerId != null) {
+                node.putObject("customer")
+                        .put("id", o.customerId)
+                        .put("userName", o.customerUsername)
+                        .put("email", o.customerEmail);
+            } else {
+                node.putNull("customer");
+            }
+            node.put("deliveryType", o.deliveryType());
+            if (o.pickupLocationId != null) {
+                node.putObject("pickupLocation").put("id", o.pickupLocationId).put("label", o.pickupLocation);
+            }
+            if (o.addressId != null) {
+                node.putObject("address").put("id", o.addressId).put("label", o.address);
+            }
+            ArrayNode items = node.putArray("items");
+            for (ExportedItem item : o.items) {
+                items.addObject()
+                        .put("productId", item.productId())
+                        .put("name", item.name())
+                        .put("category", item.category())
+                        .put("price", item.price());
+            }
+            node.put("total", o.total());
+            writer.write(objectMapper.writeValueAsString(node));
+            writer.write('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+    }
+}
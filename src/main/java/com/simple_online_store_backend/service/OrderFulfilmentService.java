@@ -0,0 +1,194 @@
+package com.simple_online_store_backend.service;
+
+import com.simple_online_store_backend.dto.order.OrderBulkStatusRequest;
+import com.simple_online_store_backend.dto.order.OrderBulkStatusResponse;
+import com.simple_online_store_backend.dto.order.OrderTransitionResult;
+import com.simple_online_store_backend.enums.OrderStatus;
+import com.simple_online_store_backend.enums.OrderTransitionOutcome;
+import com.simple_online_store_backend.exception.ValidationException;
+import com.simple_online_store_backend.repository.OrderRepository;
+import com.simple_online_store_backend.repository.PickupSlotRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Admin-side order fulfilment: moves orders along the OrderStatus state machine in bulk.
+ * Work is split into chunks; every chunk is one short transaction that locks its rows,
+ * classifies them and applies a single guarded UPDATE ... WHERE status IN (expected).
+ */
+@Service
+public class OrderFulfilmentService {
+    private static final Logger logger = LoggerFactory.getLogger(OrderFulfilmentService.class);
+
+    private final OrderRepository orderRepository;
+    private final PickupSlotRepository pickupSlotRepository;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public OrderFulfilmentService(OrderRepository orderRepository,
+                                  PickupSlotRepository pickupSlotRepository,
+                                  OutboxService outboxService,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${app.orders.bulk.chunk-size:500}") int chunkSize) {
+        this.orderRepository = orderRepository;
+        this.pickupSlotRepository = pickupSlotRepository;
+        this.outboxService = outboxService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public OrderBulkStatusResponse bulkTransition(OrderBulkStatusRequest req) {
+        OrderStatus target = req.getTargetStatus();
+        boolean byIds = req.getOrderIds() != null && !req.getOrderIds().isEmpty();
+
+        if (!byIds && req.getFromStatus() == null) {
+            throw new ValidationException("Either orderIds or fromStatus must be provided");
+        }
+        if (byIds && req.getPickupLocationId() != null) {
+            throw new ValidationException("pickupLocationId filter can't be combined with orderIds");
+        }
+
+        Set<OrderStatus> expected = expectedSources(req.getFromStatus(), target);
+        List<OrderTransitionResult> results = new ArrayList<>();
+
+        if (byIds) {
+            List<Integer> ids = new ArrayList<>(new LinkedHashSet<>(req.getOrderIds()));
+            for (int from = 0; from < ids.size(); from += chunkSize) {
+                List<Integer> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+                results.addAll(transitionChunk(chunk, expected, target));
+            }
+        } else {
+            int afterId = 0;
+            while (true) {
+                List<Integer> chunk = orderRepository.findIdsByStatusAfter(
+                        req.getFromStatus(), req.getPickupLocationId(), afterId, PageRequest.of(0, chunkSize));
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                results.addAll(transitionChunk(chunk, expected, target));
+                afterId = chunk.get(chunk.size() - 1);
+                if (chunk.size() < chunkSize) {
+                    break;
+                }
+            }
+        }
+
+        OrderBulkStatusResponse response = new OrderBulkStatusResponse(target, results);
+        logger.info("Bulk transition to {}: processed={}, updated={}, invalid={}, notFound={}, slotUnavailable={}",
+                target, response.getProcessed(), response.getUpdated(),
+                response.getInvalidTransition(), response.getNotFound(), response.getSlotUnavailable());
+        return response;
+    }
+
+    private Set<OrderStatus> expectedSources(OrderStatus fromStatus, OrderStatus target) {
+        Set<OrderStatus> sources = OrderStatus.allowedSourcesOf(target);
+        if (sources.isEmpty()) {
+            throw new ValidationException("No order can be moved to status " + target);
+        }
+        if (fromStatus == null) {
+            return sources;
+        }
+        if (!fromStatus.canTransitionTo(target)) {
+            throw new ValidationException("Transition " + fromStatus + " -> " + target + " is not allowed");
+        }
+        return EnumSet.of(fromStatus);
+    }
+
+    private List<OrderTransitionResult> transitionChunk(List<Integer> ids, Set<OrderStatus> expected, OrderStatus target) {
+        return transactionTemplate.execute(status -> {
+            Map<Integer, Object[]> current = new HashMap<>();
+            for (Object[] row : orderRepository.lockStatusesByIdIn(ids)) {
+                current.put(((Number) row[0]).intValue(), row);
+            }
+
+            Set<Integer> withoutSlot = withoutFreeSlot(reactivated(ids, current, expected, target));
+
+            List<OrderTransitionResult> results = new ArrayList<>(ids.size());
+            List<Integer> eligible = new ArrayList<>();
+            for (Integer id : ids) {
+                Object[] row = current.get(id);
+                if (row == null) {
+                    results.add(new OrderTransitionResult(id, OrderTransitionOutcome.NOT_FOUND, null));
+                    continue;
+                }
+                OrderStatus previous = OrderStatus.valueOf(row[1].toString());
+                if (withoutSlot.contains(id)) {
+                    results.add(new OrderTransitionResult(id, OrderTransitionOutcome.SLOT_UNAVAILABLE, previous));
+                } else if (expected.contains(previous)) {
+                    eligible.add(id);
+                    results.add(new OrderTransitionResult(id, OrderTransitionOutcome.UPDATED, previous));
+                } else {
+                    results.add(new OrderTransitionResult(id, OrderTransitionOutcome.INVALID_TRANSITION, previous));
+                }
+            }
+
+            if (!eligible.isEmpty()) {
+                int updated = orderRepository.updateStatusWhereStatusIn(eligible, expected, target);
+                if (updated != eligible.size()) {
+                    // Can't happen while the rows are locked; fail the chunk rather than report wrong outcomes
+                    throw new IllegalStateException("Expected to update " + eligible.size() + " orders but updated " + updated);
+                }
+                for (OrderTransitionResult r : results) {
+                    if (r.getOutcome() == OrderTransitionOutcome.UPDATED) {
+                        Object[] row = current.get(r.getOrderId());
+                        Integer personId = row[2] == null ? null : ((Number) row[2]).intValue();
+                        outboxService.recordStatusChange(r.getOrderId(), personId, r.getPreviousStatus(), target);
+                    }
+                }
+            }
+            return results;
+        });
+    }
+
+    private List<Integer> reactivated(List<Integer> ids, Map<Integer, Object[]> current,
+                                      Set<OrderStatus> expected, OrderStatus target) {
+        if (target == OrderStatus.CANCELLED || !expected.contains(OrderStatus.CANCELLED)) {
+            return List.of();
+        }
+        List<Integer> reactivated = new ArrayList<>();
+        for (Integer id : ids) {
+            Object[] row = current.get(id);
+            if (row != null && OrderStatus.CANCELLED.name().equals(row[1].toString())) {
+                reactivated.add(id);
+            }
+        }
+        return reactivated;
+    }
+
+    /**
+     * Cancelled orders gave their pickup slot place back, and PickupSlotService takes it again when they are
+     * reactivated. The slots are locked and counted here first, so orders whose slot is full or has started
+     * are reported on their own instead of failing the whole chunk, and the places handed out stay reserved
+     * for the rest until the chunk commits.
+     */
+    private Set<Integer> withoutFreeSlot(List<Integer> orderIds) {
+        if (orderIds.isEmpty()) {
+            return Set.of();
+        }
+        Map<Integer, Integer> freePlaces = new HashMap<>();
+        Set<Integer> rejected = new HashSet<>();
+        for (Object[] row : pickupSlotRepository.lockSlotsOfOrders(orderIds, LocalDateTime.now())) {
+            int orderId = ((Number) row[0]).intValue();
+            int slotId = ((Number) row[1]).intValue();
+            int free = freePlaces.getOrDefault(slotId, ((Number) row[2]).intValue());
+            if (free > 0) {
+                freePlaces.put(slotId, free - 1);
+            } else {
+                freePlaces.put(slotId, 0);
+                rejected.add(orderId);
+            }
+        }
+        return rejected;
+    }
+}
@@ -0,0 +1,143 @@
+package com.simple_online_store_backend.service;
+
+import com.simple_online_store_backend.dto.order.OrderSearchItemResponse;
+import com.simple_online_store_backend.dto.order.OrderSearchPageResponse;
+import com.simple_online_store_backend.enums.OrderStatus;
+import com.simple_online_store_backend.exception.ValidationException;
+import com.simple_online_store_backend.util.KeysetPagination;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Admin search over orders by customer username prefix (case-insensitive), status and creation date, newest first.
+ * <p>
+ * Pages are keyset-based on {@code (created_at, id)}: the cursor carries the last row of the previous
+ * page, so paging deeper never re-reads earlier rows. A status search is one range read of
+ * {@code orders_status_created_idx}. A username prefix is first resolved to customers through
+ * {@code people_lower_user_name_pattern_idx}; a prefix matching more than {@code max-matched-customers} of them
+ * is rejected, so a page reads the {@code orders_person_created_idx} ranges of at most that many customers.
+ * At least one of the two is required, so no search walks the whole table.
+ */
+@Service
+public class OrderSearchService {
+    static final int DEFAULT_LIMIT = 50;
+    static final int MAX_LIMIT = 200;
+
+    private static final String SELECT = """
+            SELECT o.id, o.status, o.created_at, o.updated_at, pe.id AS person_id, pe.user_name,
+                   (SELECT COUNT(*) FROM orders_products op WHERE op.order_id = o.id) AS item_count
+            FROM orders o
+            """;
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final int maxMatchedCustomers;
+
+    public OrderSearchService(NamedParameterJdbcTemplate jdbc,
+                              @Value("${app.orders.search.max-matched-customers:100}") int maxMatchedCustomers) {
+        this.jdbc = jdbc;
+        this.maxMatchedCustomers = maxMatchedCustomers;
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @Transactional(readOnly = true)
+    public OrderSearchPageResponse search(String userNamePrefix, OrderStatus status, LocalDate from, LocalDate to,
+                                          String cursor, Integer limit) {
+        String prefix = userNamePrefix == null || userNamePrefix.isBlank() ? null : userNamePrefix.trim();
+        if (prefix == null && status == null) {
+            throw new ValidationException("Specify a username prefix or a status");
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new ValidationException("'from' must not be after 'to'");
+        }
+        int pageSize = limit == null ? DEFAULT_LIMIT : limit;
+        if (pageSize < 1 || pageSize > MAX_LIMIT) {
+            throw new ValidationException("'limit' must be between 1 and " + MAX_LIMIT);
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder sql = new StringBuilder(SELECT);
+        if (prefix != null) {
+            List<Integer> personIds = customersMatching(prefix);
+            if (personIds.isEmpty()) {
+                return new OrderSearchPageResponse(List.of(), null);
+            }
+            sql.append("JOIN people pe ON pe.id = o.person_id WHERE o.person_id IN (:personIds)");
+            params.addValue("personIds", personIds);
+        } else {
+            sql.append("LEFT JOIN people pe ON pe.id = o.person_id WHERE 1 = 1");
+        }
+        if (status != null) {
+            sql.append(" AND o.status = :status");
+            params.addValue("status", status.name());
+        }
+        if (from != null) {
+            sql.append(" AND o.created_at >= :from");
+            params.addValue("from", from.atStartOfDay());
+        }
+        if (to != null) {
+            sql.append(" AND o.created_at < :to");
+            params.addValue("to", to.plusDays(1).atStartOfDay());
+        }
+        if (cursor != null && !cursor.isBlank()) {
+            Cursor after = Cursor.decode(cursor);
+            // Row comparison so PostgreSQL can seek the (..., created_at DESC, id DESC) index directly
+            sql.append(" AND (o.created_at, o.id) < (:afterCreatedAt, :afterId)");
+            params.addValue("afterCreatedAt", after.createdAt());
+            params.addValue("afterId", after.id());
+        }
+        sql.append(" ORDER BY o.created_at DESC, o.id DESC LIMIT :limit");
+        params.addValue("limit", KeysetPagination.fetchSize(pageSize));
+
+        List<OrderSearchItemResponse> rows = jdbc.query(sql.toString(), params, (rs, i) -> {
+            OrderSearchItemResponse item = new OrderSearchItemResponse();
+            item.setId(rs.getInt("id"));
+            item.setStatus(OrderStatus.valueOf(rs.getString("status")));
+            item.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+            item.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
+            int personId = rs.getInt("person_id");
+            item.setCustomerId(rs.wasNull() ? null : personId);
+            item.setCustomerUserName(rs.getString("user_name"));
+            item.setItemCount(rs.getInt("item_count"));
+            return item;
+        });
+
+        return KeysetPagination.toPage(rows, pageSize, (page, last) -> new OrderSearchPageResponse(page,
+                last == null ? null : new Cursor(last.getCreatedAt(), last.getId()).encode()));
+    }
+
+    private List<Integer> customersMatching(String prefix) {
+        // One row over the cap is enough to know the prefix is too short
+        List<Integer> ids = jdbc.queryForList(
+                "SELECT id FROM people WHERE LOWER(user_name) LIKE :prefix ESCAPE '\\' LIMIT :limit",
+                new MapSqlParameterSource()
+                        .addValue("prefix", KeysetPagination.escapeLike(prefix.toLowerCase(Locale.ROOT)) + "%")
+                        .addValue("limit", maxMatchedCustomers + 1),
+                Integer.class);
+        if (ids.size() > maxMatchedCustomers) {
+            throw new ValidationException("Username prefix '" + prefix + "' matches more than " + maxMatchedCustomers
+                    + " customers; use a longer prefix");
+        }
+        return ids;
+    }
+
+    record Cursor(LocalDateTime createdAt, int id) {
+
+        String encode() {
+            return KeysetPagination.encodeCursor(createdAt, id);
+        }
+
+        static Cursor decode(String value) {
+            return KeysetPagination.decodeCursor(value, 2,
+                    parts -> new Cursor(LocalDateTime.parse(parts[0]), Integer.parseInt(parts[1])));
+        }
+    }
+}
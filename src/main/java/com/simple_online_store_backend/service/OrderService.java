@@ -1,13 +1,19 @@
 package com.simple_online_store_backend.service;
 
+import com.simple_online_store_backend.aspect.RetryOnConflict;
 import com.simple_online_store_backend.dto.order.*;
+import com.simple_online_store_backend.dto.pickup_location.PickupLocationResponseDTO;
+import com.simple_online_store_backend.entity.ArchivedOrder;
 import com.simple_online_store_backend.entity.Order;
 import com.simple_online_store_backend.entity.Person;
 import com.simple_online_store_backend.entity.Product;
+import com.simple_online_store_backend.enums.OrderEventType;
 import com.simple_online_store_backend.enums.OrderStatus;
+import com.simple_online_store_backend.exception.OrderArchivedException;
 import com.simple_online_store_backend.exception.ValidationException;
 import com.simple_online_store_backend.mapper.OrderMapper;
 import com.simple_online_store_backend.repository.*;
+import com.simple_online_store_backend.security.CurrentUserContext;
 import com.simple_online_store_backend.security.PersonDetails;
 import jakarta.persistence.EntityNotFoundException;
 import org.slf4j.Logger;
@@ -20,7 +26,13 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class OrderService {
@@ -29,33 +41,44 @@ public class OrderService {
     private final PeopleRepository peopleRepository;
     private final ProductRepository productRepository;
     private final AddressRepository addressRepository;
+    private final PickupLocationRegistry pickupLocationRegistry;
     private final PickupLocationRepository pickupLocationRepository;
+    private final OutboxService outboxService;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final CurrentUserContext currentUserContext;
+    private final PickupSlotService pickupSlotService;
     private static final Logger logger = LoggerFactory.getLogger(OrderService.class);
 
-    public OrderService(OrderRepository orderRepository, OrderMapper orderMapper, PeopleRepository peopleRepository, ProductRepository productRepository, AddressRepository addressRepository, PickupLocationRepository pickupLocationRepository) {
+    public OrderService(OrderRepository orderRepository, OrderMapper orderMapper, PeopleRepository peopleRepository, ProductRepository productRepository, AddressRepository addressRepository, PickupLocationRegistry pickupLocationRegistry, PickupLocationRepository pickupLocationRepository, OutboxService outboxService, ArchivedOrderRepository archivedOrderRepository, CurrentUserContext currentUserContext, PickupSlotService pickupSlotService) {
         this.orderRepository = orderRepository;
         this.orderMapper = orderMapper;
         this.peopleRepository = peopleRepository;
         this.productRepository = productRepository;
         this.addressRepository = addressRepository;
+        this.pickupLocationRegistry = pickupLocationRegistry;
         this.pickupLocationRepository = pickupLocationRepository;
+        this.outboxService = outboxService;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.currentUserContext = currentUserContext;
+        this.pickupSlotService = pickupSlotService;
     }
 
     @PreAuthorize("hasRole('ROLE_USER')")
     @Transactional
     public OrderDetailsResponse createOrder(OrderCreateRequest req) {
-        var auth = SecurityContextHolder.getContext().getAuthentication();
-        var pd = (PersonDetails) auth.getPrincipal();
-
-        var owner = peopleRepository.findByUserName(pd.getUsername())
+        // The caller was loaded by JWTFilter; the order only needs its id for the FK
+        var owner = currentUserContext.current()
                 .orElseThrow(() -> new EntityNotFoundException("User not found"));
 
         if (Boolean.TRUE.equals(owner.getDeleted())) {
             throw new ValidationException("Your account is deactivated. Please restore your account before placing an order.");
         }
 
+        // One IN query instead of a lookup per item; request order and duplicates are kept
+        Map<Integer, Product> productsById = productRepository.findAllById(new HashSet<>(req.getProductIds())).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
         var products = req.getProductIds().stream()
-                .map(id -> productRepository.findById(id)
+                .map(id -> Optional.ofNullable(productsById.get(id))
                         .orElseThrow(() -> new EntityNotFoundException("Product with ID " + id + " not found")))
                 .toList();
 
@@ -70,30 +93,38 @@ public class OrderService {
         var hasPickup  = req.getPickupLocationId() != null;
 
         var order = new Order();
-        order.setPerson(owner);
+        order.setPerson(peopleRepository.getReferenceById(owner.getId()));
         order.setStatus(OrderStatus.PENDING);
         order.setProducts(new java.util.ArrayList<>(products));
 
+        PickupLocationResponseDTO pickupResponse = null;
         if (hasAddress) {
             var address = addressRepository.findById(req.getAddressId())
                     .orElseThrow(() -> new EntityNotFoundException("Address not found: " + req.getAddressId()));
             order.setAddress(address);
         } else {
-            var pickup = pickupLocationRepository.findById(req.getPickupLocationId())
+            var pickup = pickupLocationRegistry.find(req.getPickupLocationId())
                     .orElseThrow(() -> new EntityNotFoundException("Pickup location not found: " + req.getPickupLocationId()));
-            if (!Boolean.TRUE.equals(pickup.getActive())) {
+            if (!pickup.active()) {
                 throw new ValidationException("Pickup location must be active");
             }
-            order.setPickupLocation(pickup);
+            // The registry already checked the location; the insert only needs its id, and the response its copy
+            order.setPickupLocation(pickupLocationRepository.getReferenceById(pickup.id()));
+            pickupResponse = pickup.toResponse();
+            // Conditional UPDATE on the slot row; the place is returned if this transaction rolls back
+            order.setPickupSlot(pickupSlotService.reserveForNewOrder(req.getPickupLocationId(), req.getPickupSlotId()));
         }
 
         var saved = orderRepository.save(order);
-        return orderMapper.toDetails(saved);
+        outboxService.recordOrderEvent(saved, OrderEventType.ORDER_CREATED);
+        return orderMapper.toDetails(saved, owner, pickupResponse);
     }
 
     @PreAuthorize("isAuthenticated()")
     public OrderDetailsResponse getOrderById(int orderId) {
+        // Finished orders older than app.orders.archive.age-days live in the archive tables
         Order foundOrder = orderRepository.findWithDetailsById(orderId)
+                .or(() -> archivedOrderRepository.findWithDetailsById(orderId).map(ArchivedOrder::toOrder))
                 .orElseThrow(() -> new EntityNotFoundException("Order not found: " + orderId));
 
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
@@ -123,10 +154,14 @@ public class OrderService {
         Integer userId = pd.getId();
 
         List<Order> orders = orderRepository.findByPerson_Id(userId);
-        return orders.stream()
+        List<Order> archived = archivedOrderRepository.findByPerson_IdOrderByIdDesc(userId).stream()
+                .map(ArchivedOrder::toOrder)
+                .toList();
+        return Stream.concat(orders.stream(), archived.stream())
                 .map(orderMapper::toListItem).toList();
     }
 
+    @RetryOnConflict
     @Transactional
     @PreAuthorize("hasRole('ROLE_USER')")
     public OrderResponseDTO cancelOrder(int orderId) {
@@ -134,7 +169,7 @@ public class OrderService {
         PersonDetails personDetails = (PersonDetails) authentication.getPrincipal();
 
         Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new EntityNotFoundException("Order with ID " + orderId + " not found"));
+                .orElseThrow(() -> notFoundOrArchived(orderId));
 
         if (!order.getPerson().getId().equals(personDetails.getId())) {
             throw new AccessDeniedException(("You are not authorized to cancel this order"));
@@ -146,10 +181,12 @@ public class OrderService {
 
         order.setStatus(OrderStatus.CANCELLED);
         orderRepository.save(order);
+        outboxService.recordOrderEvent(order, OrderEventType.ORDER_CANCELLED, OrderStatus.PENDING);
 
         return orderMapper.mapEntityToResponse(order);
     }
 
+    @RetryOnConflict
     @Transactional
     @PreAuthorize("hasRole('ROLE_USER')")
     public OrderResponseDTO reactivateOrder(int orderId) {
@@ -157,7 +194,7 @@ public class OrderService {
         PersonDetails personDetails = (PersonDetails) authentication.getPrincipal();
 
         Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new EntityNotFoundException("Order with ID " + orderId + " not found"));
+                .orElseThrow(() -> notFoundOrArchived(orderId));
 
         if (!order.getPerson().getId().equals(personDetails.getId())) {
             throw new AccessDeniedException(("You are not authorized to reactivate this order"));
@@ -169,7 +206,16 @@ public class OrderService {
 
         order.setStatus(OrderStatus.PENDING);
         orderRepository.save(order);
+        outboxService.recordOrderEvent(order, OrderEventType.ORDER_REACTIVATED, OrderStatus.CANCELLED);
 
         return orderMapper.mapEntityToResponse(order);
     }
+
+    // Archived orders are read-only: changing one is a conflict with its state, not a missing order
+    private RuntimeException notFoundOrArchived(int orderId) {
+        if (archivedOrderRepository.existsById(orderId)) {
+            return new OrderArchivedException("Order " + orderId + " is archived and can no longer be changed");
+        }
+        return new EntityNotFoundException("Order with ID " + orderId + " not found");
+    }
 }
@@ -0,0 +1,186 @@
+package com.simple_online_store_backend.service;
+
+import com.simple_online_store_backend.dto.order.OrderStatusCountsResponse;
+import com.simple_online_store_backend.enums.OrderStatus;
+import com.simple_online_store_backend.event.OrderStatusChangedEvent;
+import com.simple_online_store_backend.repository.ArchivedOrderRepository;
+import com.simple_online_store_backend.repository.OrderRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live number of orders per status, kept in memory so dashboards never run COUNT(*) over orders.
+ * Counters are seeded from one GROUP BY (live + archived orders, so archival doesn't move them)
+ * and adjusted after commit of every status change published through OutboxService, which covers
+ * OrderService, bulk fulfilment and account deactivation alike.
+ *
+ * Each node also mirrors its deltas into Redis with INCRBY, giving cluster-wide figures; the mirror
+ * is best-effort and is switched off after a failure until the next resync. The periodic resync
+ * re-seeds both from the database; transitions committed while it runs may be off by one until the next resync.
+ */
+@Service
+public class OrderStatusCounterService {
+    private static final Logger logger = LoggerFactory.getLogger(OrderStatusCounterService.class);
+    static final String REDIS_KEY_PREFIX = "orders:status-count:";
+
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final TaskExecutor taskExecutor;
+    private final boolean redisEnabled;
+
+    private final Map<OrderStatus, LongAdder> counters = new EnumMap<>(OrderStatus.class);
+    private volatile boolean redisHealthy;
+
+    public OrderStatusCounterService(OrderRepository orderRepository,
+                                     ArchivedOrderRepository archivedOrderRepository,
+                                     RedisTemplate<String, String> redisTemplate,
+                                     @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${app.orders.status-counters.redis-enabled:true}") boolean redisEnabled) {
+        this.orderRepository = orderRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.redisTemplate = redisTemplate;
+        this.taskExecutor = taskExecutor;
+        this.redisEnabled = redisEnabled;
+        this.redisHealthy = redisEnabled;
+        for (OrderStatus status : OrderStatus.values()) {
+            LongAdder adder = new LongAdder();
+            counters.put(status, adder);
+            Gauge.builder("orders.status.count", adder, LongAdder::sum)
+                    .description("Orders currently in the given status")
+                    .tag("status", status.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedOnStartup() {
+        resync();
+    }
+
+    @Scheduled(fixedDelayString = "${app.orders.status-counters.resync-interval-ms:600000}",
+            initialDelayString = "${app.orders.status-counters.resync-interval-ms:600000}")
+    public void resync() {
+        Map<OrderStatus, Long> fromDb = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus status : OrderStatus.values()) {
+            fromDb.put(status, 0L);
+        }
+        addCounts(fromDb, orderRepository.countGroupedByStatus());
+        addCounts(fromDb, archivedOrderRepository.countGroupedByStatus());
+
+        fromDb.forEach((status, count) -> {
+            LongAdder adder = counters.get(status);
+            adder.reset();
+            adder.add(count);
+        });
+
+        if (redisEnabled) {
+            taskExecutor.execute(() -> seedRedis(fromDb));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        if (event.previousStatus() == event.status()) {
+            return;
+        }
+        if (event.previousStatus() != null) {
+            counters.get(event.previousStatus()).decrement();
+        }
+        counters.get(event.status()).increment();
+
+        if (redisHealthy) {
+            taskExecutor.execute(() -> mirrorToRedis(event.previousStatus(), event.status()));
+        }
+    }
+
+    public Map<OrderStatus, Long> localCounts() {
+        Map<OrderStatus, Long> snapshot = new EnumMap<>(OrderStatus.class);
+        counters.forEach((status, adder) -> snapshot.put(status, adder.sum()));
+        return snapshot;
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public OrderStatusCountsResponse getCounts() {
+        Map<OrderStatus, Long> cluster = redisHealthy ? readRedis() : null;
+        if (cluster != null) {
+            return new OrderStatusCountsResponse(cluster, "REDIS", LocalDateTime.now());
+        }
+        return new OrderStatusCountsResponse(localCounts(), "LOCAL", LocalDateTime.now());
+    }
+
+    private static void addCounts(Map<OrderStatus, Long> target, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            target.merge((OrderStatus) row[0], ((Number) row[1]).longValue(), Long::sum);
+        }
+    }
+
+    private void mirrorToRedis(OrderStatus from, OrderStatus to) {
+        try {
+            if (from != null) {
+                redisTemplate.opsForValue().decrement(REDIS_KEY_PREFIX + from.name());
+            }
+            redisTemplate.opsForValue().increment(REDIS_KEY_PREFIX + to.name());
+        } catch (RuntimeException e) {
+            markRedisDown(e);
+        }
+    }
+
+    private void seedRedis(Map<OrderStatus, Long> counts) {
+        try {
+            Map<String, String> values = new HashMap<>();
+            counts.forEach((status, count) -> values.put(REDIS_KEY_PREFIX + status.name(), String.valueOf(count)));
+            redisTemplate.opsForValue().multiSet(values);
+            if (!redisHealthy) {
+                logger.info("Order status counters: Redis mirror re-seeded and enabled");
+            }
+            redisHealthy = true;
+        } catch (RuntimeException e) {
+            markRedisDown(e);
+        }
+    }
+
+    private Map<OrderStatus, Long> readRedis() {
+        try {
+            List<String> keys = Arrays.stream(OrderStatus.values()).map(s -> REDIS_KEY_PREFIX + s.name()).toList();
+            List<String> values = redisTemplate.opsForValue().multiGet(keys);
+            if (values == null) {
+                return null;
+            }
+            Map<OrderStatus, Long> counts = new EnumMap<>(OrderStatus.class);
+            OrderStatus[] statuses = OrderStatus.values();
+            for (int i = 0; i < statuses.length; i++) {
+                String v = values.get(i);
+                counts.put(statuses[i], v == null ? 0L : Long.parseLong(v));
+            }
+            return counts;
+        } catch (RuntimeException e) {
+            markRedisDown(e);
+            return null;
+        }
+    }
+
+    private void markRedisDown(RuntimeException e) {
+        if (redisHealthy) {
+            logger.warn("Order status counters: Redis mirror disabled until next resync: {}", e.getMessage());
+        }
+        redisHealthy = false;
+    }
+}
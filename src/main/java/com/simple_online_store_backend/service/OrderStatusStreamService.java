@@ -0,0 +1,243 @@
+package com.simple_online_store_backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simple_online_store_backend.dto.order.OrderStatusUpdateResponse;
+import com.simple_online_store_backend.entity.Person;
+import com.simple_online_store_backend.event.OrderStatusChangedEvent;
+import com.simple_online_store_backend.security.CurrentUserContext;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Pushes status changes of a customer's orders to their open Server-Sent Events connections,
+ * so clients stop polling {@code GET /orders/{id}}.
+ * <p>
+ * Changes arrive after commit as {@link OrderStatusChangedEvent}. With Redis enabled they are published
+ * on {@link #CHANNEL} and every node (this one included) delivers them to its own connections; without
+ * Redis, or when publishing fails, they are delivered locally only. Connections are async servlet
+ * requests, so an idle stream holds no thread.
+ * <p>
+ * Each customer keeps a short replay buffer: a client reconnecting with {@code Last-Event-ID} gets the
+ * events it missed, or a {@code resync} event telling it to reload its orders when the id is no longer known.
+ */
+@Service
+public class OrderStatusStreamService {
+    private static final Logger logger = LoggerFactory.getLogger(OrderStatusStreamService.class);
+
+    public static final String CHANNEL = "orders:status-updates";
+    static final String EVENT_STATUS = "order-status";
+    static final String EVENT_RESYNC = "resync";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final CurrentUserContext currentUserContext;
+    private final boolean redisEnabled;
+    private final long timeoutMs;
+    private final long reconnectMs;
+    private final int maxConnectionsPerUser;
+    private final int replaySize;
+    private final Duration replayWindow;
+
+    private final ConcurrentMap<Integer, Channel> channels = new ConcurrentHashMap<>();
+
+    public OrderStatusStreamService(RedisTemplate<String, String> redisTemplate,
+                                    ObjectMapper objectMapper,
+                                    CurrentUserContext currentUserContext,
+                                    @Value("${app.orders.stream.redis-enabled:true}") boolean redisEnabled,
+                                    @Value("${app.orders.stream.timeout-ms:1800000}") long timeoutMs,
+                                    @Value("${app.orders.stream.reconnect-ms:3000}") long reconnectMs,
+                                    @Value("${app.orders.stream.max-connections-per-user:5}") int maxConnectionsPerUser,
+                                    @Value("${app.orders.stream.replay-size:20}") int replaySize,
+                                    @Value("${app.orders.stream.replay-window-minutes:10}") long replayWindowMinutes) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.currentUserContext = currentUserContext;
+        this.redisEnabled = redisEnabled;
+        this.timeoutMs = timeoutMs;
+        this.reconnectMs = reconnectMs;
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+        this.replaySize = replaySize;
+        this.replayWindow = Duration.ofMinutes(replayWindowMinutes);
+    }
+
+    @PreAuthorize("hasRole('ROLE_USER')")
+    public SseEmitter subscribe(String lastEventId) {
+        int personId = currentUserContext.current()
+                .map(Person::getId)
+                .orElseThrow(() -> new EntityNotFoundException("User not found"));
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        emitter.onCompletion(() -> unregister(personId, emitter));
+        emitter.onTimeout(() -> unregister(personId, emitter));
+        emitter.onError(e -> unregister(personId, emitter));
+
+        Channel channel = channels.compute(personId, (id, existing) -> {
+            Channel c = existing == null ? new Channel() : existing;
+            c.emitters.add(emitter);
+            return c;
+        });
+
+        synchronized (channel) {
+            // Oldest connections go first: typically tabs the client forgot to close
+            while (channel.emitters.size() > maxConnectionsPerUser) {
+                channel.emitters.remove(0).complete();
+            }
+            try {
+                emitter.send(SseEmitter.event().comment("connected").reconnectTime(reconnectMs));
+                if (lastEventId != null && !lastEventId.isBlank()) {
+                    replay(channel, emitter, lastEventId.trim());
+                }
+            } catch (IOException e) {
+                channel.emitters.remove(emitter);
+            }
+        }
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        if (event.personId() == null || event.previousStatus() == event.status()) {
+            return;
+        }
+        OrderStatusUpdateResponse update = toUpdate(event);
+
+        if (redisEnabled) {
+            try {
+                redisTemplate.convertAndSend(CHANNEL, objectMapper.writeValueAsString(new StreamMessage(event.personId(), update)));
+                return;
+            } catch (JsonProcessingException | RuntimeException e) {
+                logger.warn("Order stream: Redis publish failed, delivering on this node only: {}", e.getMessage());
+            }
+        }
+        deliver(event.personId(), update);
+    }
+
+    /**
+     * Entry point for messages received on {@link #CHANNEL}.
+     */
+    public void onRedisMessage(String payload) {
+        try {
+            StreamMessage message = objectMapper.readValue(payload, StreamMessage.class);
+            deliver(message.personId(), message.update());
+        } catch (JsonProcessingException e) {
+            logger.warn("Order stream: dropping malformed message: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Keeps idle connections alive through proxies, drops the ones that went away and forgets
+     * replay buffers of customers with no connection and no recent events.
+     */
+    @Scheduled(fixedDelayString = "${app.orders.stream.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        long cutoff = System.currentTimeMillis() - replayWindow.toMillis();
+        for (Map.Entry<Integer, Channel> entry : channels.entrySet()) {
+            Channel channel = entry.getValue();
+            synchronized (channel) {
+                sendToAll(channel, SseEmitter.event().comment("ping"));
+            }
+            channels.computeIfPresent(entry.getKey(), (id, c) -> c.emitters.isEmpty() && c.lastEventAt < cutoff ? null : c);
+        }
+    }
+
+    int connectionCount(int personId) {
+        Channel channel = channels.get(personId);
+        return channel == null ? 0 : channel.emitters.size();
+    }
+
+    void deliver(int personId, OrderStatusUpdateResponse update) {
+        Channel channel = channels.computeIfAbsent(personId, id -> new Channel());
+        synchronized (channel) {
+            channel.recent.addLast(update);
+            while (channel.recent.size() > replaySize) {
+                channel.recent.removeFirst();
+            }
+            channel.lastEventAt = System.currentTimeMillis();
+            sendToAll(channel, statusEvent(update));
+        }
+    }
+
+    private void replay(Channel channel, SseEmitter emitter, String lastEventId) throws IOException {
+        List<OrderStatusUpdateResponse> recent = new ArrayList<>(channel.recent);
+        int position = -1;
+        for (int i = 0; i < recent.size(); i++) {
+            if (recent.get(i).getEventId().equals(lastEventId)) {
+                position = i;
+                break;
+            }
+        }
+        if (position < 0) {
+            emitter.send(SseEmitter.event().name(EVENT_RESYNC).data("{}", MediaType.APPLICATION_JSON));
+            return;
+        }
+        for (OrderStatusUpdateResponse update : recent.subList(position + 1, recent.size())) {
+            emitter.send(statusEvent(update));
+        }
+    }
+
+    private void sendToAll(Channel channel, SseEmitter.SseEventBuilder event) {
+        for (SseEmitter emitter : channel.emitters) {
+            try {
+                emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                // Client went away; the container completes the emitter on its side
+                channel.emitters.remove(emitter);
+            }
+        }
+    }
+
+    private void unregister(int personId, SseEmitter emitter) {
+        Channel channel = channels.get(personId);
+        if (channel != null) {
+            channel.emitters.remove(emitter);
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder statusEvent(OrderStatusUpdateResponse update) {
+        return SseEmitter.event()
+                .id(update.getEventId())
+                .name(EVENT_STATUS)
+                .data(update, MediaType.APPLICATION_JSON);
+    }
+
+    private static OrderStatusUpdateResponse toUpdate(OrderStatusChangedEvent event) {
+        long millis = event.occurredAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        OrderStatusUpdateResponse update = new OrderStatusUpdateResponse();
+        update.setEventId(millis + "-" + event.orderId() + "-" + event.status().name());
+        update.setOrderId(event.orderId());
+        update.setPreviousStatus(event.previousStatus());
+        update.setStatus(event.status());
+        update.setOccurredAt(event.occurredAt());
+        return update;
+    }
+
+    record StreamMessage(Integer personId, OrderStatusUpdateResponse update) {
+    }
+
+    /**
+     * Open connections and replay buffer of one customer; the buffer and sends are guarded by the channel monitor.
+     */
+    private static final class Channel {
+        final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+        final Deque<OrderStatusUpdateResponse> recent = new ArrayDeque<>();
+        volatile long lastEventAt = System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,111 @@
+package com.simple_online_store_backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simple_online_store_backend.entity.Order;
+import com.simple_online_store_backend.entity.OutboxEvent;
+import com.simple_online_store_backend.entity.Product;
+import com.simple_online_store_backend.enums.OrderEventType;
+import com.simple_online_store_backend.enums.OrderStatus;
+import com.simple_online_store_backend.event.OrderStatusChangedEvent;
+import com.simple_online_store_backend.repository.OutboxEventRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Service
+public class OutboxService {
+    static final String ORDER_AGGREGATE = "ORDER";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public OutboxService(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper,
+                         ApplicationEventPublisher eventPublisher) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public OutboxEvent recordOrderEvent(Order order, OrderEventType type) {
+        return recordOrderEvent(order, type, null);
+    }
+
+    // MANDATORY: the event must commit or roll back together with the order change itself
+    @Transactional(propagation = Propagation.MANDATORY)
+    public OutboxEvent recordOrderEvent(Order order, OrderEventType type, OrderStatus previousStatus) {
+        LocalDateTime now = LocalDateTime.now();
+        Integer personId = order.getPerson() != null ? order.getPerson().getId() : null;
+
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("orderId", order.getId());
+        payload.put("personId", personId);
+        if (previousStatus != null) {
+            payload.put("previousStatus", previousStatus);
+        }
+        payload.put("status", order.getStatus());
+        if (type == OrderEventType.ORDER_CREATED) {
+            payload.put("pickupLocationId", order.getPickupLocation() != null ? order.getPickupLocation().getId() : null);
+            payload.put("addressId", order.getAddress() != null ? order.getAddress().getId() : null);
+            payload.put("productIds", order.getProducts() == null ? java.util.List.of()
+                    : order.getProducts().stream().map(Product::getId).toList());
+        }
+        payload.put("occurredAt", now.toString());
+
+        OutboxEvent saved = outboxEventRepository.save(newEvent(order.getId(), type, payload, now));
+        eventPublisher.publishEvent(new OrderStatusChangedEvent(order.getId(), personId, previousStatus, order.getStatus(), now));
+        return saved;
+    }
+
+    // Used by set-based transitions that never load the Order entity
+    @Transactional(propagation = Propagation.MANDATORY)
+    public OutboxEvent recordStatusChange(Integer orderId, Integer personId, OrderStatus from, OrderStatus to) {
+        LocalDateTime now = LocalDateTime.now();
+
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("orderId", orderId);
+        payload.put("personId", personId);
+        payload.put("previousStatus", from);
+        payload.put("status", to);
+        payload.put("occurredAt", now.toString());
+
+        OutboxEvent saved = outboxEventRepository.save(newEvent(orderId, eventTypeFor(from, to), payload, now));
+        eventPublisher.publishEvent(new OrderStatusChangedEvent(orderId, personId, from, to, now));
+        return saved;
+    }
+
+    static OrderEventType eventTypeFor(OrderStatus from, OrderStatus to) {
+        if (to == OrderStatus.CANCELLED) {
+            return OrderEventType.ORDER_CANCELLED;
+        }
+        if (from == OrderStatus.CANCELLED && to == OrderStatus.PENDING) {
+            return OrderEventType.ORDER_REACTIVATED;
+        }
+        return OrderEventType.ORDER_STATUS_CHANGED;
+    }
+
+    private OutboxEvent newEvent(Integer orderId, OrderEventType type, Map<String, Object> payload, LocalDateTime now) {
+        OutboxEvent event = new OutboxEvent();
+        event.setAggregateType(ORDER_AGGREGATE);
+        event.setAggregateId(orderId);
+        event.setEventType(type);
+        event.setPayload(toJson(payload));
+        event.setCreatedAt(now);
+        return event;
+    }
+
+    private String toJson(Map<String, Object> payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Unable to serialize outbox payload", e);
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.simple_online_store_backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simple_online_store_backend.dto.person.PersonProvisioningRequest;
+import com.simple_online_store_backend.dto.person.PersonProvisioningResult;
+import com.simple_online_store_backend.enums.ProvisioningOutcome;
+import com.simple_online_store_backend.event.PersonRegisteredEvent;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Creates customer accounts in bulk from an NDJSON upload and streams one result line per input line.
+ * <p>
+ * Lines are handled in chunks of {@code batch-size}. Per chunk: the lines are validated like a registration,
+ * usernames and emails already taken are found with one query, passwords are BCrypt-hashed in parallel on a
+ * fixed pool (one thread per core by default) and the rows go in as one JDBC batch in a short transaction.
+ * The inserts use {@code ON CONFLICT DO NOTHING}, so a name taken by a concurrent registration between the
+ * check and the insert turns into a DUPLICATE line instead of failing the whole chunk.
+ * <p>
+ * Only one chunk is in memory at a time, whatever the size of the upload.
+ */
+@Service
+public class PeopleProvisioningService {
+    private static final Logger logger = LoggerFactory.getLogger(PeopleProvisioningService.class);
+
+    static final String DUPLICATE_USERNAME = "userName - Person with this username is already existed!;";
+    static final String DUPLICATE_EMAIL = "email - Person with this email already exists;";
+    // Only when the conflicting row was deleted again before the ids are read back
+    static final String DUPLICATE_ACCOUNT = "Person with this username or email already exists;";
+
+    private static final String INSERT = """
+            INSERT INTO people (user_name, password, email, phone_number, date_of_birth, role, is_deleted)
+            VALUES (:userName, :password, :email, :phoneNumber, :dateOfBirth, 'ROLE_USER', false)
+            ON CONFLICT DO NOTHING
+            """;
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+    private final ExecutorService hashPool;
+
+    public PeopleProvisioningService(NamedParameterJdbcTemplate jdbc,
+                                     PlatformTransactionManager transactionManager,
+                                     PasswordEncoder passwordEncoder,
+                                     ObjectMapper objectMapper,
+                                     Validator validator,
+                                     ApplicationEventPublisher eventPublisher,
+                                     @Value("${app.people.provisioning.batch-size:500}") int batchSize,
+                                     @Value("${app.people.provisioning.hash-threads:0}") int hashThreads) {
+        this.jdbc = jdbc;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.passwordEncoder = passwordEncoder;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+        // BCrypt is pure CPU work: more threads than cores only adds contention
+        int threads = hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors();
+        this.hashPool = Executors.newFixedThreadPool(threads,
+                Thread.ofPlatform().name("people-provisioning-hash-", 0).daemon(true).factory());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashPool.shutdownNow();
+    }
+
+    /**
+     * Checks access on the calling thread and returns a body that reads the upload while the
+     * response is being written.
+     */
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public StreamingResponseBody provision(InputStream upload) {
+        return out -> {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(upload, StandardCharsets.UTF_8));
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            Map<ProvisioningOutcome, Integer> totals = new EnumMap<>(ProvisioningOutcome.class);
+            List<Row> chunk = new ArrayList<>(batchSize);
+            int lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                chunk.add(parse(lineNumber, line));
+                if (chunk.size() == batchSize) {
+                    process(chunk, writer, totals);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                process(chunk, writer, totals);
+            }
+            writer.flush();
+            logger.info("Provisioned people: {}", totals);
+        };
+    }
+
+    private Row parse(int lineNumber, String line) {
+        Row row = new Row(lineNumber);
+        try {
+            row.request = objectMapper.readValue(line, PersonProvisioningRequest.class);
+        } catch (JsonProcessingException e) {
+            row.reject(ProvisioningOutcome.INVALID, "Malformed JSON: " + e.getOriginalMessage());
+            return row;
+        }
+        Set<ConstraintViolation<PersonProvisioningRequest>> violations = validator.validate(row.request);
+        if (!violations.isEmpty()) {
+            StringBuilder error = new StringBuilder();
+            violations.stream()
+                    .sorted(Comparator.comparing(v -> v.getPropertyPath().toString()))
+                    .forEach(v -> error.append(v.getPropertyPath()).append(" - ").append(v.getMessage()).append(';'));
+            row.reject(ProvisioningOutcome.INVALID, error.toString());
+            return row;
+        }
+        row.nameKey = row.request.getUserName().trim().toLowerCase(Locale.ROOT);
+        row.email = row.request.getEmail().trim().toLowerCase(Locale.ROOT);
+        return row;
+    }
+
+    private void process(List<Row> chunk, Writer writer, Map<ProvisioningOutcome, Integer> totals) throws IOException {
+        List<Row> pending = rejectTaken(chunk);
+        if (!pending.isEmpty()) {
+            hashPasswords(pending);
+            insert(pending);
+        }
+        for (Row row : chunk) {
+            totals.merge(row.outcome, 1, Integer::sum);
+            writer.write(objectMapper.writeValueAsString(new PersonProvisioningResult(row.line,
+                    row.request == null ? null : row.request.getUserName(), row.outcome, row.id, row.error)));
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    /**
+     * Marks lines whose username or email repeats an earlier line or an existing account; returns the rest.
+     */
+    private List<Row> rejectTaken(List<Row> chunk) {
+        List<Row> valid = chunk.stream().filter(r -> r.outcome == null).toList();
+        if (valid.isEmpty()) {
+            return valid;
+        }
+        Set<String> takenNames = new HashSet<>();
+        Set<String> takenEmails = new HashSet<>();
+        jdbc.query("""
+                        SELECT LOWER(user_name) AS name_key, LOWER(email) AS email_key FROM people
+                        WHERE LOWER(user_name) IN (:names) OR LOWER(email) IN (:emails)
+                        """,
+                new MapSqlParameterSource()
+                        .addValue("names", valid.stream().map(r -> r.nameKey).distinct().toList())
+                        .addValue("emails", valid.stream().map(r -> r.email).distinct().toList()),
+                rs -> {
+                    takenNames.add(rs.getString("name_key"));
+                    takenEmails.add(rs.getString("email_key"));
+                });
+
+        List<Row> pending = new ArrayList<>(valid.size());
+        for (Row row : valid) {
+            // add() doubles as the in-upload duplicate check
+            if (!takenNames.add(row.nameKey)) {
+                row.reject(ProvisioningOutcome.DUPLICATE, DUPLICATE_USERNAME);
+            } else if (!takenEmails.add(row.email)) {
+                row.reject(ProvisioningOutcome.DUPLICATE, DUPLICATE_EMAIL);
+            } else {
+                pending.add(row);
+            }
+        }
+        return pending;
+    }
+
+    private void hashPasswords(List<Row> rows) {
+        List<Future<String>> hashes = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            String raw = row.request.getPassword();
+            hashes.add(hashPool.submit(() -> passwordEncoder.encode(raw)));
+        }
+        try {
+            for (int i = 0; i < rows.size(); i++) {
+                rows.get(i).encodedPassword = hashes.get(i).get();
+            }
+        } catch (InterruptedException e) {
+            hashes.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Provisioning interrupted", e);
+        } catch (ExecutionException e) {
+            hashes.forEach(f -> f.cancel(true));
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private void insert(List<Row> rows) {
+        transactionTemplate.executeWithoutResult(tx -> {
+            MapSqlParameterSource[] batch = rows.stream()
+                    .map(r -> new MapSqlParameterSource()
+                            .addValue("userName", r.request.getUserName().trim())
+                            .addValue("password", r.encodedPassword)
+                            .addValue("email", r.email)
+                            .addValue("phoneNumber", r.request.getPhoneNumber())
+                            .addValue("dateOfBirth", r.request.getDateOfBirth() == null ? null : Date.valueOf(r.request.getDateOfBirth())))
+                    .toArray(MapSqlParameterSource[]::new);
+            int[] counts = jdbc.batchUpdate(INSERT, batch);
+
+            // Drivers do not reliably return generated keys for batches, so read the ids back in one query.
+            // The same rows tell which key a line skipped by ON CONFLICT ran into.
+            Map<String, Integer> ids = new HashMap<>();
+            Set<String> names = new HashSet<>();
+            Set<String> emails = new HashSet<>();
+            jdbc.query("""
+                            SELECT id, LOWER(user_name) AS name_key, LOWER(email) AS email_key FROM people
+                            WHERE LOWER(user_name) IN (:names) OR LOWER(email) IN (:emails)
+                            """,
+                    new MapSqlParameterSource()
+                            .addValue("names", rows.stream().map(r -> r.nameKey).toList())
+                            .addValue("emails", rows.stream().map(r -> r.email).toList()),
+                    rs -> {
+                        ids.put(rs.getString("name_key") + '\n' + rs.getString("email_key"), rs.getInt("id"));
+                        names.add(rs.getString("name_key"));
+                        emails.add(rs.getString("email_key"));
+                    });
+
+            for (int i = 0; i < rows.size(); i++) {
+                Row row = rows.get(i);
+                Integer id = counts[i] == 0 ? null : ids.get(row.nameKey + '\n' + row.email);
+                if (id == null) {
+                    // Skipped by ON CONFLICT: taken by a concurrent registration after the check
+                    row.reject(ProvisioningOutcome.DUPLICATE, names.contains(row.nameKey) ? DUPLICATE_USERNAME
+                            : emails.contains(row.email) ? DUPLICATE_EMAIL : DUPLICATE_ACCOUNT);
+                    continue;
+                }
+                row.outcome = ProvisioningOutcome.CREATED;
+                row.id = id;
+                eventPublisher.publishEvent(new PersonRegisteredEvent(id, row.request.getUserName().trim()));
+            }
+        });
+    }
+
+    private static final class Row {
+        final int line;
+        PersonProvisioningRequest request;
+        String nameKey;
+        String email;
+        String encodedPassword;
+        ProvisioningOutcome outcome;
+        Integer id;
+        String error;
+
+        Row(int line) {
+            this.line = line;
+        }
+
+        void reject(ProvisioningOutcome outcome, String error) {
+            this.outcome = outcome;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.simple_online_store_backend.service;
+
+import com.simple_online_store_backend.dto.person.CustomerDirectoryItemResponse;
+import com.simple_online_store_backend.dto.person.CustomerSearchPageResponse;
+import com.simple_online_store_backend.exception.ValidationException;
+import com.simple_online_store_backend.util.KeysetPagination;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Admin lookup of customers by username or email, case-insensitive.
+ * <p>
+ * Results are ranked: exact match, then username prefix, then email prefix, then any other substring,
+ * each group alphabetically by username. Prefix matches are served by the {@code lower(...) text_pattern_ops}
+ * indexes and substring matches by the {@code pg_trgm} GIN indexes on the same expressions. Trigrams need
+ * at least {@value #MIN_SUBSTRING_LENGTH} characters, so shorter queries match prefixes only.
+ * <p>
+ * Every rank group is its own query, keyset-paginated on {@code (lower(user_name), id)} and limited to what the
+ * page still needs, so a page is filled group by group and the wider groups are only read once the narrower ones
+ * run out. The cursor carries the group and the last row of the previous page.
+ */
+@Service
+public class PeopleSearchService {
+    static final int MIN_SUBSTRING_LENGTH = 3;
+    static final int MAX_QUERY_LENGTH = 100;
+    static final int DEFAULT_LIMIT = 20;
+    static final int MAX_LIMIT = 50;
+
+    private static final String SELECT = """
+            SELECT p.id, p.user_name, p.email, p.phone_number, p.date_of_birth, p.is_deleted,
+                   LOWER(p.user_name) AS sort_name
+            FROM people p
+            WHERE p.role = 'ROLE_USER' AND
+            """;
+
+    private static final String EXACT = "(LOWER(p.user_name) = :q OR LOWER(p.email) = :q)";
+    private static final String USER_NAME_PREFIX = "LOWER(p.user_name) LIKE :prefix ESCAPE '\\'";
+    private static final String EMAIL_PREFIX = "LOWER(p.email) LIKE :prefix ESCAPE '\\'";
+    private static final String SUBSTRING =
+            "(LOWER(p.user_name) LIKE :pattern ESCAPE '\\' OR LOWER(p.email) LIKE :pattern ESCAPE '\\')";
+
+    // Indexed by rank; each group leaves out the rows of the groups before it (an exact match is also a prefix)
+    private static final List<String> RANK_GROUPS = List.of(
+            EXACT,
+            USER_NAME_PREFIX + " AND NOT " + EXACT,
+            EMAIL_PREFIX + " AND NOT " + USER_NAME_PREFIX + " AND NOT " + EXACT,
+            SUBSTRING + " AND NOT " + USER_NAME_PREFIX + " AND NOT " + EMAIL_PREFIX);
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public PeopleSearchService(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @Transactional(readOnly = true)
+    public CustomerSearchPageResponse search(String query, String cursor, Integer limit) {
+        String q = query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+        if (q.isEmpty()) {
+            throw new ValidationException("'q' must not be blank");
+        }
+        if (q.length() > MAX_QUERY_LENGTH) {
+            throw new ValidationException("'q' must be at most " + MAX_QUERY_LENGTH + " characters");
+        }
+        int pageSize = limit == null ? DEFAULT_LIMIT : limit;
+        if (pageSize < 1 || pageSize > MAX_LIMIT) {
+            throw new ValidationException("'limit' must be between 1 and " + MAX_LIMIT);
+        }
+        Cursor after = cursor == null || cursor.isBlank() ? null : Cursor.decode(cursor);
+
+        String escaped = KeysetPagination.escapeLike(q);
+        int lastRank = q.length() >= MIN_SUBSTRING_LENGTH ? RANK_GROUPS.size() - 1 : RANK_GROUPS.size() - 2;
+        int wanted = KeysetPagination.fetchSize(pageSize);
+
+        List<Row> rows = new ArrayList<>(wanted);
+        for (int rank = after == null ? 0 : after.rank(); rank <= lastRank && rows.size() < wanted; rank++) {
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("q", q)
+                    .addValue("prefix", escaped + "%")
+                    .addValue("pattern", "%" + escaped + "%");
+            StringBuilder sql = new StringBuilder(SELECT).append(RANK_GROUPS.get(rank));
+            if (after != null && rank == after.rank()) {
+                sql.append(" AND (LOWER(p.user_name), p.id) > (:afterName, :afterId)");
+                params.addValue("afterName", after.sortName());
+                params.addValue("afterId", after.id());
+            }
+            sql.append(" ORDER BY sort_name, p.id LIMIT :limit");
+            params.addValue("limit", wanted - rows.size());
+
+            int groupRank = rank;
+            rows.addAll(jdbc.query(sql.toString(), params, (rs, i) -> {
+                Date dateOfBirth = rs.getDate("date_of_birth");
+                CustomerDirectoryItemResponse item = new CustomerDirectoryItemResponse(
+                        rs.getInt("id"), rs.getString("user_name"), rs.getString("email"), rs.getString("phone_number"),
+                        dateOfBirth == null ? null : dateOfBirth.toLocalDate(), rs.getBoolean("is_deleted"));
+                return new Row(item, groupRank, rs.getString("sort_name"));
+            }));
+        }
+
+        return KeysetPagination.toPage(rows, pageSize, (page, last) -> new CustomerSearchPageResponse(
+                page.stream().map(Row::item).toList(),
+                last == null ? null : new Cursor(last.rank(), last.sortName(), last.item().getId()).encode()));
+    }
+
+    private record Row(CustomerDirectoryItemResponse item, int rank, String sortName) {
+    }
+
+    record Cursor(int rank, String sortName, int id) {
+
+        String encode() {
+            // The name goes last: usernames may themselves contain '|'
+            return KeysetPagination.encodeCursor(rank, id, sortName);
+        }
+
+        static Cursor decode(String value) {
+            Cursor cursor = KeysetPagination.decodeCursor(value, 3,
+                    parts -> new Cursor(Integer.parseInt(parts[0]), parts[2], Integer.parseInt(parts[1])));
+            if (cursor.rank() < 0 || cursor.rank() >= RANK_GROUPS.size()) {
+                throw new ValidationException("Invalid cursor");
+            }
+            return cursor;
+        }
+    }
+}
@@ -1,60 +1,126 @@
 package com.simple_online_store_backend.service;
 
+import com.simple_online_store_backend.dto.person.CustomerDirectoryItemResponse;
+import com.simple_online_store_backend.dto.person.CustomerDirectoryPageResponse;
 import com.simple_online_store_backend.dto.person.PersonRequestDTO;
 import com.simple_online_store_backend.dto.person.PersonResponseDTO;
 import com.simple_online_store_backend.entity.Address;
-import com.simple_online_store_backend.entity.Order;
 import com.simple_online_store_backend.entity.Person;
 import com.simple_online_store_backend.enums.OrderStatus;
+import com.simple_online_store_backend.event.PersonRegisteredEvent;
+import com.simple_online_store_backend.exception.ValidationException;
 import com.simple_online_store_backend.mapper.PersonConverter;
 import com.simple_online_store_backend.repository.OrderRepository;
 import com.simple_online_store_backend.repository.PeopleRepository;
+import com.simple_online_store_backend.security.CurrentUserContext;
 import com.simple_online_store_backend.security.PersonDetails;
+import com.simple_online_store_backend.util.KeysetPagination;
 import jakarta.persistence.EntityNotFoundException;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class PeopleService {
+    static final int DIRECTORY_DEFAULT_LIMIT = 50;
+    static final int DIRECTORY_MAX_LIMIT = 200;
+
     private final PeopleRepository peopleRepository;
     private final PersonConverter personConverter;
     private final PasswordEncoder passwordEncoder;
     private final OrderRepository orderRepository;
     private final RefreshTokenService refreshTokenService;
+    private final OutboxService outboxService;
+    private final CurrentUserContext currentUserContext;
+    private final ApplicationEventPublisher eventPublisher;
     @Value("${admin.registration.code}")
     private String adminCodeFromYml;
 
-    public PeopleService(PeopleRepository peopleRepository, PersonConverter personConverter, PasswordEncoder passwordEncoder, OrderRepository orderRepository, RefreshTokenService refreshTokenService) {
+    public PeopleService(PeopleRepository peopleRepository, PersonConverter personConverter, PasswordEncoder passwordEncoder, OrderRepository orderRepository, RefreshTokenService refreshTokenService, OutboxService outboxService, CurrentUserContext currentUserContext, ApplicationEventPublisher eventPublisher) {
         this.peopleRepository = peopleRepository;
         this.personConverter = personConverter;
         this.passwordEncoder = passwordEncoder;
         this.orderRepository = orderRepository;
         this.refreshTokenService = refreshTokenService;
+        this.outboxService = outboxService;
+        this.currentUserContext = currentUserContext;
+        this.eventPublisher = eventPublisher;
     }
 
+    /**
+     * Creates the account with a single INSERT. Uniqueness of username and email is left to the database
+     * constraints, so concurrent sign-ups with the same name cannot both succeed; a violation is reported
+     * as the usual field-level validation error.
+     */
     @Transactional
     public PersonResponseDTO register(PersonRequestDTO requestDTO) {
         Person person = personConverter.convertToPersonToRequest(requestDTO);
+        if (person.getEmail() != null) {
+            person.setEmail(person.getEmail().trim().toLowerCase(Locale.ROOT));
+        }
         if (requestDTO.getSpecialCode() != null && requestDTO.getSpecialCode().equals(adminCodeFromYml)) {
             person.setRole("ROLE_ADMIN");
         } else {
             person.setRole("ROLE_USER");
         }
-        return personConverter.convertToResponseDTO(peopleRepository.saveAndFlush(person));
+
+        Person saved;
+        try {
+            saved = peopleRepository.saveAndFlush(person);
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateAccountError(e);
+        }
+        eventPublisher.publishEvent(new PersonRegisteredEvent(saved.getId(), saved.getUserName()));
+        return personConverter.convertToResponseDTO(saved);
+    }
+
+    private static RuntimeException duplicateAccountError(DataIntegrityViolationException e) {
+        String constraint = null;
+        for (Throwable t = e; t != null && constraint == null; t = t.getCause()) {
+            if (t instanceof ConstraintViolationException cve) {
+                constraint = cve.getConstraintName();
+            }
+        }
+        // Some drivers report no constraint name; the message still names it
+        String source = (constraint != null ? constraint : String.valueOf(e.getMostSpecificCause().getMessage()))
+                .toLowerCase(Locale.ROOT);
+        if (source.contains("email")) {
+            return new ValidationException("email - Person with this email already exists;");
+        }
+        if (source.contains("user_name")) {
+            return new ValidationException("userName - Person with this username is already existed!;");
+        }
+        return e;
     }
 
     @PreAuthorize("hasRole('ROLE_ADMIN')")
-    public List<PersonResponseDTO> getAllConsumers() {
-        return peopleRepository.findAllByRole("ROLE_USER").stream().map(personConverter::convertToResponseDTO).toList();
+    @Transactional(readOnly = true)
+    public CustomerDirectoryPageResponse getCustomers(Integer afterId, Boolean deleted, Integer limit) {
+        int pageSize = limit == null ? DIRECTORY_DEFAULT_LIMIT : limit;
+        if (pageSize < 1 || pageSize > DIRECTORY_MAX_LIMIT) {
+            throw new ValidationException("'limit' must be between 1 and " + DIRECTORY_MAX_LIMIT);
+        }
+        List<CustomerDirectoryItemResponse> rows = peopleRepository.findDirectoryPage(
+                "ROLE_USER", deleted, afterId == null ? 0 : afterId, PageRequest.of(0, KeysetPagination.fetchSize(pageSize)));
+        return KeysetPagination.toPage(rows, pageSize,
+                (page, last) -> new CustomerDirectoryPageResponse(page, last == null ? null : last.getId()));
     }
 
     @Transactional
@@ -63,27 +129,52 @@ public class PeopleService {
                 .orElseThrow(() -> new EntityNotFoundException("User with this id wasn't found!"));
 
         // 1. Cancel all PENDING/PROCESSING orders of the user
-        List<Order> ordersToCancel = orderRepository.findByPerson(person).stream()
-                .filter(order -> order.getStatus() == OrderStatus.PENDING || order.getStatus() == OrderStatus.PROCESSING)
-                .toList();
-
-        for (Order order : ordersToCancel) {
-            order.setStatus(OrderStatus.CANCELLED);
-        }
+        cancelActiveOrdersOf(List.of(userId));
 
         // 2. Update the user status
         person.setDeleted(true);
+        person.setDeactivatedAt(LocalDateTime.now());
 
-        // 3. Save everything (thanks to @Transactional, changes are cascaded)
+        // 3. Save everything
         peopleRepository.save(person);
     }
 
+    /**
+     * Cancels every PENDING/PROCESSING order of the given people with one conditional UPDATE
+     * and records a cancellation event per order. Runs inside the caller's transaction.
+     *
+     * @return number of cancelled orders
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int cancelActiveOrdersOf(Collection<Integer> personIds) {
+        if (personIds.isEmpty()) {
+            return 0;
+        }
+        Set<OrderStatus> cancellable = OrderStatus.allowedSourcesOf(OrderStatus.CANCELLED);
+        List<Object[]> rows = orderRepository.lockByPersonIdInAndStatusIn(
+                personIds, cancellable.stream().map(Enum::name).toList());
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        int cancelled = orderRepository.updateStatusByPersonIdInWhereStatusIn(personIds, cancellable, OrderStatus.CANCELLED);
+        if (cancelled != rows.size()) {
+            throw new IllegalStateException("Expected to cancel " + rows.size() + " orders but cancelled " + cancelled);
+        }
+        for (Object[] row : rows) {
+            outboxService.recordStatusChange(((Number) row[0]).intValue(), ((Number) row[2]).intValue(),
+                    OrderStatus.valueOf(row[1].toString()), OrderStatus.CANCELLED);
+        }
+        return cancelled;
+    }
+
     // Only for Swagger (OpenAPI)
     @Transactional
     public boolean setLocked(String username, boolean locked) {
         var person = peopleRepository.findByUserName(username)
                 .orElseThrow(() -> new EntityNotFoundException("Person not found"));
         person.setDeleted(locked);
+        person.setDeactivatedAt(locked ? LocalDateTime.now() : null);
         peopleRepository.save(person);
         return person.getDeleted();
     }
@@ -102,12 +193,14 @@ public class PeopleService {
         }
 
         person.setDeleted(false);
+        person.setDeactivatedAt(null);
         peopleRepository.save(person);
     }
 
     public int getAddressIdByPersonId(int personId) {
-        Person person = peopleRepository.findById(personId).orElseThrow(() ->
-                new EntityNotFoundException("User with this id wasn't found!"));
+        Person person = currentUserContext.find(personId)
+                .or(() -> peopleRepository.findById(personId))
+                .orElseThrow(() -> new EntityNotFoundException("User with this id wasn't found!"));
 
         return Optional.ofNullable(person.getAddress())
                 .map(Address::getId)
@@ -119,7 +212,9 @@ public class PeopleService {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         PersonDetails personDetails = (PersonDetails) authentication.getPrincipal();
 
-        Person person = peopleRepository.findById(personDetails.getId())
+        // JWTFilter loaded this person moments ago; no need to read the row again
+        Person person = currentUserContext.find(personDetails.getId())
+                .or(() -> peopleRepository.findById(personDetails.getId()))
                 .orElseThrow(() -> new EntityNotFoundException("User not found"));
 
         return personConverter.convertToResponseDTO(person);
@@ -0,0 +1,214 @@
+package com.simple_online_store_backend.service;
+
+import com.simple_online_store_backend.dto.pickup_location.NearestPickupLocationResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Grid over the open pickup locations that have coordinates, for "closest stores" lookups without a query.
+ * <p>
+ * The globe is cut into cells of {@code cell-degrees} by {@code cell-degrees}. A lookup scans rings of cells around
+ * the caller's cell and stops as soon as the {@code limit}-th closest location found is nearer than anything outside
+ * the rings can be; once the rings would cover more cells than there are locations, it compares against every
+ * location instead. Distances are great-circle (haversine).
+ * <p>
+ * The grid is derived from the {@link PickupLocationRegistry} snapshot and rebuilt by the first lookup that sees a
+ * newer one, so loading, reloading and applying committed changes happen in the registry only.
+ */
+@Service
+public class PickupLocationGeoIndex {
+    private static final Logger logger = LoggerFactory.getLogger(PickupLocationGeoIndex.class);
+
+    static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private final PickupLocationRegistry registry;
+    private final double cellDegrees;
+    private final int rows;
+    private final int cols;
+
+    private volatile Grid grid = new Grid(List.of());
+
+    public PickupLocationGeoIndex(PickupLocationRegistry registry,
+                                  @Value("${app.pickup.nearest.cell-degrees:0.5}") double cellDegrees) {
+        if (cellDegrees <= 0 || cellDegrees > 90) {
+            throw new IllegalArgumentException("app.pickup.nearest.cell-degrees must be in (0, 90]");
+        }
+        this.registry = registry;
+        this.cellDegrees = cellDegrees;
+        this.rows = (int) Math.ceil(180 / cellDegrees);
+        this.cols = (int) Math.ceil(360 / cellDegrees);
+    }
+
+    /**
+     * The grid for the registry's current snapshot. Every snapshot has its own active list, so comparing the
+     * list by identity tells whether the grid is still current.
+     */
+    private Grid current() {
+        List<PickupLocationRegistry.Location> active = registry.active();
+        Grid current = grid;
+        if (current.source == active) {
+            return current;
+        }
+        synchronized (this) {
+            if (grid.source != active) {
+                Grid next = new Grid(active);
+                for (PickupLocationRegistry.Location location : active) {
+                    if (location.latitude() != null && location.longitude() != null) {
+                        next.put(entry(location.id(), location.city(), location.street(), location.houseNumber(),
+                                location.latitude(), location.longitude()));
+                    }
+                }
+                grid = next;
+                logger.debug("Pickup location index rebuilt: {} locations in {} cells", next.byId.size(), next.cells.size());
+            }
+            return grid;
+        }
+    }
+
+    /**
+     * Up to {@code limit} open locations closest to the point, nearest first. Expects a valid latitude/longitude.
+     */
+    public List<NearestPickupLocationResponse> nearest(double latitude, double longitude, int limit) {
+        Grid current = current();
+        if (current.byId.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        double lon = normalizeLongitude(longitude);
+        int row0 = row(latitude);
+        int col0 = col(lon);
+
+        // Max-heap of the best candidates so far: the head is the one to drop next
+        PriorityQueue<Candidate> best = new PriorityQueue<>(limit + 1, Candidate.ORDER.reversed());
+        Set<Long> visited = new HashSet<>();
+        for (int k = 0; ; k++) {
+            for (int dr = -k; dr <= k; dr++) {
+                int row = row0 + dr;
+                if (row < 0 || row >= rows) {
+                    continue;
+                }
+                int step = Math.abs(dr) == k ? 1 : Math.max(1, 2 * k);
+                for (int dc = -k; dc <= k; dc += step) {
+                    long key = key(row, Math.floorMod(col0 + dc, cols));
+                    if (!visited.add(key)) {
+                        continue;
+                    }
+                    Map<Integer, Entry> cell = current.cells.get(key);
+                    if (cell != null) {
+                        cell.values().forEach(e -> offer(best, limit, e, latitude, lon));
+                    }
+                }
+            }
+            if (best.size() == limit && best.peek().distanceKm() <= distanceOutsideRings(latitude, lon, row0, col0, k)) {
+                break;
+            }
+            boolean wholeGlobe = row0 - k <= 0 && row0 + k >= rows - 1 && 2 * k + 1 >= cols;
+            if (wholeGlobe) {
+                break;
+            }
+            if (visited.size() > current.byId.size()) {
+                // Sparse area: walking more empty cells costs more than looking at every location
+                best.clear();
+                current.byId.values().forEach(e -> offer(best, limit, e, latitude, lon));
+                break;
+            }
+        }
+
+        List<Candidate> sorted = new ArrayList<>(best);
+        sorted.sort(Candidate.ORDER);
+        return sorted.stream()
+                .map(c -> new NearestPickupLocationResponse(c.entry().id(), c.entry().city(), c.entry().street(),
+                        c.entry().houseNumber(), c.entry().latitude(), c.entry().longitude(),
+                        Math.round(c.distanceKm() * 100) / 100.0))
+                .toList();
+    }
+
+    static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.pow(Math.sin(dLat / 2), 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.pow(Math.sin(dLon / 2), 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /**
+     * Lower bound of the distance from the point to any location outside the cells within {@code k} rings of its own.
+     */
+    private double distanceOutsideRings(double latitude, double longitude, int row0, int col0, int k) {
+        double south = -90 + (row0 - k) * cellDegrees;
+        double north = -90 + (row0 + k + 1) * cellDegrees;
+        double latGap = Math.min(south <= -90 ? Double.POSITIVE_INFINITY : latitude - south,
+                north >= 90 ? Double.POSITIVE_INFINITY : north - latitude);
+
+        double lonBound = Double.POSITIVE_INFINITY;
+        if (2 * k + 1 < cols) {
+            double west = -180 + (col0 - k) * cellDegrees;
+            double east = -180 + (col0 + k + 1) * cellDegrees;
+            double lonGap = Math.min(90, Math.min(longitude - west, east - longitude));
+            // Distance to the meridian lonGap away; points further round in longitude are no closer
+            lonBound = Math.asin(Math.cos(Math.toRadians(latitude)) * Math.sin(Math.toRadians(lonGap)));
+        }
+        return EARTH_RADIUS_KM * Math.min(Math.toRadians(latGap), lonBound);
+    }
+
+    private static void offer(PriorityQueue<Candidate> best, int limit, Entry entry, double latitude, double longitude) {
+        Candidate candidate = new Candidate(entry, distanceKm(latitude, longitude, entry.latitude(), entry.longitude()));
+        if (best.size() < limit) {
+            best.add(candidate);
+        } else if (Candidate.ORDER.compare(candidate, best.peek()) < 0) {
+            best.poll();
+            best.add(candidate);
+        }
+    }
+
+    private Entry entry(Integer id, String city, String street, String houseNumber, double latitude, double longitude) {
+        double lon = normalizeLongitude(longitude);
+        return new Entry(id, city, street, houseNumber, latitude, lon, key(row(latitude), col(lon)));
+    }
+
+    private static double normalizeLongitude(double longitude) {
+        return longitude >= 180 ? longitude - 360 : longitude;
+    }
+
+    private int row(double latitude) {
+        return Math.min(rows - 1, Math.max(0, (int) Math.floor((latitude + 90) / cellDegrees)));
+    }
+
+    private int col(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180) / cellDegrees), cols);
+    }
+
+    private long key(int row, int col) {
+        return (long) row * cols + col;
+    }
+
+    private record Entry(int id, String city, String street, String houseNumber,
+                         double latitude, double longitude, long cell) {
+    }
+
+    private record Candidate(Entry entry, double distanceKm) {
+        static final Comparator<Candidate> ORDER = Comparator.comparingDouble(Candidate::distanceKm)
+                .thenComparingInt(c -> c.entry().id());
+    }
+
+    /**
+     * Built once per registry snapshot and never changed afterwards.
+     */
+    private static final class Grid {
+        final List<PickupLocationRegistry.Location> source;
+        final Map<Long, Map<Integer, Entry>> cells = new HashMap<>();
+        final Map<Integer, Entry> byId = new HashMap<>();
+
+        Grid(List<PickupLocationRegistry.Location> source) {
+            this.source = source;
+        }
+
+        void put(Entry entry) {
+            cells.computeIfAbsent(entry.cell(), k -> new HashMap<>()).put(entry.id(), entry);
+            byId.put(entry.id(), entry);
+        }
+    }
+}
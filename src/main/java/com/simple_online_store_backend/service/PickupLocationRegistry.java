@@ -0,0 +1,132 @@
+package com.simple_online_store_backend.service;
+
+import com.simple_online_store_backend.dto.pickup_location.PickupLocationResponseDTO;
+import com.simple_online_store_backend.entity.PickupLocation;
+import com.simple_online_store_backend.event.PickupLocationChangedEvent;
+import com.simple_online_store_backend.repository.PickupLocationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * All pickup locations in memory, by id and by city, for checkout, the list endpoints and
+ * {@link PickupLocationGeoIndex}.
+ * <p>
+ * Readers get an immutable snapshot through one volatile read, so a lookup never sees half an update. Each
+ * committed change from {@link PickupLocationService} builds the next snapshot from the current one with just
+ * that location replaced; the snapshot is reloaded from the table on startup and periodically, which also picks
+ * up changes made on other nodes or by hand. An id the snapshot does not know is looked up in the table once and
+ * kept if found, so a location created elsewhere is usable before the next reload.
+ */
+@Service
+public class PickupLocationRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(PickupLocationRegistry.class);
+
+    private final PickupLocationRepository pickupLocationRepository;
+
+    private volatile Snapshot snapshot = Snapshot.of(List.of());
+
+    public PickupLocationRegistry(PickupLocationRepository pickupLocationRepository) {
+        this.pickupLocationRepository = pickupLocationRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${app.pickup.registry.refresh-interval-ms:300000}",
+            initialDelayString = "${app.pickup.registry.refresh-interval-ms:300000}")
+    public synchronized void refresh() {
+        snapshot = Snapshot.of(pickupLocationRepository.findAll().stream().map(Location::of).toList());
+        logger.debug("Pickup location registry loaded: {} locations", snapshot.byId().size());
+    }
+
+    // Synchronized with refresh(), so a change committed while the table is being read is not lost by the swap
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onPickupLocationChanged(PickupLocationChangedEvent event) {
+        put(new Location(event.id(), event.city(), event.street(), event.houseNumber(), event.active(),
+                event.latitude(), event.longitude()));
+    }
+
+    public Optional<Location> find(int id) {
+        Location location = snapshot.byId().get(id);
+        if (location != null) {
+            return Optional.of(location);
+        }
+        Optional<Location> loaded = pickupLocationRepository.findById(id).map(Location::of);
+        loaded.ifPresent(this::putIfAbsent);
+        return loaded;
+    }
+
+    public List<Location> all() {
+        return snapshot.all();
+    }
+
+    public List<Location> active() {
+        return snapshot.active();
+    }
+
+    public List<Location> inCity(String city) {
+        return snapshot.byCity().getOrDefault(cityKey(city), List.of());
+    }
+
+    private synchronized void putIfAbsent(Location location) {
+        if (!snapshot.byId().containsKey(location.id())) {
+            put(location);
+        }
+    }
+
+    private synchronized void put(Location location) {
+        Map<Integer, Location> next = new HashMap<>(snapshot.byId());
+        next.put(location.id(), location);
+        snapshot = Snapshot.of(next.values());
+    }
+
+    private static String cityKey(String city) {
+        return city == null ? "" : city.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Immutable copy of one pickup_locations row.
+     */
+    public record Location(int id, String city, String street, String houseNumber, boolean active,
+                           Double latitude, Double longitude) {
+
+        static Location of(PickupLocation entity) {
+            return new Location(entity.getId(), entity.getCity(), entity.getStreet(), entity.getHouseNumber(),
+                    Boolean.TRUE.equals(entity.getActive()), entity.getLatitude(), entity.getLongitude());
+        }
+
+        public PickupLocationResponseDTO toResponse() {
+            PickupLocationResponseDTO dto = new PickupLocationResponseDTO();
+            dto.setId(id);
+            dto.setCity(city);
+            dto.setStreet(street);
+            dto.setHouseNumber(houseNumber);
+            dto.setLatitude(latitude);
+            dto.setLongitude(longitude);
+            return dto;
+        }
+    }
+
+    private record Snapshot(Map<Integer, Location> byId, List<Location> all, List<Location> active,
+                            Map<String, List<Location>> byCity) {
+
+        static Snapshot of(Collection<Location> locations) {
+            List<Location> all = locations.stream().sorted(Comparator.comparingInt(Location::id)).toList();
+            Map<Integer, Location> byId = all.stream().collect(Collectors.toUnmodifiableMap(Location::id, l -> l));
+            Map<String, List<Location>> byCity = all.stream().collect(Collectors.collectingAndThen(
+                    Collectors.groupingBy(l -> cityKey(l.city()), Collectors.toUnmodifiableList()),
+                    Collections::unmodifiableMap));
+            return new Snapshot(byId, all, all.stream().filter(Location::active).toList(), byCity);
+        }
+    }
+}
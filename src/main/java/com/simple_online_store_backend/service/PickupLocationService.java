@@ -1,13 +1,22 @@
 package com.simple_online_store_backend.service;
 
+import com.simple_online_store_backend.dto.pickup_location.NearestPickupLocationResponse;
+import com.simple_online_store_backend.dto.pickup_location.PickupLocationBulkStatusRequest;
+import com.simple_online_store_backend.dto.pickup_location.PickupLocationBulkStatusResponse;
 import com.simple_online_store_backend.dto.pickup_location.PickupLocationRequestDTO;
 import com.simple_online_store_backend.dto.pickup_location.PickupLocationResponseDTO;
+import com.simple_online_store_backend.dto.pickup_location.PickupLocationStatusResult;
 import com.simple_online_store_backend.entity.PickupLocation;
+import com.simple_online_store_backend.enums.PickupLocationStatusOutcome;
+import com.simple_online_store_backend.event.PickupLocationChangedEvent;
 import com.simple_online_store_backend.exception.ValidationException;
 import com.simple_online_store_backend.mapper.PickupLocationMapper;
 import com.simple_online_store_backend.repository.PickupLocationRepository;
 import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.BeanUtils;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -15,29 +24,63 @@ import org.springframework.transaction.annotation.Transactional;
 import java.beans.IntrospectionException;
 import java.beans.Introspector;
 import java.beans.PropertyDescriptor;
-import java.util.Arrays;
-import java.util.List;
-import java.util.Objects;
+import java.util.*;
 
 @Service
 public class PickupLocationService {
+    private static final Logger logger = LoggerFactory.getLogger(PickupLocationService.class);
+
+    static final int DEFAULT_NEAREST_LIMIT = 5;
+    static final int MAX_NEAREST_LIMIT = 20;
+
     private final PickupLocationRepository pickupLocationRepository;
     private final PickupLocationMapper mapper;
+    private final PickupLocationGeoIndex geoIndex;
+    private final PickupLocationRegistry registry;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public PickupLocationService(PickupLocationRepository pickupLocationRepository, PickupLocationMapper mapper) {
+    public PickupLocationService(PickupLocationRepository pickupLocationRepository, PickupLocationMapper mapper,
+                                 PickupLocationGeoIndex geoIndex, PickupLocationRegistry registry,
+                                 ApplicationEventPublisher eventPublisher) {
         this.pickupLocationRepository = pickupLocationRepository;
         this.mapper = mapper;
+        this.geoIndex = geoIndex;
+        this.registry = registry;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<PickupLocationResponseDTO> getAllPickupLocations(String role) {
-        List<PickupLocation> locations;
-        if (role.equals("ROLE_ADMIN")) {
-            locations = pickupLocationRepository.findAll();
-        } else {
-            locations = pickupLocationRepository.findByActiveTrue();
-        }
+        // Served from the in-memory registry; admins also see closed locations
+        List<PickupLocationRegistry.Location> locations = role.equals("ROLE_ADMIN") ? registry.all() : registry.active();
+        return locations.stream().map(PickupLocationRegistry.Location::toResponse).toList();
+    }
 
-        return locations.stream().map(mapper::mapPickupLocationRequestToResponseDTO).toList();
+    public List<PickupLocationResponseDTO> getPickupLocationsInCity(String role, String city) {
+        boolean admin = role.equals("ROLE_ADMIN");
+        return registry.inCity(city).stream()
+                .filter(location -> admin || location.active())
+                .map(PickupLocationRegistry.Location::toResponse)
+                .toList();
+    }
+
+    /**
+     * Closest open locations to the point, answered from the in-memory index (no query).
+     */
+    public List<NearestPickupLocationResponse> findNearest(Double latitude, Double longitude, Integer limit) {
+        if (latitude == null || longitude == null) {
+            throw new ValidationException("'lat' and 'lon' are required");
+        }
+        if (latitude < -90 || latitude > 90) {
+            throw new ValidationException("'lat' must be between -90 and 90");
+        }
+        if (longitude < -180 || longitude > 180) {
+            throw new ValidationException("'lon' must be between -180 and 180");
+        }
+        int size = limit == null ? DEFAULT_NEAREST_LIMIT : limit;
+        if (size < 1 || size > MAX_NEAREST_LIMIT) {
+            throw new ValidationException("'limit' must be between 1 and " + MAX_NEAREST_LIMIT);
+        }
+        return geoIndex.nearest(latitude, longitude, size);
     }
 
     @Transactional
@@ -56,7 +99,9 @@ public class PickupLocationService {
 
         PickupLocation pickupLocation = mapper.mapRequestTOPickupLocation(dto);
         if (pickupLocation.getActive() == null) pickupLocation.setActive(true);
+        requireBothCoordinates(pickupLocation);
         pickupLocationRepository.save(pickupLocation);
+        publishChanged(pickupLocation);
 
         return mapper.mapPickupLocationRequestToResponseDTO(pickupLocation);
     }
@@ -64,35 +109,94 @@ public class PickupLocationService {
     @Transactional
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     public void closePickupLocation(int id) {
-        boolean active = pickupLocationRepository.existsByIdAndActiveTrue(id);
-        if (!active) {
-            boolean exists = pickupLocationRepository.existsById(id);
-            if (!exists) {
-                throw new EntityNotFoundException("Pick-up location with id " + id + " doesn't exist");
-            }
-            throw new ValidationException("Pick-up location with id " + id + " is already closed");
+        switch (setActive(List.of(id), false).get(0).getOutcome()) {
+            case NOT_FOUND -> throw new EntityNotFoundException("Pick-up location with id " + id + " doesn't exist");
+            case UNCHANGED -> throw new ValidationException("Pick-up location with id " + id + " is already closed");
+            case CHANGED -> { }
         }
-
-        PickupLocation location = pickupLocationRepository.findById(id)
-                .orElseThrow();
-        location.setActive(false);
-        pickupLocationRepository.save(location);
     }
 
     @Transactional
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     public void openPickupLocation(int id) {
-        if (!pickupLocationRepository.existsById(id)) {
-            throw new EntityNotFoundException("Pick-up location with id " + id + " doesn't exist");
+        switch (setActive(List.of(id), true).get(0).getOutcome()) {
+            case NOT_FOUND -> throw new EntityNotFoundException("Pick-up location with id " + id + " doesn't exist");
+            case UNCHANGED -> throw new ValidationException("Pick-up location with id " + id + " is already opened");
+            case CHANGED -> { }
+        }
+    }
+
+    /**
+     * Opens or closes the given ids, or every location of a city. The rows are read and locked with one
+     * query, and all of them change with one guarded UPDATE.
+     */
+    @Transactional
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public PickupLocationBulkStatusResponse bulkSetActive(PickupLocationBulkStatusRequest request) {
+        boolean byIds = request.getIds() != null && !request.getIds().isEmpty();
+        boolean byCity = request.getCity() != null && !request.getCity().isBlank();
+        if (byIds == byCity) {
+            throw new ValidationException("Exactly one of ids or city must be provided");
         }
 
-        if (pickupLocationRepository.existsByIdAndActiveTrue(id)) {
-            throw new ValidationException("Pick-up location with id " + id + " is already opened");
+        boolean active = request.getActive();
+        List<PickupLocationStatusResult> results = byIds
+                ? setActive(List.copyOf(new LinkedHashSet<>(request.getIds())), active)
+                : apply(pickupLocationRepository.lockByCity(request.getCity().trim()), List.of(), active);
+
+        PickupLocationBulkStatusResponse response = new PickupLocationBulkStatusResponse(active, results);
+        logger.info("Bulk pickup location {}: processed={}, changed={}, unchanged={}, notFound={}",
+                active ? "open" : "close", response.getProcessed(), response.getChanged(),
+                response.getUnchanged(), response.getNotFound());
+        return response;
+    }
+
+    private List<PickupLocationStatusResult> setActive(List<Integer> ids, boolean active) {
+        return apply(pickupLocationRepository.lockByIdIn(ids), ids, active);
+    }
+
+    /**
+     * Classifies the locked rows and updates the ones not yet in the wanted state. Results follow
+     * {@code requestedIds} (missing ones are NOT_FOUND), or the rows when no ids were requested.
+     */
+    private List<PickupLocationStatusResult> apply(List<Object[]> rows, List<Integer> requestedIds, boolean active) {
+        Map<Integer, Object[]> byId = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            byId.put(((Number) row[0]).intValue(), row);
+        }
+        List<Integer> order = requestedIds.isEmpty() ? List.copyOf(byId.keySet()) : requestedIds;
+
+        List<PickupLocationStatusResult> results = new ArrayList<>(order.size());
+        List<Integer> eligible = new ArrayList<>();
+        for (Integer id : order) {
+            Object[] row = byId.get(id);
+            if (row == null) {
+                results.add(new PickupLocationStatusResult(id, PickupLocationStatusOutcome.NOT_FOUND));
+            } else if (Boolean.valueOf(active).equals(row[6])) {
+                results.add(new PickupLocationStatusResult(id, PickupLocationStatusOutcome.UNCHANGED));
+            } else {
+                eligible.add(id);
+                results.add(new PickupLocationStatusResult(id, PickupLocationStatusOutcome.CHANGED));
+            }
         }
 
-        PickupLocation location = pickupLocationRepository.findById(id).orElseThrow();
-        location.setActive(true);
-        pickupLocationRepository.save(location);
+        if (!eligible.isEmpty()) {
+            int updated = pickupLocationRepository.updateActiveWhereIdIn(eligible, active);
+            if (updated != eligible.size()) {
+                // Can't happen while the rows are locked; fail rather than report wrong outcomes
+                throw new IllegalStateException("Expected to update " + eligible.size() + " pickup locations but updated " + updated);
+            }
+            for (Integer id : eligible) {
+                Object[] row = byId.get(id);
+                eventPublisher.publishEvent(new PickupLocationChangedEvent(id, (String) row[1], (String) row[2],
+                        (String) row[3], toDouble(row[4]), toDouble(row[5]), active));
+            }
+        }
+        return results;
+    }
+
+    private static Double toDouble(Object value) {
+        return value == null ? null : ((Number) value).doubleValue();
     }
 
     @Transactional
@@ -102,11 +206,26 @@ public class PickupLocationService {
                 .orElseThrow(() -> new EntityNotFoundException("Pickup location with this id doesn't exist"));
 
         BeanUtils.copyProperties(dto, locationToUpdate, getNullPropertyNames(dto));
+        requireBothCoordinates(locationToUpdate);
 
         pickupLocationRepository.save(locationToUpdate);
+        publishChanged(locationToUpdate);
         return mapper.mapPickupLocationRequestToResponseDTO(locationToUpdate);
     }
 
+    private static void requireBothCoordinates(PickupLocation location) {
+        if ((location.getLatitude() == null) != (location.getLongitude() == null)) {
+            throw new ValidationException("Latitude and longitude must be given together");
+        }
+    }
+
+    // The registry applies it once the transaction commits; the geo index follows the registry
+    private void publishChanged(PickupLocation location) {
+        eventPublisher.publishEvent(new PickupLocationChangedEvent(location.getId(), location.getCity(),
+                location.getStreet(), location.getHouseNumber(), location.getLatitude(), location.getLongitude(),
+                Boolean.TRUE.equals(location.getActive())));
+    }
+
     private String[] getNullPropertyNames(Object source) {
         try {
             return Arrays.stream(Introspector.getBeanInfo(source.getClass(), Object.class)
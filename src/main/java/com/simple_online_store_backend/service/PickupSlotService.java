@@ -0,0 +1,148 @@
+package com.simple_online_store_backend.service;
+
+import com.simple_online_store_backend.dto.pickup_location.PickupSlotResponse;
+import com.simple_online_store_backend.dto.pickup_location.PickupSlotScheduleRequest;
+import com.simple_online_store_backend.entity.PickupLocation;
+import com.simple_online_store_backend.entity.PickupSlot;
+import com.simple_online_store_backend.enums.OrderStatus;
+import com.simple_online_store_backend.event.OrderStatusChangedEvent;
+import com.simple_online_store_backend.exception.ValidationException;
+import com.simple_online_store_backend.repository.PickupLocationRepository;
+import com.simple_online_store_backend.repository.PickupSlotRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Per-location pickup windows with a capacity. A place is taken by a single conditional UPDATE
+ * ({@code reserved < capacity}) in the transaction that creates the order, so concurrent checkouts
+ * serialize on the slot row and can never overbook it, and a rolled-back order gives the place back for free.
+ * <p>
+ * Cancellation and reactivation are handled here from {@link OrderStatusChangedEvent}, which every status
+ * change path (customer, bulk fulfilment, account deactivation) publishes inside its transaction.
+ */
+@Service
+public class PickupSlotService {
+    static final int MAX_SCHEDULE_DAYS = 31;
+    static final int MAX_AVAILABILITY_DAYS = 14;
+
+    private final PickupSlotRepository pickupSlotRepository;
+    private final PickupLocationRepository pickupLocationRepository;
+
+    public PickupSlotService(PickupSlotRepository pickupSlotRepository, PickupLocationRepository pickupLocationRepository) {
+        this.pickupSlotRepository = pickupSlotRepository;
+        this.pickupLocationRepository = pickupLocationRepository;
+    }
+
+    @Transactional
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public List<PickupSlotResponse> schedule(int locationId, PickupSlotScheduleRequest request) {
+        if (request.getFromDate().isAfter(request.getToDate())) {
+            throw new ValidationException("'fromDate' must not be after 'toDate'");
+        }
+        if (ChronoUnit.DAYS.between(request.getFromDate(), request.getToDate()) >= MAX_SCHEDULE_DAYS) {
+            throw new ValidationException("Slots can be scheduled for at most " + MAX_SCHEDULE_DAYS + " days at once");
+        }
+        if (!request.getOpensAt().plusMinutes(request.getSlotMinutes()).isAfter(request.getOpensAt())
+                || request.getOpensAt().plusMinutes(request.getSlotMinutes()).isAfter(request.getClosesAt())) {
+            throw new ValidationException("At least one slot must fit between opensAt and closesAt");
+        }
+
+        PickupLocation location = pickupLocationRepository.findById(locationId)
+                .orElseThrow(() -> new EntityNotFoundException("Pickup location not found: " + locationId));
+
+        LocalDateTime rangeStart = request.getFromDate().atStartOfDay();
+        LocalDateTime rangeEnd = request.getToDate().plusDays(1).atStartOfDay();
+        Map<LocalDateTime, PickupSlot> existing = pickupSlotRepository
+                .findByPickupLocation_IdAndSlotStartGreaterThanEqualAndSlotStartLessThanOrderBySlotStart(locationId, rangeStart, rangeEnd)
+                .stream()
+                .collect(Collectors.toMap(PickupSlot::getSlotStart, Function.identity()));
+
+        List<PickupSlot> slots = new ArrayList<>();
+        for (LocalDate day = request.getFromDate(); !day.isAfter(request.getToDate()); day = day.plusDays(1)) {
+            LocalDateTime start = day.atTime(request.getOpensAt());
+            LocalDateTime close = day.atTime(request.getClosesAt());
+            while (!start.plusMinutes(request.getSlotMinutes()).isAfter(close)) {
+                LocalDateTime end = start.plusMinutes(request.getSlotMinutes());
+                PickupSlot slot = existing.get(start);
+                if (slot == null) {
+                    slot = new PickupSlot();
+                    slot.setPickupLocation(location);
+                    slot.setSlotStart(start);
+                }
+                slot.setSlotEnd(end);
+                // Never drop below what is already booked
+                slot.setCapacity(Math.max(request.getCapacity(), slot.getReserved()));
+                slots.add(slot);
+                start = end;
+            }
+        }
+
+        return pickupSlotRepository.saveAll(slots).stream()
+                .map(s -> new PickupSlotResponse(s.getId(), s.getSlotStart(), s.getSlotEnd(), s.getCapacity(),
+                        s.getCapacity() - s.getReserved()))
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    @PreAuthorize("isAuthenticated()")
+    public List<PickupSlotResponse> getAvailableSlots(int locationId, int days) {
+        if (days < 1 || days > MAX_AVAILABILITY_DAYS) {
+            throw new ValidationException("'days' must be between 1 and " + MAX_AVAILABILITY_DAYS);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        return pickupSlotRepository.findAvailable(locationId, now, now.toLocalDate().plusDays(days + 1L).atStartOfDay());
+    }
+
+    /**
+     * Takes a place in the slot for a new order at the given location; must run in the order's transaction.
+     * Without a slot id the order is only accepted if the location hands out no future slots.
+     */
+    public PickupSlot reserveForNewOrder(int locationId, Integer slotId) {
+        LocalDateTime now = LocalDateTime.now();
+        if (slotId == null) {
+            if (pickupSlotRepository.existsByPickupLocation_IdAndSlotStartAfter(locationId, now)) {
+                throw new ValidationException("Choose a pickup slot for this pickup location");
+            }
+            return null;
+        }
+
+        if (pickupSlotRepository.reserve(slotId, locationId, now) == 0) {
+            // Tell a wrong id apart from a full or past slot only on the failure path
+            PickupSlot slot = pickupSlotRepository.findById(slotId)
+                    .filter(s -> s.getPickupLocation().getId() == locationId)
+                    .orElseThrow(() -> new EntityNotFoundException("Pickup slot not found: " + slotId));
+            throw new ValidationException(slot.getSlotStart().isAfter(now)
+                    ? "Pickup slot is fully booked"
+                    : "Pickup slot has already started");
+        }
+        return pickupSlotRepository.getReferenceById(slotId);
+    }
+
+    @EventListener
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        OrderStatus from = event.previousStatus();
+        OrderStatus to = event.status();
+        if (from == null || from == to) {
+            return;
+        }
+        if (to == OrderStatus.CANCELLED) {
+            pickupSlotRepository.releaseForOrder(event.orderId());
+        } else if (from == OrderStatus.CANCELLED
+                && pickupSlotRepository.reserveForOrder(event.orderId(), LocalDateTime.now()) == 0
+                && pickupSlotRepository.findSlotIdOfOrder(event.orderId()).isPresent()) {
+            throw new ValidationException("The pickup slot of order " + event.orderId() + " is no longer available");
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.simple_online_store_backend.service;
 
+import com.simple_online_store_backend.aspect.RetryOnConflict;
 import com.simple_online_store_backend.dto.product.ProductRequestDTO;
 import com.simple_online_store_backend.dto.product.ProductResponseDTO;
 import com.simple_online_store_backend.dto.product.ProductUpdateDTO;
@@ -31,6 +32,7 @@ public class ProductService {
         this.productMapper = productMapper;
     }
 
+    @Transactional(readOnly = true)
     public List<ProductResponseDTO> getAllProducts() {
         return productRepository.findAll().stream().map(productMapper::mapProductToResponseDTO).toList();
     }
@@ -46,6 +48,7 @@ public class ProductService {
         return productMapper.mapProductToResponseDTO(productToAdd);
     }
 
+    @RetryOnConflict
     @Transactional
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     public ProductResponseDTO editProduct(ProductUpdateDTO dto, Integer productId) {
@@ -82,6 +85,7 @@ public class ProductService {
         return r;
     }
 
+    @Transactional(readOnly = true)
     @PreAuthorize("isAuthenticated()")
     public List<ProductResponseDTO> getAvailableProducts() {
         List<Product> available = productRepository.findAllByAvailabilityTrue();
@@ -0,0 +1,351 @@
+package com.simple_online_store_backend.service;
+
+import com.simple_online_store_backend.dto.analytics.CategorySalesResponse;
+import com.simple_online_store_backend.dto.analytics.DailySalesResponse;
+import com.simple_online_store_backend.dto.analytics.DeliveryTypeSalesResponse;
+import com.simple_online_store_backend.enums.DeliveryType;
+import com.simple_online_store_backend.enums.OrderStatus;
+import com.simple_online_store_backend.enums.ProductCategory;
+import com.simple_online_store_backend.event.OrderStatusChangedEvent;
+import com.simple_online_store_backend.exception.ValidationException;
+import com.simple_online_store_backend.repository.OrderRepository;
+import com.simple_online_store_backend.repository.SalesCategoryRollupRepository;
+import com.simple_online_store_backend.repository.SalesDailyRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Keeps the sales rollup tables in step with order state changes. A change only matters when an
+ * order enters or leaves the "booked" set (created, cancelled, reactivated); such changes are
+ * collected per transaction and applied after commit in one short transaction, sorted by key so
+ * concurrent writers lock rollup rows in the same order. A rollup write that fails after the order
+ * committed is logged and repaired by the nightly reconcile, which recomputes recent days from source.
+ * Keys sort by enum name, matching the ORDER BY of the reconcile's lock queries.
+ *
+ * Revenue uses current product prices (orders don't snapshot prices), the same source the
+ * reconcile uses, so the two always agree on what "correct" means.
+ */
+@Service
+public class SalesRollupService {
+    private static final Logger logger = LoggerFactory.getLogger(SalesRollupService.class);
+    private static final Object PENDING_DELTAS_KEY = new Object();
+    static final int MAX_RANGE_DAYS = 366;
+
+    private final OrderRepository orderRepository;
+    private final SalesDailyRollupRepository dailyRepository;
+    private final SalesCategoryRollupRepository categoryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int reconcileDays;
+
+    public SalesRollupService(OrderRepository orderRepository,
+                              SalesDailyRollupRepository dailyRepository,
+                              SalesCategoryRollupRepository categoryRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.analytics.rollup.reconcile-days:7}") int reconcileDays) {
+        this.orderRepository = orderRepository;
+        this.dailyRepository = dailyRepository;
+        this.categoryRepository = categoryRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.reconcileDays = reconcileDays;
+    }
+
+    @EventListener
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        int sign = bookingDelta(event.previousStatus(), event.status());
+        if (sign == 0) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            applySafely(Map.of(event.orderId(), sign));
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<Integer, Integer> pending = (Map<Integer, Integer>) TransactionSynchronizationManager.getResource(PENDING_DELTAS_KEY);
+        if (pending == null) {
+            Map<Integer, Integer> deltas = new LinkedHashMap<>();
+            TransactionSynchronizationManager.bindResource(PENDING_DELTAS_KEY, deltas);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_DELTAS_KEY);
+                    if (status == STATUS_COMMITTED) {
+                        applySafely(deltas);
+                    }
+                }
+            });
+            pending = deltas;
+        }
+        pending.merge(event.orderId(), sign, Integer::sum);
+    }
+
+    /**
+     * +1 when an order joins the booked set, -1 when it leaves it, 0 otherwise.
+     */
+    static int bookingDelta(OrderStatus from, OrderStatus to) {
+        boolean wasBooked = from != null && from != OrderStatus.CANCELLED;
+        boolean isBooked = to != null && to != OrderStatus.CANCELLED;
+        return Boolean.compare(isBooked, wasBooked);
+    }
+
+    private void applySafely(Map<Integer, Integer> deltasByOrder) {
+        try {
+            applyDeltas(deltasByOrder);
+        } catch (RuntimeException e) {
+            logger.warn("Sales rollup update for {} orders failed, the nightly reconcile will repair it: {}",
+                    deltasByOrder.size(), e.getMessage());
+        }
+    }
+
+    public void applyDeltas(Map<Integer, Integer> deltasByOrder) {
+        Map<Integer, Integer> effective = new HashMap<>();
+        deltasByOrder.forEach((id, sign) -> {
+            if (sign != 0) effective.put(id, sign);
+        });
+        if (effective.isEmpty()) {
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<DailyKey, Figures> daily = new TreeMap<>();
+            Map<CategoryKey, Figures> byCategory = new TreeMap<>();
+            Set<CountedOrder> countedInCategory = new HashSet<>();
+            Set<Integer> countedOrders = new HashSet<>();
+
+            for (Object[] row : orderRepository.findSalesLinesByIdIn(effective.keySet())) {
+                int orderId = ((Number) row[0]).intValue();
+                int sign = effective.get(orderId);
+                LocalDate day = toLocalDate(row[1]);
+                DeliveryType channel = row[2] == null ? DeliveryType.COURIER : DeliveryType.PICKUP;
+
+                Figures dayFigures = daily.computeIfAbsent(new DailyKey(day, channel), k -> new Figures());
+                if (countedOrders.add(orderId)) {
+                    dayFigures.orders += sign;
+                }
+                if (row[3] == null) {
+                    continue;
+                }
+                BigDecimal price = (BigDecimal) row[4];
+                dayFigures.add(sign, price);
+
+                CategoryKey categoryKey = new CategoryKey(day, ProductCategory.valueOf(row[3].toString()), channel);
+                Figures categoryFigures = byCategory.computeIfAbsent(categoryKey, k -> new Figures());
+                if (countedInCategory.add(new CountedOrder(day, categoryKey.category(), channel, orderId))) {
+                    categoryFigures.orders += sign;
+                }
+                categoryFigures.add(sign, price);
+            }
+
+            daily.forEach((key, f) -> {
+                dailyRepository.insertIfAbsent(key.day(), key.channel().name());
+                dailyRepository.applyDelta(key.day(), key.channel().name(), f.orders, f.units, f.revenue);
+            });
+            byCategory.forEach((key, f) -> {
+                categoryRepository.insertIfAbsent(key.day(), key.category().name(), key.channel().name());
+                categoryRepository.applyDelta(key.day(), key.category().name(), key.channel().name(),
+                        f.orders, f.units, f.revenue);
+            });
+        });
+    }
+
+    /**
+     * Recomputes the last app.analytics.rollup.reconcile-days days from orders and corrects every
+     * rollup row that disagrees. Returns the number of corrected rows.
+     */
+    @Scheduled(cron = "${app.analytics.rollup.reconcile-cron:0 15 2 * * *}")
+    public int reconcile() {
+        LocalDate to = LocalDate.now();
+        return reconcile(to.minusDays(reconcileDays - 1L), to);
+    }
+
+    /**
+     * The rollup rows of the range are locked before the source is aggregated, so a live delta either
+     * lands before the lock (and is overwritten by a total that already includes its order) or waits
+     * for the reconcile to commit. Corrections are written as deltas against the locked figures.
+     */
+    public int reconcile(LocalDate from, LocalDate to) {
+        Integer corrected = transactionTemplate.execute(status -> {
+            int fixes = 0;
+
+            Map<DailyKey, Figures> actualDaily = new HashMap<>();
+            for (Object[] row : dailyRepository.lockDayRange(from, to)) {
+                actualDaily.put(new DailyKey(toLocalDate(row[0]), DeliveryType.valueOf(row[1].toString().trim())),
+                        Figures.of(row[2], row[3], row[4]));
+            }
+            Map<CategoryKey, Figures> actualByCategory = new HashMap<>();
+            for (Object[] row : categoryRepository.lockDayRange(from, to)) {
+                actualByCategory.put(new CategoryKey(toLocalDate(row[0]), ProductCategory.valueOf(row[1].toString()),
+                        DeliveryType.valueOf(row[2].toString().trim())), Figures.of(row[3], row[4], row[5]));
+            }
+
+            Map<DailyKey, Figures> expectedDaily = new TreeMap<>();
+            for (Object[] row : orderRepository.aggregateBookedSalesByDay(from.atStartOfDay(), to.plusDays(1).atStartOfDay())) {
+                expectedDaily.put(new DailyKey(toLocalDate(row[0]), DeliveryType.valueOf(row[1].toString().trim())),
+                        Figures.of(row[2], row[3], row[4]));
+            }
+            actualDaily.keySet().forEach(key -> expectedDaily.putIfAbsent(key, new Figures()));
+            for (Map.Entry<DailyKey, Figures> e : expectedDaily.entrySet()) {
+                DailyKey key = e.getKey();
+                Figures actual = actualDaily.get(key);
+                if (actual == null && dailyRepository.insertIfAbsent(key.day(), key.channel().name()) == 0) {
+                    // Created by a live delta after the lock; the next run compares it
+                    continue;
+                }
+                Figures diff = e.getValue().minus(actual);
+                if (!diff.isZero()) {
+                    dailyRepository.applyDelta(key.day(), key.channel().name(), diff.orders, diff.units, diff.revenue);
+                    fixes++;
+                }
+            }
+
+            Map<CategoryKey, Figures> expectedByCategory = new TreeMap<>();
+            for (Object[] row : orderRepository.aggregateBookedSalesByDayAndCategory(from.atStartOfDay(), to.plusDays(1).atStartOfDay())) {
+                expectedByCategory.put(new CategoryKey(toLocalDate(row[0]), ProductCategory.valueOf(row[1].toString()),
+                        DeliveryType.valueOf(row[2].toString().trim())), Figures.of(row[3], row[4], row[5]));
+            }
+            actualByCategory.keySet().forEach(key -> expectedByCategory.putIfAbsent(key, new Figures()));
+            for (Map.Entry<CategoryKey, Figures> e : expectedByCategory.entrySet()) {
+                CategoryKey key = e.getKey();
+                Figures actual = actualByCategory.get(key);
+                if (actual == null && categoryRepository.insertIfAbsent(key.day(), key.category().name(), key.channel().name()) == 0) {
+                    continue;
+                }
+                Figures diff = e.getValue().minus(actual);
+                if (!diff.isZero()) {
+                    categoryRepository.applyDelta(key.day(), key.category().name(), key.channel().name(),
+                            diff.orders, diff.units, diff.revenue);
+                    fixes++;
+                }
+            }
+            return fixes;
+        });
+
+        int fixes = corrected == null ? 0 : corrected;
+        if (fixes > 0) {
+            logger.warn("Sales rollup reconcile {}..{} corrected {} rows", from, to, fixes);
+        } else {
+            logger.info("Sales rollup reconcile {}..{}: rollups match source", from, to);
+        }
+        return fixes;
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @Transactional(readOnly = true)
+    public List<DailySalesResponse> dailySales(LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        return dailyRepository.findByDayBetweenOrderByDayAscDeliveryTypeAsc(from, to).stream()
+                .map(r -> new DailySalesResponse(r.getDay(), r.getDeliveryType(), r.getOrderCount(), r.getUnits(), r.getRevenue()))
+                .toList();
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @Transactional(readOnly = true)
+    public List<CategorySalesResponse> categorySales(LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        return categoryRepository.sumByCategory(from, to).stream()
+                .map(row -> new CategorySalesResponse((ProductCategory) row[0],
+                        ((Number) row[1]).longValue(), ((Number) row[2]).longValue(), (BigDecimal) row[3]))
+                .toList();
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @Transactional(readOnly = true)
+    public List<DeliveryTypeSalesResponse> deliveryTypeSales(LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        return dailyRepository.sumByDeliveryType(from, to).stream()
+                .map(row -> new DeliveryTypeSalesResponse((DeliveryType) row[0],
+                        ((Number) row[1]).longValue(), ((Number) row[2]).longValue(), (BigDecimal) row[3]))
+                .toList();
+    }
+
+    private void validateRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new ValidationException("'from' must not be after 'to'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new ValidationException("Date range must not exceed " + MAX_RANGE_DAYS + " days");
+        }
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        if (value instanceof LocalDate d) return d;
+        if (value instanceof Date d) return d.toLocalDate();
+        return LocalDate.parse(value.toString().substring(0, 10));
+    }
+
+    private record DailyKey(LocalDate day, DeliveryType channel) implements Comparable<DailyKey> {
+        @Override
+        public int compareTo(DailyKey o) {
+            int c = day.compareTo(o.day);
+            return c != 0 ? c : channel.name().compareTo(o.channel.name());
+        }
+    }
+
+    private record CategoryKey(LocalDate day, ProductCategory category, DeliveryType channel)
+            implements Comparable<CategoryKey> {
+        @Override
+        public int compareTo(CategoryKey o) {
+            int c = day.compareTo(o.day);
+            if (c == 0) c = category.name().compareTo(o.category.name());
+            return c != 0 ? c : channel.name().compareTo(o.channel.name());
+        }
+    }
+
+    // An order counts once per category row however many of its items fall into it
+    private record CountedOrder(LocalDate day, ProductCategory category, DeliveryType channel, int orderId) {
+    }
+
+    private static final class Figures {
+        long orders;
+        long units;
+        BigDecimal revenue = BigDecimal.ZERO;
+
+        static Figures of(Object orders, Object units, Object revenue) {
+            Figures f = new Figures();
+            f.orders = ((Number) orders).longValue();
+            f.units = ((Number) units).longValue();
+            f.revenue = revenue instanceof BigDecimal b ? b : new BigDecimal(revenue.toString());
+            return f;
+        }
+
+        void add(int sign, BigDecimal price) {
+            units += sign;
+            revenue = sign > 0 ? revenue.add(price) : revenue.subtract(price);
+        }
+
+        Figures minus(Figures other) {
+            Figures f = new Figures();
+            f.orders = orders;
+            f.units = units;
+            f.revenue = revenue;
+            if (other != null) {
+                f.orders -= other.orders;
+                f.units -= other.units;
+                f.revenue = f.revenue.subtract(other.revenue);
+            }
+            return f;
+        }
+
+        boolean isZero() {
+            return orders == 0 && units == 0 && revenue.signum() == 0;
+        }
+    }
+}
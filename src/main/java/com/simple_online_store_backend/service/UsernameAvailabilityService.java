@@ -0,0 +1,195 @@
+package com.simple_online_store_backend.service;
+
+import com.simple_online_store_backend.dto.person.UsernameAvailabilityResponse;
+import com.simple_online_store_backend.event.PersonRegisteredEvent;
+import com.simple_online_store_backend.exception.ValidationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Answers "is this username still free?" for the sign-up form without a query per keystroke.
+ * <p>
+ * An in-memory Bloom filter holds every taken username (lower-cased). A name the filter has never seen is
+ * free for sure; only the possible hits are confirmed with one {@code lower(user_name) IN (...)} query.
+ * The filter is rebuilt from the table on startup and periodically (it cannot forget names) and learns
+ * new names after each registration commits. Names registered on other nodes show up at the next rebuild,
+ * so the answer is advisory: the unique constraints checked by registration itself are authoritative.
+ */
+@Service
+public class UsernameAvailabilityService {
+    private static final Logger logger = LoggerFactory.getLogger(UsernameAvailabilityService.class);
+
+    static final int MIN_EXPECTED_NAMES = 1024;
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final double falsePositiveRate;
+
+    private volatile BloomFilter filter;
+    // Filter being rebuilt; committed registrations go into it too so the swap loses nothing
+    private volatile BloomFilter building;
+
+    public UsernameAvailabilityService(NamedParameterJdbcTemplate jdbc,
+                                       @Value("${app.people.username-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.jdbc = jdbc;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedOnStartup() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${app.people.username-filter.rebuild-interval-ms:3600000}",
+            initialDelayString = "${app.people.username-filter.rebuild-interval-ms:3600000}")
+    public synchronized void rebuild() {
+        Long count = jdbc.queryForObject("SELECT COUNT(*) FROM people", new MapSqlParameterSource(), Long.class);
+        // Headroom for sign-ups until the next rebuild
+        long expected = Math.max(MIN_EXPECTED_NAMES, 2 * (count == null ? 0 : count));
+        BloomFilter next = BloomFilter.create(expected, falsePositiveRate);
+        building = next;
+        try {
+            jdbc.query("SELECT LOWER(user_name) FROM people", new MapSqlParameterSource(),
+                    rs -> { next.put(rs.getString(1)); });
+            filter = next;
+            logger.info("Username filter rebuilt: {} names, {} bits", count, next.bitSize());
+        } finally {
+            building = null;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPersonRegistered(PersonRegisteredEvent event) {
+        if (event.userName() == null) {
+            return;
+        }
+        String name = normalize(event.userName());
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(name);
+        }
+        BloomFilter next = building;
+        if (next != null) {
+            next.put(name);
+        }
+    }
+
+    public List<UsernameAvailabilityResponse> check(List<String> userNames) {
+        Set<String> candidates = new HashSet<>();
+        BloomFilter current = filter;
+        for (String userName : userNames) {
+            if (userName == null || userName.isBlank()) {
+                throw new ValidationException("userNames - must not contain blank names;");
+            }
+            String name = normalize(userName);
+            // Before the first build every name is a candidate
+            if (current == null || current.mightContain(name)) {
+                candidates.add(name);
+            }
+        }
+
+        Set<String> taken = candidates.isEmpty()
+                ? Set.of()
+                : new HashSet<>(jdbc.queryForList(
+                        "SELECT LOWER(user_name) FROM people WHERE LOWER(user_name) IN (:names)",
+                        new MapSqlParameterSource("names", candidates), String.class));
+
+        return userNames.stream()
+                .map(userName -> new UsernameAvailabilityResponse(userName.trim(), !taken.contains(normalize(userName))))
+                .toList();
+    }
+
+    private static String normalize(String userName) {
+        return userName.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Lock-free Bloom filter over strings: k bit positions per name from one 64-bit hash (double hashing).
+     * Concurrent {@link #put} calls only ever set bits, so readers may miss a name being added but never
+     * see a name disappear.
+     */
+    static final class BloomFilter {
+        private final AtomicLongArray words;
+        private final long bitSize;
+        private final int hashCount;
+
+        private BloomFilter(long bitSize, int hashCount) {
+            this.words = new AtomicLongArray((int) ((bitSize + 63) / 64));
+            this.bitSize = bitSize;
+            this.hashCount = hashCount;
+        }
+
+        static BloomFilter create(long expectedInsertions, double falsePositiveRate) {
+            if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+                throw new IllegalArgumentException("falsePositiveRate must be in (0, 1)");
+            }
+            long n = Math.max(1, expectedInsertions);
+            long bits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            int hashes = Math.max(1, (int) Math.round((double) bits / n * Math.log(2)));
+            return new BloomFilter(Math.max(64, bits), hashes);
+        }
+
+        void put(String value) {
+            long hash = hash(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long bit = index(h1, h2, i);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long old;
+                do {
+                    old = words.get(word);
+                } while ((old & mask) == 0 && !words.compareAndSet(word, old, old | mask));
+            }
+        }
+
+        boolean mightContain(String value) {
+            long hash = hash(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long bit = index(h1, h2, i);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        long bitSize() {
+            return bitSize;
+        }
+
+        private long index(int h1, int h2, int i) {
+            long combined = h1 + (long) i * h2;
+            return (combined & Long.MAX_VALUE) % bitSize;
+        }
+
+        // FNV-1a over the UTF-8 bytes, finished with the MurmurHash3 64-bit mixer
+        private static long hash(String value) {
+            long h = 0xcbf29ce484222325L;
+            for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+                h ^= b & 0xff;
+                h *= 0x100000001b3L;
+            }
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.simple_online_store_backend.service.outbox;
+
+import com.simple_online_store_backend.entity.OutboxEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(value = "app.outbox.sink.type", havingValue = "log", matchIfMissing = true)
+public class LoggingOutboxEventSink implements OutboxEventSink {
+    private static final Logger logger = LoggerFactory.getLogger(LoggingOutboxEventSink.class);
+
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        for (OutboxEvent event : events) {
+            logger.info("Outbox event {} {} for order {}: {}",
+                    event.getId(), event.getEventType(), event.getAggregateId(), event.getPayload());
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.simple_online_store_backend.service.outbox;
+
+import com.simple_online_store_backend.entity.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Destination for published outbox events (message broker, webhook, file, ...).
+ * Delivery is at-least-once: a batch may be handed over again if marking it as published fails,
+ * so consumers should de-duplicate by event id.
+ */
+public interface OutboxEventSink {
+    void publish(List<OutboxEvent> events) throws Exception;
+}
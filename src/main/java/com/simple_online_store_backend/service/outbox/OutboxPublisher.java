@@ -0,0 +1,90 @@
+package com.simple_online_store_backend.service.outbox;
+
+import com.simple_online_store_backend.entity.OutboxEvent;
+import com.simple_online_store_backend.repository.OutboxEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Drains the outbox in batches. Each batch is claimed with FOR UPDATE SKIP LOCKED,
+ * handed to the sink and marked as published in one short transaction,
+ * so several application nodes can run the publisher at the same time without double delivery.
+ */
+@Component
+public class OutboxPublisher {
+    private static final Logger logger = LoggerFactory.getLogger(OutboxPublisher.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxEventSink sink;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final long retentionHours;
+
+    public OutboxPublisher(OutboxEventRepository outboxEventRepository,
+                           OutboxEventSink sink,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${app.outbox.publisher.batch-size:100}") int batchSize,
+                           @Value("${app.outbox.publisher.max-batches-per-run:50}") int maxBatchesPerRun,
+                           @Value("${app.outbox.retention-hours:72}") long retentionHours) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.sink = sink;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.retentionHours = retentionHours;
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.publisher.interval-ms:2000}")
+    public int publishPendingEvents() {
+        int published = 0;
+        try {
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                int count = publishBatch();
+                published += count;
+                if (count < batchSize) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            // The failed batch was rolled back and stays unpublished; it is retried on the next run
+            logger.warn("Outbox publishing stopped after {} events: {}", published, e.getMessage());
+        }
+        return published;
+    }
+
+    public int publishBatch() {
+        Integer count = transactionTemplate.execute(status -> {
+            List<OutboxEvent> batch = outboxEventRepository.claimUnpublished(batchSize);
+            if (batch.isEmpty()) {
+                return 0;
+            }
+
+            try {
+                sink.publish(batch);
+            } catch (Exception e) {
+                throw new IllegalStateException("Outbox sink failed: " + e.getMessage(), e);
+            }
+
+            List<Long> ids = batch.stream().map(OutboxEvent::getId).toList();
+            outboxEventRepository.markPublished(ids, LocalDateTime.now());
+            return batch.size();
+        });
+        return count == null ? 0 : count;
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.cleanup.interval-ms:3600000}")
+    public int purgePublishedEvents() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(retentionHours);
+        Integer deleted = transactionTemplate.execute(status -> outboxEventRepository.deletePublishedBefore(cutoff));
+        return deleted == null ? 0 : deleted;
+    }
+}
@@ -0,0 +1,72 @@
+package com.simple_online_store_backend.util;
+
+import com.simple_online_store_backend.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.util.Base64;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Shared pieces of the keyset-paginated searches.
+ * <p>
+ * A page is read with {@link #fetchSize(int)} rows: one extra row tells whether there is a next page
+ * without a COUNT(*), and {@link #toPage} cuts it off again. Cursors are the sort key of the last row,
+ * '|'-separated and URL-safe Base64 encoded so clients treat them as opaque.
+ */
+public final class KeysetPagination {
+
+    private KeysetPagination() {
+    }
+
+    public static int fetchSize(int pageSize) {
+        return pageSize + 1;
+    }
+
+    /**
+     * Trims rows read with {@link #fetchSize(int)} to the page and hands it over together with its last
+     * row, or with {@code null} when this is the last page.
+     */
+    public static <T, R> R toPage(List<T> rows, int pageSize, BiFunction<List<T>, T, R> pageOf) {
+        if (rows.size() <= pageSize) {
+            return pageOf.apply(rows, null);
+        }
+        List<T> page = List.copyOf(rows.subList(0, pageSize));
+        return pageOf.apply(page, page.get(pageSize - 1));
+    }
+
+    public static String encodeCursor(Object... parts) {
+        StringJoiner raw = new StringJoiner("|");
+        for (Object part : parts) {
+            raw.add(String.valueOf(part));
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Splits a cursor into exactly {@code parts} values and parses them. The last part keeps any '|' it
+     * contains, so a free-text value (a username) belongs at the end. Anything unreadable is a 400.
+     */
+    public static <C> C decodeCursor(String value, int parts, Function<String[], C> parser) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            String[] values = raw.split("\\|", parts);
+            if (values.length != parts) {
+                throw new ValidationException("Invalid cursor");
+            }
+            return parser.apply(values);
+        } catch (IllegalArgumentException | DateTimeException | IndexOutOfBoundsException e) {
+            throw new ValidationException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Escapes LIKE wildcards so user input only matches literally; pair it with {@code ESCAPE '\'}.
+     */
+    public static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -72,6 +72,17 @@ public class SwaggerConstants {
     public static final String ORDER_ITEMS_DESC =
             "Order items (minimum one item).";
 
+    // --- For OrderBulkStatusRequest ---
+    public static final String ORDER_BULK_TARGET_STATUS_DESC =
+            "Status to move the orders to. Allowed transitions: PENDING -> PROCESSING/CANCELLED, " +
+            "PROCESSING -> SHIPPED/CANCELLED, SHIPPED -> DELIVERED, CANCELLED -> PENDING.";
+    public static final String ORDER_BULK_IDS_DESC =
+            "Explicit order ids (max 10000). Either orderIds or fromStatus (filter mode) must be given.";
+    public static final String ORDER_BULK_FROM_STATUS_DESC =
+            "Expected current status. Required in filter mode; with orderIds it narrows the accepted source status.";
+    public static final String ORDER_BULK_PICKUP_FILTER_DESC =
+            "Filter mode only: restrict the transition to orders of this pickup location.";
+
     // --- For OrderItemResponse ---
     public static final String PRODUCT_ID_DESC =
             "Unique identifier of the product included in the order.";
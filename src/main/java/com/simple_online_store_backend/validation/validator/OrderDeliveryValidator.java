@@ -1,14 +1,14 @@
 package com.simple_online_store_backend.validation.validator;
 
-import com.simple_online_store_backend.dto.order.OrderCreateRequest;
+import com.simple_online_store_backend.dto.order.DeliveryOptionRequest;
 import com.simple_online_store_backend.validation.annotation.ValidDeliveryOption;
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
 
-public class OrderDeliveryValidator implements ConstraintValidator<ValidDeliveryOption, OrderCreateRequest> {
+public class OrderDeliveryValidator implements ConstraintValidator<ValidDeliveryOption, DeliveryOptionRequest> {
 
     @Override
-    public boolean isValid(OrderCreateRequest dto, ConstraintValidatorContext context) {
+    public boolean isValid(DeliveryOptionRequest dto, ConstraintValidatorContext context) {
         if (dto == null) return true;
 
         Integer addressId = dto.getAddressId();
@@ -18,6 +18,13 @@ public class OrderDeliveryValidator implements ConstraintValidator<ValidDelivery
         boolean hasPickup  = pickupLocationId != null;
 
         if (hasAddress ^ hasPickup) {
+            if (dto.getPickupSlotId() != null && !hasPickup) {
+                context.disableDefaultConstraintViolation();
+                context.buildConstraintViolationWithTemplate(
+                        "A pickup slot can only be chosen together with pickupLocationId"
+                ).addPropertyNode("pickupSlotId").addConstraintViolation();
+                return false;
+            }
             return true;
         }
 
@@ -1,7 +1,7 @@
 package com.simple_online_store_backend.validation.validator;
 
 import com.simple_online_store_backend.entity.PickupLocation;
-import com.simple_online_store_backend.repository.PickupLocationRepository;
+import com.simple_online_store_backend.service.PickupLocationRegistry;
 import com.simple_online_store_backend.validation.annotation.ValidPickupLocation;
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
@@ -9,10 +9,10 @@ import jakarta.validation.ConstraintValidatorContext;
 import java.util.Optional;
 
 public class PickupLocationValidator implements ConstraintValidator<ValidPickupLocation, PickupLocation> {
-    private final PickupLocationRepository pickupLocationRepository;
+    private final PickupLocationRegistry pickupLocationRegistry;
 
-    public PickupLocationValidator(PickupLocationRepository pickupLocationRepository) {
-        this.pickupLocationRepository = pickupLocationRepository;
+    public PickupLocationValidator(PickupLocationRegistry pickupLocationRegistry) {
+        this.pickupLocationRegistry = pickupLocationRegistry;
     }
 
     @Override
@@ -20,9 +20,11 @@ public class PickupLocationValidator implements ConstraintValidator<ValidPickupL
         if (location == null)
             return true;
 
-        Optional<PickupLocation> optional = pickupLocationRepository.findById(location.getId());
+        Optional<PickupLocationRegistry.Location> optional = location.getId() == null
+                ? Optional.empty()
+                : pickupLocationRegistry.find(location.getId());
 
-        if (optional.isEmpty() || !Boolean.TRUE.equals(optional.get().getActive())) {
+        if (optional.isEmpty() || !optional.get().active()) {
             context.disableDefaultConstraintViolation();
             context.buildConstraintViolationWithTemplate(
                     "The order pick-up location must be active (i.e. not closed for repairs or liquidated)"
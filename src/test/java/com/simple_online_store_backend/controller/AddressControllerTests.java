@@ -6,7 +6,11 @@ import com.simple_online_store_backend.entity.Address;
 import com.simple_online_store_backend.entity.Person;
 import com.simple_online_store_backend.repository.AddressRepository;
 import com.simple_online_store_backend.repository.PeopleRepository;
+import com.simple_online_store_backend.security.PersonDetails;
 import com.simple_online_store_backend.service.AddressService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.*;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,6 +23,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.hamcrest.Matchers.*;
@@ -39,6 +44,11 @@ class AddressControllerTests {
 
     @Autowired PeopleRepository peopleRepository;
     @Autowired AddressRepository addressRepository;
+    @Autowired EntityManagerFactory entityManagerFactory;
+    @Autowired org.springframework.jdbc.core.JdbcTemplate jdbcTemplate;
+    @Autowired com.simple_online_store_backend.service.AddressFingerprintBackfillService backfillService;
+    @Autowired com.simple_online_store_backend.service.AddressCollectorService collectorService;
+    @Autowired com.simple_online_store_backend.repository.OrderRepository orderRepository;
 
     @MockitoSpyBean
     AddressController addressController;
@@ -137,6 +147,58 @@ class AddressControllerTests {
             assertEquals(beforeCount, addressRepository.count(), "No duplicate addresses must be created");
         }
 
+        @Test
+        void addAddress_sameAddressInOtherCaseAndSpacing_reusesExisting() throws Exception {
+            int userId = createUser("john", "john@example.com", "ROLE_USER");
+            doReturn(userId).when(addressController).getUserId();
+            Address existing = createAddress("Munich", "Ludwig Strasse", "10A", "7", "80333");
+
+            mvc.perform(post("/address/add-address")
+                            .with(user("john").roles("USER"))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(validJson("Munich", "LUDWIG   strasse", "10a", "7", "80333", "POSTAL", "APARTMENT")))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.street").value("Ludwig Strasse"));
+
+            assertEquals(existing.getId(), peopleRepository.findById(userId).orElseThrow().getAddress().getId());
+            assertEquals(1, addressRepository.count());
+        }
+
+        @Test
+        void addAddress_concurrentSameAddress_createsOneRow() throws Exception {
+            int users = 6;
+            List<Integer> userIds = new java.util.ArrayList<>();
+            for (int i = 0; i < users; i++) {
+                userIds.add(createUser("racer" + i, "racer" + i + "@example.com", "ROLE_USER"));
+            }
+            AddressRequestDTO dto = objectMapper.readValue(
+                    validJson("Berlin", "Main Street", "12A", "45", "10115", "POSTAL", "APARTMENT"), AddressRequestDTO.class);
+
+            var pool = java.util.concurrent.Executors.newFixedThreadPool(users);
+            var start = new java.util.concurrent.CountDownLatch(1);
+            try {
+                List<java.util.concurrent.Future<?>> futures = new java.util.ArrayList<>();
+                for (int userId : userIds) {
+                    futures.add(pool.submit(() -> {
+                        start.await();
+                        return addressService.addAddress(dto, userId);
+                    }));
+                }
+                start.countDown();
+                for (var future : futures) {
+                    future.get(10, java.util.concurrent.TimeUnit.SECONDS);
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+
+            assertEquals(1, addressRepository.count(), "Concurrent saves of one address must share a row");
+            Integer addressId = addressRepository.findAll().get(0).getId();
+            for (int userId : userIds) {
+                assertEquals(addressId, peopleRepository.findById(userId).orElseThrow().getAddress().getId());
+            }
+        }
+
         @Test
         void addAddress_validationErrors_returns400() throws Exception {
             int userId = createUser("kate", "kate@example.com", "ROLE_USER");
@@ -468,6 +530,34 @@ class AddressControllerTests {
             assertTrue(addressRepository.findById(addr.getId()).isPresent(), "Address must still exist");
         }
 
+        @Test
+        void deleteAddress_authenticatedUser_doesNotReloadPerson() throws Exception {
+            int userId = createUser("lena", "lena@example.com", "ROLE_USER");
+            Address addr = createAddress("Hamburg", "Elbchaussee", "3", "1", "20095");
+            Person u = peopleRepository.findById(userId).orElseThrow();
+            u.setAddress(addr);
+            u = peopleRepository.save(u);
+
+            Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            stats.setStatisticsEnabled(true);
+            try {
+                stats.clear();
+                mvc.perform(delete("/address/delete-address")
+                                .with(user(new PersonDetails(u))))
+                        .andExpect(status().isOk());
+
+                assertEquals(0, stats.getEntityStatistics(Person.class.getName()).getLoadCount());
+                assertEquals(0, stats.getEntityStatistics(Address.class.getName()).getLoadCount());
+                // Lock of the person row + UPDATE people + ref_count decrement + conditional DELETE by primary key
+                assertEquals(4, stats.getPrepareStatementCount());
+            } finally {
+                stats.setStatisticsEnabled(false);
+            }
+
+            assertNull(peopleRepository.findById(userId).orElseThrow().getAddress());
+            assertFalse(addressRepository.findById(addr.getId()).isPresent());
+        }
+
         @Test
         void deleteAddress_userHasNoAddress_returns404() throws Exception {
             int userId = createUser("noaddr", "noaddr@example.com", "ROLE_USER");
@@ -531,6 +621,162 @@ class AddressControllerTests {
         }
     }
 
+    @Nested
+    class methodFingerprintBackfill {
+
+        private int legacyAddress(String city, String street, String house, String apt) {
+            jdbcTemplate.update("INSERT INTO addresses (city, street, house_number, apartment) VALUES (?, ?, ?, ?)",
+                    city, street, house, apt);
+            return jdbcTemplate.queryForObject("SELECT MAX(id) FROM addresses", Integer.class);
+        }
+
+        @Test
+        void backfill_fingerprintsLegacyRows_andMergesDuplicatesIntoTheOldest() {
+            int keeper = legacyAddress("Berlin", "Main Street", "1", "2");
+            int copy = legacyAddress("berlin", " MAIN  street", "1", "2");
+            int other = legacyAddress("Berlin", "Side Street", "5", null);
+            Address current = createAddress("Munich", "Ludwigstrasse", "10", "7", "80333");
+            int legacyMunich = legacyAddress("MUNICH", "ludwigstrasse", "10", "7");
+
+            int alice = createUser("alice", "alice@example.com", "ROLE_USER");
+            int bob = createUser("bob", "bob@example.com", "ROLE_USER");
+            int carol = createUser("carol", "carol@example.com", "ROLE_USER");
+            jdbcTemplate.update("UPDATE people SET address_id = ? WHERE id = ?", keeper, alice);
+            jdbcTemplate.update("UPDATE people SET address_id = ? WHERE id = ?", copy, bob);
+            jdbcTemplate.update("UPDATE people SET address_id = ? WHERE id = ?", legacyMunich, carol);
+
+            assertEquals(2, backfillService.backfill());
+
+            assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM addresses WHERE fingerprint IS NULL", Integer.class));
+            assertTrue(addressRepository.existsById(keeper));
+            assertFalse(addressRepository.existsById(copy));
+            assertTrue(addressRepository.existsById(other));
+            assertFalse(addressRepository.existsById(legacyMunich));
+            assertEquals(keeper, peopleRepository.findById(bob).orElseThrow().getAddress().getId());
+            assertEquals(current.getId(), peopleRepository.findById(carol).orElseThrow().getAddress().getId());
+            assertEquals(Address.fingerprintOf("Berlin", "Main Street", "1", "2"),
+                    addressRepository.findById(keeper).orElseThrow().getFingerprint());
+
+            assertEquals(0, backfillService.backfill(), "A second run has nothing left to do");
+        }
+    }
+
+    @Nested
+    class methodReferenceCounting {
+
+        private Integer refCount(int addressId) {
+            return jdbcTemplate.queryForObject("SELECT ref_count FROM addresses WHERE id = ?", Integer.class, addressId);
+        }
+
+        private AddressRequestDTO dto(String street) throws Exception {
+            return objectMapper.readValue(validJson("Berlin", street, "1", "2", "10115", "POSTAL", "APARTMENT"),
+                    AddressRequestDTO.class);
+        }
+
+        @AfterEach
+        void cleanOrders() {
+            orderRepository.deleteAll();
+        }
+
+        @Test
+        void counts_followPeopleAndOrders_andLastDetachDeletesTheRow() throws Exception {
+            int anna = createUser("anna", "anna@example.com", "ROLE_USER");
+            int ben = createUser("ben", "ben@example.com", "ROLE_USER");
+
+            addressService.addAddress(dto("Main Street"), anna);
+            addressService.addAddress(dto("Main Street"), ben);
+            int shared = peopleRepository.findById(anna).orElseThrow().getAddress().getId();
+            assertEquals(2, refCount(shared));
+
+            // JPA saves are counted by the entity listener
+            com.simple_online_store_backend.entity.Order order = new com.simple_online_store_backend.entity.Order();
+            order.setPerson(peopleRepository.findById(anna).orElseThrow());
+            order.setStatus(com.simple_online_store_backend.enums.OrderStatus.PENDING);
+            order.setAddress(addressRepository.findById(shared).orElseThrow());
+            order = orderRepository.save(order);
+            assertEquals(3, refCount(shared));
+
+            // Re-adding the same address changes nothing; moving ben elsewhere releases one reference
+            addressService.addAddress(dto("Main Street"), anna);
+            assertEquals(3, refCount(shared));
+            addressService.addAddress(dto("Side Street"), ben);
+            int other = peopleRepository.findById(ben).orElseThrow().getAddress().getId();
+            assertEquals(2, refCount(shared));
+            assertEquals(1, refCount(other));
+
+            orderRepository.delete(order);
+            assertEquals(1, refCount(shared));
+
+            addressService.deleteAddress(anna);
+            assertFalse(addressRepository.existsById(shared), "Last reference gone: deleted on the spot");
+            addressService.deleteAddress(ben);
+            assertFalse(addressRepository.existsById(other));
+        }
+
+        @Test
+        void concurrentDeletesBySameUser_releaseTheSharedAddressOnce() throws Exception {
+            int anna = createUser("anna", "anna@example.com", "ROLE_USER");
+            int ben = createUser("ben", "ben@example.com", "ROLE_USER");
+            addressService.addAddress(dto("Main Street"), anna);
+            addressService.addAddress(dto("Main Street"), ben);
+            int shared = peopleRepository.findById(anna).orElseThrow().getAddress().getId();
+
+            var pool = java.util.concurrent.Executors.newFixedThreadPool(2);
+            var start = new java.util.concurrent.CountDownLatch(1);
+            int succeeded = 0;
+            int notFound = 0;
+            try {
+                List<java.util.concurrent.Future<?>> futures = new java.util.ArrayList<>();
+                for (int i = 0; i < 2; i++) {
+                    futures.add(pool.submit(() -> {
+                        start.await();
+                        addressService.deleteAddress(anna);
+                        return null;
+                    }));
+                }
+                start.countDown();
+                for (var future : futures) {
+                    try {
+                        future.get(10, java.util.concurrent.TimeUnit.SECONDS);
+                        succeeded++;
+                    } catch (java.util.concurrent.ExecutionException e) {
+                        assertInstanceOf(jakarta.persistence.EntityNotFoundException.class, e.getCause());
+                        notFound++;
+                    }
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+
+            assertEquals(1, succeeded);
+            assertEquals(1, notFound);
+            assertTrue(addressRepository.existsById(shared), "Ben still lives there");
+            assertEquals(1, refCount(shared));
+            assertEquals(shared, peopleRepository.findById(ben).orElseThrow().getAddress().getId());
+        }
+
+        @Test
+        void collector_deletesUnreferenced_andRepairsUncountedOrDriftedRows() {
+            Address orphan = createAddress("Berlin", "Orphan Street", "1", null, null);
+            Address legacy = createAddress("Berlin", "Legacy Street", "2", null, null);
+            Address drifted = createAddress("Berlin", "Drifted Street", "3", null, null);
+            int carl = createUser("carl", "carl@example.com", "ROLE_USER");
+            int dora = createUser("dora", "dora@example.com", "ROLE_USER");
+            // Attached with plain SQL, as rows from before the counter existed were
+            jdbcTemplate.update("UPDATE people SET address_id = ? WHERE id = ?", legacy.getId(), carl);
+            jdbcTemplate.update("UPDATE people SET address_id = ? WHERE id = ?", drifted.getId(), dora);
+            jdbcTemplate.update("UPDATE addresses SET ref_count = NULL WHERE id = ?", legacy.getId());
+            jdbcTemplate.update("UPDATE addresses SET ref_count = -1 WHERE id = ?", drifted.getId());
+
+            assertEquals(1, collectorService.collectUnreferenced());
+
+            assertFalse(addressRepository.existsById(orphan.getId()));
+            assertEquals(1, refCount(legacy.getId()));
+            assertEquals(1, refCount(drifted.getId()));
+            assertEquals(0, collectorService.collectUnreferenced());
+        }
+    }
+
     private Address createAddress(String city, String street, String house, String apt, String zip) {
         Address a = new Address();
         a.setCity(city);
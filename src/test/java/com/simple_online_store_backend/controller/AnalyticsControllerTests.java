@@ -0,0 +1,284 @@
+package com.simple_online_store_backend.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simple_online_store_backend.dto.order.OrderCreateRequest;
+import com.simple_online_store_backend.entity.Address;
+import com.simple_online_store_backend.entity.Person;
+import com.simple_online_store_backend.entity.PickupLocation;
+import com.simple_online_store_backend.entity.Product;
+import com.simple_online_store_backend.entity.SalesDailyRollup;
+import com.simple_online_store_backend.enums.DeliveryType;
+import com.simple_online_store_backend.enums.ProductCategory;
+import com.simple_online_store_backend.repository.*;
+import com.simple_online_store_backend.security.PersonDetails;
+import com.simple_online_store_backend.service.SalesRollupService;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AnalyticsControllerTests {
+
+    @Autowired MockMvc mvc;
+    @Autowired ObjectMapper objectMapper;
+
+    @Autowired PeopleRepository peopleRepository;
+    @Autowired OrderRepository orderRepository;
+    @Autowired ProductRepository productRepository;
+    @Autowired AddressRepository addressRepository;
+    @Autowired PickupLocationRepository pickupLocationRepository;
+    @Autowired SalesDailyRollupRepository dailyRollupRepository;
+    @Autowired SalesCategoryRollupRepository categoryRollupRepository;
+    @Autowired SalesRollupService salesRollupService;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    Person user;
+    Person admin;
+    Product phone;
+    Product laptop;
+    Address address;
+    PickupLocation pickup;
+
+    @BeforeEach
+    void setup() {
+        orderRepository.deleteAll();
+        dailyRollupRepository.deleteAll();
+        categoryRollupRepository.deleteAll();
+        peopleRepository.deleteAll();
+
+        user = saveUser("analyst_user", "analyst_user@example.com", "ROLE_USER");
+        admin = saveUser("analyst_admin", "analyst_admin@example.com", "ROLE_ADMIN");
+        phone = saveProduct("Phone", ProductCategory.SMARTPHONES, new BigDecimal("500.00"));
+        laptop = saveProduct("Laptop", ProductCategory.LAPTOPS, new BigDecimal("1200.00"));
+        address = saveAddress();
+        pickup = savePickup();
+    }
+
+    @AfterEach
+    void cleanup() {
+        orderRepository.deleteAll();
+        dailyRollupRepository.deleteAll();
+        categoryRollupRepository.deleteAll();
+    }
+
+    private Person saveUser(String username, String email, String role) {
+        Person p = new Person();
+        p.setUserName(username);
+        p.setEmail(email);
+        p.setPassword("encoded");
+        p.setRole(role);
+        p.setDeleted(false);
+        return peopleRepository.save(p);
+    }
+
+    private Product saveProduct(String name, ProductCategory category, BigDecimal price) {
+        Product pr = new Product();
+        pr.setProductName(name + System.nanoTime());
+        pr.setProductDescription(name + " desc");
+        pr.setProductCategory(category);
+        pr.setPrice(price);
+        pr.setAvailability(true);
+        return productRepository.save(pr);
+    }
+
+    private Address saveAddress() {
+        // Addresses are unique by fingerprint and survive between tests here, so reuse the row from a previous test
+        Optional<Address> existing = addressRepository.findByFingerprint(Address.fingerprintOf("Berlin", "Main Street", "1", "2"));
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        Address a = new Address();
+        a.setCity("Berlin");
+        a.setStreet("Main Street");
+        a.setHouseNumber("1");
+        a.setApartment("2");
+        a.setPostalCode("10115");
+        return addressRepository.save(a);
+    }
+
+    private PickupLocation savePickup() {
+        PickupLocation l = new PickupLocation();
+        l.setCity("Berlin");
+        l.setStreet("Pickup Street");
+        l.setHouseNumber("5");
+        l.setActive(true);
+        return pickupLocationRepository.save(l);
+    }
+
+    private UsernamePasswordAuthenticationToken auth(Person p) {
+        var pd = new PersonDetails(p);
+        var ga = List.of(new SimpleGrantedAuthority(p.getRole()));
+        return new UsernamePasswordAuthenticationToken(pd, null, ga);
+    }
+
+    private int createOrder(List<Integer> productIds, Integer addressId, Integer pickupLocationId) throws Exception {
+        var req = new OrderCreateRequest();
+        req.setProductIds(productIds);
+        req.setAddressId(addressId);
+        req.setPickupLocationId(pickupLocationId);
+        String body = mvc.perform(post("/orders/create-order")
+                        .with(authentication(auth(user)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(req)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asInt();
+    }
+
+    private void cancel(int orderId) throws Exception {
+        mvc.perform(patch("/orders/{id}/cancel-order", orderId).with(authentication(auth(user))))
+                .andExpect(status().isOk());
+    }
+
+    private void reactivate(int orderId) throws Exception {
+        mvc.perform(patch("/orders/{id}/reactivate-order", orderId).with(authentication(auth(user))))
+                .andExpect(status().isOk());
+    }
+
+    private SalesDailyRollup daily(DeliveryType type) {
+        return dailyRollupRepository.findByDayBetweenOrderByDayAscDeliveryTypeAsc(LocalDate.now(), LocalDate.now())
+                .stream().filter(r -> r.getDeliveryType() == type).findFirst().orElseThrow();
+    }
+
+    @Nested
+    class rollupMaintenanceTests {
+        @Test
+        void createOrder_updatesDailyAndCategoryRollups() throws Exception {
+            createOrder(List.of(phone.getId(), laptop.getId()), address.getId(), null);
+            createOrder(List.of(phone.getId()), null, pickup.getId());
+
+            SalesDailyRollup courier = daily(DeliveryType.COURIER);
+            assertEquals(1, courier.getOrderCount());
+            assertEquals(2, courier.getUnits());
+            assertEquals(0, new BigDecimal("1700.00").compareTo(courier.getRevenue()));
+
+            SalesDailyRollup pickupRow = daily(DeliveryType.PICKUP);
+            assertEquals(1, pickupRow.getOrderCount());
+            assertEquals(0, new BigDecimal("500.00").compareTo(pickupRow.getRevenue()));
+
+            assertEquals(3, categoryRollupRepository.count());
+        }
+
+        @Test
+        void cancelAndReactivate_moveOrderOutOfAndBackIntoRollups() throws Exception {
+            int id = createOrder(List.of(phone.getId()), address.getId(), null);
+
+            cancel(id);
+            SalesDailyRollup afterCancel = daily(DeliveryType.COURIER);
+            assertEquals(0, afterCancel.getOrderCount());
+            assertEquals(0, afterCancel.getUnits());
+            assertEquals(0, BigDecimal.ZERO.compareTo(afterCancel.getRevenue()));
+
+            reactivate(id);
+            SalesDailyRollup afterReactivate = daily(DeliveryType.COURIER);
+            assertEquals(1, afterReactivate.getOrderCount());
+            assertEquals(0, new BigDecimal("500.00").compareTo(afterReactivate.getRevenue()));
+        }
+
+        @Test
+        void reconcile_repairsDriftedAndMissingRows() throws Exception {
+            createOrder(List.of(phone.getId(), laptop.getId()), address.getId(), null);
+            createOrder(List.of(laptop.getId()), null, pickup.getId());
+
+            jdbcTemplate.update("UPDATE sales_daily_rollup SET order_count = 7, revenue = 1 WHERE delivery_type = 'COURIER'");
+            jdbcTemplate.update("DELETE FROM sales_category_rollup WHERE product_category = 'SMARTPHONES'");
+
+            int corrected = salesRollupService.reconcile(LocalDate.now(), LocalDate.now());
+
+            assertEquals(2, corrected);
+            SalesDailyRollup courier = daily(DeliveryType.COURIER);
+            assertEquals(1, courier.getOrderCount());
+            assertEquals(0, new BigDecimal("1700.00").compareTo(courier.getRevenue()));
+            assertEquals(3, categoryRollupRepository.count());
+            assertEquals(0, salesRollupService.reconcile(LocalDate.now(), LocalDate.now()));
+        }
+    }
+
+    @Nested
+    class endpointTests {
+        @Test
+        void daily_asAdmin_returnsRowsPerChannel() throws Exception {
+            createOrder(List.of(phone.getId()), address.getId(), null);
+            createOrder(List.of(laptop.getId()), null, pickup.getId());
+
+            mvc.perform(get("/analytics/sales/daily").with(authentication(auth(admin))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(2)))
+                    .andExpect(jsonPath("$[*].deliveryType", containsInAnyOrder("COURIER", "PICKUP")))
+                    .andExpect(jsonPath("$[0].day").value(LocalDate.now().toString()));
+        }
+
+        @Test
+        void categories_asAdmin_highestRevenueFirst() throws Exception {
+            createOrder(List.of(phone.getId(), phone.getId()), address.getId(), null);
+            createOrder(List.of(laptop.getId()), null, pickup.getId());
+
+            mvc.perform(get("/analytics/sales/categories")
+                            .param("from", LocalDate.now().minusDays(1).toString())
+                            .param("to", LocalDate.now().toString())
+                            .with(authentication(auth(admin))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(2)))
+                    .andExpect(jsonPath("$[0].category").value("LAPTOPS"))
+                    .andExpect(jsonPath("$[1].category").value("SMARTPHONES"))
+                    .andExpect(jsonPath("$[1].units").value(2))
+                    .andExpect(jsonPath("$[1].orders").value(1));
+        }
+
+        @Test
+        void deliveryTypes_asAdmin_excludesCancelled() throws Exception {
+            createOrder(List.of(phone.getId()), address.getId(), null);
+            int cancelled = createOrder(List.of(laptop.getId()), address.getId(), null);
+            cancel(cancelled);
+
+            mvc.perform(get("/analytics/sales/delivery-types").with(authentication(auth(admin))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(1)))
+                    .andExpect(jsonPath("$[0].deliveryType").value("COURIER"))
+                    .andExpect(jsonPath("$[0].orders").value(1))
+                    .andExpect(jsonPath("$[0].revenue").value(500.0));
+        }
+
+        @Test
+        void daily_invalidRange_returns400() throws Exception {
+            mvc.perform(get("/analytics/sales/daily")
+                            .param("from", "2025-02-01")
+                            .param("to", "2025-01-01")
+                            .with(authentication(auth(admin))))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.code").value("VALIDATION_ERROR"));
+        }
+
+        @Test
+        void daily_asUser_returns403() throws Exception {
+            mvc.perform(get("/analytics/sales/daily").with(authentication(auth(user))))
+                    .andExpect(status().isForbidden());
+        }
+
+        @Test
+        void daily_unauthorized_returns401() throws Exception {
+            mvc.perform(get("/analytics/sales/daily"))
+                    .andExpect(status().isUnauthorized());
+        }
+    }
+}
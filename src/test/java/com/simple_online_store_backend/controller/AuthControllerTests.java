@@ -11,7 +11,7 @@ import com.simple_online_store_backend.repository.PeopleRepository;
 import com.simple_online_store_backend.security.JWTUtil;
 import com.simple_online_store_backend.service.PeopleService;
 import com.simple_online_store_backend.service.RefreshTokenService;
-import com.simple_online_store_backend.util.PersonValidator;
+import com.simple_online_store_backend.service.UsernameAvailabilityService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Nested;
@@ -32,7 +32,6 @@ import org.springframework.security.core.Authentication;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
 import org.springframework.test.web.servlet.MockMvc;
-import org.springframework.validation.Errors;
 
 import static org.hamcrest.Matchers.containsString;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -78,10 +77,10 @@ class AuthControllerTests {
     @Autowired private MockMvc mockMvc;
 
     @Autowired private PeopleRepository peopleRepository;
+    @Autowired private UsernameAvailabilityService usernameAvailabilityService;
 
     @MockitoSpyBean
     private PeopleService peopleService;
-    @MockitoSpyBean private PersonValidator personValidator;
 
     @MockitoBean
     private JWTUtil jwtUtil;
@@ -242,7 +241,7 @@ class AuthControllerTests {
         @AfterEach
         void cleanDbAndResetSpies() {
             peopleRepository.deleteAll();
-            Mockito.reset(peopleService, personValidator);
+            Mockito.reset(peopleService);
         }
 
         @Test
@@ -268,7 +267,7 @@ class AuthControllerTests {
         }
 
         @Test
-        void registration_validation_error_from_personValidator() throws Exception {
+        void registration_validation_error() throws Exception {
             String body = """
                           {
                             "userName": "m",
@@ -277,13 +276,6 @@ class AuthControllerTests {
                           }
                           """;
 
-            doAnswer(inv -> {
-                Errors errors = inv.getArgument(1, Errors.class);
-                errors.rejectValue("userName", "Size", "username is too short");
-                errors.rejectValue("email", "Email", "email format is invalid");
-                return null;
-            }).when(personValidator).validate(any(), any(Errors.class));
-
             mockMvc.perform(post("/auth/registration")
                             .contentType(MediaType.APPLICATION_JSON)
                             .content(body))
@@ -324,6 +316,94 @@ class AuthControllerTests {
                     .andExpect(jsonPath("$.message", containsStringIgnoringCase("userName")));
         }
 
+        @Test
+        void registration_duplicate_email_in_other_case() throws Exception {
+            Person p = new Person();
+            p.setUserName("maria12");
+            p.setPassword("encoded");
+            p.setEmail("maria12@gmail.com");
+            p.setRole("ROLE_USER");
+            peopleRepository.save(p);
+
+            String body = """
+                          {
+                            "userName": "maria_other",
+                            "password": "Test234!",
+                            "email": "Maria12@Gmail.COM",
+                            "agreementAccepted": true
+                          }
+                          """;
+
+            mockMvc.perform(post("/auth/registration")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(body))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.code").value("VALIDATION_ERROR"))
+                    .andExpect(jsonPath("$.message").value("email - Person with this email already exists;"));
+
+            assertTrue(peopleRepository.findByUserName("maria_other").isEmpty());
+        }
+
+        @Test
+        void registration_stores_email_lower_cased() throws Exception {
+            String body = """
+                          {
+                            "userName": "maria12",
+                            "password": "Test234!",
+                            "email": "Maria12@Gmail.com",
+                            "agreementAccepted": true
+                          }
+                          """;
+
+            mockMvc.perform(post("/auth/registration")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(body))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.email").value("maria12@gmail.com"));
+        }
+
+        @Test
+        void registration_concurrent_same_username_only_one_succeeds() throws Exception {
+            int attempts = 6;
+            var codes = new java.util.concurrent.ConcurrentLinkedQueue<Integer>();
+            var messages = new java.util.concurrent.ConcurrentLinkedQueue<String>();
+            var start = new java.util.concurrent.CountDownLatch(1);
+            var pool = java.util.concurrent.Executors.newFixedThreadPool(attempts);
+            var futures = new java.util.ArrayList<java.util.concurrent.Future<?>>();
+            for (int i = 0; i < attempts; i++) {
+                String body = """
+                              {
+                                "userName": "racer",
+                                "password": "Test234!",
+                                "email": "racer%d@gmail.com",
+                                "agreementAccepted": true
+                              }
+                              """.formatted(i);
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    var response = mockMvc.perform(post("/auth/registration")
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(body))
+                            .andReturn().getResponse();
+                    codes.add(response.getStatus());
+                    if (response.getStatus() == 400) {
+                        messages.add(response.getContentAsString());
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (var f : futures) {
+                f.get(60, java.util.concurrent.TimeUnit.SECONDS);
+            }
+            pool.shutdown();
+
+            assertEquals(1, codes.stream().filter(c -> c == 201).count());
+            assertEquals(attempts - 1, codes.stream().filter(c -> c == 400).count());
+            assertTrue(messages.stream().allMatch(m -> m.contains("userName - Person with this username is already existed!")));
+            assertEquals(1, peopleRepository.count());
+        }
+
         @Test
         void registration_bad_json() throws Exception {
             String malformed = """
@@ -385,6 +465,96 @@ class AuthControllerTests {
         }
     }
 
+    @Nested
+    class methodUsernameAvailabilityTests {
+        @AfterEach
+        void cleanDb() {
+            peopleRepository.deleteAll();
+        }
+
+        private void saveUser(String userName, String email) {
+            Person p = new Person();
+            p.setUserName(userName);
+            p.setEmail(email);
+            p.setPassword("encoded");
+            p.setRole("ROLE_USER");
+            peopleRepository.save(p);
+        }
+
+        @Test
+        void reportsTakenNames_caseInsensitive_inRequestOrder() throws Exception {
+            saveUser("Maria12", "maria12@gmail.com");
+            // Saved behind the service's back: only a rebuild brings it into the filter
+            usernameAvailabilityService.rebuild();
+
+            mockMvc.perform(post("/auth/username-availability")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{ \"userNames\": [\"free_name\", \" maria12 \", \"MARIA12\"] }"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(3))
+                    .andExpect(jsonPath("$[0].userName").value("free_name"))
+                    .andExpect(jsonPath("$[0].available").value(true))
+                    .andExpect(jsonPath("$[1].userName").value("maria12"))
+                    .andExpect(jsonPath("$[1].available").value(false))
+                    .andExpect(jsonPath("$[2].available").value(false));
+        }
+
+        @Test
+        void seesNamesRegisteredAfterStartup() throws Exception {
+            mockMvc.perform(post("/auth/registration")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("""
+                                    {
+                                      "userName": "newcomer",
+                                      "password": "Test234!",
+                                      "email": "newcomer@gmail.com",
+                                      "agreementAccepted": true
+                                    }
+                                    """))
+                    .andExpect(status().isCreated());
+
+            mockMvc.perform(post("/auth/username-availability")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{ \"userNames\": [\"Newcomer\"] }"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].available").value(false));
+        }
+
+        @Test
+        void emptyList_returns400() throws Exception {
+            mockMvc.perform(post("/auth/username-availability")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{ \"userNames\": [] }"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.code").value("VALIDATION_ERROR"))
+                    .andExpect(jsonPath("$.message", containsString("userNames")));
+        }
+
+        @Test
+        void tooManyNames_returns400() throws Exception {
+            List<String> names = new ArrayList<>();
+            for (int i = 0; i < 51; i++) {
+                names.add("name" + i);
+            }
+
+            mockMvc.perform(post("/auth/username-availability")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(Map.of("userNames", names))))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.code").value("VALIDATION_ERROR"))
+                    .andExpect(jsonPath("$.message", containsString("No more than 50 usernames per request")));
+        }
+
+        @Test
+        void blankName_returns400() throws Exception {
+            mockMvc.perform(post("/auth/username-availability")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{ \"userNames\": [\"ok\", \"  \"] }"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.code").value("VALIDATION_ERROR"));
+        }
+    }
+
     @Nested
     class methodRefreshTokenTests {
         @AfterEach
@@ -0,0 +1,285 @@
+package com.simple_online_store_backend.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simple_online_store_backend.entity.Address;
+import com.simple_online_store_backend.entity.Person;
+import com.simple_online_store_backend.entity.Product;
+import com.simple_online_store_backend.enums.ProductCategory;
+import com.simple_online_store_backend.repository.AddressRepository;
+import com.simple_online_store_backend.repository.OrderRepository;
+import com.simple_online_store_backend.repository.PeopleRepository;
+import com.simple_online_store_backend.repository.ProductRepository;
+import com.simple_online_store_backend.security.PersonDetails;
+import org.junit.jupiter.api.*;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.data.redis.repositories.enabled=false")
+class CartControllerTests {
+
+    @Autowired MockMvc mvc;
+    @Autowired ObjectMapper objectMapper;
+
+    @Autowired PeopleRepository peopleRepository;
+    @Autowired ProductRepository productRepository;
+    @Autowired AddressRepository addressRepository;
+    @Autowired OrderRepository orderRepository;
+
+    // Redis is not available in tests; scripts and hash reads are stubbed per test
+    @MockitoBean(name = "redisTemplate")
+    RedisTemplate<String, String> redisTemplate;
+
+    HashOperations<String, Object, Object> hashOperations;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setup() {
+        orderRepository.deleteAll();
+        addressRepository.deleteAll();
+        productRepository.deleteAll();
+        peopleRepository.deleteAll();
+        hashOperations = mock(HashOperations.class);
+        when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+    }
+
+    private Person saveUser(String username, String role) {
+        Person p = new Person();
+        p.setUserName(username);
+        p.setEmail(username + "@example.com");
+        p.setPassword("encoded");
+        p.setRole(role);
+        p.setDeleted(false);
+        return peopleRepository.save(p);
+    }
+
+    private UsernamePasswordAuthenticationToken auth(Person p) {
+        var pd = new PersonDetails(p);
+        return new UsernamePasswordAuthenticationToken(pd, null, List.of(new SimpleGrantedAuthority(p.getRole())));
+    }
+
+    private Product saveProduct(String name, boolean available, String price) {
+        Product pr = new Product();
+        pr.setProductName(name);
+        pr.setProductDescription(name + " desc");
+        pr.setProductCategory(ProductCategory.COMPONENTS);
+        pr.setPrice(new BigDecimal(price));
+        pr.setAvailability(available);
+        return productRepository.save(pr);
+    }
+
+    private Address saveAddress() {
+        Address a = new Address();
+        a.setCity("Berlin");
+        a.setStreet("Main Street");
+        a.setHouseNumber("12A");
+        a.setApartment("45");
+        a.setPostalCode("10115");
+        return addressRepository.save(a);
+    }
+
+    @Nested
+    class methodEditCartTests {
+
+        @Test
+        void addItem_success_returnsLinesFromRedis() throws Exception {
+            Person user = saveUser("carol", "ROLE_USER");
+            when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(2L);
+            when(hashOperations.entries("cart:" + user.getId())).thenReturn(Map.of("3", "2"));
+
+            mvc.perform(post("/cart/items")
+                            .with(authentication(auth(user)))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"productId\":3,\"quantity\":2}"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(1)))
+                    .andExpect(jsonPath("$[0].productId").value(3))
+                    .andExpect(jsonPath("$[0].quantity").value(2));
+        }
+
+        @Test
+        void addItem_invalidQuantity_returns400() throws Exception {
+            Person user = saveUser("carol", "ROLE_USER");
+
+            mvc.perform(post("/cart/items")
+                            .with(authentication(auth(user)))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"productId\":3,\"quantity\":0}"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.code").value("VALIDATION_ERROR"))
+                    .andExpect(jsonPath("$.message", containsString("quantity")));
+            verify(redisTemplate, never()).execute(any(RedisScript.class), anyList(), any(Object[].class));
+        }
+
+        @Test
+        void setQuantity_aboveLimit_returns400() throws Exception {
+            Person user = saveUser("carol", "ROLE_USER");
+            when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(-2L);
+
+            mvc.perform(put("/cart/items/3")
+                            .with(authentication(auth(user)))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"quantity\":500}"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value("Quantity of a product cannot exceed 99"));
+        }
+
+        @Test
+        void clear_returns204() throws Exception {
+            Person user = saveUser("carol", "ROLE_USER");
+
+            mvc.perform(delete("/cart").with(authentication(auth(user))))
+                    .andExpect(status().isNoContent());
+            verify(redisTemplate).delete("cart:" + user.getId());
+        }
+
+        @Test
+        void cart_unauthenticated_returns401() throws Exception {
+            mvc.perform(get("/cart"))
+                    .andExpect(status().isUnauthorized());
+        }
+
+        @Test
+        void cart_admin_returns403() throws Exception {
+            Person admin = saveUser("root", "ROLE_ADMIN");
+
+            mvc.perform(get("/cart").with(authentication(auth(admin))))
+                    .andExpect(status().isForbidden());
+        }
+    }
+
+    @Nested
+    class methodViewCartTests {
+
+        @Test
+        void getCart_enrichesLinesWithProducts() throws Exception {
+            Person user = saveUser("carol", "ROLE_USER");
+            Product phone = saveProduct("Phone", true, "100.00");
+            Product old = saveProduct("Old", false, "5.00");
+            when(hashOperations.entries("cart:" + user.getId())).thenReturn(Map.of(
+                    String.valueOf(phone.getId()), "2",
+                    String.valueOf(old.getId()), "1"));
+
+            mvc.perform(get("/cart").with(authentication(auth(user))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items", hasSize(2)))
+                    .andExpect(jsonPath("$.items[0].productName").value("Phone"))
+                    .andExpect(jsonPath("$.items[0].available").value(true))
+                    .andExpect(jsonPath("$.items[1].available").value(false))
+                    .andExpect(jsonPath("$.totalQuantity").value(3))
+                    .andExpect(jsonPath("$.total").value(200.00));
+        }
+    }
+
+    @Nested
+    class methodCheckoutTests {
+
+        @Test
+        void checkout_success_createsOrderAndDropsClaimedCart() throws Exception {
+            Person user = saveUser("carol", "ROLE_USER");
+            Product phone = saveProduct("Phone", true, "100.00");
+            Product cable = saveProduct("Cable", true, "9.00");
+            Address addr = saveAddress();
+
+            when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(1L);
+            when(hashOperations.entries(startsWith("cart:" + user.getId() + ":checkout:"))).thenReturn(Map.of(
+                    String.valueOf(phone.getId()), "1",
+                    String.valueOf(cable.getId()), "2"));
+
+            mvc.perform(post("/cart/checkout")
+                            .with(authentication(auth(user)))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(Map.of("addressId", addr.getId()))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.status").value("PENDING"))
+                    .andExpect(jsonPath("$.items", hasSize(3)))
+                    .andExpect(jsonPath("$.address.city").value("Berlin"));
+
+            assertEquals(1, orderRepository.count());
+
+            @SuppressWarnings("unchecked")
+            ArgumentCaptor<List<String>> keys = ArgumentCaptor.forClass(List.class);
+            verify(redisTemplate).execute(any(RedisScript.class), keys.capture(), any(Object[].class));
+            verify(redisTemplate).delete(keys.getValue().get(1));
+        }
+
+        @Test
+        void checkout_unavailableProduct_returns400_andRestoresCart() throws Exception {
+            Person user = saveUser("carol", "ROLE_USER");
+            Product old = saveProduct("Old", false, "5.00");
+            Address addr = saveAddress();
+
+            when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(1L);
+            when(hashOperations.entries(startsWith("cart:" + user.getId() + ":checkout:")))
+                    .thenReturn(Map.of(String.valueOf(old.getId()), "1"));
+
+            mvc.perform(post("/cart/checkout")
+                            .with(authentication(auth(user)))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(Map.of("addressId", addr.getId()))))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value("Some products are not available for order"));
+
+            assertEquals(0, orderRepository.count());
+            @SuppressWarnings("unchecked")
+            ArgumentCaptor<RedisScript<Long>> scripts = ArgumentCaptor.forClass(RedisScript.class);
+            verify(redisTemplate, times(2)).execute(scripts.capture(), anyList(), any(Object[].class));
+            assertTrue(scripts.getAllValues().get(1).getScriptAsString().contains("HINCRBY"));
+            verify(redisTemplate, never()).delete(anyString());
+        }
+
+        @Test
+        void checkout_emptyCart_returns400() throws Exception {
+            Person user = saveUser("carol", "ROLE_USER");
+            when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(0L);
+
+            mvc.perform(post("/cart/checkout")
+                            .with(authentication(auth(user)))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"pickupLocationId\":1}"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value("Your cart is empty"));
+        }
+
+        @Test
+        void checkout_bothDeliveryOptions_returns400() throws Exception {
+            Person user = saveUser("carol", "ROLE_USER");
+
+            mvc.perform(post("/cart/checkout")
+                            .with(authentication(auth(user)))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"addressId\":1,\"pickupLocationId\":1}"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message", containsString("Cannot use both delivery types")));
+            verify(redisTemplate, never()).execute(any(RedisScript.class), anyList(), any(Object[].class));
+        }
+    }
+}
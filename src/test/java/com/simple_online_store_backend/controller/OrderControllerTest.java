@@ -3,33 +3,58 @@ package com.simple_online_store_backend.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.simple_online_store_backend.entity.Address;
 import com.simple_online_store_backend.entity.Order;
+import com.simple_online_store_backend.entity.OutboxEvent;
 import com.simple_online_store_backend.entity.Person;
+import com.simple_online_store_backend.entity.PickupLocation;
+import com.simple_online_store_backend.entity.PickupSlot;
 import com.simple_online_store_backend.entity.Product;
+import com.simple_online_store_backend.enums.OrderEventType;
 import com.simple_online_store_backend.enums.OrderStatus;
 import com.simple_online_store_backend.enums.ProductCategory;
+import com.simple_online_store_backend.exception.ValidationException;
 import com.simple_online_store_backend.repository.AddressRepository;
+import com.simple_online_store_backend.repository.ArchivedOrderRepository;
 import com.simple_online_store_backend.repository.OrderRepository;
+import com.simple_online_store_backend.repository.OutboxEventRepository;
 import com.simple_online_store_backend.repository.PeopleRepository;
+import com.simple_online_store_backend.repository.PickupLocationRepository;
+import com.simple_online_store_backend.repository.PickupSlotRepository;
 import com.simple_online_store_backend.repository.ProductRepository;
 import com.simple_online_store_backend.security.PersonDetails;
+import com.simple_online_store_backend.service.OrderArchivalService;
+import com.simple_online_store_backend.service.OrderExpiryService;
+import com.simple_online_store_backend.service.OrderSearchService;
 import com.simple_online_store_backend.service.OrderService;
+import com.simple_online_store_backend.service.OrderStatusCounterService;
+import com.simple_online_store_backend.service.OrderStatusStreamService;
+import com.simple_online_store_backend.service.OutboxService;
+import com.simple_online_store_backend.service.outbox.OutboxPublisher;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.*;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.Mockito.doThrow;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
@@ -47,13 +72,27 @@ class OrderControllerTest {
     @Autowired PeopleRepository peopleRepository;
     @MockitoSpyBean OrderRepository orderRepository;
     @Autowired ProductRepository productRepository;
+    @Autowired PickupLocationRepository pickupLocationRepository;
+    @Autowired PickupSlotRepository pickupSlotRepository;
     @Autowired AddressRepository addressRepository;
+    @Autowired OutboxEventRepository outboxEventRepository;
+    @Autowired OutboxPublisher outboxPublisher;
+    @Autowired ArchivedOrderRepository archivedOrderRepository;
+    @Autowired OrderArchivalService orderArchivalService;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired OrderStatusCounterService orderStatusCounterService;
+    @Autowired OutboxService outboxService;
+    @Autowired MeterRegistry meterRegistry;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired EntityManagerFactory entityManagerFactory;
+    TransactionTemplate transactionTemplate;
 
     @MockitoSpyBean
     OrderService orderService;
 
     @BeforeEach
     void setup() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
         orderRepository.deleteAll();
         peopleRepository.deleteAll();
         Mockito.reset(orderService);
@@ -322,6 +361,45 @@ class OrderControllerTest {
             return r;
         }
 
+        @Test
+        void createOrder_reusesAuthenticatedOwner_andLoadsProductsInOneQuery() throws Exception {
+            Person user = saveUser("quinn", "quinn@example.com", "ROLE_USER", false);
+            Product p1 = saveProduct("Keyboard", true, new BigDecimal("49.00"));
+            Product p2 = saveProduct("Mouse", true, new BigDecimal("19.00"));
+            Product p3 = saveProduct("Pad", true, new BigDecimal("9.00"));
+            Address addr = saveAddress("Berlin", "Main Street", "12A", "45", "10115");
+
+            Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            stats.setStatisticsEnabled(true);
+            try {
+                stats.clear();
+                createOrderFor(user, List.of(p1.getId()), addr.getId());
+                long singleItem = stats.getPrepareStatementCount();
+
+                stats.clear();
+                createOrderFor(user, List.of(p1.getId(), p2.getId(), p3.getId(), p3.getId()), addr.getId());
+                long fourItems = stats.getPrepareStatementCount();
+
+                assertEquals(0, stats.getEntityStatistics(Person.class.getName()).getLoadCount(),
+                        "owner must come from the request context, not from another SELECT");
+                assertEquals(3, stats.getEntityStatistics(Product.class.getName()).getLoadCount());
+                // Only the three extra order_products rows differ; product lookups stay a single IN query
+                assertEquals(singleItem + 3, fourItems);
+            } finally {
+                stats.setStatisticsEnabled(false);
+            }
+        }
+
+        private void createOrderFor(Person user, List<Integer> productIds, Integer addressId) throws Exception {
+            mvc.perform(post("/orders/create-order")
+                            .with(authentication(auth(user)))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(json(req(productIds, addressId, null))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.ownerUserName").value(user.getUserName()))
+                    .andExpect(jsonPath("$.items", hasSize(productIds.size())));
+        }
+
         @Test
         void createOrder_success_withAddress_returns200() throws Exception {
             Person user = saveUser("maria", "maria@example.com", "ROLE_USER", false);
@@ -822,5 +900,1153 @@ class OrderControllerTest {
                     )));
         }
     }
-}
 
+    @Nested
+    class orderOutboxTests {
+
+        @BeforeEach
+        void clean() {
+            outboxEventRepository.deleteAll();
+            productRepository.deleteAll();
+            Mockito.reset(orderService, orderRepository);
+            SecurityContextHolder.clearContext();
+        }
+
+        @Test
+        void lifecycle_writesOutboxEvents_andPublisherDrainsThem() throws Exception {
+            Person user = saveUser("outbox", "outbox@example.com", "ROLE_USER");
+            Product product = new Product();
+            product.setProductName("Outbox phone");
+            product.setProductDescription("Outbox phone desc");
+            product.setProductCategory(ProductCategory.SMARTPHONES);
+            product.setPrice(new BigDecimal("100.00"));
+            product.setAvailability(true);
+            productRepository.save(product);
+
+            var req = new com.simple_online_store_backend.dto.order.OrderCreateRequest();
+            req.setProductIds(List.of(product.getId()));
+            req.setPickupLocationId(1);
+
+            String body = mvc.perform(post("/orders/create-order")
+                            .with(authentication(auth(user)))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(req)))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            int orderId = objectMapper.readTree(body).get("id").asInt();
+
+            mvc.perform(patch("/orders/{id}/cancel-order", orderId).with(authentication(auth(user))))
+                    .andExpect(status().isOk());
+            mvc.perform(patch("/orders/{id}/reactivate-order", orderId).with(authentication(auth(user))))
+                    .andExpect(status().isOk());
+
+            var events = outboxEventRepository.findAll();
+            assertThat(events, hasSize(3));
+            assertThat(events.stream().map(OutboxEvent::getEventType).toList(), contains(
+                    OrderEventType.ORDER_CREATED, OrderEventType.ORDER_CANCELLED, OrderEventType.ORDER_REACTIVATED));
+            assertThat(events.get(0).getAggregateId(), equalTo(orderId));
+            assertThat(events.get(0).getPayload(), containsString("\"productIds\":[" + product.getId() + "]"));
+            assertThat(outboxEventRepository.countByPublishedAtIsNull(), equalTo(3L));
+
+            assertThat(outboxPublisher.publishPendingEvents(), equalTo(3));
+            assertThat(outboxEventRepository.countByPublishedAtIsNull(), equalTo(0L));
+            assertThat(outboxPublisher.publishPendingEvents(), equalTo(0));
+        }
+
+        @Test
+        void failedCancel_doesNotWriteOutboxEvent() throws Exception {
+            Person user = saveUser("outbox2", "outbox2@example.com", "ROLE_USER");
+            Order delivered = order(user, OrderStatus.DELIVERED);
+
+            mvc.perform(patch("/orders/{id}/cancel-order", delivered.getId()).with(authentication(auth(user))))
+                    .andExpect(status().isBadRequest());
+
+            assertThat(outboxEventRepository.count(), equalTo(0L));
+        }
+    }
+
+    @Nested
+    class methodBulkStatusTests {
+
+        @BeforeEach
+        void clean() {
+            Mockito.reset(orderService, orderRepository);
+            SecurityContextHolder.clearContext();
+        }
+
+        private String body(String targetStatus, List<Integer> ids, String fromStatus) throws Exception {
+            var map = new java.util.LinkedHashMap<String, Object>();
+            map.put("targetStatus", targetStatus);
+            if (ids != null) map.put("orderIds", ids);
+            if (fromStatus != null) map.put("fromStatus", fromStatus);
+            return objectMapper.writeValueAsString(map);
+        }
+
+        @Test
+        void bulkStatus_byIds_reportsPerIdOutcomes_andUpdatesRows() throws Exception {
+            Person admin = saveUser("admin", "admin@example.com", "ROLE_ADMIN");
+            Person user = saveUser("wave", "wave@example.com", "ROLE_USER");
+            Order processing = order(user, OrderStatus.PROCESSING);
+            Order pending = order(user, OrderStatus.PENDING);
+
+            mvc.perform(patch("/orders/bulk-status")
+                            .with(authentication(auth(admin)))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(body("SHIPPED", List.of(processing.getId(), pending.getId(), 999999), null)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.targetStatus").value("SHIPPED"))
+                    .andExpect(jsonPath("$.processed").value(3))
+                    .andExpect(jsonPath("$.updated").value(1))
+                    .andExpect(jsonPath("$.invalidTransition").value(1))
+                    .andExpect(jsonPath("$.notFound").value(1))
+                    .andExpect(jsonPath("$.results[0].outcome").value("UPDATED"))
+                    .andExpect(jsonPath("$.results[0].previousStatus").value("PROCESSING"))
+                    .andExpect(jsonPath("$.results[1].outcome").value("INVALID_TRANSITION"))
+                    .andExpect(jsonPath("$.results[2].outcome").value("NOT_FOUND"));
+
+            assertThat(orderRepository.findById(processing.getId()).orElseThrow().getStatus(), equalTo(OrderStatus.SHIPPED));
+            assertThat(orderRepository.findById(pending.getId()).orElseThrow().getStatus(), equalTo(OrderStatus.PENDING));
+        }
+
+        @Test
+        void bulkStatus_byFilter_movesAllMatchingOrders() throws Exception {
+            Person admin = saveUser("admin", "admin@example.com", "ROLE_ADMIN");
+            Person user = saveUser("wave", "wave@example.com", "ROLE_USER");
+            Order s1 = order(user, OrderStatus.SHIPPED);
+            Order s2 = order(user, OrderStatus.SHIPPED);
+            Order other = order(user, OrderStatus.PENDING);
+
+            mvc.perform(patch("/orders/bulk-status")
+                            .with(authentication(auth(admin)))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(body("DELIVERED", null, "SHIPPED")))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.updated").value(2))
+                    .andExpect(jsonPath("$.results[*].orderId", containsInAnyOrder(s1.getId(), s2.getId())));
+
+            assertThat(orderRepository.findById(other.getId()).orElseThrow().getStatus(), equalTo(OrderStatus.PENDING));
+        }
+
+        @Test
+        void bulkStatus_invalidTransition_returns400() throws Exception {
+            Person admin = saveUser("admin", "admin@example.com", "ROLE_ADMIN");
+
+            mvc.perform(patch("/orders/bulk-status")
+                            .with(authentication(auth(admin)))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(body("DELIVERED", null, "PENDING")))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.code").value("VALIDATION_ERROR"))
+                    .andExpect(jsonPath("$.path").value("/orders/bulk-status"));
+        }
+
+        @Test
+        void bulkStatus_missingTarget_returns400() throws Exception {
+            Person admin = saveUser("admin", "admin@example.com", "ROLE_ADMIN");
+
+            mvc.perform(patch("/orders/bulk-status")
+                            .with(authentication(auth(admin)))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"orderIds\":[1]}"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.code").value("VALIDATION_ERROR"));
+        }
+
+        @Test
+        void bulkStatus_user_returns403() throws Exception {
+            Person user = saveUser("wave", "wave@example.com", "ROLE_USER");
+
+            mvc.perform(patch("/orders/bulk-status")
+                            .with(authentication(auth(user)))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(body("SHIPPED", List.of(1), null)))
+                    .andExpect(status().isForbidden())
+                    .andExpect(jsonPath("$.code", anyOf(equalTo("ACCESS_DENIED"), equalTo("FORBIDDEN"))));
+        }
+
+        @Test
+        void bulkStatus_unauthorized_returns401() throws Exception {
+            mvc.perform(patch("/orders/bulk-status")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(body("SHIPPED", List.of(1), null)))
+                    .andExpect(status().isUnauthorized());
+        }
+    }
+
+    @Nested
+    class orderConcurrencyTests {
+
+        @BeforeEach
+        void clean() {
+            outboxEventRepository.deleteAll();
+            Mockito.reset(orderService, orderRepository);
+            SecurityContextHolder.clearContext();
+        }
+
+        @Test
+        void parallelCancelAndReactivate_loseNoUpdates() throws Exception {
+            Person user = saveUser("racer", "racer@example.com", "ROLE_USER");
+            Order order = order(user, OrderStatus.PENDING);
+            var principal = auth(user);
+
+            int threadsPerAction = 4;
+            int rounds = 5;
+            var ok = new java.util.concurrent.ConcurrentHashMap<String, java.util.concurrent.atomic.AtomicInteger>();
+            var unexpected = new java.util.concurrent.ConcurrentLinkedQueue<Integer>();
+            var start = new java.util.concurrent.CountDownLatch(1);
+            var pool = java.util.concurrent.Executors.newFixedThreadPool(threadsPerAction * 2);
+            var futures = new java.util.ArrayList<java.util.concurrent.Future<?>>();
+
+            for (String action : List.of("cancel-order", "reactivate-order")) {
+                for (int t = 0; t < threadsPerAction; t++) {
+                    futures.add(pool.submit(() -> {
+                        start.await();
+                        for (int i = 0; i < rounds; i++) {
+                            int code = mvc.perform(patch("/orders/{id}/" + action, order.getId())
+                                            .with(authentication(principal)))
+                                    .andReturn().getResponse().getStatus();
+                            if (code == 200) {
+                                ok.computeIfAbsent(action, k -> new java.util.concurrent.atomic.AtomicInteger()).incrementAndGet();
+                            } else if (code != 400 && code != 409) {
+                                unexpected.add(code);
+                            }
+                        }
+                        return null;
+                    }));
+                }
+            }
+            start.countDown();
+            for (var f : futures) {
+                f.get(60, java.util.concurrent.TimeUnit.SECONDS);
+            }
+            pool.shutdown();
+
+            assertThat(unexpected, empty());
+            int cancelled = ok.getOrDefault("cancel-order", new java.util.concurrent.atomic.AtomicInteger()).get();
+            int reactivated = ok.getOrDefault("reactivate-order", new java.util.concurrent.atomic.AtomicInteger()).get();
+
+            // Every successful transition must be visible: strict alternation starting from PENDING
+            Order reloaded = orderRepository.findById(order.getId()).orElseThrow();
+            assertThat(cancelled - reactivated, anyOf(equalTo(0), equalTo(1)));
+            assertThat(reloaded.getStatus(), equalTo(cancelled == reactivated ? OrderStatus.PENDING : OrderStatus.CANCELLED));
+            assertThat(reloaded.getVersion(), equalTo((long) (cancelled + reactivated)));
+
+            var events = outboxEventRepository.findAll().stream()
+                    .filter(e -> order.getId().equals(e.getAggregateId()))
+                    .toList();
+            assertThat(events.stream().filter(e -> e.getEventType() == OrderEventType.ORDER_CANCELLED).count(), equalTo((long) cancelled));
+            assertThat(events.stream().filter(e -> e.getEventType() == OrderEventType.ORDER_REACTIVATED).count(), equalTo((long) reactivated));
+        }
+
+        @Test
+        void cancel_whenConflictsPersist_returns409() throws Exception {
+            Person user = saveUser("loser", "loser@example.com", "ROLE_USER");
+            Order order = order(user, OrderStatus.PENDING);
+            Mockito.clearInvocations(orderRepository);
+
+            Mockito.doThrow(new org.springframework.orm.ObjectOptimisticLockingFailureException(Order.class, order.getId()))
+                    .when(orderRepository).save(Mockito.any(Order.class));
+
+            mvc.perform(patch("/orders/{id}/cancel-order", order.getId())
+                            .with(authentication(auth(user))))
+                    .andExpect(status().isConflict())
+                    .andExpect(jsonPath("$.code").value("CONCURRENT_MODIFICATION"))
+                    .andExpect(jsonPath("$.path").value("/orders/" + order.getId() + "/cancel-order"));
+
+            Mockito.verify(orderRepository, Mockito.times(4)).save(Mockito.any(Order.class));
+            assertThat(orderRepository.findById(order.getId()).orElseThrow().getStatus(), equalTo(OrderStatus.PENDING));
+        }
+    }
+
+    @Nested
+    class orderArchiveTests {
+
+        @BeforeEach
+        void clean() {
+            archivedOrderRepository.deleteAll();
+            productRepository.deleteAll();
+            Mockito.reset(orderService, orderRepository);
+            SecurityContextHolder.clearContext();
+        }
+
+        @AfterEach
+        void dropArchive() {
+            archivedOrderRepository.deleteAll();
+        }
+
+        private Order finishedOrder(Person owner, OrderStatus status, int daysAgo, Product product) {
+            Order o = new Order();
+            o.setPerson(owner);
+            o.setStatus(status);
+            o.setProducts(new java.util.ArrayList<>(List.of(product)));
+            Order saved = orderRepository.save(o);
+            jdbcTemplate.update("UPDATE orders SET updated_at = ? WHERE id = ?",
+                    java.time.LocalDateTime.now().minusDays(daysAgo), saved.getId());
+            return saved;
+        }
+
+        @Test
+        void archival_movesOldFinishedOrders_andReadsFallBackToArchive() throws Exception {
+            Person user = saveUser("archie", "archie@example.com", "ROLE_USER");
+            Product product = new Product();
+            product.setProductName("Archive phone");
+            product.setProductDescription("Archive phone desc");
+            product.setProductCategory(ProductCategory.SMARTPHONES);
+            product.setPrice(new BigDecimal("55.00"));
+            product.setAvailability(true);
+            productRepository.save(product);
+
+            Order oldDelivered = finishedOrder(user, OrderStatus.DELIVERED, 400, product);
+            Order oldCancelled = finishedOrder(user, OrderStatus.CANCELLED, 200, product);
+            Order recentDelivered = finishedOrder(user, OrderStatus.DELIVERED, 10, product);
+            Order oldPending = finishedOrder(user, OrderStatus.PENDING, 400, product);
+
+            assertThat(orderArchivalService.archiveFinishedOrders(), equalTo(2));
+
+            assertThat(orderRepository.findById(oldDelivered.getId()).isPresent(), equalTo(false));
+            assertThat(orderRepository.findById(oldCancelled.getId()).isPresent(), equalTo(false));
+            assertThat(orderRepository.findById(recentDelivered.getId()).isPresent(), equalTo(true));
+            assertThat(orderRepository.findById(oldPending.getId()).isPresent(), equalTo(true));
+            assertThat(jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM orders_products WHERE order_id = ?", Integer.class, oldDelivered.getId()), equalTo(0));
+
+            mvc.perform(get("/orders/{id}", oldDelivered.getId())
+                            .with(authentication(auth(user))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.id").value(oldDelivered.getId()))
+                    .andExpect(jsonPath("$.status").value("DELIVERED"))
+                    .andExpect(jsonPath("$.items[0].productId").value(product.getId()))
+                    .andExpect(jsonPath("$.items[0].productName").value("Archive phone"));
+
+            mvc.perform(get("/orders/all-my-orders")
+                            .with(authentication(auth(user))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(4)))
+                    .andExpect(jsonPath("$[*].id", containsInAnyOrder(oldDelivered.getId(), oldCancelled.getId(),
+                            recentDelivered.getId(), oldPending.getId())));
+
+            // Nothing left to move on a second run
+            assertThat(orderArchivalService.archiveFinishedOrders(), equalTo(0));
+        }
+
+        @Test
+        void archivedOrder_ofAnotherUser_isForbidden() throws Exception {
+            Person owner = saveUser("owner", "owner@example.com", "ROLE_USER");
+            Person stranger = saveUser("stranger", "stranger@example.com", "ROLE_USER");
+            Product product = new Product();
+            product.setProductName("Archive tablet");
+            product.setProductDescription("Archive tablet desc");
+            product.setProductCategory(ProductCategory.SMARTPHONES);
+            product.setPrice(new BigDecimal("75.00"));
+            product.setAvailability(true);
+            productRepository.save(product);
+            Order old = finishedOrder(owner, OrderStatus.CANCELLED, 400, product);
+
+            orderArchivalService.archiveFinishedOrders();
+
+            mvc.perform(get("/orders/{id}", old.getId())
+                            .with(authentication(auth(stranger))))
+                    .andExpect(status().isForbidden());
+        }
+
+        @Test
+        void archivedOrder_cannotBeReactivated_returns409() throws Exception {
+            Person owner = saveUser("archived_owner", "archived_owner@example.com", "ROLE_USER");
+            Product product = new Product();
+            product.setProductName("Archive watch");
+            product.setProductDescription("Archive watch desc");
+            product.setProductCategory(ProductCategory.WEARABLES);
+            product.setPrice(new BigDecimal("95.00"));
+            product.setAvailability(true);
+            productRepository.save(product);
+            Order old = finishedOrder(owner, OrderStatus.CANCELLED, 400, product);
+
+            orderArchivalService.archiveFinishedOrders();
+
+            mvc.perform(patch("/orders/{id}/reactivate-order", old.getId())
+                            .with(authentication(auth(owner))))
+                    .andExpect(status().isConflict())
+                    .andExpect(jsonPath("$.code").value("ORDER_ARCHIVED"))
+                    .andExpect(jsonPath("$.message").value("Order " + old.getId() + " is archived and can no longer be changed"));
+        }
+    }
+
+    @Nested
+    class orderStatusCountsTests {
+
+        @BeforeEach
+        void seed() {
+            orderStatusCounterService.resync();
+        }
+
+        @Test
+        void statusCounts_followTransitions_withoutRecounting() throws Exception {
+            Person admin = saveUser("counter_admin", "counter_admin@example.com", "ROLE_ADMIN");
+            Person owner = saveUser("counter_user", "counter_user@example.com", "ROLE_USER");
+            order(owner, OrderStatus.PENDING);
+            Order toCancel = order(owner, OrderStatus.PENDING);
+            orderStatusCounterService.resync();
+
+            mvc.perform(get("/orders/status-counts").with(authentication(auth(admin))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.source").value("LOCAL"))
+                    .andExpect(jsonPath("$.counts.PENDING").value(2))
+                    .andExpect(jsonPath("$.counts.CANCELLED").value(0))
+                    .andExpect(jsonPath("$.total").value(2));
+
+            mvc.perform(patch("/orders/{id}/cancel-order", toCancel.getId()).with(authentication(auth(owner))))
+                    .andExpect(status().isOk());
+
+            Mockito.clearInvocations(orderRepository);
+            mvc.perform(get("/orders/status-counts").with(authentication(auth(admin))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.counts.PENDING").value(1))
+                    .andExpect(jsonPath("$.counts.CANCELLED").value(1))
+                    .andExpect(jsonPath("$.total").value(2));
+            Mockito.verify(orderRepository, Mockito.never()).countGroupedByStatus();
+        }
+
+        @Test
+        void statusCounts_rolledBackTransition_isNotCounted() {
+            Person owner = saveUser("rollback_user", "rollback_user@example.com", "ROLE_USER");
+            Order ord = order(owner, OrderStatus.PENDING);
+            orderStatusCounterService.resync();
+
+            assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+                outboxService.recordStatusChange(ord.getId(), owner.getId(), OrderStatus.PENDING, OrderStatus.PROCESSING);
+                throw new IllegalStateException("rollback");
+            }));
+
+            assertThat(orderStatusCounterService.localCounts().get(OrderStatus.PENDING), is(1L));
+            assertThat(orderStatusCounterService.localCounts().get(OrderStatus.PROCESSING), is(0L));
+        }
+
+        @Test
+        void statusCounts_exportedAsGauges() {
+            Person owner = saveUser("gauge_user", "gauge_user@example.com", "ROLE_USER");
+            order(owner, OrderStatus.SHIPPED);
+            orderStatusCounterService.resync();
+
+            assertThat(meterRegistry.get("orders.status.count").tag("status", "SHIPPED").gauge().value(), is(1.0));
+        }
+
+        @Test
+        void statusCounts_asUser_returns403() throws Exception {
+            Person user = saveUser("counter_plain", "counter_plain@example.com", "ROLE_USER");
+
+            mvc.perform(get("/orders/status-counts").with(authentication(auth(user))))
+                    .andExpect(status().isForbidden());
+        }
+    }
+
+    @Nested
+    class orderExportTests {
+        Person admin;
+        Person owner;
+        Order withItems;
+        Order cancelled;
+
+        @BeforeEach
+        void data() {
+            admin = saveUser("export_admin", "export_admin@example.com", "ROLE_ADMIN");
+            owner = saveUser("export_user", "export_user@example.com", "ROLE_USER");
+
+            Product phone = new Product();
+            phone.setProductName("Export phone");
+            phone.setProductDescription("Phone, with comma");
+            phone.setProductCategory(ProductCategory.SMARTPHONES);
+            phone.setPrice(new BigDecimal("499.99"));
+            phone.setAvailability(true);
+            phone = productRepository.save(phone);
+
+            // Addresses are unique by fingerprint and other test classes may have left this one behind
+            Address address = addressRepository.findByFingerprint(Address.fingerprintOf("Berlin", "Main Street", "12A", "45"))
+                    .orElseGet(() -> {
+                        Address a = new Address();
+                        a.setCity("Berlin");
+                        a.setStreet("Main Street");
+                        a.setHouseNumber("12A");
+                        a.setApartment("45");
+                        a.setPostalCode("10115");
+                        return addressRepository.save(a);
+                    });
+
+            Order o = new Order();
+            o.setPerson(owner);
+            o.setStatus(OrderStatus.PENDING);
+            o.setAddress(address);
+            o.setProducts(new java.util.ArrayList<>(List.of(phone, phone)));
+            withItems = orderRepository.save(o);
+            cancelled = order(owner, OrderStatus.CANCELLED);
+        }
+
+        private org.springframework.mock.web.MockHttpServletResponse export(String... params) throws Exception {
+            var builder = get("/orders/export").with(authentication(auth(admin)));
+            for (int i = 0; i < params.length; i += 2) {
+                builder.param(params[i], params[i + 1]);
+            }
+            var started = mvc.perform(builder)
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            return mvc.perform(asyncDispatch(started))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse();
+        }
+
+        @Test
+        void export_csv_oneLinePerOrderWithItems() throws Exception {
+            var response = export("format", "CSV");
+
+            assertThat(response.getContentType(), startsWith("text/csv"));
+            assertThat(response.getHeader("Content-Disposition"), containsString("orders.csv"));
+            String[] lines = response.getContentAsString().split("\n");
+            assertThat(lines.length, is(3));
+            assertThat(lines[0], startsWith("order_id,status,created_at"));
+            assertThat(lines[1], startsWith(withItems.getId() + ",PENDING,"));
+            assertThat(lines[1], containsString("export_user,export_user@example.com,COURIER,"));
+            assertThat(lines[1], containsString("\"Berlin, Main Street 12A, apt 45, 10115\",2,999.98,"));
+            assertThat(lines[2], startsWith(cancelled.getId() + ",CANCELLED,"));
+            assertThat(lines[2], containsString(",0,0,"));
+        }
+
+        @Test
+        void export_ndjson_withStatusFilter() throws Exception {
+            var response = export("format", "NDJSON", "status", "PENDING");
+
+            String[] lines = response.getContentAsString().split("\n");
+            assertThat(lines.length, is(1));
+            var node = objectMapper.readTree(lines[0]);
+            assertThat(node.get("id").asInt(), is(withItems.getId()));
+            assertThat(node.get("customer").get("userName").asText(), is("export_user"));
+            assertThat(node.get("deliveryType").asText(), is("COURIER"));
+            assertThat(node.get("items").size(), is(2));
+            assertThat(node.get("items").get(0).get("category").asText(), is("SMARTPHONES"));
+            assertThat(node.get("total").decimalValue(), comparesEqualTo(new BigDecimal("999.98")));
+        }
+
+        @Test
+        void export_gzip_isDecompressible() throws Exception {
+            var response = export("format", "CSV", "gzip", "true");
+
+            assertThat(response.getContentType(), is("application/gzip"));
+            assertThat(response.getHeader("Content-Disposition"), containsString("orders.csv.gz"));
+            try (var in = new java.util.zip.GZIPInputStream(new java.io.ByteArrayInputStream(response.getContentAsByteArray()))) {
+                String csv = new String(in.readAllBytes(), java.nio.charset.StandardCharsets.UTF_8);
+                assertThat(csv.split("\n").length, is(3));
+            }
+        }
+
+        @Test
+        void export_dateRangeExcludingEverything_returnsHeaderOnly() throws Exception {
+            var response = export("from", "2000-01-01", "to", "2000-01-31");
+
+            String[] lines = response.getContentAsString().split("\\n");
+            assertThat(lines.length, is(1));
+            assertThat(lines[0], startsWith("order_id,status,"));
+        }
+
+        @Test
+        void export_includesArchivedOrders_unlessExcluded() throws Exception {
+            jdbcTemplate.update("UPDATE orders SET updated_at = ? WHERE id = ?",
+                    java.time.LocalDateTime.now().minusDays(400), cancelled.getId());
+            try {
+                assertThat(orderArchivalService.archiveFinishedOrders(), equalTo(1));
+                assertThat(orderRepository.findById(cancelled.getId()).isPresent(), equalTo(false));
+
+                String[] lines = export("format", "CSV").getContentAsString().split("\n");
+                assertThat(lines.length, is(3));
+                assertThat(lines[1], startsWith(withItems.getId() + ",PENDING,"));
+                assertThat(lines[2], startsWith(cancelled.getId() + ",CANCELLED,"));
+                assertThat(lines[2], containsString("export_user,export_user@example.com,"));
+
+                lines = export("format", "CSV", "includeArchived", "false").getContentAsString().split("\n");
+                assertThat(lines.length, is(2));
+                assertThat(lines[1], startsWith(withItems.getId() + ",PENDING,"));
+            } finally {
+                archivedOrderRepository.deleteAll();
+            }
+        }
+
+        @Test
+        void export_invertedRange_returns400() throws Exception {
+            mvc.perform(get("/orders/export")
+                            .param("from", "2025-02-01")
+                            .param("to", "2025-01-01")
+                            .with(authentication(auth(admin))))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.code").value("VALIDATION_ERROR"));
+        }
+
+        @Test
+        void export_asUser_returns403() throws Exception {
+            mvc.perform(get("/orders/export").with(authentication(auth(owner))))
+                    .andExpect(status().isForbidden());
+        }
+    }
+
+    @Nested
+    class orderSearchTests {
+        @Autowired org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate namedJdbc;
+
+        Person admin;
+        Person anna;
+        Person annie;
+        Person bob;
+
+        @BeforeEach
+        void data() {
+            admin = saveUser("search_admin", "search_admin@example.com", "ROLE_ADMIN");
+            anna = saveUser("anna", "anna@example.com", "ROLE_USER");
+            annie = saveUser("annie", "annie@example.com", "ROLE_USER");
+            bob = saveUser("bob", "bob@example.com", "ROLE_USER");
+        }
+
+        private Order orderAt(Person owner, OrderStatus status, String createdAt) {
+            Order o = order(owner, status);
+            jdbcTemplate.update("UPDATE orders SET created_at = ? WHERE id = ?",
+                    java.sql.Timestamp.valueOf(java.time.LocalDateTime.parse(createdAt)), o.getId());
+            return o;
+        }
+
+        @Test
+        void search_byUsernamePrefix_returnsNewestFirst() throws Exception {
+            Order a1 = orderAt(anna, OrderStatus.PENDING, "2025-03-01T10:00:00");
+            Order a2 = orderAt(annie, OrderStatus.DELIVERED, "2025-03-02T10:00:00");
+            orderAt(bob, OrderStatus.PENDING, "2025-03-03T10:00:00");
+
+            mvc.perform(get("/orders/search").param("username", "ann")
+                            .with(authentication(auth(admin))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items", hasSize(2)))
+                    .andExpect(jsonPath("$.items[0].id").value(a2.getId()))
+                    .andExpect(jsonPath("$.items[0].customerUserName").value("annie"))
+                    .andExpect(jsonPath("$.items[1].id").value(a1.getId()))
+                    .andExpect(jsonPath("$.items[1].createdAt").value("2025-03-01T10:00:00"))
+                    .andExpect(jsonPath("$.nextCursor").doesNotExist());
+        }
+
+        @Test
+        void search_usernamePrefix_ignoresCase() throws Exception {
+            Order a1 = orderAt(anna, OrderStatus.PENDING, "2025-03-01T10:00:00");
+
+            mvc.perform(get("/orders/search").param("username", "ANN").param("status", "PENDING")
+                            .with(authentication(auth(admin))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items", hasSize(1)))
+                    .andExpect(jsonPath("$.items[0].id").value(a1.getId()));
+        }
+
+        @Test
+        void search_prefixWildcardsAreLiteral() throws Exception {
+            orderAt(anna, OrderStatus.PENDING, "2025-03-01T10:00:00");
+
+            mvc.perform(get("/orders/search").param("username", "%")
+                            .with(authentication(auth(admin))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items", hasSize(0)));
+        }
+
+        @Test
+        void search_byStatusAndDateRange() throws Exception {
+            orderAt(anna, OrderStatus.PENDING, "2025-02-28T23:59:59");
+            Order inRange = orderAt(bob, OrderStatus.PENDING, "2025-03-05T12:00:00");
+            orderAt(bob, OrderStatus.CANCELLED, "2025-03-06T12:00:00");
+            orderAt(annie, OrderStatus.PENDING, "2025-04-01T00:00:00");
+
+            mvc.perform(get("/orders/search")
+                            .param("status", "PENDING")
+                            .param("from", "2025-03-01")
+                            .param("to", "2025-03-31")
+                            .with(authentication(auth(admin))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items", hasSize(1)))
+                    .andExpect(jsonPath("$.items[0].id").value(inRange.getId()))
+                    .andExpect(jsonPath("$.items[0].customerId").value(bob.getId()));
+        }
+
+        @Test
+        void search_keysetPages_coverAllRowsOnce() throws Exception {
+            // Two orders share a timestamp so the id tie-breaker is exercised at a page boundary
+            Order o1 = orderAt(anna, OrderStatus.PENDING, "2025-03-01T10:00:00");
+            Order o2 = orderAt(anna, OrderStatus.PENDING, "2025-03-02T10:00:00");
+            Order o3 = orderAt(anna, OrderStatus.PENDING, "2025-03-02T10:00:00");
+            Order o4 = orderAt(anna, OrderStatus.PENDING, "2025-03-03T10:00:00");
+            Order o5 = orderAt(anna, OrderStatus.PENDING, "2025-03-04T10:00:00");
+
+            List<Integer> seen = new java.util.ArrayList<>();
+            String cursor = null;
+            int pages = 0;
+            do {
+                var req = get("/orders/search").param("username", "anna").param("limit", "2")
+                        .with(authentication(auth(admin)));
+                if (cursor != null) {
+                    req.param("cursor", cursor);
+                }
+                String body = mvc.perform(req).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+                var page = objectMapper.readTree(body);
+                page.get("items").forEach(item -> seen.add(item.get("id").asInt()));
+                cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+                pages++;
+            } while (cursor != null);
+
+            assertEquals(3, pages);
+            assertEquals(List.of(o5.getId(), o4.getId(), o3.getId(), o2.getId(), o1.getId()), seen);
+        }
+
+        @Test
+        void search_prefixMatchingTooManyCustomers_isRejected() {
+            orderAt(anna, OrderStatus.PENDING, "2025-03-01T10:00:00");
+            // Own instance with a cap of one customer; "ann" matches anna and annie
+            OrderSearchService search = new OrderSearchService(namedJdbc, 1);
+
+            ValidationException e = assertThrows(ValidationException.class,
+                    () -> search.search("ann", null, null, null, null, null));
+            assertEquals("Username prefix 'ann' matches more than 1 customers; use a longer prefix", e.getMessage());
+
+            assertEquals(1, search.search("anna", null, null, null, null, null).getItems().size());
+        }
+
+        @Test
+        void search_withoutUsernameOrStatus_returns400() throws Exception {
+            mvc.perform(get("/orders/search").param("from", "2025-03-01")
+                            .with(authentication(auth(admin))))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.code").value("VALIDATION_ERROR"))
+                    .andExpect(jsonPath("$.message").value("Specify a username prefix or a status"));
+        }
+
+        @Test
+        void search_invalidCursorOrLimit_returns400() throws Exception {
+            mvc.perform(get("/orders/search").param("status", "PENDING").param("cursor", "not-a-cursor")
+                            .with(authentication(auth(admin))))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value("Invalid cursor"));
+
+            mvc.perform(get("/orders/search").param("status", "PENDING").param("limit", "500")
+                            .with(authentication(auth(admin))))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value("'limit' must be between 1 and 200"));
+        }
+
+        @Test
+        void search_asUser_returns403() throws Exception {
+            mvc.perform(get("/orders/search").param("status", "PENDING")
+                            .with(authentication(auth(anna))))
+                    .andExpect(status().isForbidden());
+        }
+    }
+
+    @Nested
+    class orderStatusStreamTests {
+
+        @Autowired OrderStatusStreamService orderStatusStreamService;
+
+        private org.springframework.test.web.servlet.MvcResult openStream(Person user, String lastEventId) throws Exception {
+            var builder = get("/orders/stream").with(authentication(auth(user))).accept(MediaType.TEXT_EVENT_STREAM);
+            if (lastEventId != null) {
+                builder.header("Last-Event-ID", lastEventId);
+            }
+            return mvc.perform(builder)
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+        }
+
+        @Test
+        void stream_pushesStatusChangeOfOwnOrder_afterCommit() throws Exception {
+            Person user = saveUser("stream_user", "stream_user@example.com", "ROLE_USER");
+            Order o = order(user, OrderStatus.PENDING);
+            var stream = openStream(user, null);
+
+            mvc.perform(patch("/orders/{id}/cancel-order", o.getId()).with(authentication(auth(user))))
+                    .andExpect(status().isOk());
+
+            String body = stream.getResponse().getContentAsString();
+            assertThat(body, containsString("event:order-status"));
+            assertThat(body, containsString("id:"));
+            assertThat(body, containsString("\"orderId\":" + o.getId()));
+            assertThat(body, containsString("\"previousStatus\":\"PENDING\""));
+            assertThat(body, containsString("\"status\":\"CANCELLED\""));
+        }
+
+        @Test
+        void stream_doesNotReceiveOtherCustomersOrders() throws Exception {
+            Person user = saveUser("stream_user", "stream_user@example.com", "ROLE_USER");
+            Person other = saveUser("stream_other", "stream_other@example.com", "ROLE_USER");
+            Order foreign = order(other, OrderStatus.PENDING);
+            var stream = openStream(user, null);
+
+            mvc.perform(patch("/orders/{id}/cancel-order", foreign.getId()).with(authentication(auth(other))))
+                    .andExpect(status().isOk());
+
+            assertThat(stream.getResponse().getContentAsString(), not(containsString("order-status")));
+        }
+
+        @Test
+        void stream_reconnectWithLastEventId_replaysMissedEvents() throws Exception {
+            Person user = saveUser("stream_user", "stream_user@example.com", "ROLE_USER");
+            var now = java.time.LocalDateTime.now();
+            orderStatusStreamService.onOrderStatusChanged(new com.simple_online_store_backend.event.OrderStatusChangedEvent(
+                    101, user.getId(), OrderStatus.PENDING, OrderStatus.PROCESSING, now));
+            orderStatusStreamService.onOrderStatusChanged(new com.simple_online_store_backend.event.OrderStatusChangedEvent(
+                    101, user.getId(), OrderStatus.PROCESSING, OrderStatus.SHIPPED, now.plusSeconds(1)));
+
+            String firstId = now.atZone(java.time.ZoneId.systemDefault()).toInstant().toEpochMilli() + "-101-PROCESSING";
+            String body = openStream(user, firstId).getResponse().getContentAsString();
+
+            assertThat(body, containsString("\"status\":\"SHIPPED\""));
+            assertThat(body, not(containsString("\"status\":\"PROCESSING\"")));
+            assertThat(body, not(containsString("event:resync")));
+        }
+
+        @Test
+        void stream_reconnectWithUnknownEventId_asksClientToResync() throws Exception {
+            Person user = saveUser("stream_user", "stream_user@example.com", "ROLE_USER");
+
+            String body = openStream(user, "0-1-PENDING").getResponse().getContentAsString();
+
+            assertThat(body, containsString("event:resync"));
+        }
+
+        @Test
+        void stream_admin_returns403() throws Exception {
+            Person admin = saveUser("stream_admin", "stream_admin@example.com", "ROLE_ADMIN");
+
+            mvc.perform(get("/orders/stream").with(authentication(auth(admin))))
+                    .andExpect(status().isForbidden());
+        }
+
+        @Test
+        void stream_unauthenticated_returns401() throws Exception {
+            mvc.perform(get("/orders/stream"))
+                    .andExpect(status().isUnauthorized());
+        }
+    }
+
+    @Nested
+    class pickupSlotTests {
+        Person user;
+        Product product;
+        PickupLocation location;
+
+        @BeforeEach
+        void data() {
+            Mockito.reset(orderService, orderRepository);
+            SecurityContextHolder.clearContext();
+            orderRepository.deleteAll();
+            pickupSlotRepository.deleteAll();
+            user = saveUser("slotter", "slotter@example.com", "ROLE_USER");
+            product = newProduct();
+            location = newLocation();
+        }
+
+        private Product newProduct() {
+            Product pr = new Product();
+            pr.setProductName("Lamp");
+            pr.setProductDescription("Lamp desc");
+            pr.setProductCategory(ProductCategory.COMPONENTS);
+            pr.setPrice(new BigDecimal("30.00"));
+            pr.setAvailability(true);
+            return productRepository.save(pr);
+        }
+
+        private PickupLocation newLocation() {
+            PickupLocation l = new PickupLocation();
+            l.setCity("Berlin");
+            l.setStreet("Slot Street");
+            l.setHouseNumber("7");
+            l.setActive(true);
+            return pickupLocationRepository.save(l);
+        }
+
+        private PickupSlot slot(PickupLocation at, int hoursFromNow, int capacity, int reserved) {
+            PickupSlot s = new PickupSlot();
+            s.setPickupLocation(at);
+            s.setSlotStart(java.time.LocalDateTime.now().plusHours(hoursFromNow).withNano(0));
+            s.setSlotEnd(s.getSlotStart().plusMinutes(30));
+            s.setCapacity(capacity);
+            s.setReserved(reserved);
+            return pickupSlotRepository.save(s);
+        }
+
+        private org.springframework.test.web.servlet.ResultActions create(Person who, Integer slotId) throws Exception {
+            var r = new com.simple_online_store_backend.dto.order.OrderCreateRequest();
+            r.setProductIds(List.of(product.getId()));
+            r.setPickupLocationId(location.getId());
+            r.setPickupSlotId(slotId);
+            return mvc.perform(post("/orders/create-order")
+                    .with(authentication(auth(who)))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(r)));
+        }
+
+        private int reserved(PickupSlot s) {
+            return pickupSlotRepository.findById(s.getId()).orElseThrow().getReserved();
+        }
+
+        @Test
+        void createOrder_withSlot_takesOnePlace() throws Exception {
+            PickupSlot s = slot(location, 24, 2, 0);
+
+            create(user, s.getId())
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.pickupSlot.id").value(s.getId()))
+                    .andExpect(jsonPath("$.pickupSlot.start").exists());
+
+            assertEquals(1, reserved(s));
+        }
+
+        @Test
+        void archivedOrder_keepsItsPickupSlot() throws Exception {
+            PickupSlot s = slot(location, 24, 2, 0);
+            String body = create(user, s.getId())
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            int orderId = objectMapper.readTree(body).get("id").asInt();
+            jdbcTemplate.update("UPDATE orders SET status = 'DELIVERED', updated_at = ? WHERE id = ?",
+                    java.time.LocalDateTime.now().minusDays(400), orderId);
+
+            try {
+                assertEquals(1, orderArchivalService.archiveFinishedOrders());
+
+                mvc.perform(get("/orders/{id}", orderId)
+                                .with(authentication(auth(user))))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.status").value("DELIVERED"))
+                        .andExpect(jsonPath("$.pickupSlot.id").value(s.getId()));
+            } finally {
+                archivedOrderRepository.deleteAll();
+            }
+        }
+
+        @Test
+        void createOrder_fullSlot_returns400_andCreatesNoOrder() throws Exception {
+            PickupSlot s = slot(location, 24, 1, 1);
+
+            create(user, s.getId())
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value("Pickup slot is fully booked"));
+
+            assertEquals(0, orderRepository.count());
+            assertEquals(1, reserved(s));
+        }
+
+        @Test
+        void createOrder_startedSlot_returns400() throws Exception {
+            PickupSlot s = slot(location, -1, 5, 0);
+
+            create(user, s.getId())
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value("Pickup slot has already started"));
+        }
+
+        @Test
+        void createOrder_slotOfAnotherLocation_returns404() throws Exception {
+            PickupSlot foreign = slot(newLocation(), 24, 5, 0);
+
+            create(user, foreign.getId())
+                    .andExpect(status().isNotFound())
+                    .andExpect(jsonPath("$.message").value("Pickup slot not found: " + foreign.getId()));
+
+            assertEquals(0, reserved(foreign));
+        }
+
+        @Test
+        void createOrder_locationWithSlots_requiresSlot_returns400() throws Exception {
+            slot(location, 24, 5, 0);
+
+            create(user, null)
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value("Choose a pickup slot for this pickup location"));
+        }
+
+        @Test
+        void createOrder_slotWithoutPickupLocation_returns400() throws Exception {
+            Address a = new Address();
+            a.setCity("Berlin");
+            a.setStreet("Main");
+            a.setHouseNumber("1");
+            a.setPostalCode("10115");
+            a = addressRepository.save(a);
+
+            var r = new com.simple_online_store_backend.dto.order.OrderCreateRequest();
+            r.setProductIds(List.of(product.getId()));
+            r.setAddressId(a.getId());
+            r.setPickupSlotId(1);
+
+            mvc.perform(post("/orders/create-order")
+                            .with(authentication(auth(user)))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(r)))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message", containsString("A pickup slot can only be chosen together with pickupLocationId")));
+        }
+
+        @Test
+        void cancel_releasesPlace_andReactivate_takesItBack() throws Exception {
+            PickupSlot s = slot(location, 24, 1, 0);
+            int orderId = objectMapper.readTree(create(user, s.getId())
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString()).get("id").asInt();
+            assertEquals(1, reserved(s));
+
+            mvc.perform(patch("/orders/{id}/cancel-order", orderId).with(authentication(auth(user))))
+                    .andExpect(status().isOk());
+            assertEquals(0, reserved(s));
+
+            // Someone else takes the freed place, so the cancelled order cannot come back
+            Person other = saveUser("other_slotter", "other_slotter@example.com", "ROLE_USER");
+            create(other, s.getId()).andExpect(status().isOk());
+
+            mvc.perform(patch("/orders/{id}/reactivate-order", orderId).with(authentication(auth(user))))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value("The pickup slot of order " + orderId + " is no longer available"));
+            assertEquals(1, reserved(s));
+            assertEquals(OrderStatus.CANCELLED, orderRepository.findById(orderId).orElseThrow().getStatus());
+        }
+
+        @Test
+        void bulkReactivation_fullSlot_isReportedPerOrder_andTheRestIsMoved() throws Exception {
+            Person admin = saveUser("slot_admin", "slot_admin@example.com", "ROLE_ADMIN");
+            PickupSlot full = slot(location, 24, 1, 0);
+            PickupSlot roomy = slot(location, 48, 2, 0);
+            int lost = objectMapper.readTree(create(user, full.getId())
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString()).get("id").asInt();
+            int kept = objectMapper.readTree(create(user, roomy.getId())
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString()).get("id").asInt();
+            for (int id : List.of(lost, kept)) {
+                mvc.perform(patch("/orders/{id}/cancel-order", id).with(authentication(auth(user))))
+                        .andExpect(status().isOk());
+            }
+            // The freed place of the one-place slot goes to someone else
+            Person other = saveUser("other_slotter", "other_slotter@example.com", "ROLE_USER");
+            create(other, full.getId()).andExpect(status().isOk());
+
+            mvc.perform(patch("/orders/bulk-status")
+                            .with(authentication(auth(admin)))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"targetStatus\":\"PENDING\",\"orderIds\":[" + lost + "," + kept + "]}"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.updated").value(1))
+                    .andExpect(jsonPath("$.slotUnavailable").value(1))
+                    .andExpect(jsonPath("$.results[0].outcome").value("SLOT_UNAVAILABLE"))
+                    .andExpect(jsonPath("$.results[0].previousStatus").value("CANCELLED"))
+                    .andExpect(jsonPath("$.results[1].outcome").value("UPDATED"));
+
+            assertEquals(OrderStatus.CANCELLED, orderRepository.findById(lost).orElseThrow().getStatus());
+            assertEquals(OrderStatus.PENDING, orderRepository.findById(kept).orElseThrow().getStatus());
+            assertEquals(1, reserved(full));
+            assertEquals(1, reserved(roomy));
+        }
+
+        @Test
+        void parallelCheckouts_neverOverbookSlot() throws Exception {
+            int capacity = 3;
+            int customers = 8;
+            PickupSlot s = slot(location, 24, capacity, 0);
+            List<Person> people = new java.util.ArrayList<>();
+            for (int i = 0; i < customers; i++) {
+                people.add(saveUser("rush" + i, "rush" + i + "@example.com", "ROLE_USER"));
+            }
+
+            var codes = new java.util.concurrent.ConcurrentLinkedQueue<Integer>();
+            var start = new java.util.concurrent.CountDownLatch(1);
+            var pool = java.util.concurrent.Executors.newFixedThreadPool(customers);
+            var futures = new java.util.ArrayList<java.util.concurrent.Future<?>>();
+            for (Person p : people) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    codes.add(create(p, s.getId()).andReturn().getResponse().getStatus());
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (var f : futures) {
+                f.get(60, java.util.concurrent.TimeUnit.SECONDS);
+            }
+            pool.shutdown();
+
+            assertEquals(capacity, codes.stream().filter(c -> c == 200).count());
+            assertEquals(customers - capacity, codes.stream().filter(c -> c == 400).count());
+            assertEquals(capacity, reserved(s));
+            assertEquals(capacity, orderRepository.count());
+        }
+    }
+
+    @Nested
+    class orderExpiryTests {
+
+        @Autowired org.springframework.data.redis.core.RedisTemplate<String, String> redisTemplate;
+
+        @BeforeEach
+        void clean() {
+            outboxEventRepository.deleteAll();
+            Mockito.reset(orderService, orderRepository);
+        }
+
+        // Own instance with a one-hour TTL and tiny batches; the application bean only runs on the scheduler
+        private OrderExpiryService expiry() {
+            return new OrderExpiryService(orderRepository, outboxService, redisTemplate, transactionManager,
+                    true, 60, 1000, 64, 2, 30000, false, 30000);
+        }
+
+        private Order touchedAgo(Person owner, OrderStatus status, int minutesAgo) {
+            Order o = order(owner, status);
+            jdbcTemplate.update("UPDATE orders SET updated_at = ? WHERE id = ?",
+                    java.sql.Timestamp.valueOf(java.time.LocalDateTime.now().minusMinutes(minutesAgo)), o.getId());
+            return o;
+        }
+
+        @Test
+        void stalePendingOrders_areCancelledInBatches_othersUntouched() {
+            Person user = saveUser("idle", "idle@example.com", "ROLE_USER");
+            List<Order> stale = List.of(
+                    touchedAgo(user, OrderStatus.PENDING, 120),
+                    touchedAgo(user, OrderStatus.PENDING, 90),
+                    touchedAgo(user, OrderStatus.PENDING, 61));
+            Order fresh = touchedAgo(user, OrderStatus.PENDING, 10);
+            Order processing = touchedAgo(user, OrderStatus.PROCESSING, 300);
+
+            OrderExpiryService service = expiry();
+            long now = System.currentTimeMillis();
+            assertEquals(0, service.advance(now));
+            assertEquals(4, service.scheduledCount());
+
+            assertEquals(3, service.advance(now + 1500));
+
+            for (Order o : stale) {
+                Order reloaded = orderRepository.findById(o.getId()).orElseThrow();
+                assertThat(reloaded.getStatus(), equalTo(OrderStatus.CANCELLED));
+                assertThat(reloaded.getVersion(), equalTo(o.getVersion() + 1));
+            }
+            assertThat(orderRepository.findById(fresh.getId()).orElseThrow().getStatus(), equalTo(OrderStatus.PENDING));
+            assertThat(orderRepository.findById(processing.getId()).orElseThrow().getStatus(), equalTo(OrderStatus.PROCESSING));
+
+            var cancelledEvents = outboxEventRepository.findAll().stream()
+                    .filter(e -> e.getEventType() == OrderEventType.ORDER_CANCELLED)
+                    .map(OutboxEvent::getAggregateId)
+                    .toList();
+            assertThat(cancelledEvents, containsInAnyOrder(stale.stream().map(Order::getId).toArray()));
+            assertEquals(1, service.scheduledCount());
+        }
+
+        @Test
+        void pendingOrderTouchedAfterScheduling_waitsForItsNewDeadline() {
+            Person user = saveUser("busy", "busy@example.com", "ROLE_USER");
+            Order order = touchedAgo(user, OrderStatus.PENDING, 120);
+
+            OrderExpiryService service = expiry();
+            long now = System.currentTimeMillis();
+            service.advance(now);
+
+            // Reactivated or edited in the meantime on another node
+            jdbcTemplate.update("UPDATE orders SET updated_at = ? WHERE id = ?",
+                    java.sql.Timestamp.valueOf(java.time.LocalDateTime.now()), order.getId());
+
+            assertEquals(0, service.advance(now + 1500));
+            assertThat(orderRepository.findById(order.getId()).orElseThrow().getStatus(), equalTo(OrderStatus.PENDING));
+            assertEquals(1, service.scheduledCount());
+        }
+    }
+}
@@ -9,7 +9,10 @@ import com.simple_online_store_backend.repository.PeopleRepository;
 import com.simple_online_store_backend.entity.Person;
 import com.simple_online_store_backend.security.JWTUtil;
 import com.simple_online_store_backend.security.PersonDetails;
+import jakarta.persistence.EntityManagerFactory;
 import org.hamcrest.Matchers;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -32,7 +35,9 @@ import static org.springframework.security.test.web.servlet.request.SecurityMock
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 
 import java.time.LocalDate;
+import java.util.List;
 
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -53,6 +58,9 @@ public class PeopleControllerTests {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @MockitoBean
     private JWTUtil jwtUtil;
 
@@ -75,25 +83,82 @@ public class PeopleControllerTests {
             // when/then
             mockMvc.perform(get("/people/all-customers").accept(MediaType.APPLICATION_JSON))
                     .andExpect(status().isOk())
-                    .andExpect(jsonPath("$", hasSize(2)))
-                    .andExpect(jsonPath("$[*].id", everyItem(notNullValue())))
-                    .andExpect(jsonPath("$[*].userName", containsInAnyOrder("alice", "bob")))
-                    .andExpect(jsonPath("$[*].email", containsInAnyOrder("alice@test.io", "bob@test.io")))
-                    .andExpect(jsonPath("$[*].role", everyItem(is("ROLE_USER"))))
-                    .andExpect(jsonPath("$[?(@.userName=='alice')].dateOfBirth", notNullValue()))
-                    .andExpect(jsonPath("$[?(@.userName=='alice')].phoneNumber", notNullValue()))
-                    .andExpect(jsonPath("$[*].password").doesNotExist());
+                    .andExpect(jsonPath("$.items", hasSize(2)))
+                    .andExpect(jsonPath("$.items[*].id", everyItem(notNullValue())))
+                    .andExpect(jsonPath("$.items[*].userName", contains("alice", "bob")))
+                    .andExpect(jsonPath("$.items[*].email", contains("alice@test.io", "bob@test.io")))
+                    .andExpect(jsonPath("$.items[*].deleted", everyItem(is(false))))
+                    .andExpect(jsonPath("$.items[?(@.userName=='alice')].dateOfBirth", notNullValue()))
+                    .andExpect(jsonPath("$.items[?(@.userName=='alice')].phoneNumber", notNullValue()))
+                    .andExpect(jsonPath("$.items[*].password").doesNotExist())
+                    .andExpect(jsonPath("$.nextAfterId").value(nullValue()));
         }
 
         @Test
         @WithMockUser(roles = "ADMIN")
-        void getAllCustomers_asAdmin_whenNoCustomers_returnsEmptyList_and200() throws Exception {
+        void getAllCustomers_asAdmin_whenNoCustomers_returnsEmptyPage_and200() throws Exception {
             savePerson("admin", "admin@test.io", "ROLE_ADMIN", LocalDate.of(1980, 1, 1), "+49-000", false, "Test234");
 
             mockMvc.perform(get("/people/all-customers").accept(MediaType.APPLICATION_JSON))
                     .andExpect(status().isOk())
                     .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
-                    .andExpect(jsonPath("$", hasSize(0)));
+                    .andExpect(jsonPath("$.items", hasSize(0)))
+                    .andExpect(jsonPath("$.nextAfterId").value(nullValue()));
+        }
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        void getAllCustomers_keysetPages_walkThroughAllCustomersOnce() throws Exception {
+            for (String name : List.of("u1", "u2", "u3", "u4", "u5")) {
+                savePerson(name, name + "@test.io", "ROLE_USER", LocalDate.of(1990, 1, 1), "+49-111", false, "Test234");
+            }
+
+            String first = mockMvc.perform(get("/people/all-customers").param("limit", "2"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items[*].userName", contains("u1", "u2")))
+                    .andExpect(jsonPath("$.nextAfterId").isNumber())
+                    .andReturn().getResponse().getContentAsString();
+            int after = com.jayway.jsonpath.JsonPath.read(first, "$.nextAfterId");
+
+            String second = mockMvc.perform(get("/people/all-customers").param("limit", "2").param("afterId", String.valueOf(after)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items[*].userName", contains("u3", "u4")))
+                    .andReturn().getResponse().getContentAsString();
+            after = com.jayway.jsonpath.JsonPath.read(second, "$.nextAfterId");
+
+            mockMvc.perform(get("/people/all-customers").param("limit", "2").param("afterId", String.valueOf(after)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items[*].userName", contains("u5")))
+                    .andExpect(jsonPath("$.nextAfterId").value(nullValue()));
+        }
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        void getAllCustomers_deletedFilter_isApplied() throws Exception {
+            savePerson("active", "active@test.io", "ROLE_USER", LocalDate.of(1990, 1, 1), "+49-111", false, "Test234");
+            savePerson("gone", "gone@test.io", "ROLE_USER", LocalDate.of(1990, 1, 1), "+49-111", true, "Test234");
+
+            mockMvc.perform(get("/people/all-customers").param("deleted", "true"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items[*].userName", contains("gone")))
+                    .andExpect(jsonPath("$.items[0].deleted").value(true));
+
+            mockMvc.perform(get("/people/all-customers").param("deleted", "false"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items[*].userName", contains("active")));
+
+            mockMvc.perform(get("/people/all-customers"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items", hasSize(2)));
+        }
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        void getAllCustomers_limitAboveCap_returns400() throws Exception {
+            mockMvc.perform(get("/people/all-customers").param("limit", "500"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.code").value("VALIDATION_ERROR"))
+                    .andExpect(jsonPath("$.message").value("'limit' must be between 1 and 200"));
         }
 
         @Test
@@ -110,6 +175,117 @@ public class PeopleControllerTests {
         }
     }
 
+    @Nested
+    class methodSearchCustomers {
+
+        private void customer(String name, String email) {
+            savePerson(name, email, "ROLE_USER", LocalDate.of(1990, 1, 1), "+49-111", false, "Test234");
+        }
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        void search_ranksExactThenUsernamePrefixThenEmailPrefixThenSubstring() throws Exception {
+            customer("kalina", "x1@test.io");
+            customer("Alice", "alice@test.io");
+            customer("alicia", "a2@test.io");
+            customer("zed", "alice.z@test.io");
+            customer("bob", "bob@malice.io");
+            savePerson("alice_admin", "root@test.io", "ROLE_ADMIN", LocalDate.of(1980, 1, 1), "+49-000", false, "Test234");
+
+            mockMvc.perform(get("/people/search").param("q", "ALICE"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items[*].userName", contains("Alice", "zed", "bob")))
+                    .andExpect(jsonPath("$.nextCursor").value(nullValue()));
+
+            mockMvc.perform(get("/people/search").param("q", "ali"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items[*].userName", contains("Alice", "alicia", "zed", "bob", "kalina")));
+        }
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        void search_shortQuery_matchesPrefixesOnly() throws Exception {
+            customer("alice", "alice@test.io");
+            customer("bob", "bob@test.io");
+
+            mockMvc.perform(get("/people/search").param("q", "li"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items", hasSize(0)));
+
+            mockMvc.perform(get("/people/search").param("q", "bo"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items[*].userName", contains("bob")));
+        }
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        void search_treatsLikeWildcardsLiterally() throws Exception {
+            customer("a_b", "ab1@test.io");
+            customer("axb", "ab2@test.io");
+
+            mockMvc.perform(get("/people/search").param("q", "a_b"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items[*].userName", contains("a_b")));
+        }
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        void search_cursorPages_continueAcrossRankGroups() throws Exception {
+            customer("test1", "t1@shop.io");
+            customer("test2", "t2@shop.io");
+            customer("zz", "test@shop.io");
+            customer("mytest", "m@shop.io");
+
+            List<String> seen = new java.util.ArrayList<>();
+            String cursor = null;
+            do {
+                var req = get("/people/search").param("q", "test").param("limit", "1");
+                if (cursor != null) {
+                    req = req.param("cursor", cursor);
+                }
+                String body = mockMvc.perform(req)
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.items", hasSize(1)))
+                        .andReturn().getResponse().getContentAsString();
+                seen.add(com.jayway.jsonpath.JsonPath.read(body, "$.items[0].userName"));
+                cursor = com.jayway.jsonpath.JsonPath.read(body, "$.nextCursor");
+            } while (cursor != null);
+
+            assertEquals(List.of("test1", "test2", "zz", "mytest"), seen);
+        }
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        void search_blankQuery_returns400() throws Exception {
+            mockMvc.perform(get("/people/search").param("q", "  "))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.code").value("VALIDATION_ERROR"))
+                    .andExpect(jsonPath("$.message").value("'q' must not be blank"));
+        }
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        void search_malformedCursor_returns400() throws Exception {
+            mockMvc.perform(get("/people/search").param("q", "abc").param("cursor", "###"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value("Invalid cursor"));
+
+            // Well-formed, but no such rank group
+            String unknownGroup = java.util.Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString("9|1|abc".getBytes(java.nio.charset.StandardCharsets.UTF_8));
+            mockMvc.perform(get("/people/search").param("q", "abc").param("cursor", unknownGroup))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value("Invalid cursor"));
+        }
+
+        @Test
+        @WithMockUser(roles = "USER")
+        void search_asUser_isForbidden403() throws Exception {
+            mockMvc.perform(get("/people/search").param("q", "abc"))
+                    .andExpect(status().isForbidden());
+        }
+    }
+
     @Nested
     class methodDeactivateAccount {
         @Test
@@ -131,6 +307,7 @@ public class PeopleControllerTests {
 
             Person reloaded = peopleRepository.findById(user.getId()).orElseThrow();
             assertTrue(reloaded.getDeleted(), "User must be marked as deleted");
+            assertNotNull(reloaded.getDeactivatedAt(), "Deactivation time starts the retention clock");
 
             var orders = orderRepository.findByPerson(reloaded);
             long cancelled = orders.stream().filter(o -> o.getStatus() == OrderStatus.CANCELLED).count();
@@ -173,6 +350,7 @@ public class PeopleControllerTests {
 
             var refreshed = peopleRepository.findById(user.getId()).orElseThrow();
             assertFalse(refreshed.getDeleted(), "User must be unlocked (deleted=false) after restore");
+            assertNull(refreshed.getDeactivatedAt(), "Restored account must leave the retention queue");
         }
 
         @Test
@@ -236,6 +414,37 @@ public class PeopleControllerTests {
                     .andExpect(jsonPath("$.password").doesNotExist());
         }
 
+        @Test
+        @DisplayName("profile: 200 OK — the person loaded by JWTFilter is reused, not queried again")
+        void getProfile_withAccessToken_loadsPersonOnce() throws Exception {
+            Person alice = savePerson("alice", "alice@test.io", "ROLE_USER",
+                    LocalDate.of(1990,1,1), "+49-111", false, "Secret123!");
+
+            String accessToken = "ACCESS.ALICE";
+            DecodedJWT decoded = mock(DecodedJWT.class);
+            Claim usernameClaim = mock(Claim.class);
+            when(usernameClaim.asString()).thenReturn("alice");
+            when(decoded.getClaim("username")).thenReturn(usernameClaim);
+            when(jwtUtil.validateToken(accessToken)).thenReturn(decoded);
+
+            Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            stats.setStatisticsEnabled(true);
+            try {
+                stats.clear();
+                mockMvc.perform(get("/people/profile")
+                                .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                                .accept(MediaType.APPLICATION_JSON))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.id").value(alice.getId()))
+                        .andExpect(jsonPath("$.userName").value("alice"));
+
+                assertEquals(1, stats.getEntityStatistics(Person.class.getName()).getLoadCount());
+                assertEquals(1, stats.getPrepareStatementCount());
+            } finally {
+                stats.setStatisticsEnabled(false);
+            }
+        }
+
         @Test
         @DisplayName("profile: 401 UNAUTHORIZED — unauthenticated request")
         void getProfile_unauthenticated_401() throws Exception {
@@ -340,6 +549,310 @@ static void registerProps(DynamicPropertyRegistry registry) {
         }
     }
 
+    @Nested
+    class methodDeactivationJobs {
+
+        private String awaitFinished(String jobId) throws Exception {
+            for (int i = 0; i < 100; i++) {
+                String body = mockMvc.perform(get("/people/deactivation-jobs/" + jobId))
+                        .andExpect(status().isOk())
+                        .andReturn().getResponse().getContentAsString();
+                if (!body.contains("\"RUNNING\"")) {
+                    return body;
+                }
+                Thread.sleep(50);
+            }
+            fail("Deactivation job " + jobId + " didn't finish in time");
+            return null;
+        }
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("deactivation job: 202, then COMPLETED with counts; accounts deleted, open orders cancelled")
+        void deactivationJob_deactivatesAccounts_andCancelsOpenOrders() throws Exception {
+            Person alice = savePerson("alice", "alice@test.io", "ROLE_USER", LocalDate.of(1990, 1, 1), "+49-111", false, "pwd");
+            Person bob = savePerson("bob", "bob@test.io", "ROLE_USER", LocalDate.of(1991, 1, 1), "+49-222", false, "pwd");
+            Person gone = savePerson("gone", "gone@test.io", "ROLE_USER", LocalDate.of(1992, 1, 1), "+49-333", true, "pwd");
+            Person admin = savePerson("boss", "boss@test.io", "ROLE_ADMIN", LocalDate.of(1980, 1, 1), "+49-444", false, "pwd");
+            Order a1 = saveOrder(alice, OrderStatus.PENDING);
+            Order a2 = saveOrder(alice, OrderStatus.SHIPPED);
+            Order b1 = saveOrder(bob, OrderStatus.PROCESSING);
+
+            String accepted = mockMvc.perform(post("/people/deactivation-jobs")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"personIds\":[" + alice.getId() + "," + bob.getId() + "," + gone.getId() + ","
+                                    + admin.getId() + ",999999," + alice.getId() + "]}"))
+                    .andExpect(status().isAccepted())
+                    .andExpect(jsonPath("$.jobId").isNotEmpty())
+                    .andExpect(jsonPath("$.total").value(5))
+                    .andReturn().getResponse().getContentAsString();
+            String jobId = com.jayway.jsonpath.JsonPath.read(accepted, "$.jobId");
+
+            String finished = awaitFinished(jobId);
+            assertEquals("COMPLETED", com.jayway.jsonpath.JsonPath.read(finished, "$.status"));
+            assertEquals(5, (int) com.jayway.jsonpath.JsonPath.read(finished, "$.processed"));
+            assertEquals(2, (int) com.jayway.jsonpath.JsonPath.read(finished, "$.deactivated"));
+            assertEquals(1, (int) com.jayway.jsonpath.JsonPath.read(finished, "$.alreadyInactive"));
+            assertEquals(1, (int) com.jayway.jsonpath.JsonPath.read(finished, "$.skippedAdmins"));
+            assertEquals(1, (int) com.jayway.jsonpath.JsonPath.read(finished, "$.notFound"));
+            assertEquals(2, (int) com.jayway.jsonpath.JsonPath.read(finished, "$.ordersCancelled"));
+
+            assertTrue(peopleRepository.findById(alice.getId()).orElseThrow().getDeleted());
+            assertTrue(peopleRepository.findById(bob.getId()).orElseThrow().getDeleted());
+            assertFalse(peopleRepository.findById(admin.getId()).orElseThrow().getDeleted());
+            assertEquals(OrderStatus.CANCELLED, orderRepository.findById(a1.getId()).orElseThrow().getStatus());
+            assertEquals(OrderStatus.SHIPPED, orderRepository.findById(a2.getId()).orElseThrow().getStatus());
+            assertEquals(OrderStatus.CANCELLED, orderRepository.findById(b1.getId()).orElseThrow().getStatus());
+        }
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        void deactivationJob_emptyIds_returns400() throws Exception {
+            mockMvc.perform(post("/people/deactivation-jobs")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"personIds\":[]}"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.code").value("VALIDATION_ERROR"))
+                    .andExpect(jsonPath("$.path").value("/people/deactivation-jobs"));
+        }
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        void deactivationJob_unknownJob_returns404() throws Exception {
+            mockMvc.perform(get("/people/deactivation-jobs/no-such-job"))
+                    .andExpect(status().isNotFound())
+                    .andExpect(jsonPath("$.code").value("ENTITY_NOT_FOUND"));
+        }
+
+        @Test
+        @WithMockUser(roles = "USER")
+        void deactivationJob_asUser_isForbidden403() throws Exception {
+            mockMvc.perform(post("/people/deactivation-jobs")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"personIds\":[1]}"))
+                    .andExpect(status().isForbidden());
+        }
+
+        @Test
+        void deactivationJob_unauthenticated_isUnauthorized401() throws Exception {
+            mockMvc.perform(post("/people/deactivation-jobs")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"personIds\":[1]}"))
+                    .andExpect(status().isUnauthorized());
+        }
+    }
+
+    @Nested
+    class methodProvisioning {
+
+        @Autowired org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate jdbc;
+        @Autowired org.springframework.transaction.PlatformTransactionManager transactionManager;
+        @Autowired com.fasterxml.jackson.databind.ObjectMapper objectMapper;
+        @Autowired jakarta.validation.Validator validator;
+        @Autowired org.springframework.context.ApplicationEventPublisher eventPublisher;
+
+        private List<String> provision(String body) throws Exception {
+            var started = mockMvc.perform(post("/people/provisioning")
+                            .contentType("application/x-ndjson")
+                            .content(body))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            String response = mockMvc.perform(asyncDispatch(started))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                    .andReturn().getResponse().getContentAsString();
+            return response.lines().toList();
+        }
+
+        private static String line(String userName, String email) {
+            return "{\"userName\":\"" + userName + "\",\"password\":\"Test234!\",\"email\":\"" + email + "\"}";
+        }
+
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        void provisioning_streamsOneResultPerLine_andCreatesValidAccounts() throws Exception {
+            savePerson("taken", "taken@test.io", "ROLE_USER", LocalDate.of(1990, 1, 1), "+49-111", false, "Test234");
+
+            String upload = String.join("\n",
+                    line("acme_anna", "Anna@Acme.io"),
+                    line("TAKEN", "other@acme.io"),
+                    "",
+                    line("acme_ben", "ben@acme.io"),
+                    line("Acme_Anna", "anna2@acme.io"),
+                    "{\"userName\":\"broken\"",
+                    "{\"userName\":\"x\",\"password\":\"Test234!\",\"email\":\"not-an-email\"}");
+
+            List<String> results = provision(upload);
+
+            assertEquals(6, results.size());
+            assertEquals(List.of(1, 2, 4, 5, 6, 7),
+                    results.stream().map(r -> (Integer) com.jayway.jsonpath.JsonPath.read(r, "$.line")).toList());
+            assertEquals(List.of("CREATED", "DUPLICATE", "CREATED", "DUPLICATE", "INVALID", "INVALID"),
+                    results.stream().map(r -> (String) com.jayway.jsonpath.JsonPath.read(r, "$.outcome")).toList());
+            assertThat(results.get(1), containsString("userName - Person with this username is already existed!;"));
+            assertThat(results.get(4), containsString("Malformed JSON"));
+            assertThat(results.get(5), containsString("email - Email should be valid;"));
+            assertThat(results.get(5), containsString("userName - Username must be between 2 and 100 characters long;"));
+
+            Person anna = peopleRepository.findByUserName("acme_anna").orElseThrow();
+            assertEquals((Integer) com.jayway.jsonpath.JsonPath.read(results.get(0), "$.id"), anna.getId());
+            assertEquals("anna@acme.io", anna.getEmail());
+            assertEquals("ROLE_USER", anna.getRole());
+            assertTrue(passwordEncoder.matches("Test234!", anna.getPassword()));
+            assertTrue(peopleRepository.findByUserName("acme_ben").isPresent());
+            assertEquals(3, peopleRepository.count());
+        }
+
+        @Test
+        void provisioning_acrossChunks_catchesDuplicatesOfEarlierChunks() throws Exception {
+            var service = new com.simple_online_store_backend.service.PeopleProvisioningService(
+                    jdbc, transactionManager, passwordEncoder, objectMapper, validator, eventPublisher, 2, 2);
+            try {
+                String upload = String.join("\n",
+                        line("c1", "c1@acme.io"),
+                        line("c2", "c2@acme.io"),
+                        line("c3", "C1@ACME.IO"),
+                        line("c4", "c4@acme.io"),
+                        line("c5", "c5@acme.io"));
+                var out = new java.io.ByteArrayOutputStream();
+                service.provision(new java.io.ByteArrayInputStream(upload.getBytes(java.nio.charset.StandardCharsets.UTF_8)))
+                        .writeTo(out);
+
+                List<String> results = out.toString(java.nio.charset.StandardCharsets.UTF_8).lines().toList();
+                assertEquals(List.of("CREATED", "CREATED", "DUPLICATE", "CREATED", "CREATED"),
+                        results.stream().map(r -> (String) com.jayway.jsonpath.JsonPath.read(r, "$.outcome")).toList());
+                assertThat(results.get(2), containsString("email - Person with this email already exists;"));
+                assertEquals(4, peopleRepository.count());
+            } finally {
+                service.shutdown();
+            }
+        }
+
+        @Test
+        @WithMockUser(roles = "USER")
+        void provisioning_asUser_isForbidden403() throws Exception {
+            mockMvc.perform(post("/people/provisioning")
+                            .contentType("application/x-ndjson")
+                            .content(line("u", "u@acme.io")))
+                    .andExpect(status().isForbidden());
+            assertEquals(0, peopleRepository.count());
+        }
+
+        @Test
+        void provisioning_unauthenticated_isUnauthorized401() throws Exception {
+            mockMvc.perform(post("/people/provisioning")
+                            .contentType("application/x-ndjson")
+                            .content(line("u", "u@acme.io")))
+                    .andExpect(status().isUnauthorized());
+        }
+    }
+
+    @Nested
+    class methodAccountRetention {
+
+        @Autowired com.simple_online_store_backend.repository.AddressRepository addressRepository;
+        @Autowired org.springframework.transaction.PlatformTransactionManager transactionManager;
+
+        private final com.simple_online_store_backend.service.RefreshTokenService refreshTokenService =
+                mock(com.simple_online_store_backend.service.RefreshTokenService.class);
+
+        private com.simple_online_store_backend.service.AccountRetentionService service(
+                com.simple_online_store_backend.enums.RetentionMode mode) {
+            return new com.simple_online_store_backend.service.AccountRetentionService(peopleRepository, addressRepository,
+                    refreshTokenService, transactionManager, new io.micrometer.core.instrument.simple.SimpleMeterRegistry(),
+                    30, mode, 2, 5, 0);
+        }
+
+        private com.simple_online_store_backend.entity.Address saveAddress(String street) {
+            var address = new com.simple_online_store_backend.entity.Address();
+            address.setCity("Berlin");
+            address.setStreet(street);
+            address.setHouseNumber("1");
+            return addressRepository.save(address);
+        }
+
+        private Person deactivated(String userName, int daysAgo, com.simple_online_store_backend.entity.Address address) {
+            Person p = savePerson(userName, userName + "@test.io", "ROLE_USER", LocalDate.of(1990, 1, 1), "+49-111", true, "Test234");
+            p.setDeactivatedAt(java.time.LocalDateTime.now().minusDays(daysAgo));
+            p.setAddress(address);
+            return peopleRepository.save(p);
+        }
+
+        @AfterEach
+        void cleanAddresses() {
+            orderRepository.deleteAll();
+            peopleRepository.deleteAll();
+            addressRepository.deleteAll();
+        }
+
+        @Test
+        void purge_deletesExpiredAccounts_andOnlyOrphanedAddresses() {
+            var orphan = saveAddress("Orphan");
+            var shared = saveAddress("Shared");
+            var ordered = saveAddress("Ordered");
+            deactivated("old1", 400, orphan);
+            deactivated("old2", 200, shared);
+            Person old3 = deactivated("old3", 100, ordered);
+            Person recent = deactivated("recent", 10, null);
+            Person alive = savePerson("alive", "alive@test.io", "ROLE_USER", LocalDate.of(1990, 1, 1), "+49-111", false, "Test234");
+            alive.setAddress(shared);
+            peopleRepository.save(alive);
+            Order order = saveOrder(old3, OrderStatus.DELIVERED);
+            order.setAddress(ordered);
+            orderRepository.save(order);
+
+            assertEquals(3, service(com.simple_online_store_backend.enums.RetentionMode.PURGE).purgeExpiredAccounts());
+
+            assertEquals(List.of("alive", "recent"),
+                    peopleRepository.findAll().stream().map(Person::getUserName).sorted().toList());
+            assertTrue(peopleRepository.findById(recent.getId()).isPresent());
+            assertFalse(addressRepository.existsById(orphan.getId()));
+            assertTrue(addressRepository.existsById(shared.getId()));
+            assertTrue(addressRepository.existsById(ordered.getId()));
+            assertNull(orderRepository.findById(order.getId()).orElseThrow().getPerson(), "Order history outlives its owner");
+            org.mockito.Mockito.verify(refreshTokenService).deleteRefreshToken("old1");
+            org.mockito.Mockito.verify(refreshTokenService).deleteRefreshToken("old3");
+        }
+
+        @Test
+        void anonymize_keepsRowWithoutPersonalData_andDoesNotPickItUpAgain() {
+            var orphan = saveAddress("Orphan");
+            Person old = deactivated("old", 400, orphan);
+
+            var service = service(com.simple_online_store_backend.enums.RetentionMode.ANONYMIZE);
+            assertEquals(1, service.purgeExpiredAccounts());
+            assertEquals(0, service.purgeExpiredAccounts());
+
+            Person reloaded = peopleRepository.findById(old.getId()).orElseThrow();
+            assertEquals("deleted-" + old.getId(), reloaded.getUserName());
+            assertEquals("deleted-" + old.getId() + "@invalid", reloaded.getEmail());
+            assertNull(reloaded.getPhoneNumber());
+            assertNull(reloaded.getDateOfBirth());
+            assertNull(reloaded.getAddress());
+            assertNull(reloaded.getDeactivatedAt());
+            assertTrue(reloaded.getDeleted());
+            assertFalse(addressRepository.existsById(orphan.getId()));
+            org.mockito.Mockito.verify(refreshTokenService).deleteRefreshToken("old");
+        }
+
+        @Test
+        void legacyDeactivatedAccounts_getARetentionDate_butAnonymizedOnesDoNot() {
+            Person legacy = savePerson("legacy", "legacy@test.io", "ROLE_USER", LocalDate.of(1990, 1, 1), "+49-111", true, "Test234");
+            Person active = savePerson("active", "active@test.io", "ROLE_USER", LocalDate.of(1990, 1, 1), "+49-111", false, "Test234");
+            Person anonymized = savePerson("anon", "anon@test.io", "ROLE_USER", null, null, true, "Test234");
+            anonymized.setPassword("!");
+            peopleRepository.save(anonymized);
+
+            var service = service(com.simple_online_store_backend.enums.RetentionMode.PURGE);
+            assertEquals(1, service.startUndatedRetention());
+            assertEquals(0, service.startUndatedRetention());
+
+            assertNotNull(peopleRepository.findById(legacy.getId()).orElseThrow().getDeactivatedAt());
+            assertNull(peopleRepository.findById(active.getId()).orElseThrow().getDeactivatedAt());
+            assertNull(peopleRepository.findById(anonymized.getId()).orElseThrow().getDeactivatedAt());
+        }
+    }
+
     private Order saveOrder(Person person, OrderStatus status) {
         Order o = new Order();
         o.setPerson(person);
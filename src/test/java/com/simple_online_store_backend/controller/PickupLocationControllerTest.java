@@ -6,7 +6,9 @@ import com.simple_online_store_backend.entity.Person;
 import com.simple_online_store_backend.entity.PickupLocation;
 import com.simple_online_store_backend.repository.PeopleRepository;
 import com.simple_online_store_backend.repository.PickupLocationRepository;
+import com.simple_online_store_backend.repository.PickupSlotRepository;
 import com.simple_online_store_backend.security.PersonDetails;
+import com.simple_online_store_backend.service.PickupLocationRegistry;
 import com.simple_online_store_backend.service.PickupLocationService;
 import org.junit.jupiter.api.*;
 import org.mockito.Mockito;
@@ -40,13 +42,18 @@ class PickupLocationControllerTest {
 
     @Autowired PickupLocationRepository pickupLocationRepository;
     @Autowired PeopleRepository peopleRepository;
+    @Autowired PickupSlotRepository pickupSlotRepository;
+    @Autowired PickupLocationRegistry pickupLocationRegistry;
 
     @MockitoSpyBean PickupLocationService pickupLocationService;
 
     @BeforeEach
     void setup() {
+        pickupSlotRepository.deleteAll();
         pickupLocationRepository.deleteAll();
         peopleRepository.deleteAll();
+        // Fixtures go straight to the table, past the in-memory registry
+        pickupLocationRegistry.refresh();
         Mockito.reset(pickupLocationService);
         SecurityContextHolder.clearContext();
     }
@@ -74,7 +81,9 @@ class PickupLocationControllerTest {
         loc.setStreet(street);
         loc.setHouseNumber(house);
         loc.setActive(active);
-        return pickupLocationRepository.save(loc);
+        var saved = pickupLocationRepository.save(loc);
+        pickupLocationRegistry.refresh();
+        return saved;
     }
 
     private String body(String city, String street, String house) throws Exception {
@@ -628,5 +637,357 @@ class PickupLocationControllerTest {
             }
         }
     }
-}
 
+    @Nested
+    class methodPickupSlots {
+
+        private String schedule(java.time.LocalDate from, java.time.LocalDate to, String opensAt, String closesAt,
+                                int minutes, int capacity) throws Exception {
+            return objectMapper.writeValueAsString(java.util.Map.of(
+                    "fromDate", from.toString(), "toDate", to.toString(),
+                    "opensAt", opensAt, "closesAt", closesAt,
+                    "slotMinutes", minutes, "capacity", capacity));
+        }
+
+        @Test
+        void addSlots_admin_createsSlotsForEveryDay_returns200() throws Exception {
+            var admin = saveUser("admin", "admin@example.com", "ROLE_ADMIN");
+            var loc = saveLocation("Berlin", "Main", "1A", true);
+            var tomorrow = java.time.LocalDate.now().plusDays(1);
+
+            mvc.perform(post("/pickup/{id}/add-slots", loc.getId())
+                            .with(authentication(auth(admin)))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(schedule(tomorrow, tomorrow.plusDays(1), "09:00", "12:00", 60, 5)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(6)))
+                    .andExpect(jsonPath("$[0].start").value(tomorrow + "T09:00:00"))
+                    .andExpect(jsonPath("$[0].end").value(tomorrow + "T10:00:00"))
+                    .andExpect(jsonPath("$[0].available").value(5));
+
+            // Re-running the same schedule updates capacity instead of duplicating slots
+            mvc.perform(post("/pickup/{id}/add-slots", loc.getId())
+                            .with(authentication(auth(admin)))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(schedule(tomorrow, tomorrow.plusDays(1), "09:00", "12:00", 60, 8)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(6)))
+                    .andExpect(jsonPath("$[*].capacity", everyItem(is(8))));
+        }
+
+        @Test
+        void addSlots_rangeTooLong_returns400() throws Exception {
+            var admin = saveUser("admin", "admin@example.com", "ROLE_ADMIN");
+            var loc = saveLocation("Berlin", "Main", "1A", true);
+            var today = java.time.LocalDate.now();
+
+            mvc.perform(post("/pickup/{id}/add-slots", loc.getId())
+                            .with(authentication(auth(admin)))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(schedule(today, today.plusDays(40), "09:00", "12:00", 60, 5)))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.code").value("VALIDATION_ERROR"))
+                    .andExpect(jsonPath("$.message").value("Slots can be scheduled for at most 31 days at once"));
+        }
+
+        @Test
+        void addSlots_user_returns403() throws Exception {
+            var user = saveUser("user", "user@example.com", "ROLE_USER");
+            var loc = saveLocation("Berlin", "Main", "1A", true);
+            var tomorrow = java.time.LocalDate.now().plusDays(1);
+
+            mvc.perform(post("/pickup/{id}/add-slots", loc.getId())
+                            .with(authentication(auth(user)))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(schedule(tomorrow, tomorrow, "09:00", "12:00", 60, 5)))
+                    .andExpect(status().isForbidden());
+        }
+
+        @Test
+        void availableSlots_listsOnlyFutureSlotsWithFreePlaces() throws Exception {
+            var admin = saveUser("admin", "admin@example.com", "ROLE_ADMIN");
+            var user = saveUser("user", "user@example.com", "ROLE_USER");
+            var loc = saveLocation("Berlin", "Main", "1A", true);
+            var tomorrow = java.time.LocalDate.now().plusDays(1);
+
+            String created = mvc.perform(post("/pickup/{id}/add-slots", loc.getId())
+                            .with(authentication(auth(admin)))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(schedule(tomorrow, tomorrow, "09:00", "11:00", 60, 1)))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            int firstSlot = objectMapper.readTree(created).get(0).get("id").asInt();
+            var full = pickupSlotRepository.findById(firstSlot).orElseThrow();
+            full.setReserved(1);
+            pickupSlotRepository.save(full);
+
+            mvc.perform(get("/pickup/{id}/available-slots", loc.getId())
+                            .param("days", "2")
+                            .with(authentication(auth(user))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(1)))
+                    .andExpect(jsonPath("$[0].start").value(tomorrow + "T10:00:00"))
+                    .andExpect(jsonPath("$[0].available").value(1));
+        }
+
+        @Test
+        void availableSlots_closedLocation_returnsEmptyList() throws Exception {
+            var admin = saveUser("admin", "admin@example.com", "ROLE_ADMIN");
+            var loc = saveLocation("Berlin", "Main", "1A", false);
+            var tomorrow = java.time.LocalDate.now().plusDays(1);
+
+            mvc.perform(post("/pickup/{id}/add-slots", loc.getId())
+                            .with(authentication(auth(admin)))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(schedule(tomorrow, tomorrow, "09:00", "11:00", 60, 3)))
+                    .andExpect(status().isOk());
+
+            mvc.perform(get("/pickup/{id}/available-slots", loc.getId()).with(authentication(auth(admin))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(0)));
+        }
+
+        @Test
+        void availableSlots_invalidDays_returns400() throws Exception {
+            var user = saveUser("user", "user@example.com", "ROLE_USER");
+
+            mvc.perform(get("/pickup/{id}/available-slots", 1).param("days", "30")
+                            .with(authentication(auth(user))))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value("'days' must be between 1 and 14"));
+        }
+    }
+
+    @Nested
+    class methodNearestPickupLocations {
+
+        private PickupLocation saveLocated(String city, boolean active, double lat, double lon) {
+            var loc = new PickupLocation();
+            loc.setCity(city);
+            loc.setStreet("Main");
+            loc.setHouseNumber("1");
+            loc.setActive(active);
+            loc.setLatitude(lat);
+            loc.setLongitude(lon);
+            var saved = pickupLocationRepository.save(loc);
+            pickupLocationRegistry.refresh();
+            return saved;
+        }
+
+        @Test
+        void nearest_user_getsOpenLocationsClosestFirst() throws Exception {
+            var user = saveUser("user", "user@example.com", "ROLE_USER");
+            var berlin = saveLocated("Berlin", true, 52.5200, 13.4050);
+            var potsdam = saveLocated("Potsdam", true, 52.3989, 13.0657);
+            saveLocated("Spandau", false, 52.5350, 13.2000);
+            saveLocated("Munich", true, 48.1351, 11.5820);
+            saveLocation("Hamburg", "Main", "7", true);
+
+            mvc.perform(get("/pickup/nearest").param("lat", "52.51").param("lon", "13.39").param("limit", "2")
+                            .with(authentication(auth(user))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(2)))
+                    .andExpect(jsonPath("$[0].id").value(berlin.getId()))
+                    .andExpect(jsonPath("$[0].distanceKm", lessThan(2.0)))
+                    .andExpect(jsonPath("$[1].id").value(potsdam.getId()))
+                    .andExpect(jsonPath("$[1].city").value("Potsdam"));
+        }
+
+        @Test
+        void nearest_followsAddAndClose_withoutReload() throws Exception {
+            var admin = saveUser("admin", "admin@example.com", "ROLE_ADMIN");
+            var dto = new PickupLocationRequestDTO();
+            dto.setCity("Berlin");
+            dto.setStreet("Main");
+            dto.setHouseNumber("1A");
+            dto.setLatitude(52.52);
+            dto.setLongitude(13.405);
+
+            mvc.perform(post("/pickup/add-pickup-location")
+                            .with(authentication(auth(admin)))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(dto)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.latitude").value(52.52))
+                    .andExpect(jsonPath("$.longitude").value(13.405));
+            int id = pickupLocationRepository.findAll().get(0).getId();
+
+            mvc.perform(get("/pickup/nearest").param("lat", "52.5").param("lon", "13.4")
+                            .with(authentication(auth(admin))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(1)))
+                    .andExpect(jsonPath("$[0].id").value(id));
+
+            mvc.perform(patch("/pickup/{id}/close-pick-up-location", id).with(authentication(auth(admin))))
+                    .andExpect(status().isOk());
+
+            mvc.perform(get("/pickup/nearest").param("lat", "52.5").param("lon", "13.4")
+                            .with(authentication(auth(admin))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(0)));
+        }
+
+        @Test
+        void add_latitudeWithoutLongitude_returns400() throws Exception {
+            var admin = saveUser("admin", "admin@example.com", "ROLE_ADMIN");
+            var dto = new PickupLocationRequestDTO();
+            dto.setCity("Berlin");
+            dto.setStreet("Main");
+            dto.setHouseNumber("1A");
+            dto.setLatitude(52.52);
+
+            mvc.perform(post("/pickup/add-pickup-location")
+                            .with(authentication(auth(admin)))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(dto)))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value("Latitude and longitude must be given together"));
+        }
+
+        @Test
+        void nearest_invalidLatitude_returns400() throws Exception {
+            var user = saveUser("user", "user@example.com", "ROLE_USER");
+
+            mvc.perform(get("/pickup/nearest").param("lat", "95").param("lon", "13.4")
+                            .with(authentication(auth(user))))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value("'lat' must be between -90 and 90"));
+        }
+
+        @Test
+        void nearest_unauthorized_returns401() throws Exception {
+            mvc.perform(get("/pickup/nearest").param("lat", "52.5").param("lon", "13.4"))
+                    .andExpect(status().isUnauthorized());
+        }
+    }
+
+    @Nested
+    class methodPickupLocationRegistry {
+
+        @Test
+        void getAll_cityFilter_isCaseInsensitive_andHidesClosedFromUsers() throws Exception {
+            var user = saveUser("user", "user@example.com", "ROLE_USER");
+            var admin = saveUser("admin", "admin@example.com", "ROLE_ADMIN");
+            var open = saveLocation("Berlin", "Main", "1A", true);
+            saveLocation("Berlin", "Side", "2", false);
+            saveLocation("Munich", "Main", "3", true);
+
+            mvc.perform(get("/pickup/all-pickup-location").param("city", " berlin ").with(authentication(auth(user))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(1)))
+                    .andExpect(jsonPath("$[0].id").value(open.getId()));
+
+            mvc.perform(get("/pickup/all-pickup-location").param("city", "BERLIN").with(authentication(auth(admin))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(2)));
+        }
+
+        @Test
+        void adminChanges_areServedWithoutReload() throws Exception {
+            var user = saveUser("user", "user@example.com", "ROLE_USER");
+            var admin = saveUser("admin", "admin@example.com", "ROLE_ADMIN");
+            var loc = saveLocation("Berlin", "Main", "1A", true);
+
+            mvc.perform(patch("/pickup/{id}/update-pick-up-location", loc.getId())
+                            .with(authentication(auth(admin)))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(body("Potsdam", "Main", "1A")))
+                    .andExpect(status().isOk());
+            mvc.perform(patch("/pickup/{id}/close-pick-up-location", loc.getId()).with(authentication(auth(admin))))
+                    .andExpect(status().isOk());
+
+            mvc.perform(get("/pickup/all-pickup-location").with(authentication(auth(admin))))
+                    .andExpect(jsonPath("$", hasSize(1)))
+                    .andExpect(jsonPath("$[0].city").value("Potsdam"));
+            mvc.perform(get("/pickup/all-pickup-location").with(authentication(auth(user))))
+                    .andExpect(jsonPath("$", hasSize(0)));
+        }
+    }
+
+    @Nested
+    class methodBulkStatus {
+
+        private String bulkBody(boolean active, java.util.List<Integer> ids, String city) throws Exception {
+            var request = new java.util.LinkedHashMap<String, Object>();
+            request.put("active", active);
+            request.put("ids", ids);
+            request.put("city", city);
+            return objectMapper.writeValueAsString(request);
+        }
+
+        @Test
+        void bulkClose_byIds_reportsEachOutcome_andUpdatesRegistry() throws Exception {
+            var admin = saveUser("admin", "admin@example.com", "ROLE_ADMIN");
+            var user = saveUser("user", "user@example.com", "ROLE_USER");
+            var open = saveLocation("Berlin", "Main", "1A", true);
+            var closed = saveLocation("Berlin", "Side", "2", false);
+            var other = saveLocation("Munich", "Main", "3", true);
+            int missing = other.getId() + 100;
+
+            mvc.perform(patch("/pickup/bulk-status")
+                            .with(authentication(auth(admin)))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(bulkBody(false, java.util.List.of(open.getId(), closed.getId(), missing), null)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.active").value(false))
+                    .andExpect(jsonPath("$.processed").value(3))
+                    .andExpect(jsonPath("$.changed").value(1))
+                    .andExpect(jsonPath("$.unchanged").value(1))
+                    .andExpect(jsonPath("$.notFound").value(1))
+                    .andExpect(jsonPath("$.results[0].outcome").value("CHANGED"))
+                    .andExpect(jsonPath("$.results[1].outcome").value("UNCHANGED"))
+                    .andExpect(jsonPath("$.results[2].id").value(missing))
+                    .andExpect(jsonPath("$.results[2].outcome").value("NOT_FOUND"));
+
+            Assertions.assertFalse(pickupLocationRepository.findById(open.getId()).orElseThrow().getActive());
+            Assertions.assertTrue(pickupLocationRepository.findById(other.getId()).orElseThrow().getActive());
+
+            mvc.perform(get("/pickup/all-pickup-location").with(authentication(auth(user))))
+                    .andExpect(jsonPath("$", hasSize(1)))
+                    .andExpect(jsonPath("$[0].id").value(other.getId()));
+        }
+
+        @Test
+        void bulkOpen_byCity_opensEveryLocationOfTheCity() throws Exception {
+            var admin = saveUser("admin", "admin@example.com", "ROLE_ADMIN");
+            saveLocation("Berlin", "Main", "1A", false);
+            saveLocation("Berlin", "Side", "2", true);
+            var munich = saveLocation("Munich", "Main", "3", false);
+
+            mvc.perform(patch("/pickup/bulk-status")
+                            .with(authentication(auth(admin)))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(bulkBody(true, null, "berlin")))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.processed").value(2))
+                    .andExpect(jsonPath("$.changed").value(1))
+                    .andExpect(jsonPath("$.unchanged").value(1));
+
+            Assertions.assertFalse(pickupLocationRepository.findById(munich.getId()).orElseThrow().getActive());
+            Assertions.assertEquals(2, pickupLocationRepository.findByActiveTrue().size());
+        }
+
+        @Test
+        void bulk_idsAndCity_returns400() throws Exception {
+            var admin = saveUser("admin", "admin@example.com", "ROLE_ADMIN");
+
+            mvc.perform(patch("/pickup/bulk-status")
+                            .with(authentication(auth(admin)))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(bulkBody(false, java.util.List.of(1), "Berlin")))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value("Exactly one of ids or city must be provided"));
+        }
+
+        @Test
+        void bulk_user_forbidden_returns403() throws Exception {
+            var user = saveUser("user", "user@example.com", "ROLE_USER");
+
+            mvc.perform(patch("/pickup/bulk-status")
+                            .with(authentication(auth(user)))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(bulkBody(false, java.util.List.of(1), null)))
+                    .andExpect(status().isForbidden());
+        }
+    }
+}
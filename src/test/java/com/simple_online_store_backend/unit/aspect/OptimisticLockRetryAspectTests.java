@@ -0,0 +1,82 @@
+package com.simple_online_store_backend.unit.aspect;
+
+import com.simple_online_store_backend.aspect.OptimisticLockRetryAspect;
+import com.simple_online_store_backend.aspect.RetryOnConflict;
+import com.simple_online_store_backend.exception.ConcurrentUpdateException;
+import com.simple_online_store_backend.exception.ValidationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OptimisticLockRetryAspectTests {
+
+    static class Target {
+        final AtomicInteger calls = new AtomicInteger();
+        int failuresBeforeSuccess;
+
+        @RetryOnConflict
+        public String update() {
+            if (calls.incrementAndGet() <= failuresBeforeSuccess) {
+                throw new ObjectOptimisticLockingFailureException(Object.class, 1);
+            }
+            return "ok";
+        }
+
+        @RetryOnConflict
+        public String reject() {
+            calls.incrementAndGet();
+            throw new ValidationException("Only orders with status PENDING can be cancelled");
+        }
+
+        public String plain() {
+            calls.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException(Object.class, 1);
+        }
+    }
+
+    private Target proxy(Target target) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new OptimisticLockRetryAspect(3, 1, 5));
+        return factory.getProxy();
+    }
+
+    @Test
+    void retriesUntilAttemptSucceeds() {
+        Target target = new Target();
+        target.failuresBeforeSuccess = 2;
+
+        assertEquals("ok", proxy(target).update());
+        assertEquals(3, target.calls.get());
+    }
+
+    @Test
+    void throwsConflictWhenAttemptsAreExhausted() {
+        Target target = new Target();
+        target.failuresBeforeSuccess = Integer.MAX_VALUE;
+
+        ConcurrentUpdateException ex = assertThrows(ConcurrentUpdateException.class, () -> proxy(target).update());
+        assertInstanceOf(ObjectOptimisticLockingFailureException.class, ex.getCause());
+        assertEquals(3, target.calls.get());
+    }
+
+    @Test
+    void doesNotRetryBusinessErrors() {
+        Target target = new Target();
+
+        assertThrows(ValidationException.class, () -> proxy(target).reject());
+        assertEquals(1, target.calls.get());
+    }
+
+    @Test
+    void ignoresMethodsWithoutAnnotation() {
+        Target target = new Target();
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> proxy(target).plain());
+        assertEquals(1, target.calls.get());
+    }
+}
@@ -0,0 +1,175 @@
+package com.simple_online_store_backend.unit.datasource;
+
+import com.simple_online_store_backend.datasource.ReadReplicaRoutingDataSource;
+import com.simple_online_store_backend.datasource.ReadYourWritesTracker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Each test wires the router over separate in-memory H2 databases; every database holds a single
+ * row naming itself, so a query tells which one served it.
+ */
+class ReadReplicaRoutingDataSourceTests {
+
+    private final List<String> dbNames = new ArrayList<>();
+
+    private DataSource database(String label) {
+        String name = label + "_" + UUID.randomUUID().toString().substring(0, 8);
+        dbNames.add(name);
+        DataSource ds = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(ds);
+        jdbc.execute("CREATE TABLE whoami (name VARCHAR(20))");
+        jdbc.update("INSERT INTO whoami VALUES (?)", label);
+        return ds;
+    }
+
+    private static DataSource unreachable() {
+        return new DriverManagerDataSource("jdbc:h2:tcp://127.0.0.1:1/nowhere", "sa", "");
+    }
+
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+    private ReadReplicaRoutingDataSource routing;
+
+    private void wire(DataSource primary, List<DataSource> replicas, long readYourWritesWindowMs) {
+        routing = new ReadReplicaRoutingDataSource(primary, replicas, new ReadYourWritesTracker(readYourWritesWindowMs), 1);
+        DataSource lazy = new LazyConnectionDataSourceProxy(routing);
+        DataSourceTransactionManager tm = new DataSourceTransactionManager(lazy);
+        jdbc = new JdbcTemplate(lazy);
+        readOnly = new TransactionTemplate(tm);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(tm);
+    }
+
+    private String readOnlyServer() {
+        return readOnly.execute(tx -> jdbc.queryForObject("SELECT name FROM whoami", String.class));
+    }
+
+    @BeforeEach
+    void noRequestOrUser() {
+        RequestContextHolder.resetRequestAttributes();
+        SecurityContextHolder.clearContext();
+    }
+
+    @AfterEach
+    void dropDatabases() {
+        RequestContextHolder.resetRequestAttributes();
+        SecurityContextHolder.clearContext();
+        for (String name : dbNames) {
+            try {
+                new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:" + name, "sa", "")).execute("SHUTDOWN");
+            } catch (RuntimeException ignored) {
+                // already gone
+            }
+        }
+    }
+
+    @Test
+    void readOnlyTransactions_goToReplica_othersToPrimary() {
+        wire(database("primary"), List.of(database("replica")), 0);
+
+        assertEquals("replica", readOnlyServer());
+        assertEquals("primary", readWrite.execute(tx -> jdbc.queryForObject("SELECT name FROM whoami", String.class)));
+        assertEquals("primary", jdbc.queryForObject("SELECT name FROM whoami", String.class));
+    }
+
+    @Test
+    void replicas_areUsedRoundRobin() {
+        wire(database("primary"), List.of(database("replica1"), database("replica2")), 0);
+
+        List<String> served = List.of(readOnlyServer(), readOnlyServer(), readOnlyServer(), readOnlyServer());
+
+        assertEquals(List.of("replica1", "replica2", "replica1", "replica2"), served);
+    }
+
+    @Test
+    void failingReplica_isSkipped_andMarkedDownUntilHealthCheckPasses() {
+        wire(database("primary"), List.of(unreachable(), database("replica2")), 0);
+
+        assertEquals("replica2", readOnlyServer());
+        assertEquals("replica2", readOnlyServer());
+        assertEquals(1, routing.healthyReplicaCount());
+
+        routing.checkReplicas();
+        assertEquals(1, routing.healthyReplicaCount());
+    }
+
+    @Test
+    void noHealthyReplica_fallsBackToPrimary() {
+        wire(database("primary"), List.of(unreachable()), 0);
+
+        routing.checkReplicas();
+
+        assertEquals(0, routing.healthyReplicaCount());
+        assertEquals("primary", readOnlyServer());
+    }
+
+    @Test
+    void explicitCredentials_areRoutedToo() throws Exception {
+        wire(database("primary"), List.of(database("replica")), 0);
+
+        String served = readOnly.execute(tx -> {
+            try (Connection connection = routing.getConnection("sa", "");
+                 ResultSet rs = connection.createStatement().executeQuery("SELECT name FROM whoami")) {
+                rs.next();
+                return rs.getString(1);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertEquals("replica", served);
+        try (Connection connection = routing.getConnection("sa", "");
+             ResultSet rs = connection.createStatement().executeQuery("SELECT name FROM whoami")) {
+            rs.next();
+            assertEquals("primary", rs.getString(1));
+        }
+    }
+
+    @Test
+    void readAfterWriteInSameRequest_goesToPrimary() {
+        wire(database("primary"), List.of(database("replica")), 0);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        assertEquals("replica", readOnlyServer());
+        readWrite.executeWithoutResult(tx -> jdbc.update("UPDATE whoami SET name = name"));
+
+        assertEquals("primary", readOnlyServer());
+    }
+
+    @Test
+    void userWhoJustWrote_readsFromPrimary_untilWindowExpires() throws InterruptedException {
+        wire(database("primary"), List.of(database("replica")), 200);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "maria", null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+
+        readWrite.executeWithoutResult(tx -> jdbc.update("UPDATE whoami SET name = name"));
+        assertEquals("primary", readOnlyServer());
+
+        Thread.sleep(250);
+        assertEquals("replica", readOnlyServer());
+    }
+}
@@ -0,0 +1,95 @@
+package com.simple_online_store_backend.unit.service;
+
+import com.simple_online_store_backend.dto.person.DeactivationJobResponse;
+import com.simple_online_store_backend.dto.person.PersonBatchDeactivationRequest;
+import com.simple_online_store_backend.enums.DeactivationJobStatus;
+import com.simple_online_store_backend.repository.PeopleRepository;
+import com.simple_online_store_backend.service.AccountDeactivationService;
+import com.simple_online_store_backend.service.PeopleService;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccountDeactivationServiceTests {
+
+    @Mock PeopleRepository peopleRepository;
+    @Mock PeopleService peopleService;
+    @Mock PlatformTransactionManager transactionManager;
+
+    AccountDeactivationService service;
+
+    @BeforeEach
+    void setUp() {
+        // Sync executor: the job has finished by the time startBatchDeactivation returns
+        service = new AccountDeactivationService(peopleRepository, peopleService, transactionManager,
+                new SyncTaskExecutor(), 2, 60);
+    }
+
+    @Test
+    void job_processesChunks_andAggregatesCounts() {
+        when(peopleRepository.lockAccountStatesByIdIn(List.of(1, 2)))
+                .thenReturn(List.of(new Object[]{1L, "ROLE_USER", false}, new Object[]{2L, "ROLE_USER", true}));
+        when(peopleRepository.lockAccountStatesByIdIn(List.of(3, 4)))
+                .thenReturn(List.of(new Object[]{3L, "ROLE_ADMIN", false}, new Object[]{4L, "ROLE_USER", false}));
+        when(peopleRepository.lockAccountStatesByIdIn(List.of(5)))
+                .thenReturn(List.of());
+        when(peopleService.cancelActiveOrdersOf(List.of(1))).thenReturn(3);
+        when(peopleService.cancelActiveOrdersOf(List.of(4))).thenReturn(0);
+        when(peopleRepository.deactivateByIdIn(any())).thenReturn(1);
+
+        DeactivationJobResponse started = service.startBatchDeactivation(req(1, 2, 3, 4, 5, 1));
+        DeactivationJobResponse job = service.getJob(started.getJobId());
+
+        assertEquals(DeactivationJobStatus.COMPLETED, job.getStatus());
+        assertEquals(5, job.getTotal());
+        assertEquals(5, job.getProcessed());
+        assertEquals(2, job.getDeactivated());
+        assertEquals(1, job.getAlreadyInactive());
+        assertEquals(1, job.getSkippedAdmins());
+        assertEquals(1, job.getNotFound());
+        assertEquals(3, job.getOrdersCancelled());
+        assertNotNull(job.getFinishedAt());
+        verify(transactionManager, times(3)).commit(any());
+        verify(peopleRepository, never()).deactivateByIdIn(List.of(3));
+    }
+
+    @Test
+    void job_failsAndKeepsProgress_whenChunkThrows() {
+        when(peopleRepository.lockAccountStatesByIdIn(List.of(1, 2)))
+                .thenReturn(List.<Object[]>of(new Object[]{1L, "ROLE_USER", false}));
+        when(peopleRepository.deactivateByIdIn(List.of(1))).thenReturn(1);
+        when(peopleRepository.lockAccountStatesByIdIn(List.of(3)))
+                .thenThrow(new RuntimeException("lock timeout"));
+
+        DeactivationJobResponse job = service.getJob(service.startBatchDeactivation(req(1, 2, 3)).getJobId());
+
+        assertEquals(DeactivationJobStatus.FAILED, job.getStatus());
+        assertEquals("lock timeout", job.getError());
+        assertEquals(2, job.getProcessed());
+        assertEquals(1, job.getDeactivated());
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void getJob_unknownId_throwsNotFound() {
+        assertThrows(EntityNotFoundException.class, () -> service.getJob("missing"));
+    }
+
+    private static PersonBatchDeactivationRequest req(Integer... ids) {
+        PersonBatchDeactivationRequest r = new PersonBatchDeactivationRequest();
+        r.setPersonIds(List.of(ids));
+        return r;
+    }
+}
@@ -0,0 +1,122 @@
+package com.simple_online_store_backend.unit.service;
+
+import com.simple_online_store_backend.enums.RetentionMode;
+import com.simple_online_store_backend.repository.AddressRepository;
+import com.simple_online_store_backend.repository.PeopleRepository;
+import com.simple_online_store_backend.service.AccountRetentionService;
+import com.simple_online_store_backend.service.RefreshTokenService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccountRetentionServiceTests {
+
+    @Mock PeopleRepository peopleRepository;
+    @Mock AddressRepository addressRepository;
+    @Mock RefreshTokenService refreshTokenService;
+    @Mock PlatformTransactionManager transactionManager;
+
+    final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private AccountRetentionService service(RetentionMode mode, long pauseMs) {
+        return new AccountRetentionService(peopleRepository, addressRepository, refreshTokenService, transactionManager,
+                meterRegistry, 30, mode, 2, 5, pauseMs);
+    }
+
+    private static Object[] account(int id, String userName, Integer addressId) {
+        return new Object[]{id, userName, addressId};
+    }
+
+    @Test
+    void purgeBatch_deletesAccounts_andTheirOrphanedAddresses_thenRevokesSessions() {
+        when(peopleRepository.lockExpiredDeactivated(any(), eq(2)))
+                .thenReturn(List.<Object[]>of(account(1, "ann", 10), account(2, "bob", null)));
+        when(peopleRepository.purgeByIdIn(List.of(1, 2))).thenReturn(2);
+        when(addressRepository.deleteUnreferencedByIdIn(Set.of(10))).thenReturn(1);
+
+        assertEquals(2, service(RetentionMode.PURGE, 0).purgeBatch(LocalDateTime.now()));
+
+        verify(peopleRepository, never()).anonymizeByIdIn(any());
+        verify(transactionManager).commit(any());
+        verify(refreshTokenService).deleteRefreshToken("ann");
+        verify(refreshTokenService).deleteRefreshToken("bob");
+        assertEquals(2, meterRegistry.get("people.retention.accounts").tag("mode", "PURGE").counter().count());
+        assertEquals(1, meterRegistry.get("people.retention.addresses").counter().count());
+        assertEquals(1, meterRegistry.get("people.retention.batches").counter().count());
+    }
+
+    @Test
+    void purgeBatch_anonymizeMode_keepsRows() {
+        when(peopleRepository.lockExpiredDeactivated(any(), anyInt())).thenReturn(List.<Object[]>of(account(1, "ann", null)));
+        when(peopleRepository.anonymizeByIdIn(List.of(1))).thenReturn(1);
+
+        assertEquals(1, service(RetentionMode.ANONYMIZE, 0).purgeBatch(LocalDateTime.now()));
+
+        verify(peopleRepository, never()).purgeByIdIn(any());
+        verifyNoInteractions(addressRepository);
+    }
+
+    @Test
+    void purgeExpiredAccounts_runsBatchesUntilShortBatch_andRecordsBacklog() {
+        when(peopleRepository.lockExpiredDeactivated(any(), eq(2)))
+                .thenReturn(List.<Object[]>of(account(1, "a", null), account(2, "b", null)), List.<Object[]>of(account(3, "c", null)));
+        when(peopleRepository.purgeByIdIn(anyCollection()))
+                .thenAnswer(inv -> ((java.util.Collection<?>) inv.getArgument(0)).size());
+        when(peopleRepository.countExpiredDeactivated(any())).thenReturn(0L);
+
+        assertEquals(3, service(RetentionMode.PURGE, 0).purgeExpiredAccounts());
+
+        verify(peopleRepository, times(2)).lockExpiredDeactivated(
+                argThat(cutoff -> cutoff.isBefore(LocalDateTime.now().minusDays(29))), eq(2));
+        assertEquals(0, meterRegistry.get("people.retention.backlog").gauge().value());
+    }
+
+    @Test
+    void purgeExpiredAccounts_pausesBetweenBatches() {
+        when(peopleRepository.lockExpiredDeactivated(any(), anyInt()))
+                .thenReturn(List.<Object[]>of(account(1, "a", null), account(2, "b", null)), List.of());
+        when(peopleRepository.purgeByIdIn(anyCollection())).thenReturn(2);
+        when(peopleRepository.countExpiredDeactivated(any())).thenReturn(0L);
+
+        long started = System.nanoTime();
+        assertEquals(2, service(RetentionMode.PURGE, 150).purgeExpiredAccounts());
+
+        assertTrue((System.nanoTime() - started) / 1_000_000 >= 150);
+    }
+
+    @Test
+    void purgeExpiredAccounts_rollsBackAndStops_whenRowsVanish() {
+        when(peopleRepository.lockExpiredDeactivated(any(), anyInt()))
+                .thenReturn(List.<Object[]>of(account(1, "a", null), account(2, "b", null)));
+        when(peopleRepository.purgeByIdIn(anyCollection())).thenReturn(1);
+        when(peopleRepository.countExpiredDeactivated(any())).thenReturn(2L);
+
+        assertEquals(0, service(RetentionMode.PURGE, 0).purgeExpiredAccounts());
+
+        verify(transactionManager).rollback(any());
+        verifyNoInteractions(refreshTokenService);
+        assertEquals(0, meterRegistry.get("people.retention.accounts").counter().count());
+        assertEquals(2, meterRegistry.get("people.retention.backlog").gauge().value());
+    }
+
+    @Test
+    void purgeBatch_redisDown_stillCountsCommittedBatch() {
+        when(peopleRepository.lockExpiredDeactivated(any(), anyInt())).thenReturn(List.<Object[]>of(account(1, "a", null)));
+        when(peopleRepository.purgeByIdIn(anyCollection())).thenReturn(1);
+        doThrow(new IllegalStateException("redis down")).when(refreshTokenService).deleteRefreshToken("a");
+
+        assertEquals(1, service(RetentionMode.PURGE, 0).purgeBatch(LocalDateTime.now()));
+    }
+}
@@ -7,15 +7,23 @@ import com.simple_online_store_backend.entity.Person;
 import com.simple_online_store_backend.mapper.AddressMapper;
 import com.simple_online_store_backend.repository.AddressRepository;
 import com.simple_online_store_backend.repository.PeopleRepository;
+import com.simple_online_store_backend.security.CurrentUserContext;
+import com.simple_online_store_backend.security.PersonDetails;
 import com.simple_online_store_backend.service.AddressService;
 import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -28,6 +36,8 @@ class AddressServiceTests {
     @Mock PeopleRepository peopleRepository;
     @Mock AddressMapper addressMapper;
 
+    @Spy CurrentUserContext currentUserContext = new CurrentUserContext();
+
     @InjectMocks AddressService addressService;
 
     private AddressRequestDTO req;
@@ -43,19 +53,36 @@ class AddressServiceTests {
 
         person = new Person();
         person.setId(1);
+        person.setRole("ROLE_USER");
+    }
+
+    @AfterEach
+    void clearSecurity() {
+        SecurityContextHolder.clearContext();
     }
 
     // ---------- addAddress
 
-    @Test
-    void addAddress_usesExistingAddress_whenFoundByUniqueFields() {
-        Address existing = new Address();
-        existing.setCity("New York");
+    private static final String FINGERPRINT = Address.fingerprintOf("New York", "Main St", "12A", "34");
 
-        when(peopleRepository.findById(1)).thenReturn(Optional.of(person));
-        when(addressRepository.findByCityAndStreetAndHouseNumberAndApartment(
-                "New York", "Main St", "12A", "34"
-        )).thenReturn(Optional.of(existing));
+    private void personWithAddress(int personId, Integer addressId) {
+        when(peopleRepository.lockAddressRef(personId)).thenReturn(List.<Object[]>of(new Object[]{personId, addressId}));
+    }
+
+    private Address storedAddress(int id) {
+        Address address = new Address();
+        address.setId(id);
+        address.setCity("New York");
+        when(addressRepository.incrementByFingerprint(FINGERPRINT)).thenReturn(1);
+        when(addressRepository.findByFingerprint(FINGERPRINT)).thenReturn(Optional.of(address));
+        return address;
+    }
+
+    @Test
+    void addAddress_upsertsByFingerprint_andLinksTheSurvivingRow() {
+        personWithAddress(1, null);
+        Address existing = storedAddress(5);
+        when(peopleRepository.assignAddress(1, existing)).thenReturn(1);
 
         AddressResponseDTO resp = new AddressResponseDTO();
         resp.setCity("New York");
@@ -64,36 +91,78 @@ class AddressServiceTests {
         AddressResponseDTO result = addressService.addAddress(req, 1);
 
         assertEquals("New York", result.getCity());
-        assertSame(existing, person.getAddress());
+        InOrder inOrder = inOrder(addressRepository, peopleRepository);
+        inOrder.verify(addressRepository).insertIfAbsent("New York", "Main St", "12A", "34", null, FINGERPRINT);
+        inOrder.verify(addressRepository).incrementByFingerprint(FINGERPRINT);
+        inOrder.verify(peopleRepository).assignAddress(1, existing);
         verify(addressRepository, never()).save(any(Address.class));
+        verify(addressRepository, never()).adjustReferenceCount(anyInt(), anyInt());
+        verify(peopleRepository, never()).findById(anyInt());
     }
 
     @Test
-    void addAddress_createsNewAddress_whenNotFound() {
-        when(peopleRepository.findById(1)).thenReturn(Optional.of(person));
-        when(addressRepository.findByCityAndStreetAndHouseNumberAndApartment(
-                "New York", "Main St", "12A", "34"
-        )).thenReturn(Optional.empty());
+    void addAddress_replacingAnotherAddress_releasesTheOldOne() {
+        personWithAddress(1, 9);
+        Address existing = storedAddress(5);
+        when(peopleRepository.assignAddress(1, existing)).thenReturn(1);
 
-        Address mapped = new Address();
-        mapped.setCity("New York");
-        when(addressMapper.mapRequestDTOToAddress(req)).thenReturn(mapped);
+        addressService.addAddress(req, 1);
 
-        AddressResponseDTO resp = new AddressResponseDTO();
-        resp.setCity("New York");
-        when(addressMapper.mapAddressToResponseDTO(mapped)).thenReturn(resp);
+        verify(addressRepository).adjustReferenceCount(9, -1);
+        verify(addressRepository).deleteIfUnreferenced(9);
+    }
 
-        AddressResponseDTO result = addressService.addAddress(req, 1);
+    @Test
+    void addAddress_sameAddressAgain_keepsOneReference() {
+        personWithAddress(1, 5);
+        storedAddress(5);
 
-        assertEquals("New York", result.getCity());
-        assertSame(mapped, person.getAddress());
-        verify(addressRepository).save(mapped);
+        addressService.addAddress(req, 1);
+
+        verify(addressRepository).adjustReferenceCount(5, -1);
+        verify(peopleRepository, never()).assignAddress(anyInt(), any());
+        verify(addressRepository, never()).deleteIfUnreferenced(anyInt());
+    }
+
+    @Test
+    void addAddress_rowCollectedBetweenUpsertAndIncrement_retries() {
+        personWithAddress(1, null);
+        Address existing = storedAddress(5);
+        when(addressRepository.incrementByFingerprint(FINGERPRINT)).thenReturn(0, 1);
+        when(peopleRepository.assignAddress(1, existing)).thenReturn(1);
+
+        addressService.addAddress(req, 1);
+
+        verify(addressRepository, times(2)).insertIfAbsent("New York", "Main St", "12A", "34", null, FINGERPRINT);
+    }
+
+    @Test
+    void fingerprint_ignoresCaseAndWhitespace_butNotFields() {
+        assertEquals(FINGERPRINT, Address.fingerprintOf("  new york", "MAIN   st ", "12a", "34"));
+        assertEquals(Address.fingerprintOf("Berlin", "Main St", "1", null), Address.fingerprintOf("Berlin", "Main St", "1", ""));
+        assertNotEquals(FINGERPRINT, Address.fingerprintOf("New York", "Main St", "12A", "35"));
+        assertNotEquals(Address.fingerprintOf("A b", "c", "1", null), Address.fingerprintOf("A", "b c", "1", null));
+        assertEquals(64, FINGERPRINT.length());
+    }
+
+    @Test
+    void addAddress_updatesCurrentUserSnapshot() {
+        setCurrentUser(person);
+        personWithAddress(1, null);
+        Address existing = storedAddress(5);
+        when(peopleRepository.assignAddress(1, existing)).thenReturn(1);
+
+        addressService.addAddress(req, 1);
+
+        assertSame(existing, person.getAddress());
     }
 
     @Test
     void addAddress_throwsWhenPersonNotFound() {
-        when(peopleRepository.findById(99)).thenReturn(Optional.empty());
+        when(peopleRepository.lockAddressRef(99)).thenReturn(List.of());
+
         assertThrows(EntityNotFoundException.class, () -> addressService.addAddress(req, 99));
+        verify(addressRepository, never()).insertIfAbsent(any(), any(), any(), any(), any(), any());
     }
 
     // ---------- updateAddress
@@ -126,6 +195,35 @@ class AddressServiceTests {
         verify(addressRepository).save(address);
     }
 
+    @Test
+    void updateAddress_toAnExistingAddress_mergesIntoIt() {
+        Address address = new Address();
+        address.setId(10);
+        address.setCity("OldCity");
+        address.setStreet("Main St");
+        address.setHouseNumber("12A");
+        address.setApartment("34");
+        Address target = new Address();
+        target.setId(3);
+
+        AddressRequestDTO patch = new AddressRequestDTO();
+        patch.setCity("New York");
+
+        when(addressRepository.findById(10)).thenReturn(Optional.of(address));
+        when(addressRepository.findByFingerprint(FINGERPRINT)).thenReturn(Optional.of(target));
+
+        addressService.updateAddress(10, patch);
+
+        verify(addressRepository).repointPeople(List.of(10), 3);
+        verify(addressRepository).repointOrders(List.of(10), 3);
+        verify(addressRepository).repointArchivedOrders(List.of(10), 3);
+        verify(addressRepository).deleteByIdIn(List.of(10));
+        verify(addressRepository).recountReferences(List.of(3));
+        verify(addressRepository, never()).save(any(Address.class));
+        assertEquals("OldCity", address.getCity(), "The merged-away row is not modified");
+        verify(addressMapper).mapAddressToResponseDTO(target);
+    }
+
     @Test
     void updateAddress_throwsWhenAddressNotFound() {
         when(addressRepository.findById(123)).thenReturn(Optional.empty());
@@ -133,46 +231,51 @@ class AddressServiceTests {
                 () -> addressService.updateAddress(123, new AddressRequestDTO()));
     }
 
-    @Test
-    void deleteAddress_unlinksFromPerson_andDeletesIfUnusedByOthers() {
-        Address addr = new Address(); addr.setCity("CityX");
-        person.setAddress(addr);
+    // ---------- deleteAddress
 
-        when(peopleRepository.findById(1)).thenReturn(Optional.of(person));
-        when(peopleRepository.existsByAddress(addr)).thenReturn(false);
+    @Test
+    void deleteAddress_unlinksFromPerson_andDeletesIfUnreferenced() {
+        personWithAddress(1, 7);
 
         addressService.deleteAddress(1);
 
-        assertNull(person.getAddress());
-        verify(peopleRepository).save(person);
-        verify(addressRepository).delete(addr);
+        verify(peopleRepository).assignAddress(1, null);
+        verify(addressRepository).adjustReferenceCount(7, -1);
+        verify(addressRepository).deleteIfUnreferenced(7);
     }
 
     @Test
-    void deleteAddress_unlinksButDoesNotDelete_whenUsedByOthers() {
-        Address addr = new Address(); addr.setCity("CityY");
-        person.setAddress(addr);
-
-        when(peopleRepository.findById(1)).thenReturn(Optional.of(person));
-        when(peopleRepository.existsByAddress(addr)).thenReturn(true);
+    void deleteAddress_detachesTheLockedAddress_notTheSnapshot() {
+        Address stale = new Address(); stale.setId(8); stale.setCity("CityY");
+        person.setAddress(stale);
+        setCurrentUser(person);
+        personWithAddress(1, 9);
 
         addressService.deleteAddress(1);
 
-        assertNull(person.getAddress());
-        verify(peopleRepository).save(person);
-        verify(addressRepository, never()).delete(any(Address.class));
+        verify(peopleRepository, never()).findById(anyInt());
+        verify(addressRepository).adjustReferenceCount(9, -1);
+        verify(addressRepository, never()).adjustReferenceCount(eq(8), anyInt());
+        assertNull(person.getAddress(), "Current user snapshot is cleared as well");
     }
 
     @Test
     void deleteAddress_throwsWhenNoAddressSet() {
-        when(peopleRepository.findById(1)).thenReturn(Optional.of(person));
+        personWithAddress(1, null);
         assertThrows(EntityNotFoundException.class, () -> addressService.deleteAddress(1));
-        verify(addressRepository, never()).delete(any(Address.class));
+        verify(peopleRepository, never()).assignAddress(anyInt(), any());
+        verify(addressRepository, never()).deleteIfUnreferenced(anyInt());
     }
 
     @Test
     void deleteAddress_throwsWhenUserNotFound() {
-        when(peopleRepository.findById(42)).thenReturn(Optional.empty());
+        when(peopleRepository.lockAddressRef(42)).thenReturn(List.of());
         assertThrows(EntityNotFoundException.class, () -> addressService.deleteAddress(42));
     }
-}
\ No newline at end of file
+
+    private void setCurrentUser(Person p) {
+        PersonDetails details = new PersonDetails(p);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(details, null, details.getAuthorities()));
+    }
+}
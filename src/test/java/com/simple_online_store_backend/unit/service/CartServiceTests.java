@@ -0,0 +1,213 @@
+package com.simple_online_store_backend.unit.service;
+
+import com.simple_online_store_backend.dto.cart.CartCheckoutRequest;
+import com.simple_online_store_backend.dto.cart.CartItemRequest;
+import com.simple_online_store_backend.dto.cart.CartLineResponse;
+import com.simple_online_store_backend.dto.cart.CartResponse;
+import com.simple_online_store_backend.dto.order.OrderCreateRequest;
+import com.simple_online_store_backend.dto.order.OrderDetailsResponse;
+import com.simple_online_store_backend.entity.Person;
+import com.simple_online_store_backend.entity.Product;
+import com.simple_online_store_backend.exception.ValidationException;
+import com.simple_online_store_backend.repository.ProductRepository;
+import com.simple_online_store_backend.security.CurrentUserContext;
+import com.simple_online_store_backend.security.PersonDetails;
+import com.simple_online_store_backend.service.CartService;
+import com.simple_online_store_backend.service.OrderService;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CartServiceTests {
+
+    @Mock RedisTemplate<String, String> redisTemplate;
+    @Mock HashOperations<String, Object, Object> hashOperations;
+    @Mock ProductRepository productRepository;
+    @Mock OrderService orderService;
+
+    CartService cartService;
+
+    @BeforeEach
+    void setUp() {
+        Person person = new Person();
+        person.setId(5);
+        person.setRole("ROLE_USER");
+        PersonDetails details = new PersonDetails(person);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(details, null, details.getAuthorities()));
+
+        cartService = new CartService(redisTemplate, productRepository, orderService, new CurrentUserContext(), 14, 50, 99);
+    }
+
+    @AfterEach
+    void clear() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private static Product product(int id, String price, boolean available) {
+        Product p = new Product();
+        p.setId(id);
+        p.setProductName("P" + id);
+        p.setPrice(new BigDecimal(price));
+        p.setAvailability(available);
+        return p;
+    }
+
+    // ---------- edits
+
+    @Test
+    void addItem_runsOneScriptOnTheUserHash_andReturnsLines() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(3L);
+        when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        when(hashOperations.entries("cart:5")).thenReturn(Map.of("7", "3", "2", "1"));
+
+        CartItemRequest req = new CartItemRequest();
+        req.setProductId(7);
+        req.setQuantity(2);
+        List<CartLineResponse> lines = cartService.addItem(req);
+
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("cart:5")),
+                eq("7"), eq("2"), eq("add"), eq("99"), eq("50"), eq(String.valueOf(Duration.ofDays(14).toMillis())));
+        assertEquals(List.of(2, 7), lines.stream().map(CartLineResponse::getProductId).toList());
+        assertEquals(3, lines.get(1).getQuantity());
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void addItem_rejectsQuantityAboveLimit() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(-2L);
+
+        CartItemRequest req = new CartItemRequest();
+        req.setProductId(7);
+        req.setQuantity(150);
+
+        ValidationException ex = assertThrows(ValidationException.class, () -> cartService.addItem(req));
+        assertEquals("Quantity of a product cannot exceed 99", ex.getMessage());
+    }
+
+    @Test
+    void setQuantity_rejectsNewLineAboveLineLimit() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(-1L);
+
+        assertThrows(ValidationException.class, () -> cartService.setQuantity(8, 1));
+    }
+
+    @Test
+    void removeItem_setsQuantityToZero() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(0L);
+        when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        when(hashOperations.entries("cart:5")).thenReturn(Map.of());
+
+        assertTrue(cartService.removeItem(7).isEmpty());
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("cart:5")),
+                eq("7"), eq("0"), eq("set"), any(), any(), any());
+    }
+
+    @Test
+    void edits_requireAuthenticatedPerson() {
+        SecurityContextHolder.clearContext();
+        assertThrows(EntityNotFoundException.class, () -> cartService.removeItem(1));
+        verifyNoInteractions(redisTemplate);
+    }
+
+    // ---------- view
+
+    @Test
+    void getCart_loadsProductsInOneQuery_andSkipsUnavailableFromTotal() {
+        when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        when(hashOperations.entries("cart:5")).thenReturn(Map.of("1", "2", "2", "1", "3", "4"));
+        when(productRepository.findAllById(Set.of(1, 2, 3)))
+                .thenReturn(List.of(product(1, "10.00", true), product(2, "5.50", false)));
+
+        CartResponse cart = cartService.getCart();
+
+        assertEquals(3, cart.getItems().size());
+        assertEquals(7, cart.getTotalQuantity());
+        assertEquals(new BigDecimal("20.00"), cart.getTotal());
+        assertFalse(cart.getItems().get(1).isAvailable());
+        assertFalse(cart.getItems().get(2).isAvailable());
+        assertNull(cart.getItems().get(2).getProductName());
+        verify(redisTemplate).expire("cart:5", Duration.ofDays(14));
+        verify(productRepository, times(1)).findAllById(any());
+    }
+
+    // ---------- checkout
+
+    @Test
+    void checkout_emptyCart_throwsWithoutCreatingOrder() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(0L);
+
+        CartCheckoutRequest req = new CartCheckoutRequest();
+        req.setPickupLocationId(1);
+
+        ValidationException ex = assertThrows(ValidationException.class, () -> cartService.checkout(req));
+        assertEquals("Your cart is empty", ex.getMessage());
+        verifyNoInteractions(orderService);
+    }
+
+    @Test
+    void checkout_createsOrderWithOneItemPerUnit_andDeletesClaimedCart() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(1L);
+        when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        when(hashOperations.entries(startsWith("cart:5:checkout:"))).thenReturn(Map.of("4", "2", "9", "1"));
+        OrderDetailsResponse created = new OrderDetailsResponse();
+        created.setId(77);
+        when(orderService.createOrder(any(OrderCreateRequest.class))).thenReturn(created);
+
+        CartCheckoutRequest req = new CartCheckoutRequest();
+        req.setAddressId(3);
+        OrderDetailsResponse result = cartService.checkout(req);
+
+        assertEquals(77, result.getId());
+        ArgumentCaptor<OrderCreateRequest> captor = ArgumentCaptor.forClass(OrderCreateRequest.class);
+        verify(orderService).createOrder(captor.capture());
+        assertEquals(List.of(4, 4, 9), captor.getValue().getProductIds());
+        assertEquals(3, captor.getValue().getAddressId());
+        assertNull(captor.getValue().getPickupLocationId());
+
+        ArgumentCaptor<List<String>> keys = ArgumentCaptor.forClass(List.class);
+        verify(redisTemplate).execute(any(RedisScript.class), keys.capture(), any(Object[].class));
+        assertEquals("cart:5", keys.getValue().get(0));
+        verify(redisTemplate).delete(keys.getValue().get(1));
+    }
+
+    @Test
+    void checkout_orderFailure_restoresClaimedLines() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(1L, 1L);
+        when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        when(hashOperations.entries(startsWith("cart:5:checkout:"))).thenReturn(Map.of("4", "1"));
+        when(orderService.createOrder(any())).thenThrow(new ValidationException("Some products are not available for order"));
+
+        CartCheckoutRequest req = new CartCheckoutRequest();
+        req.setPickupLocationId(2);
+
+        assertThrows(ValidationException.class, () -> cartService.checkout(req));
+
+        ArgumentCaptor<RedisScript<Long>> scripts = ArgumentCaptor.forClass(RedisScript.class);
+        verify(redisTemplate, times(2)).execute(scripts.capture(), anyList(), any(Object[].class));
+        assertTrue(scripts.getAllValues().get(0).getScriptAsString().contains("RENAME"));
+        assertTrue(scripts.getAllValues().get(1).getScriptAsString().contains("HINCRBY"));
+        verify(redisTemplate, never()).delete(anyString());
+    }
+}
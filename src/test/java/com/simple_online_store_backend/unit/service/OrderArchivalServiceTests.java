@@ -0,0 +1,80 @@
+package com.simple_online_store_backend.unit.service;
+
+import com.simple_online_store_backend.repository.ArchivedOrderRepository;
+import com.simple_online_store_backend.service.OrderArchivalService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderArchivalServiceTests {
+
+    @Mock ArchivedOrderRepository archivedOrderRepository;
+    @Mock PlatformTransactionManager transactionManager;
+
+    OrderArchivalService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new OrderArchivalService(archivedOrderRepository, transactionManager, 30, 2, 5);
+    }
+
+    @Test
+    void archiveBatch_copiesThenDeletes_inOneTransaction() {
+        when(archivedOrderRepository.lockArchivableIds(eq(List.of("DELIVERED", "CANCELLED")), any(), eq(2)))
+                .thenReturn(List.of(4L, 8L));
+        when(archivedOrderRepository.deleteOrders(List.of(4, 8))).thenReturn(2);
+
+        assertEquals(2, service.archiveBatch(LocalDateTime.now()));
+
+        InOrder inOrder = inOrder(archivedOrderRepository);
+        inOrder.verify(archivedOrderRepository).copyOrders(eq(List.of(4, 8)), any());
+        inOrder.verify(archivedOrderRepository).copyOrderItems(List.of(4, 8));
+        inOrder.verify(archivedOrderRepository).deleteOrderItems(List.of(4, 8));
+        inOrder.verify(archivedOrderRepository).deleteOrders(List.of(4, 8));
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void archiveFinishedOrders_runsBatchesUntilShortBatch_withAgeCutoff() {
+        when(archivedOrderRepository.lockArchivableIds(anyCollection(), any(), eq(2)))
+                .thenReturn(List.of(1L, 2L), List.of(3L));
+        when(archivedOrderRepository.deleteOrders(anyCollection()))
+                .thenAnswer(inv -> ((java.util.Collection<?>) inv.getArgument(0)).size());
+
+        assertEquals(3, service.archiveFinishedOrders());
+
+        verify(archivedOrderRepository, times(2)).lockArchivableIds(anyCollection(),
+                argThat(cutoff -> cutoff.isBefore(LocalDateTime.now().minusDays(29))), eq(2));
+    }
+
+    @Test
+    void archiveFinishedOrders_rollsBackAndStops_whenRowsVanish() {
+        when(archivedOrderRepository.lockArchivableIds(anyCollection(), any(), anyInt()))
+                .thenReturn(List.of(1L, 2L));
+        when(archivedOrderRepository.deleteOrders(anyCollection())).thenReturn(1);
+
+        assertEquals(0, service.archiveFinishedOrders());
+        verify(transactionManager).rollback(any());
+        verify(archivedOrderRepository, times(1)).lockArchivableIds(anyCollection(), any(), anyInt());
+    }
+
+    @Test
+    void archiveBatch_nothingToDo_returnsZero() {
+        when(archivedOrderRepository.lockArchivableIds(anyCollection(), any(), anyInt())).thenReturn(List.of());
+
+        assertEquals(0, service.archiveBatch(LocalDateTime.now()));
+        verify(archivedOrderRepository, never()).copyOrders(any(), any());
+    }
+}
@@ -0,0 +1,171 @@
+package com.simple_online_store_backend.unit.service;
+
+import com.simple_online_store_backend.enums.OrderStatus;
+import com.simple_online_store_backend.event.OrderStatusChangedEvent;
+import com.simple_online_store_backend.repository.OrderRepository;
+import com.simple_online_store_backend.service.OrderExpiryService;
+import com.simple_online_store_backend.service.OutboxService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderExpiryServiceTests {
+
+    static final long TTL_MS = Duration.ofMinutes(60).toMillis();
+
+    @Mock OrderRepository orderRepository;
+    @Mock OutboxService outboxService;
+    @Mock RedisTemplate<String, String> redisTemplate;
+    @Mock ValueOperations<String, String> valueOperations;
+    @Mock PlatformTransactionManager transactionManager;
+
+    private OrderExpiryService service(boolean redisLease) {
+        return new OrderExpiryService(orderRepository, outboxService, redisTemplate, transactionManager,
+                true, 60, 1000, 8, 2, 30000, redisLease, 30000);
+    }
+
+    private static LocalDateTime at(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    private static Object[] pending(int id, long updatedAtMillis) {
+        return new Object[]{id, Timestamp.valueOf(at(updatedAtMillis))};
+    }
+
+    private static Object[] locked(int id, Integer personId, long updatedAtMillis) {
+        return new Object[]{id, personId, Timestamp.valueOf(at(updatedAtMillis))};
+    }
+
+    @Test
+    void withoutLease_doesNothing() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(eq("orders:expiry:lease"), anyString(), any(Duration.class))).thenReturn(false);
+
+        assertEquals(0, service(true).advance(System.currentTimeMillis()));
+        verifyNoInteractions(orderRepository, outboxService);
+    }
+
+    @Test
+    void takingLease_rebuildsFromKeysetPages_andCancelsDueOrdersInBatches() {
+        long now = System.currentTimeMillis();
+        long updatedAt = now - 1000;
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(eq("orders:expiry:lease"), anyString(), any(Duration.class))).thenReturn(true);
+        when(orderRepository.findPendingAfter(any(LocalDateTime.class), eq(0), eq(2)))
+                .thenReturn(List.<Object[]>of(pending(1, updatedAt), pending(2, updatedAt)));
+        when(orderRepository.findPendingAfter(at(updatedAt), 2, 2)).thenReturn(List.<Object[]>of(pending(3, updatedAt)));
+
+        OrderExpiryService service = service(true);
+        assertEquals(0, service.advance(now));
+        assertEquals(3, service.scheduledCount());
+
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(1L);
+        when(orderRepository.lockPendingByIdIn(anyCollection())).thenAnswer(inv -> {
+            List<Integer> ids = List.copyOf(inv.getArgument(0));
+            return ids.stream().map(id -> locked(id, 10 + id, updatedAt)).toList();
+        });
+        when(orderRepository.updateStatusWhereStatusIn(anyCollection(), eq(Set.of(OrderStatus.PENDING)), eq(OrderStatus.CANCELLED)))
+                .thenAnswer(inv -> ((java.util.Collection<?>) inv.getArgument(0)).size());
+
+        assertEquals(3, service.advance(now + TTL_MS + 2000));
+
+        verify(orderRepository, times(2)).lockPendingByIdIn(anyCollection());
+        verify(outboxService).recordStatusChange(1, 11, OrderStatus.PENDING, OrderStatus.CANCELLED);
+        verify(outboxService).recordStatusChange(2, 12, OrderStatus.PENDING, OrderStatus.CANCELLED);
+        verify(outboxService).recordStatusChange(3, 13, OrderStatus.PENDING, OrderStatus.CANCELLED);
+        verify(transactionManager, times(2)).commit(any());
+        assertEquals(0, service.scheduledCount());
+    }
+
+    @Test
+    void orderTouchedSinceScheduling_isRescheduled_notCancelled() {
+        long now = System.currentTimeMillis();
+        when(orderRepository.findPendingAfter(any(LocalDateTime.class), eq(0), eq(2)))
+                .thenReturn(List.<Object[]>of(pending(7, now)));
+
+        OrderExpiryService service = service(false);
+        service.advance(now);
+
+        long later = now + TTL_MS + 2000;
+        when(orderRepository.lockPendingByIdIn(List.of(7))).thenReturn(List.<Object[]>of(locked(7, 1, now + 60_000)));
+
+        assertEquals(0, service.advance(later));
+        verify(orderRepository, never()).updateStatusWhereStatusIn(anyCollection(), anyCollection(), any());
+        verifyNoInteractions(outboxService);
+        assertEquals(1, service.scheduledCount());
+    }
+
+    @Test
+    void orderNoLongerPending_isDropped() {
+        long now = System.currentTimeMillis();
+        when(orderRepository.findPendingAfter(any(LocalDateTime.class), eq(0), eq(2))).thenReturn(List.of());
+
+        OrderExpiryService service = service(false);
+        service.advance(now);
+        service.onOrderStatusChanged(new OrderStatusChangedEvent(4, 1, null, OrderStatus.PENDING, at(now)));
+        when(orderRepository.lockPendingByIdIn(List.of(4))).thenReturn(List.of());
+
+        assertEquals(0, service.advance(now + TTL_MS + 2000));
+        verify(orderRepository, never()).updateStatusWhereStatusIn(anyCollection(), anyCollection(), any());
+        assertEquals(0, service.scheduledCount());
+    }
+
+    @Test
+    void statusEvents_scheduleAndUnscheduleOrders_onlyOnLeader() {
+        long now = System.currentTimeMillis();
+        OrderExpiryService service = service(false);
+
+        service.onOrderStatusChanged(new OrderStatusChangedEvent(5, 1, null, OrderStatus.PENDING, at(now)));
+        assertEquals(0, service.scheduledCount());
+
+        when(orderRepository.findPendingAfter(any(LocalDateTime.class), eq(0), eq(2))).thenReturn(List.of());
+        service.advance(now);
+
+        service.onOrderStatusChanged(new OrderStatusChangedEvent(5, 1, null, OrderStatus.PENDING, at(now)));
+        service.onOrderStatusChanged(new OrderStatusChangedEvent(6, 1, OrderStatus.CANCELLED, OrderStatus.PENDING, at(now)));
+        assertEquals(2, service.scheduledCount());
+
+        service.onOrderStatusChanged(new OrderStatusChangedEvent(5, 1, OrderStatus.PENDING, OrderStatus.PROCESSING, at(now)));
+        assertEquals(1, service.scheduledCount());
+
+        assertEquals(0, service.advance(now + TTL_MS - 5000));
+        verify(orderRepository, never()).lockPendingByIdIn(anyCollection());
+    }
+
+    @Test
+    void lostLease_stopsExpiry_andForgetsSchedule() {
+        long now = System.currentTimeMillis();
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(eq("orders:expiry:lease"), anyString(), any(Duration.class))).thenReturn(true, false);
+        when(orderRepository.findPendingAfter(any(LocalDateTime.class), eq(0), eq(2))).thenReturn(List.<Object[]>of(pending(9, now)));
+
+        OrderExpiryService service = service(true);
+        service.advance(now);
+        assertEquals(1, service.scheduledCount());
+
+        // Renewal fails: another node owns the lease now
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(0L);
+
+        assertEquals(0, service.advance(now + TTL_MS + 2000));
+        assertEquals(0, service.scheduledCount());
+        verify(orderRepository, never()).lockPendingByIdIn(anyCollection());
+    }
+}
@@ -0,0 +1,182 @@
+package com.simple_online_store_backend.unit.service;
+
+import com.simple_online_store_backend.dto.order.OrderBulkStatusRequest;
+import com.simple_online_store_backend.dto.order.OrderBulkStatusResponse;
+import com.simple_online_store_backend.enums.OrderStatus;
+import com.simple_online_store_backend.enums.OrderTransitionOutcome;
+import com.simple_online_store_backend.exception.ValidationException;
+import com.simple_online_store_backend.repository.OrderRepository;
+import com.simple_online_store_backend.repository.PickupSlotRepository;
+import com.simple_online_store_backend.service.OrderFulfilmentService;
+import com.simple_online_store_backend.service.OutboxService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderFulfilmentServiceTests {
+
+    @Mock OrderRepository orderRepository;
+    @Mock PickupSlotRepository pickupSlotRepository;
+    @Mock OutboxService outboxService;
+    @Mock PlatformTransactionManager transactionManager;
+
+    OrderFulfilmentService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new OrderFulfilmentService(orderRepository, pickupSlotRepository, outboxService, transactionManager, 2);
+    }
+
+    @Test
+    void byIds_classifiesEachOrder_andUpdatesOnlyEligibleOnes() {
+        when(orderRepository.lockStatusesByIdIn(List.of(1, 2)))
+                .thenReturn(List.of(row(1, "PROCESSING", 10), row(2, "PENDING", 11)));
+        when(orderRepository.lockStatusesByIdIn(List.of(3)))
+                .thenReturn(List.of());
+        when(orderRepository.updateStatusWhereStatusIn(List.of(1), Set.of(OrderStatus.PROCESSING), OrderStatus.SHIPPED))
+                .thenReturn(1);
+
+        OrderBulkStatusResponse resp = service.bulkTransition(req(OrderStatus.SHIPPED, List.of(1, 2, 3, 1), null));
+
+        assertEquals(3, resp.getProcessed());
+        assertEquals(1, resp.getUpdated());
+        assertEquals(1, resp.getInvalidTransition());
+        assertEquals(1, resp.getNotFound());
+        assertEquals(OrderTransitionOutcome.UPDATED, resp.getResults().get(0).getOutcome());
+        assertEquals(OrderStatus.PROCESSING, resp.getResults().get(0).getPreviousStatus());
+        assertEquals(OrderTransitionOutcome.INVALID_TRANSITION, resp.getResults().get(1).getOutcome());
+        assertEquals(OrderStatus.PENDING, resp.getResults().get(1).getPreviousStatus());
+        assertEquals(OrderTransitionOutcome.NOT_FOUND, resp.getResults().get(2).getOutcome());
+
+        verify(outboxService).recordStatusChange(1, 10, OrderStatus.PROCESSING, OrderStatus.SHIPPED);
+        verifyNoMoreInteractions(outboxService);
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void byIds_cancellation_acceptsPendingAndProcessing() {
+        when(orderRepository.lockStatusesByIdIn(List.of(1, 2)))
+                .thenReturn(List.of(row(1, "PENDING", 10), row(2, "PROCESSING", 10)));
+        when(orderRepository.updateStatusWhereStatusIn(eq(List.of(1, 2)), anyCollection(), eq(OrderStatus.CANCELLED)))
+                .thenReturn(2);
+
+        OrderBulkStatusResponse resp = service.bulkTransition(req(OrderStatus.CANCELLED, List.of(1, 2), null));
+
+        assertEquals(2, resp.getUpdated());
+        verify(orderRepository).updateStatusWhereStatusIn(List.of(1, 2),
+                Set.of(OrderStatus.PENDING, OrderStatus.PROCESSING), OrderStatus.CANCELLED);
+    }
+
+    @Test
+    void reactivation_reportsOrdersWhoseSlotIsFull_andMovesTheRest() {
+        when(orderRepository.lockStatusesByIdIn(List.of(1, 2)))
+                .thenReturn(List.of(row(1, "CANCELLED", 10), row(2, "CANCELLED", 11)));
+        // Both orders want the last place of slot 7
+        when(pickupSlotRepository.lockSlotsOfOrders(eq(List.of(1, 2)), any()))
+                .thenReturn(List.of(new Object[]{1L, 7L, 1}, new Object[]{2L, 7L, 1}));
+        when(orderRepository.updateStatusWhereStatusIn(List.of(1), Set.of(OrderStatus.CANCELLED), OrderStatus.PENDING))
+                .thenReturn(1);
+
+        OrderBulkStatusResponse resp = service.bulkTransition(req(OrderStatus.PENDING, List.of(1, 2), null));
+
+        assertEquals(1, resp.getUpdated());
+        assertEquals(1, resp.getSlotUnavailable());
+        assertEquals(OrderTransitionOutcome.SLOT_UNAVAILABLE, resp.getResults().get(1).getOutcome());
+        assertEquals(OrderStatus.CANCELLED, resp.getResults().get(1).getPreviousStatus());
+        verify(outboxService).recordStatusChange(1, 10, OrderStatus.CANCELLED, OrderStatus.PENDING);
+        verifyNoMoreInteractions(outboxService);
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void byFilter_walksKeysetPages_untilShortPage() {
+        when(orderRepository.findIdsByStatusAfter(eq(OrderStatus.SHIPPED), isNull(), eq(0), any(Pageable.class)))
+                .thenReturn(List.of(5, 7));
+        when(orderRepository.findIdsByStatusAfter(eq(OrderStatus.SHIPPED), isNull(), eq(7), any(Pageable.class)))
+                .thenReturn(List.of(9));
+        when(orderRepository.lockStatusesByIdIn(List.of(5, 7)))
+                .thenReturn(List.of(row(5, "SHIPPED", 1), row(7, "SHIPPED", 2)));
+        when(orderRepository.lockStatusesByIdIn(List.of(9)))
+                .thenReturn(List.<Object[]>of(row(9, "SHIPPED", null)));
+        when(orderRepository.updateStatusWhereStatusIn(anyCollection(), anyCollection(), eq(OrderStatus.DELIVERED)))
+                .thenAnswer(inv -> ((java.util.Collection<?>) inv.getArgument(0)).size());
+
+        OrderBulkStatusRequest r = req(OrderStatus.DELIVERED, null, OrderStatus.SHIPPED);
+        OrderBulkStatusResponse resp = service.bulkTransition(r);
+
+        assertEquals(3, resp.getUpdated());
+        verify(orderRepository, times(2)).findIdsByStatusAfter(any(), any(), anyInt(), any(Pageable.class));
+        verify(outboxService).recordStatusChange(9, null, OrderStatus.SHIPPED, OrderStatus.DELIVERED);
+    }
+
+    @Test
+    void rejectsRequestWithoutIdsAndFilter() {
+        assertThrows(ValidationException.class,
+                () -> service.bulkTransition(req(OrderStatus.SHIPPED, List.of(), null)));
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void rejectsTransitionNotInTable() {
+        assertThrows(ValidationException.class,
+                () -> service.bulkTransition(req(OrderStatus.SHIPPED, null, OrderStatus.PENDING)));
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void rejectsUnreachableTarget_andPickupFilterWithIds() {
+        OrderBulkStatusRequest toPending = req(OrderStatus.PENDING, List.of(1), OrderStatus.DELIVERED);
+        assertThrows(ValidationException.class, () -> service.bulkTransition(toPending));
+
+        OrderBulkStatusRequest mixed = req(OrderStatus.PROCESSING, List.of(1), null);
+        mixed.setPickupLocationId(3);
+        assertThrows(ValidationException.class, () -> service.bulkTransition(mixed));
+    }
+
+    @Test
+    void failsChunk_whenGuardedUpdateTouchesFewerRows() {
+        when(orderRepository.lockStatusesByIdIn(List.of(1)))
+                .thenReturn(List.<Object[]>of(row(1, "PENDING", 10)));
+        when(orderRepository.updateStatusWhereStatusIn(any(), any(), any())).thenReturn(0);
+
+        assertThrows(IllegalStateException.class,
+                () -> service.bulkTransition(req(OrderStatus.PROCESSING, List.of(1), null)));
+        verify(transactionManager).rollback(any());
+        verifyNoInteractions(outboxService);
+    }
+
+    @Test
+    void transitionTable_matchesFulfilmentFlow() {
+        assertTrue(OrderStatus.PENDING.canTransitionTo(OrderStatus.PROCESSING));
+        assertTrue(OrderStatus.PROCESSING.canTransitionTo(OrderStatus.SHIPPED));
+        assertTrue(OrderStatus.SHIPPED.canTransitionTo(OrderStatus.DELIVERED));
+        assertTrue(OrderStatus.CANCELLED.canTransitionTo(OrderStatus.PENDING));
+        assertFalse(OrderStatus.SHIPPED.canTransitionTo(OrderStatus.CANCELLED));
+        assertTrue(OrderStatus.DELIVERED.allowedTransitions().isEmpty());
+        assertEquals(Set.of(OrderStatus.PENDING, OrderStatus.PROCESSING), OrderStatus.allowedSourcesOf(OrderStatus.CANCELLED));
+    }
+
+    private static Object[] row(int id, String status, Integer personId) {
+        return new Object[]{(long) id, status, personId == null ? null : (long) personId};
+    }
+
+    private static OrderBulkStatusRequest req(OrderStatus target, List<Integer> ids, OrderStatus from) {
+        OrderBulkStatusRequest r = new OrderBulkStatusRequest();
+        r.setTargetStatus(target);
+        r.setOrderIds(ids);
+        r.setFromStatus(from);
+        return r;
+    }
+}
@@ -1,22 +1,32 @@
 package com.simple_online_store_backend.unit.service;
 
 import com.simple_online_store_backend.dto.order.*;
+import com.simple_online_store_backend.dto.pickup_location.PickupLocationResponseDTO;
 import com.simple_online_store_backend.entity.Address;
+import com.simple_online_store_backend.entity.ArchivedOrder;
 import com.simple_online_store_backend.entity.Order;
 import com.simple_online_store_backend.entity.Person;
 import com.simple_online_store_backend.entity.PickupLocation;
 import com.simple_online_store_backend.entity.Product;
+import com.simple_online_store_backend.enums.OrderEventType;
 import com.simple_online_store_backend.enums.OrderStatus;
+import com.simple_online_store_backend.exception.OrderArchivedException;
 import com.simple_online_store_backend.exception.ValidationException;
 import com.simple_online_store_backend.mapper.OrderMapper;
 import com.simple_online_store_backend.repository.*;
+import com.simple_online_store_backend.security.CurrentUserContext;
 import com.simple_online_store_backend.security.PersonDetails;
 import com.simple_online_store_backend.service.OrderService;
+import com.simple_online_store_backend.service.OutboxService;
+import com.simple_online_store_backend.service.PickupLocationRegistry;
+import com.simple_online_store_backend.service.PickupSlotService;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -26,6 +36,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -38,7 +49,12 @@ class OrderServiceTests {
     @Mock PeopleRepository peopleRepository;
     @Mock ProductRepository productRepository;
     @Mock AddressRepository addressRepository;
+    @Mock PickupLocationRegistry pickupLocationRegistry;
     @Mock PickupLocationRepository pickupLocationRepository;
+    @Mock OutboxService outboxService;
+    @Mock ArchivedOrderRepository archivedOrderRepository;
+    @Mock PickupSlotService pickupSlotService;
+    @Spy CurrentUserContext currentUserContext = new CurrentUserContext();
 
     @InjectMocks OrderService orderService;
 
@@ -77,22 +93,45 @@ class OrderServiceTests {
         Product p2 = product(20, "B", true);
         Address addr = new Address();
 
-        when(peopleRepository.findByUserName("user")).thenReturn(Optional.of(owner));
-        when(productRepository.findById(10)).thenReturn(Optional.of(p1));
-        when(productRepository.findById(20)).thenReturn(Optional.of(p2));
+        when(productRepository.findAllById(any())).thenReturn(List.of(p1, p2));
         when(addressRepository.findById(5)).thenReturn(Optional.of(addr));
 
         Order saved = new Order(); saved.setId(7); saved.setStatus(OrderStatus.PENDING); saved.setPerson(owner);
         when(orderRepository.save(any(Order.class))).thenReturn(saved);
 
         OrderDetailsResponse dto = new OrderDetailsResponse(); dto.setId(7); dto.setStatus(OrderStatus.PENDING);
-        when(orderMapper.toDetails(saved)).thenReturn(dto);
+        when(orderMapper.toDetails(saved, owner, null)).thenReturn(dto);
 
         OrderDetailsResponse result = orderService.createOrder(req);
 
         assertEquals(7, result.getId());
         verify(orderRepository).save(any(Order.class));
-        verify(pickupLocationRepository, never()).findById(anyInt());
+        verify(outboxService).recordOrderEvent(saved, OrderEventType.ORDER_CREATED);
+        verify(pickupLocationRegistry, never()).find(anyInt());
+        verify(peopleRepository, never()).findByUserName(anyString());
+        verify(peopleRepository).getReferenceById(1);
+        verify(productRepository, never()).findById(anyInt());
+    }
+
+    @Test
+    void createOrder_loadsProductsInOneQuery_keepingRequestOrderAndDuplicates() {
+        OrderCreateRequest req = new OrderCreateRequest();
+        req.setProductIds(List.of(20, 10, 20));
+        req.setAddressId(5);
+
+        Product p1 = product(10, "A", true);
+        Product p2 = product(20, "B", true);
+
+        when(productRepository.findAllById(Set.of(10, 20))).thenReturn(List.of(p1, p2));
+        when(addressRepository.findById(5)).thenReturn(Optional.of(new Address()));
+        when(orderRepository.save(any(Order.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        orderService.createOrder(req);
+
+        ArgumentCaptor<Order> captor = ArgumentCaptor.forClass(Order.class);
+        verify(orderRepository).save(captor.capture());
+        assertEquals(List.of(p2, p1, p2), captor.getValue().getProducts());
+        verify(productRepository, times(1)).findAllById(any());
     }
 
     @Test
@@ -102,24 +141,30 @@ class OrderServiceTests {
         req.setPickupLocationId(11);
 
         Product p = product(1, "X", true);
-        PickupLocation pl = new PickupLocation(); pl.setActive(true);
+        var pl = new PickupLocationRegistry.Location(11, "Berlin", "Main", "1A", true, null, null);
 
-        when(peopleRepository.findByUserName("user")).thenReturn(Optional.of(owner));
-        when(productRepository.findById(1)).thenReturn(Optional.of(p));
-        when(pickupLocationRepository.findById(11)).thenReturn(Optional.of(pl));
+        when(productRepository.findAllById(any())).thenReturn(List.of(p));
+        when(pickupLocationRegistry.find(11)).thenReturn(Optional.of(pl));
+        PickupLocation reference = new PickupLocation(); reference.setId(11);
+        when(pickupLocationRepository.getReferenceById(11)).thenReturn(reference);
 
         Order saved = new Order(); saved.setId(9); saved.setStatus(OrderStatus.PENDING); saved.setPerson(owner);
         when(orderRepository.save(any())).thenReturn(saved);
-        when(orderMapper.toDetails(saved)).thenReturn(new OrderDetailsResponse());
+        ArgumentCaptor<PickupLocationResponseDTO> pickup = ArgumentCaptor.forClass(PickupLocationResponseDTO.class);
+        when(orderMapper.toDetails(eq(saved), eq(owner), pickup.capture())).thenReturn(new OrderDetailsResponse());
 
         assertDoesNotThrow(() -> orderService.createOrder(req));
         verify(addressRepository, never()).findById(anyInt());
+
+        ArgumentCaptor<Order> order = ArgumentCaptor.forClass(Order.class);
+        verify(orderRepository).save(order.capture());
+        assertSame(reference, order.getValue().getPickupLocation());
+        assertEquals("Berlin", pickup.getValue().getCity());
     }
 
     @Test
     void createOrder_fails_whenOwnerDeleted() {
         owner.setDeleted(true);
-        when(peopleRepository.findByUserName("user")).thenReturn(Optional.of(owner));
 
         OrderCreateRequest req = new OrderCreateRequest();
         req.setProductIds(List.of(1));
@@ -130,20 +175,19 @@ class OrderServiceTests {
 
     @Test
     void createOrder_fails_whenProductNotFound() {
-        when(peopleRepository.findByUserName("user")).thenReturn(Optional.of(owner));
-        when(productRepository.findById(1)).thenReturn(Optional.empty());
+        when(productRepository.findAllById(any())).thenReturn(List.of());
 
         OrderCreateRequest req = new OrderCreateRequest();
         req.setProductIds(List.of(1));
         req.setPickupLocationId(2);
 
-        assertThrows(EntityNotFoundException.class, () -> orderService.createOrder(req));
+        EntityNotFoundException ex = assertThrows(EntityNotFoundException.class, () -> orderService.createOrder(req));
+        assertEquals("Product with ID 1 not found", ex.getMessage());
     }
 
     @Test
     void createOrder_fails_whenAnyProductUnavailable() {
-        when(peopleRepository.findByUserName("user")).thenReturn(Optional.of(owner));
-        when(productRepository.findById(1)).thenReturn(Optional.of(product(1, "X", false)));
+        when(productRepository.findAllById(any())).thenReturn(List.of(product(1, "X", false)));
 
         OrderCreateRequest req = new OrderCreateRequest();
         req.setProductIds(List.of(1));
@@ -154,8 +198,7 @@ class OrderServiceTests {
 
     @Test
     void createOrder_fails_whenAddressNotFound() {
-        when(peopleRepository.findByUserName("user")).thenReturn(Optional.of(owner));
-        when(productRepository.findById(1)).thenReturn(Optional.of(product(1, "X", true)));
+        when(productRepository.findAllById(any())).thenReturn(List.of(product(1, "X", true)));
         when(addressRepository.findById(99)).thenReturn(Optional.empty());
 
         OrderCreateRequest req = new OrderCreateRequest();
@@ -167,20 +210,19 @@ class OrderServiceTests {
 
     @Test
     void createOrder_fails_whenPickupNotFound_orInactive() {
-        when(peopleRepository.findByUserName("user")).thenReturn(Optional.of(owner));
-        when(productRepository.findById(1)).thenReturn(Optional.of(product(1, "X", true)));
+        when(productRepository.findAllById(any())).thenReturn(List.of(product(1, "X", true)));
 
         OrderCreateRequest req = new OrderCreateRequest();
         req.setProductIds(List.of(1));
         req.setPickupLocationId(5);
 
         // not found
-        when(pickupLocationRepository.findById(5)).thenReturn(Optional.empty());
+        when(pickupLocationRegistry.find(5)).thenReturn(Optional.empty());
         assertThrows(EntityNotFoundException.class, () -> orderService.createOrder(req));
 
         // inactive
-        PickupLocation pl = new PickupLocation(); pl.setActive(false);
-        when(pickupLocationRepository.findById(5)).thenReturn(Optional.of(pl));
+        var pl = new PickupLocationRegistry.Location(5, "Berlin", "Main", "1A", false, null, null);
+        when(pickupLocationRegistry.find(5)).thenReturn(Optional.of(pl));
         assertThrows(ValidationException.class, () -> orderService.createOrder(req));
     }
 
@@ -230,6 +272,23 @@ class OrderServiceTests {
         assertThrows(EntityNotFoundException.class, () -> orderService.getOrderById(111));
     }
 
+    @Test
+    void getOrderById_fallsBackToArchive_andStillChecksOwnership() {
+        Order archivedView = new Order(); archivedView.setId(7); archivedView.setPerson(owner);
+        ArchivedOrder archived = mock(ArchivedOrder.class);
+        when(archived.toOrder()).thenReturn(archivedView);
+        when(orderRepository.findWithDetailsById(7)).thenReturn(Optional.empty());
+        when(archivedOrderRepository.findWithDetailsById(7)).thenReturn(Optional.of(archived));
+        OrderDetailsResponse details = new OrderDetailsResponse();
+        when(orderMapper.toDetails(archivedView)).thenReturn(details);
+
+        assertSame(details, orderService.getOrderById(7));
+
+        Person other = new Person(); other.setId(999);
+        archivedView.setPerson(other);
+        assertThrows(AccessDeniedException.class, () -> orderService.getOrderById(7));
+    }
+
     // ---------------- findAllOrdersByCustomer
 
     @Test
@@ -250,6 +309,25 @@ class OrderServiceTests {
         assertEquals(2, list.get(1).getId());
     }
 
+    @Test
+    void findAllOrdersByCustomer_appendsArchivedOrders() {
+        Order live = new Order(); live.setId(9);
+        Order old = new Order(); old.setId(3);
+        ArchivedOrder archived = mock(ArchivedOrder.class);
+        when(archived.toOrder()).thenReturn(old);
+        when(orderRepository.findByPerson_Id(1)).thenReturn(List.of(live));
+        when(archivedOrderRepository.findByPerson_IdOrderByIdDesc(1)).thenReturn(List.of(archived));
+
+        OrderListItemResponse r1 = new OrderListItemResponse(); r1.setId(9);
+        OrderListItemResponse r2 = new OrderListItemResponse(); r2.setId(3);
+        when(orderMapper.toListItem(live)).thenReturn(r1);
+        when(orderMapper.toListItem(old)).thenReturn(r2);
+
+        List<OrderListItemResponse> list = orderService.findAllOrdersByCustomer();
+
+        assertEquals(List.of(9, 3), list.stream().map(OrderListItemResponse::getId).toList());
+    }
+
     // ---------------- cancelOrder
 
     @Test
@@ -264,6 +342,7 @@ class OrderServiceTests {
         assertNotNull(dto);
         assertEquals(OrderStatus.CANCELLED, o.getStatus());
         verify(orderRepository).save(o);
+        verify(outboxService).recordOrderEvent(o, OrderEventType.ORDER_CANCELLED, OrderStatus.PENDING);
     }
 
     @Test
@@ -274,6 +353,7 @@ class OrderServiceTests {
 
         assertThrows(AccessDeniedException.class, () -> orderService.cancelOrder(5));
         verify(orderRepository, never()).save(any());
+        verifyNoInteractions(outboxService);
     }
 
     @Test
@@ -290,6 +370,16 @@ class OrderServiceTests {
         assertThrows(EntityNotFoundException.class, () -> orderService.cancelOrder(404));
     }
 
+    @Test
+    void cancelOrder_archivedOrder_isConflict() {
+        when(orderRepository.findById(8)).thenReturn(Optional.empty());
+        when(archivedOrderRepository.existsById(8)).thenReturn(true);
+
+        OrderArchivedException ex = assertThrows(OrderArchivedException.class, () -> orderService.cancelOrder(8));
+        assertEquals("Order 8 is archived and can no longer be changed", ex.getMessage());
+        verify(orderRepository, never()).save(any());
+    }
+
     // ---------------- reactivateOrder
 
     @Test
@@ -303,6 +393,7 @@ class OrderServiceTests {
         assertNotNull(dto);
         assertEquals(OrderStatus.PENDING, o.getStatus());
         verify(orderRepository).save(o);
+        verify(outboxService).recordOrderEvent(o, OrderEventType.ORDER_REACTIVATED, OrderStatus.CANCELLED);
     }
 
     @Test
@@ -328,6 +419,14 @@ class OrderServiceTests {
         assertThrows(EntityNotFoundException.class, () -> orderService.reactivateOrder(777));
     }
 
+    @Test
+    void reactivateOrder_archivedOrder_isConflict() {
+        when(orderRepository.findById(9)).thenReturn(Optional.empty());
+        when(archivedOrderRepository.existsById(9)).thenReturn(true);
+
+        assertThrows(OrderArchivedException.class, () -> orderService.reactivateOrder(9));
+    }
+
     // ---------------- helpers
 
     private Product product(int id, String name, boolean available) {
@@ -0,0 +1,114 @@
+package com.simple_online_store_backend.unit.service;
+
+import com.simple_online_store_backend.dto.order.OrderStatusCountsResponse;
+import com.simple_online_store_backend.enums.OrderStatus;
+import com.simple_online_store_backend.event.OrderStatusChangedEvent;
+import com.simple_online_store_backend.repository.ArchivedOrderRepository;
+import com.simple_online_store_backend.repository.OrderRepository;
+import com.simple_online_store_backend.service.OrderStatusCounterService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderStatusCounterServiceTests {
+
+    @Mock OrderRepository orderRepository;
+    @Mock ArchivedOrderRepository archivedOrderRepository;
+    @Mock RedisTemplate<String, String> redisTemplate;
+    @Mock ValueOperations<String, String> valueOperations;
+
+    SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        when(orderRepository.countGroupedByStatus()).thenReturn(List.of(
+                new Object[]{OrderStatus.PENDING, 3L},
+                new Object[]{OrderStatus.DELIVERED, 1L}));
+        when(archivedOrderRepository.countGroupedByStatus()).thenReturn(List.<Object[]>of(
+                new Object[]{OrderStatus.DELIVERED, 5L}));
+    }
+
+    private OrderStatusCounterService service(boolean redisEnabled) {
+        return new OrderStatusCounterService(orderRepository, archivedOrderRepository, redisTemplate,
+                new SyncTaskExecutor(), meterRegistry, redisEnabled);
+    }
+
+    private static OrderStatusChangedEvent event(OrderStatus from, OrderStatus to) {
+        return new OrderStatusChangedEvent(1, 1, from, to, LocalDateTime.now());
+    }
+
+    @Test
+    void resync_seedsFromLiveAndArchivedOrders() {
+        OrderStatusCounterService service = service(false);
+
+        service.resync();
+
+        assertEquals(3L, service.localCounts().get(OrderStatus.PENDING));
+        assertEquals(6L, service.localCounts().get(OrderStatus.DELIVERED));
+        assertEquals(0L, service.localCounts().get(OrderStatus.SHIPPED));
+        assertEquals(6.0, meterRegistry.get("orders.status.count").tag("status", "DELIVERED").gauge().value());
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    void transitions_moveOneOrderBetweenCounters_andCreationOnlyIncrements() {
+        OrderStatusCounterService service = service(false);
+        service.resync();
+
+        service.onOrderStatusChanged(event(OrderStatus.PENDING, OrderStatus.CANCELLED));
+        service.onOrderStatusChanged(event(null, OrderStatus.PENDING));
+
+        assertEquals(3L, service.localCounts().get(OrderStatus.PENDING));
+        assertEquals(1L, service.localCounts().get(OrderStatus.CANCELLED));
+    }
+
+    @Test
+    void transitions_areMirroredToRedis_andCountsReadFromRedis() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.multiGet(anyCollection())).thenReturn(List.of("7", "0", "0", "40", "2"));
+        OrderStatusCounterService service = service(true);
+        service.resync();
+
+        service.onOrderStatusChanged(event(OrderStatus.PENDING, OrderStatus.PROCESSING));
+        OrderStatusCountsResponse response = service.getCounts();
+
+        verify(valueOperations).multiSet(argThat(m -> "3".equals(m.get("orders:status-count:PENDING"))));
+        verify(valueOperations).decrement("orders:status-count:PENDING");
+        verify(valueOperations).increment("orders:status-count:PROCESSING");
+        assertEquals("REDIS", response.getSource());
+        assertEquals(7L, response.getCounts().get(OrderStatus.PENDING));
+        assertEquals(49L, response.getTotal());
+    }
+
+    @Test
+    void redisFailure_fallsBackToLocalCounters_untilNextResync() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        doThrow(new RedisConnectionFailureException("down")).when(valueOperations).multiSet(anyMap());
+        OrderStatusCounterService service = service(true);
+        service.resync();
+
+        service.onOrderStatusChanged(event(OrderStatus.PENDING, OrderStatus.PROCESSING));
+        OrderStatusCountsResponse response = service.getCounts();
+
+        assertEquals("LOCAL", response.getSource());
+        assertEquals(2L, response.getCounts().get(OrderStatus.PENDING));
+        assertEquals(1L, response.getCounts().get(OrderStatus.PROCESSING));
+        verify(valueOperations, never()).increment(anyString());
+    }
+}
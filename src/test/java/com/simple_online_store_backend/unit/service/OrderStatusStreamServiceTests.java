@@ -0,0 +1,86 @@
+package com.simple_online_store_backend.unit.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.simple_online_store_backend.enums.OrderStatus;
+import com.simple_online_store_backend.event.OrderStatusChangedEvent;
+import com.simple_online_store_backend.security.CurrentUserContext;
+import com.simple_online_store_backend.service.OrderStatusStreamService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderStatusStreamServiceTests {
+
+    @Mock RedisTemplate<String, String> redisTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private OrderStatusStreamService service(boolean redisEnabled) {
+        return new OrderStatusStreamService(redisTemplate, objectMapper, new CurrentUserContext(),
+                redisEnabled, 60_000, 3_000, 5, 20, 10);
+    }
+
+    private static OrderStatusChangedEvent event(Integer personId, OrderStatus from, OrderStatus to) {
+        return new OrderStatusChangedEvent(42, personId, from, to, LocalDateTime.of(2025, 3, 14, 10, 15, 30));
+    }
+
+    @Test
+    void statusChange_isPublishedOnRedisChannel_withOwnerAndUpdate() throws Exception {
+        OrderStatusStreamService service = service(true);
+
+        service.onOrderStatusChanged(event(7, OrderStatus.PENDING, OrderStatus.CANCELLED));
+
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(OrderStatusStreamService.CHANNEL), payload.capture());
+        var json = objectMapper.readTree(payload.getValue());
+        assertEquals(7, json.get("personId").asInt());
+        assertEquals(42, json.get("update").get("orderId").asInt());
+        assertEquals("CANCELLED", json.get("update").get("status").asText());
+        assertTrue(json.get("update").get("eventId").asText().endsWith("-42-CANCELLED"));
+
+        // The same payload coming back from the channel is accepted
+        assertDoesNotThrow(() -> service.onRedisMessage(payload.getValue()));
+    }
+
+    @Test
+    void redisFailure_fallsBackToLocalDelivery_withoutFailingTheCaller() {
+        when(redisTemplate.convertAndSend(anyString(), any())).thenThrow(new RedisConnectionFailureException("down"));
+        OrderStatusStreamService service = service(true);
+
+        assertDoesNotThrow(() -> service.onOrderStatusChanged(event(7, OrderStatus.PENDING, OrderStatus.PROCESSING)));
+    }
+
+    @Test
+    void redisDisabled_neverTouchesRedis() {
+        service(false).onOrderStatusChanged(event(7, OrderStatus.PENDING, OrderStatus.PROCESSING));
+
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    void ownerlessOrUnchangedEvents_areIgnored() {
+        OrderStatusStreamService service = service(true);
+
+        service.onOrderStatusChanged(event(null, OrderStatus.PENDING, OrderStatus.CANCELLED));
+        service.onOrderStatusChanged(event(7, OrderStatus.PENDING, OrderStatus.PENDING));
+
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    void malformedChannelMessage_isDropped() {
+        assertDoesNotThrow(() -> service(true).onRedisMessage("{not json"));
+    }
+}
@@ -0,0 +1,126 @@
+package com.simple_online_store_backend.unit.service;
+
+import com.simple_online_store_backend.entity.OutboxEvent;
+import com.simple_online_store_backend.enums.OrderEventType;
+import com.simple_online_store_backend.repository.OutboxEventRepository;
+import com.simple_online_store_backend.service.outbox.OutboxEventSink;
+import com.simple_online_store_backend.service.outbox.OutboxPublisher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxPublisherTests {
+
+    @Mock OutboxEventRepository outboxEventRepository;
+    @Mock OutboxEventSink sink;
+    @Mock PlatformTransactionManager transactionManager;
+
+    OutboxPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        publisher = new OutboxPublisher(outboxEventRepository, sink, transactionManager, 2, 10, 72);
+    }
+
+    @Test
+    void publishBatch_deliversClaimedEvents_andMarksThemPublished() throws Exception {
+        List<OutboxEvent> batch = List.of(event(1L), event(2L));
+        when(outboxEventRepository.claimUnpublished(2)).thenReturn(batch);
+
+        int published = publisher.publishBatch();
+
+        assertEquals(2, published);
+        verify(sink).publish(batch);
+        verify(outboxEventRepository).markPublished(eq(List.of(1L, 2L)), any(LocalDateTime.class));
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void publishBatch_returnsZero_whenNothingToClaim() throws Exception {
+        when(outboxEventRepository.claimUnpublished(2)).thenReturn(List.of());
+
+        assertEquals(0, publisher.publishBatch());
+        verify(sink, never()).publish(any());
+        verify(outboxEventRepository, never()).markPublished(any(), any());
+    }
+
+    @Test
+    void publishBatch_rollsBack_whenSinkFails() throws Exception {
+        List<OutboxEvent> batch = List.of(event(1L));
+        when(outboxEventRepository.claimUnpublished(2)).thenReturn(batch);
+        doThrow(new RuntimeException("sink down")).when(sink).publish(batch);
+
+        assertThrows(IllegalStateException.class, () -> publisher.publishBatch());
+        verify(outboxEventRepository, never()).markPublished(any(), any());
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void publishPendingEvents_drainsFullBatches_untilPartialBatch() throws Exception {
+        when(outboxEventRepository.claimUnpublished(2))
+                .thenReturn(List.of(event(1L), event(2L)))
+                .thenReturn(List.of(event(3L), event(4L)))
+                .thenReturn(List.of(event(5L)));
+
+        int published = publisher.publishPendingEvents();
+
+        assertEquals(5, published);
+        verify(sink, times(3)).publish(anyList());
+        verify(outboxEventRepository, times(3)).claimUnpublished(2);
+    }
+
+    @Test
+    void publishPendingEvents_stopsOnFailure_withoutThrowing() throws Exception {
+        when(outboxEventRepository.claimUnpublished(2))
+                .thenReturn(List.of(event(1L), event(2L)))
+                .thenReturn(List.of(event(3L), event(4L)));
+        doNothing().doThrow(new RuntimeException("sink down")).when(sink).publish(anyList());
+
+        int published = assertDoesNotThrow(() -> publisher.publishPendingEvents());
+
+        assertEquals(2, published);
+        verify(outboxEventRepository, times(1)).markPublished(any(), any());
+    }
+
+    @Test
+    void publishPendingEvents_respectsMaxBatchesPerRun() {
+        publisher = new OutboxPublisher(outboxEventRepository, sink, transactionManager, 2, 3, 72);
+        when(outboxEventRepository.claimUnpublished(2))
+                .thenAnswer(inv -> IntStream.range(0, 2).mapToObj(i -> event((long) i)).toList());
+
+        assertEquals(6, publisher.publishPendingEvents());
+        verify(outboxEventRepository, times(3)).claimUnpublished(2);
+    }
+
+    @Test
+    void purgePublishedEvents_deletesRowsOlderThanRetention() {
+        when(outboxEventRepository.deletePublishedBefore(any())).thenReturn(4);
+
+        assertEquals(4, publisher.purgePublishedEvents());
+        verify(outboxEventRepository).deletePublishedBefore(argThat(cutoff ->
+                cutoff.isBefore(LocalDateTime.now().minusHours(71))));
+    }
+
+    private OutboxEvent event(Long id) {
+        OutboxEvent e = new OutboxEvent();
+        e.setId(id);
+        e.setAggregateType("ORDER");
+        e.setAggregateId(id.intValue());
+        e.setEventType(OrderEventType.ORDER_CREATED);
+        e.setPayload("{}");
+        e.setCreatedAt(LocalDateTime.now());
+        return e;
+    }
+}
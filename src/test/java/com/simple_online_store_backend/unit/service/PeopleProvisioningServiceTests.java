@@ -0,0 +1,111 @@
+package com.simple_online_store_backend.unit.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simple_online_store_backend.service.PeopleProvisioningService;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Covers what the controller tests cannot stage: an account taken by a concurrent registration between
+ * the duplicate check and the insert, so ON CONFLICT skips the line.
+ */
+@ExtendWith(MockitoExtension.class)
+class PeopleProvisioningServiceTests {
+
+    @Mock NamedParameterJdbcTemplate jdbc;
+    @Mock PlatformTransactionManager transactionManager;
+    @Mock PasswordEncoder passwordEncoder;
+    @Mock Validator validator;
+    @Mock ApplicationEventPublisher eventPublisher;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private PeopleProvisioningService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new PeopleProvisioningService(jdbc, transactionManager, passwordEncoder, objectMapper,
+                validator, eventPublisher, 10, 1);
+        when(passwordEncoder.encode(anyString())).thenReturn("hash");
+        when(jdbc.batchUpdate(anyString(), any(SqlParameterSource[].class))).thenReturn(new int[]{0});
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    /**
+     * The duplicate check finds nothing; the read-back after the skipped insert finds the given row.
+     */
+    private void concurrentlyTaken(String nameKey, String emailKey) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        lenient().when(rs.getString("name_key")).thenReturn(nameKey);
+        lenient().when(rs.getString("email_key")).thenReturn(emailKey);
+        lenient().when(rs.getInt("id")).thenReturn(99);
+        doAnswer(inv -> {
+            if (inv.getArgument(0, String.class).contains("SELECT id,")) {
+                inv.getArgument(2, RowCallbackHandler.class).processRow(rs);
+            }
+            return null;
+        }).when(jdbc).query(anyString(), any(SqlParameterSource.class), any(RowCallbackHandler.class));
+    }
+
+    private JsonNode provisionOne() throws Exception {
+        String line = "{\"userName\":\"maria\",\"password\":\"Maria123!\",\"email\":\"maria@example.com\"}\n";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.provision(new ByteArrayInputStream(line.getBytes(StandardCharsets.UTF_8))).writeTo(out);
+        return objectMapper.readTree(out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void skippedInsert_reportsTheEmail_whenOnlyTheEmailWasTaken() throws Exception {
+        concurrentlyTaken("someone_else", "maria@example.com");
+
+        JsonNode result = provisionOne();
+
+        assertEquals("DUPLICATE", result.get("outcome").asText());
+        assertEquals("email - Person with this email already exists;", result.get("error").asText());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void skippedInsert_reportsTheUsername_whenTheUsernameWasTaken() throws Exception {
+        concurrentlyTaken("maria", "other@example.com");
+
+        JsonNode result = provisionOne();
+
+        assertEquals("DUPLICATE", result.get("outcome").asText());
+        assertEquals("userName - Person with this username is already existed!;", result.get("error").asText());
+    }
+
+    @Test
+    void skippedInsert_withNoConflictingRowLeft_reportsNeutralDuplicate() throws Exception {
+        doNothing().when(jdbc).query(anyString(), any(SqlParameterSource.class), any(RowCallbackHandler.class));
+
+        JsonNode result = provisionOne();
+
+        assertEquals("DUPLICATE", result.get("outcome").asText());
+        assertEquals("Person with this username or email already exists;", result.get("error").asText());
+    }
+}
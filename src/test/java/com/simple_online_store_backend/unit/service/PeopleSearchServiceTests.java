@@ -0,0 +1,103 @@
+package com.simple_online_store_backend.unit.service;
+
+import com.simple_online_store_backend.dto.person.CustomerSearchPageResponse;
+import com.simple_online_store_backend.service.PeopleSearchService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Covers which rank groups are queried; the ranking itself is covered by the controller tests.
+ */
+@ExtendWith(MockitoExtension.class)
+class PeopleSearchServiceTests {
+
+    @Mock NamedParameterJdbcTemplate jdbc;
+    @InjectMocks PeopleSearchService service;
+
+    /**
+     * Every group query returns {@code perGroup} customers, cut to the query's LIMIT.
+     */
+    private void groupsReturn(int perGroup) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        lenient().when(rs.getInt("id")).thenReturn(1);
+        lenient().when(rs.getString("user_name")).thenReturn("alice");
+        lenient().when(rs.getString("sort_name")).thenReturn("alice");
+        when(jdbc.query(anyString(), any(MapSqlParameterSource.class), any(RowMapper.class))).thenAnswer(inv -> {
+            int limit = (int) inv.getArgument(1, MapSqlParameterSource.class).getValue("limit");
+            RowMapper<?> mapper = inv.getArgument(2);
+            List<Object> rows = new ArrayList<>();
+            for (int i = 0; i < Math.min(perGroup, limit); i++) {
+                rows.add(mapper.mapRow(rs, i));
+            }
+            return rows;
+        });
+    }
+
+    private List<String> queriedSql() {
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbc, atLeastOnce()).query(sql.capture(), any(MapSqlParameterSource.class), any(RowMapper.class));
+        return sql.getAllValues();
+    }
+
+    @Test
+    void fullPageFromTheExactGroup_readsNoWiderGroup() throws Exception {
+        groupsReturn(3);
+
+        CustomerSearchPageResponse page = service.search("alice", null, 2);
+
+        assertEquals(2, page.getItems().size());
+        assertNotNull(page.getNextCursor());
+        assertEquals(1, queriedSql().size());
+    }
+
+    @Test
+    void shortGroups_fillThePageFromTheNextOnes_withWhatIsStillMissing() throws Exception {
+        groupsReturn(1);
+
+        service.search("alice", null, 3);
+
+        ArgumentCaptor<MapSqlParameterSource> params = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+        verify(jdbc, times(4)).query(anyString(), params.capture(), any(RowMapper.class));
+        assertEquals(List.of(4, 3, 2, 1), params.getAllValues().stream().map(p -> p.getValue("limit")).toList());
+    }
+
+    @Test
+    void shortQuery_skipsTheSubstringGroup() throws Exception {
+        groupsReturn(0);
+
+        service.search("al", null, 5);
+
+        assertEquals(3, queriedSql().size());
+        assertTrue(queriedSql().stream().noneMatch(sql -> sql.contains(":pattern")));
+    }
+
+    @Test
+    void cursor_resumesInItsGroup_andStartsTheNextGroupsFromTheTop() throws Exception {
+        groupsReturn(3);
+        String cursor = service.search("alice", null, 1).getNextCursor();
+        clearInvocations(jdbc);
+        groupsReturn(0);
+
+        service.search("alice", cursor, 1);
+
+        List<String> sql = queriedSql();
+        assertEquals(4, sql.size());
+        assertTrue(sql.get(0).contains(":afterName"));
+        assertTrue(sql.stream().skip(1).noneMatch(s -> s.contains(":afterName")));
+    }
+}
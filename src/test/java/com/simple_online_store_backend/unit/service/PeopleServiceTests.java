@@ -1,15 +1,19 @@
 package com.simple_online_store_backend.unit.service;
 
+import com.simple_online_store_backend.dto.person.CustomerDirectoryItemResponse;
 import com.simple_online_store_backend.dto.person.PersonRequestDTO;
 import com.simple_online_store_backend.dto.person.PersonResponseDTO;
 import com.simple_online_store_backend.entity.Address;
-import com.simple_online_store_backend.entity.Order;
 import com.simple_online_store_backend.entity.Person;
 import com.simple_online_store_backend.enums.OrderStatus;
+import com.simple_online_store_backend.event.PersonRegisteredEvent;
+import com.simple_online_store_backend.exception.ValidationException;
 import com.simple_online_store_backend.mapper.PersonConverter;
 import com.simple_online_store_backend.repository.OrderRepository;
 import com.simple_online_store_backend.repository.PeopleRepository;
+import com.simple_online_store_backend.security.CurrentUserContext;
 import com.simple_online_store_backend.security.PersonDetails;
+import com.simple_online_store_backend.service.OutboxService;
 import com.simple_online_store_backend.service.PeopleService;
 import com.simple_online_store_backend.service.RefreshTokenService;
 import jakarta.persistence.EntityNotFoundException;
@@ -17,6 +21,9 @@ import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
@@ -26,8 +33,10 @@ import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -39,6 +48,9 @@ class PeopleServiceTests {
     @Mock OrderRepository orderRepository;
     @Mock
     RefreshTokenService refreshTokenService;
+    @Mock OutboxService outboxService;
+    @Mock ApplicationEventPublisher eventPublisher;
+    @Spy CurrentUserContext currentUserContext = new CurrentUserContext();
 
     @Mock SecurityContext securityContext;
     @Mock Authentication authentication;
@@ -106,24 +118,90 @@ class PeopleServiceTests {
         assertEquals("ROLE_USER", result.getRole());
     }
 
-    // ---------- getAllConsumers
+    @Test
+    void register_normalizesEmail_andPublishesRegistration() {
+        PersonRequestDTO req = new PersonRequestDTO();
+        Person toSave = new Person();
+        toSave.setUserName("Maria");
+        toSave.setEmail(" Maria@Example.COM ");
+        Person saved = new Person();
+        saved.setId(3);
+        saved.setUserName("Maria");
+
+        when(personConverter.convertToPersonToRequest(req)).thenReturn(toSave);
+        when(peopleRepository.saveAndFlush(toSave)).thenReturn(saved);
+
+        peopleService.register(req);
+
+        assertEquals("maria@example.com", toSave.getEmail());
+        verify(eventPublisher).publishEvent(new PersonRegisteredEvent(3, "Maria"));
+    }
+
+    @Test
+    void register_translatesUniqueViolations_intoFieldErrors() {
+        PersonRequestDTO req = new PersonRequestDTO();
+        Person toSave = new Person();
+        when(personConverter.convertToPersonToRequest(req)).thenReturn(toSave);
+        when(peopleRepository.saveAndFlush(toSave))
+                .thenThrow(uniqueViolation("people_lower_user_name_key"))
+                .thenThrow(uniqueViolation("PUBLIC.PEOPLE_EMAIL_KEY"));
+
+        ValidationException byName = assertThrows(ValidationException.class, () -> peopleService.register(req));
+        assertEquals("userName - Person with this username is already existed!;", byName.getMessage());
+        ValidationException byEmail = assertThrows(ValidationException.class, () -> peopleService.register(req));
+        assertEquals("email - Person with this email already exists;", byEmail.getMessage());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void register_rethrowsOtherIntegrityViolations() {
+        PersonRequestDTO req = new PersonRequestDTO();
+        Person toSave = new Person();
+        when(personConverter.convertToPersonToRequest(req)).thenReturn(toSave);
+        DataIntegrityViolationException other = uniqueViolation("people_date_of_birth_check");
+        when(peopleRepository.saveAndFlush(toSave)).thenThrow(other);
+
+        assertSame(other, assertThrows(DataIntegrityViolationException.class, () -> peopleService.register(req)));
+    }
+
+    private static DataIntegrityViolationException uniqueViolation(String constraint) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new org.hibernate.exception.ConstraintViolationException("violation",
+                        new java.sql.SQLException("duplicate key"), constraint));
+    }
+
+    // ---------- getCustomers
 
     @Test
-    void getAllConsumers_returnsMappedDtos_forRoleUser() {
-        Person u1 = new Person(); u1.setId(1); u1.setRole("ROLE_USER");
-        Person u2 = new Person(); u2.setId(2); u2.setRole("ROLE_USER");
+    void getCustomers_fetchesOneExtraRow_andReturnsNextAfterId() {
+        var rows = List.of(
+                new CustomerDirectoryItemResponse(3, "a", "a@x.io", null, null, false),
+                new CustomerDirectoryItemResponse(5, "b", "b@x.io", null, null, false),
+                new CustomerDirectoryItemResponse(8, "c", "c@x.io", null, null, true));
+        when(peopleRepository.findDirectoryPage(eq("ROLE_USER"), isNull(), eq(0), eq(PageRequest.of(0, 3)))).thenReturn(rows);
 
-        when(peopleRepository.findAllByRole("ROLE_USER")).thenReturn(List.of(u1, u2));
+        var page = peopleService.getCustomers(null, null, 2);
 
-        PersonResponseDTO r1 = new PersonResponseDTO(); r1.setId(1);
-        PersonResponseDTO r2 = new PersonResponseDTO(); r2.setId(2);
-        when(personConverter.convertToResponseDTO(u1)).thenReturn(r1);
-        when(personConverter.convertToResponseDTO(u2)).thenReturn(r2);
+        assertEquals(List.of(3, 5), page.getItems().stream().map(CustomerDirectoryItemResponse::getId).toList());
+        assertEquals(5, page.getNextAfterId());
+    }
 
-        var list = peopleService.getAllConsumers();
-        assertEquals(2, list.size());
-        assertEquals(1, list.get(0).getId());
-        assertEquals(2, list.get(1).getId());
+    @Test
+    void getCustomers_lastPage_hasNoNextAfterId_andPassesFilters() {
+        when(peopleRepository.findDirectoryPage("ROLE_USER", false, 5, PageRequest.of(0, 51)))
+                .thenReturn(List.of(new CustomerDirectoryItemResponse(8, "c", "c@x.io", null, null, false)));
+
+        var page = peopleService.getCustomers(5, false, null);
+
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextAfterId());
+    }
+
+    @Test
+    void getCustomers_rejectsLimitOutsideRange() {
+        assertThrows(ValidationException.class, () -> peopleService.getCustomers(null, null, 0));
+        assertThrows(ValidationException.class, () -> peopleService.getCustomers(null, null, 201));
+        verifyNoInteractions(peopleRepository);
     }
 
     // ---------- deactivateUserAccount
@@ -132,21 +210,44 @@ class PeopleServiceTests {
     void deactivateUserAccount_cancelsPendingProcessing_setsDeleted_andSaves() {
         int userId = 10;
         Person person = new Person(); person.setId(userId); person.setDeleted(false);
-
-        Order o1 = new Order(); o1.setStatus(OrderStatus.PENDING);
-        Order o2 = new Order(); o2.setStatus(OrderStatus.PROCESSING);
-        Order o3 = new Order(); o3.setStatus(OrderStatus.DELIVERED);
+        Set<OrderStatus> cancellable = Set.of(OrderStatus.PENDING, OrderStatus.PROCESSING);
 
         when(peopleRepository.findById(userId)).thenReturn(Optional.of(person));
-        when(orderRepository.findByPerson(person)).thenReturn(List.of(o1, o2, o3));
+        when(orderRepository.lockByPersonIdInAndStatusIn(eq(List.of(userId)), anyCollection()))
+                .thenReturn(List.of(new Object[]{1L, "PENDING", 10L}, new Object[]{2L, "PROCESSING", 10L}));
+        when(orderRepository.updateStatusByPersonIdInWhereStatusIn(List.of(userId), cancellable, OrderStatus.CANCELLED))
+                .thenReturn(2);
 
         peopleService.deactivateUserAccount(userId);
 
-        assertEquals(OrderStatus.CANCELLED, o1.getStatus());
-        assertEquals(OrderStatus.CANCELLED, o2.getStatus());
-        assertEquals(OrderStatus.DELIVERED, o3.getStatus());
         assertTrue(person.getDeleted());
         verify(peopleRepository).save(person);
+        verify(orderRepository, never()).findByPerson(any());
+        verify(outboxService).recordStatusChange(1, 10, OrderStatus.PENDING, OrderStatus.CANCELLED);
+        verify(outboxService).recordStatusChange(2, 10, OrderStatus.PROCESSING, OrderStatus.CANCELLED);
+    }
+
+    @Test
+    void deactivateUserAccount_withoutOpenOrders_skipsBulkUpdate() {
+        Person person = new Person(); person.setId(11); person.setDeleted(false);
+        when(peopleRepository.findById(11)).thenReturn(Optional.of(person));
+        when(orderRepository.lockByPersonIdInAndStatusIn(eq(List.of(11)), anyCollection())).thenReturn(List.of());
+
+        peopleService.deactivateUserAccount(11);
+
+        assertTrue(person.getDeleted());
+        verify(orderRepository, never()).updateStatusByPersonIdInWhereStatusIn(any(), any(), any());
+        verifyNoInteractions(outboxService);
+    }
+
+    @Test
+    void cancelActiveOrdersOf_failsWhenBulkUpdateCountDiffers() {
+        when(orderRepository.lockByPersonIdInAndStatusIn(eq(List.of(1, 2)), anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[]{5L, "PENDING", 1L}));
+        when(orderRepository.updateStatusByPersonIdInWhereStatusIn(any(), any(), any())).thenReturn(0);
+
+        assertThrows(IllegalStateException.class, () -> peopleService.cancelActiveOrdersOf(List.of(1, 2)));
+        verifyNoInteractions(outboxService);
     }
 
     @Test
@@ -252,13 +353,12 @@ class PeopleServiceTests {
         SecurityContextHolder.setContext(securityContext);
         when(securityContext.getAuthentication()).thenReturn(authentication);
         when(authentication.getPrincipal()).thenReturn(details);
-        when(peopleRepository.findById(1)).thenReturn(Optional.of(domain));
         when(personConverter.convertToResponseDTO(domain)).thenReturn(dto);
 
         PersonResponseDTO result = peopleService.getCurrentUserInfo();
 
         assertEquals(1, result.getId());
-        verify(peopleRepository).findById(1);
+        verify(peopleRepository, never()).findById(anyInt());
         verify(personConverter).convertToResponseDTO(domain);
     }
 
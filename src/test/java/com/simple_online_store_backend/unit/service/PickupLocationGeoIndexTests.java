@@ -0,0 +1,117 @@
+package com.simple_online_store_backend.unit.service;
+
+import com.simple_online_store_backend.dto.pickup_location.NearestPickupLocationResponse;
+import com.simple_online_store_backend.service.PickupLocationGeoIndex;
+import com.simple_online_store_backend.service.PickupLocationRegistry;
+import com.simple_online_store_backend.service.PickupLocationRegistry.Location;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PickupLocationGeoIndexTests {
+
+    @Mock PickupLocationRegistry registry;
+
+    private PickupLocationGeoIndex builtFrom(double cellDegrees, Location... locations) {
+        when(registry.active()).thenReturn(List.of(locations));
+        return new PickupLocationGeoIndex(registry, cellDegrees);
+    }
+
+    private static Location location(int id, String city, Double latitude, Double longitude) {
+        return new Location(id, city, "Main", "1", true, latitude, longitude);
+    }
+
+    private static List<Integer> ids(List<NearestPickupLocationResponse> result) {
+        return result.stream().map(NearestPickupLocationResponse::getId).toList();
+    }
+
+    @Test
+    void returnsClosestFirst_withDistances() {
+        PickupLocationGeoIndex index = builtFrom(0.5,
+                location(1, "Berlin", 52.5200, 13.4050),
+                location(2, "Potsdam", 52.3989, 13.0657),
+                location(3, "Munich", 48.1351, 11.5820));
+
+        List<NearestPickupLocationResponse> result = index.nearest(52.51, 13.39, 2);
+
+        assertEquals(List.of(1, 2), ids(result));
+        assertTrue(result.get(0).getDistanceKm() < 2);
+        assertEquals(exactKm(52.51, 13.39, 52.3989, 13.0657), result.get(1).getDistanceKm(), 0.01);
+    }
+
+    @Test
+    void wrapsAroundTheAntimeridian() {
+        PickupLocationGeoIndex index = builtFrom(1.0,
+                location(1, "Fiji", -17.8, 179.9),
+                location(2, "Far", -17.8, 170.0));
+
+        assertEquals(List.of(1, 2), ids(index.nearest(-17.8, -179.9, 2)));
+    }
+
+    @Test
+    void followsTheRegistrySnapshot() {
+        Location berlin = location(1, "Berlin", 52.5200, 13.4050);
+        Location potsdam = location(2, "Potsdam", 52.3989, 13.0657);
+        PickupLocationGeoIndex index = builtFrom(0.5, berlin, potsdam);
+
+        assertEquals(List.of(1, 2), ids(index.nearest(52.52, 13.405, 5)));
+
+        // Next snapshot: Berlin closed, a location right at the point, one without coordinates
+        when(registry.active()).thenReturn(List.of(potsdam,
+                location(7, "Berlin", 52.5219, 13.4132),
+                location(8, "Nowhere", null, null)));
+        assertEquals(List.of(7, 2), ids(index.nearest(52.52, 13.405, 5)));
+
+        // Moved far away
+        when(registry.active()).thenReturn(List.of(potsdam, location(7, "Munich", 48.1351, 11.5820)));
+        assertEquals(List.of(2, 7), ids(index.nearest(52.52, 13.405, 5)));
+    }
+
+    @Test
+    void matchesBruteForce_onRandomPoints() {
+        Random random = new Random(42);
+        List<Location> locations = new ArrayList<>();
+        for (int i = 1; i <= 500; i++) {
+            // Clustered over Europe, plus a few scattered over the globe
+            double lat = i % 10 == 0 ? random.nextDouble() * 170 - 85 : 45 + random.nextDouble() * 10;
+            double lon = i % 10 == 0 ? random.nextDouble() * 360 - 180 : 5 + random.nextDouble() * 15;
+            locations.add(location(i, "City", lat, lon));
+        }
+        PickupLocationGeoIndex index = builtFrom(0.5, locations.toArray(Location[]::new));
+
+        for (int q = 0; q < 200; q++) {
+            double lat = random.nextDouble() * 180 - 90;
+            double lon = random.nextDouble() * 360 - 180;
+            List<Integer> expected = locations.stream()
+                    .sorted(Comparator.comparingDouble((Location l) -> exactKm(lat, lon, l.latitude(), l.longitude()))
+                            .thenComparingInt(Location::id))
+                    .limit(5)
+                    .map(Location::id)
+                    .toList();
+            assertEquals(expected, ids(index.nearest(lat, lon, 5)), "query " + lat + "," + lon);
+        }
+    }
+
+    @Test
+    void emptyIndex_returnsEmptyList() {
+        assertTrue(builtFrom(0.5).nearest(0, 0, 5).isEmpty());
+    }
+
+    private static double exactKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.pow(Math.sin(dLat / 2), 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.pow(Math.sin(dLon / 2), 2);
+        return 2 * 6371.0088 * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+}
@@ -0,0 +1,84 @@
+package com.simple_online_store_backend.unit.service;
+
+import com.simple_online_store_backend.entity.PickupLocation;
+import com.simple_online_store_backend.event.PickupLocationChangedEvent;
+import com.simple_online_store_backend.repository.PickupLocationRepository;
+import com.simple_online_store_backend.service.PickupLocationRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PickupLocationRegistryTests {
+
+    @Mock PickupLocationRepository pickupLocationRepository;
+
+    private PickupLocationRegistry loadedWith(PickupLocation... locations) {
+        when(pickupLocationRepository.findAll()).thenReturn(List.of(locations));
+        PickupLocationRegistry registry = new PickupLocationRegistry(pickupLocationRepository);
+        registry.refresh();
+        return registry;
+    }
+
+    private static PickupLocation location(int id, String city, boolean active) {
+        PickupLocation location = new PickupLocation();
+        location.setId(id);
+        location.setCity(city);
+        location.setStreet("Main");
+        location.setHouseNumber("1");
+        location.setActive(active);
+        return location;
+    }
+
+    private static List<Integer> ids(List<PickupLocationRegistry.Location> locations) {
+        return locations.stream().map(PickupLocationRegistry.Location::id).toList();
+    }
+
+    @Test
+    void lookups_areServedFromMemory() {
+        PickupLocationRegistry registry = loadedWith(location(2, "Berlin", false), location(1, "Berlin", true),
+                location(3, "Munich", true));
+
+        assertTrue(registry.find(1).orElseThrow().active());
+        assertEquals(List.of(1, 2, 3), ids(registry.all()));
+        assertEquals(List.of(1, 3), ids(registry.active()));
+        assertEquals(List.of(1, 2), ids(registry.inCity(" BERLIN ")));
+        assertTrue(registry.inCity("Hamburg").isEmpty());
+        verify(pickupLocationRepository, times(1)).findAll();
+        verify(pickupLocationRepository, never()).findById(anyInt());
+    }
+
+    @Test
+    void committedChange_replacesOnlyThatLocation() {
+        PickupLocationRegistry registry = loadedWith(location(1, "Berlin", true), location(2, "Munich", true));
+
+        registry.onPickupLocationChanged(new PickupLocationChangedEvent(1, "Potsdam", "Main", "1", null, null, false));
+
+        assertEquals("Potsdam", registry.find(1).orElseThrow().city());
+        assertEquals(List.of(2), ids(registry.active()));
+        assertEquals(List.of(1), ids(registry.inCity("potsdam")));
+        assertTrue(registry.inCity("berlin").isEmpty());
+        verify(pickupLocationRepository, times(1)).findAll();
+    }
+
+    @Test
+    void unknownId_isLoadedOnce_andKept() {
+        PickupLocationRegistry registry = loadedWith();
+        when(pickupLocationRepository.findById(7)).thenReturn(Optional.of(location(7, "Berlin", true)));
+        when(pickupLocationRepository.findById(8)).thenReturn(Optional.empty());
+
+        assertTrue(registry.find(7).isPresent());
+        assertTrue(registry.find(7).isPresent());
+        assertTrue(registry.find(8).isEmpty());
+
+        verify(pickupLocationRepository, times(1)).findById(7);
+        assertEquals(List.of(7), ids(registry.all()));
+    }
+}
@@ -1,17 +1,24 @@
 package com.simple_online_store_backend.unit.service;
 
+import com.simple_online_store_backend.dto.pickup_location.PickupLocationBulkStatusRequest;
 import com.simple_online_store_backend.dto.pickup_location.PickupLocationRequestDTO;
 import com.simple_online_store_backend.dto.pickup_location.PickupLocationResponseDTO;
+import com.simple_online_store_backend.dto.pickup_location.PickupLocationStatusResult;
 import com.simple_online_store_backend.entity.PickupLocation;
+import com.simple_online_store_backend.enums.PickupLocationStatusOutcome;
+import com.simple_online_store_backend.event.PickupLocationChangedEvent;
 import com.simple_online_store_backend.exception.ValidationException;
 import com.simple_online_store_backend.mapper.PickupLocationMapper;
 import com.simple_online_store_backend.repository.PickupLocationRepository;
+import com.simple_online_store_backend.service.PickupLocationGeoIndex;
+import com.simple_online_store_backend.service.PickupLocationRegistry;
 import com.simple_online_store_backend.service.PickupLocationService;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.List;
 import java.util.Optional;
@@ -24,40 +31,40 @@ class PickupLocationServiceTests {
 
     @Mock PickupLocationRepository pickupLocationRepository;
     @Mock PickupLocationMapper mapper;
+    @Mock PickupLocationGeoIndex geoIndex;
+    @Mock PickupLocationRegistry registry;
+    @Mock ApplicationEventPublisher eventPublisher;
 
     @InjectMocks PickupLocationService pickupLocationService;
 
     @Test
-    void getAllPickupLocations_adminGetsAll() {
-        PickupLocation a = active(true);
-        PickupLocation b = active(false);
-        when(pickupLocationRepository.findAll()).thenReturn(List.of(a, b));
-
-        PickupLocationResponseDTO ra = new PickupLocationResponseDTO();
-        PickupLocationResponseDTO rb = new PickupLocationResponseDTO();
-        when(mapper.mapPickupLocationRequestToResponseDTO(a)).thenReturn(ra);
-        when(mapper.mapPickupLocationRequestToResponseDTO(b)).thenReturn(rb);
+    void getAllPickupLocations_adminGetsAll_fromRegistry() {
+        when(registry.all()).thenReturn(List.of(location(1, "Berlin", true), location(2, "Munich", false)));
 
         var out = pickupLocationService.getAllPickupLocations("ROLE_ADMIN");
 
-        assertEquals(2, out.size());
-        verify(pickupLocationRepository).findAll();
-        verify(mapper).mapPickupLocationRequestToResponseDTO(a);
-        verify(mapper).mapPickupLocationRequestToResponseDTO(b);
+        assertEquals(List.of(1, 2), out.stream().map(PickupLocationResponseDTO::getId).toList());
+        assertEquals("Munich", out.get(1).getCity());
+        verifyNoInteractions(pickupLocationRepository);
     }
 
     @Test
-    void getAllPickupLocations_userGetsOnlyActive() {
-        PickupLocation a = active(true);
-        when(pickupLocationRepository.findByActiveTrue()).thenReturn(List.of(a));
-
-        PickupLocationResponseDTO ra = new PickupLocationResponseDTO();
-        when(mapper.mapPickupLocationRequestToResponseDTO(a)).thenReturn(ra);
+    void getAllPickupLocations_userGetsOnlyActive_fromRegistry() {
+        when(registry.active()).thenReturn(List.of(location(1, "Berlin", true)));
 
         var out = pickupLocationService.getAllPickupLocations("ROLE_USER");
 
         assertEquals(1, out.size());
-        verify(pickupLocationRepository).findByActiveTrue();
+        verify(registry, never()).all();
+        verifyNoInteractions(pickupLocationRepository);
+    }
+
+    @Test
+    void getPickupLocationsInCity_hidesClosedFromUsers() {
+        when(registry.inCity("berlin")).thenReturn(List.of(location(1, "Berlin", true), location(2, "Berlin", false)));
+
+        assertEquals(1, pickupLocationService.getPickupLocationsInCity("ROLE_USER", "berlin").size());
+        assertEquals(2, pickupLocationService.getPickupLocationsInCity("ROLE_ADMIN", "berlin").size());
     }
 
     @Test
@@ -95,58 +102,107 @@ class PickupLocationServiceTests {
 
     @Test
     void closePickupLocation_ok_whenActive() {
-        PickupLocation loc = active(true);
-        when(pickupLocationRepository.existsByIdAndActiveTrue(5)).thenReturn(true);
-        when(pickupLocationRepository.findById(5)).thenReturn(Optional.of(loc));
+        when(pickupLocationRepository.lockByIdIn(List.of(5))).thenReturn(rows(row(5, "Berlin", true)));
+        when(pickupLocationRepository.updateActiveWhereIdIn(List.of(5), false)).thenReturn(1);
 
         pickupLocationService.closePickupLocation(5);
 
-        assertFalse(loc.getActive());
-        verify(pickupLocationRepository).save(loc);
+        verify(pickupLocationRepository).updateActiveWhereIdIn(List.of(5), false);
+        verify(pickupLocationRepository, never()).existsById(anyInt());
+
+        ArgumentCaptor<PickupLocationChangedEvent> event = ArgumentCaptor.forClass(PickupLocationChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertFalse(event.getValue().active());
+        assertEquals("Berlin", event.getValue().city());
     }
 
     @Test
     void closePickupLocation_throwsNotFound_whenNoSuchId() {
-        when(pickupLocationRepository.existsByIdAndActiveTrue(5)).thenReturn(false);
-        when(pickupLocationRepository.existsById(5)).thenReturn(false);
+        when(pickupLocationRepository.lockByIdIn(List.of(5))).thenReturn(List.of());
 
         assertThrows(EntityNotFoundException.class, () -> pickupLocationService.closePickupLocation(5));
+        verify(pickupLocationRepository, never()).updateActiveWhereIdIn(any(), anyBoolean());
     }
 
     @Test
     void closePickupLocation_throwsValidation_whenAlreadyClosed() {
-        when(pickupLocationRepository.existsByIdAndActiveTrue(5)).thenReturn(false);
-        when(pickupLocationRepository.existsById(5)).thenReturn(true);
+        when(pickupLocationRepository.lockByIdIn(List.of(5))).thenReturn(rows(row(5, "Berlin", false)));
 
         assertThrows(ValidationException.class, () -> pickupLocationService.closePickupLocation(5));
+        verify(pickupLocationRepository, never()).updateActiveWhereIdIn(any(), anyBoolean());
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
     void openPickupLocation_ok_whenExistsAndClosed() {
-        PickupLocation loc = active(false);
-        when(pickupLocationRepository.existsById(7)).thenReturn(true);
-        when(pickupLocationRepository.existsByIdAndActiveTrue(7)).thenReturn(false);
-        when(pickupLocationRepository.findById(7)).thenReturn(Optional.of(loc));
+        when(pickupLocationRepository.lockByIdIn(List.of(7))).thenReturn(rows(row(7, "Berlin", false)));
+        when(pickupLocationRepository.updateActiveWhereIdIn(List.of(7), true)).thenReturn(1);
 
         pickupLocationService.openPickupLocation(7);
 
-        assertTrue(loc.getActive());
-        verify(pickupLocationRepository).save(loc);
+        verify(pickupLocationRepository).updateActiveWhereIdIn(List.of(7), true);
     }
 
     @Test
     void openPickupLocation_throwsNotFound_whenNoSuchId() {
-        when(pickupLocationRepository.existsById(7)).thenReturn(false);
+        when(pickupLocationRepository.lockByIdIn(List.of(7))).thenReturn(List.of());
         assertThrows(EntityNotFoundException.class, () -> pickupLocationService.openPickupLocation(7));
     }
 
     @Test
     void openPickupLocation_throwsValidation_whenAlreadyOpen() {
-        when(pickupLocationRepository.existsById(7)).thenReturn(true);
-        when(pickupLocationRepository.existsByIdAndActiveTrue(7)).thenReturn(true);
+        when(pickupLocationRepository.lockByIdIn(List.of(7))).thenReturn(rows(row(7, "Berlin", true)));
         assertThrows(ValidationException.class, () -> pickupLocationService.openPickupLocation(7));
     }
 
+    @Test
+    void bulkSetActive_byIds_classifiesFromTheLockedRows_andUpdatesOnce() {
+        when(pickupLocationRepository.lockByIdIn(List.of(3, 1, 9, 2)))
+                .thenReturn(rows(row(1, "Berlin", true), row(2, "Berlin", false), row(3, "Munich", true)));
+        when(pickupLocationRepository.updateActiveWhereIdIn(List.of(3, 1), false)).thenReturn(2);
+
+        var out = pickupLocationService.bulkSetActive(bulk(false, List.of(3, 1, 9, 2, 3), null));
+
+        assertEquals(List.of(3, 1, 9, 2), out.getResults().stream().map(PickupLocationStatusResult::getId).toList());
+        assertEquals(List.of(PickupLocationStatusOutcome.CHANGED, PickupLocationStatusOutcome.CHANGED,
+                        PickupLocationStatusOutcome.NOT_FOUND, PickupLocationStatusOutcome.UNCHANGED),
+                out.getResults().stream().map(PickupLocationStatusResult::getOutcome).toList());
+        assertEquals(4, out.getProcessed());
+        assertEquals(2, out.getChanged());
+        assertEquals(1, out.getUnchanged());
+        assertEquals(1, out.getNotFound());
+        verify(pickupLocationRepository, times(1)).updateActiveWhereIdIn(any(), anyBoolean());
+        verify(eventPublisher, times(2)).publishEvent(any(PickupLocationChangedEvent.class));
+    }
+
+    @Test
+    void bulkSetActive_byCity_usesTheCityRows() {
+        when(pickupLocationRepository.lockByCity("berlin")).thenReturn(rows(row(1, "Berlin", false), row(2, "Berlin", true)));
+        when(pickupLocationRepository.updateActiveWhereIdIn(List.of(1), true)).thenReturn(1);
+
+        var out = pickupLocationService.bulkSetActive(bulk(true, null, " berlin "));
+
+        assertEquals(1, out.getChanged());
+        assertEquals(1, out.getUnchanged());
+        assertEquals(0, out.getNotFound());
+    }
+
+    @Test
+    void bulkSetActive_failsWhenTheGuardedUpdateMissesRows() {
+        when(pickupLocationRepository.lockByIdIn(List.of(1))).thenReturn(rows(row(1, "Berlin", true)));
+        when(pickupLocationRepository.updateActiveWhereIdIn(List.of(1), false)).thenReturn(0);
+
+        assertThrows(IllegalStateException.class, () -> pickupLocationService.bulkSetActive(bulk(false, List.of(1), null)));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void bulkSetActive_requiresExactlyOneOfIdsOrCity() {
+        assertThrows(ValidationException.class, () -> pickupLocationService.bulkSetActive(bulk(false, null, null)));
+        assertThrows(ValidationException.class, () -> pickupLocationService.bulkSetActive(bulk(false, List.of(1), "Berlin")));
+        verifyNoInteractions(pickupLocationRepository);
+    }
+
     @Test
     void updatePickupLocation_copiesOnlyNonNull_andSaves() {
         PickupLocation existing = new PickupLocation();
@@ -174,6 +230,55 @@ class PickupLocationServiceTests {
         verify(pickupLocationRepository).save(existing);
     }
 
+    @Test
+    void updatePickupLocation_publishesNewCoordinates() {
+        PickupLocation existing = active(true);
+        existing.setId(10);
+        when(pickupLocationRepository.findById(10)).thenReturn(Optional.of(existing));
+
+        PickupLocationRequestDTO patch = new PickupLocationRequestDTO();
+        patch.setLatitude(52.52);
+        patch.setLongitude(13.405);
+        pickupLocationService.updatePickupLocation(patch, 10);
+
+        ArgumentCaptor<PickupLocationChangedEvent> event = ArgumentCaptor.forClass(PickupLocationChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(10, event.getValue().id());
+        assertEquals(52.52, event.getValue().latitude());
+        assertEquals(13.405, event.getValue().longitude());
+        assertTrue(event.getValue().active());
+    }
+
+    @Test
+    void updatePickupLocation_rejectsLatitudeWithoutLongitude() {
+        when(pickupLocationRepository.findById(10)).thenReturn(Optional.of(active(true)));
+
+        PickupLocationRequestDTO patch = new PickupLocationRequestDTO();
+        patch.setLatitude(52.52);
+
+        assertThrows(ValidationException.class, () -> pickupLocationService.updatePickupLocation(patch, 10));
+        verify(pickupLocationRepository, never()).save(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void findNearest_defaultsLimit_andAsksTheIndex() {
+        when(geoIndex.nearest(52.52, 13.405, 5)).thenReturn(List.of());
+
+        assertTrue(pickupLocationService.findNearest(52.52, 13.405, null).isEmpty());
+        verify(geoIndex).nearest(52.52, 13.405, 5);
+        verifyNoInteractions(pickupLocationRepository);
+    }
+
+    @Test
+    void findNearest_rejectsInvalidInput() {
+        assertThrows(ValidationException.class, () -> pickupLocationService.findNearest(null, 13.0, 5));
+        assertThrows(ValidationException.class, () -> pickupLocationService.findNearest(91.0, 13.0, 5));
+        assertThrows(ValidationException.class, () -> pickupLocationService.findNearest(52.0, -181.0, 5));
+        assertThrows(ValidationException.class, () -> pickupLocationService.findNearest(52.0, 13.0, 21));
+        verifyNoInteractions(geoIndex);
+    }
+
     @Test
     void updatePickupLocation_throwsWhenNotFound() {
         when(pickupLocationRepository.findById(10)).thenReturn(Optional.empty());
@@ -181,6 +286,26 @@ class PickupLocationServiceTests {
                 () -> pickupLocationService.updatePickupLocation(new PickupLocationRequestDTO(), 10));
     }
 
+    private PickupLocationRegistry.Location location(int id, String city, boolean active) {
+        return new PickupLocationRegistry.Location(id, city, "Main", "1", active, null, null);
+    }
+
+    private static Object[] row(int id, String city, boolean active) {
+        return new Object[]{id, city, "Main", "1", null, null, active};
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return List.of(rows);
+    }
+
+    private static PickupLocationBulkStatusRequest bulk(boolean active, List<Integer> ids, String city) {
+        PickupLocationBulkStatusRequest request = new PickupLocationBulkStatusRequest();
+        request.setActive(active);
+        request.setIds(ids);
+        request.setCity(city);
+        return request;
+    }
+
     private PickupLocation active(boolean flag) {
         PickupLocation p = new PickupLocation();
         p.setActive(flag);
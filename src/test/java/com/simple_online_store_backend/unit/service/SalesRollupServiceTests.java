@@ -0,0 +1,115 @@
+package com.simple_online_store_backend.unit.service;
+
+import com.simple_online_store_backend.enums.OrderStatus;
+import com.simple_online_store_backend.event.OrderStatusChangedEvent;
+import com.simple_online_store_backend.exception.ValidationException;
+import com.simple_online_store_backend.repository.OrderRepository;
+import com.simple_online_store_backend.repository.SalesCategoryRollupRepository;
+import com.simple_online_store_backend.repository.SalesDailyRollupRepository;
+import com.simple_online_store_backend.service.SalesRollupService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SalesRollupServiceTests {
+
+    @Mock OrderRepository orderRepository;
+    @Mock SalesDailyRollupRepository dailyRepository;
+    @Mock SalesCategoryRollupRepository categoryRepository;
+    @Mock PlatformTransactionManager transactionManager;
+
+    SalesRollupService service;
+
+    private static final LocalDate DAY = LocalDate.of(2025, 1, 10);
+
+    @BeforeEach
+    void setUp() {
+        service = new SalesRollupService(orderRepository, dailyRepository, categoryRepository, transactionManager, 7);
+    }
+
+    private static Object[] line(int orderId, Integer pickupId, String category, String price) {
+        return new Object[]{orderId, Date.valueOf(DAY), pickupId, category, price == null ? null : new BigDecimal(price)};
+    }
+
+    private static OrderStatusChangedEvent event(int orderId, OrderStatus from, OrderStatus to) {
+        return new OrderStatusChangedEvent(orderId, 1, from, to, LocalDateTime.now());
+    }
+
+    @Test
+    void creation_addsOrderOncePerChannelAndCategory() {
+        when(orderRepository.findSalesLinesByIdIn(any())).thenReturn(List.of(
+                line(5, null, "SMARTPHONES", "100.00"),
+                line(5, null, "SMARTPHONES", "100.00"),
+                line(5, null, "LAPTOPS", "900.00")));
+
+        service.onOrderStatusChanged(event(5, null, OrderStatus.PENDING));
+
+        verify(dailyRepository).insertIfAbsent(DAY, "COURIER");
+        verify(dailyRepository).applyDelta(DAY, "COURIER", 1L, 3L, new BigDecimal("1100.00"));
+        verify(categoryRepository).applyDelta(DAY, "SMARTPHONES", "COURIER", 1L, 2L, new BigDecimal("200.00"));
+        verify(categoryRepository).applyDelta(DAY, "LAPTOPS", "COURIER", 1L, 1L, new BigDecimal("900.00"));
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void cancellation_subtracts_andOrderWithoutItemsOnlyTouchesDailyRollup() {
+        when(orderRepository.findSalesLinesByIdIn(any())).thenReturn(List.<Object[]>of(line(6, 3, null, null)));
+
+        service.onOrderStatusChanged(event(6, OrderStatus.PENDING, OrderStatus.CANCELLED));
+
+        verify(dailyRepository).applyDelta(DAY, "PICKUP", -1L, 0L, BigDecimal.ZERO);
+        verifyNoInteractions(categoryRepository);
+    }
+
+    @Test
+    void transitionsWithinBookedSet_areIgnored() {
+        service.onOrderStatusChanged(event(7, OrderStatus.PENDING, OrderStatus.PROCESSING));
+        service.onOrderStatusChanged(event(7, OrderStatus.SHIPPED, OrderStatus.DELIVERED));
+
+        verifyNoInteractions(orderRepository, dailyRepository, categoryRepository, transactionManager);
+    }
+
+    @Test
+    void applyDeltas_writesKeysInSortedOrder() {
+        when(orderRepository.findSalesLinesByIdIn(any())).thenReturn(List.of(
+                line(2, 1, "LAPTOPS", "10.00"),
+                line(1, null, "LAPTOPS", "10.00")));
+
+        service.applyDeltas(Map.of(1, 1, 2, 1));
+
+        InOrder inOrder = inOrder(dailyRepository);
+        inOrder.verify(dailyRepository).insertIfAbsent(DAY, "COURIER");
+        inOrder.verify(dailyRepository).insertIfAbsent(DAY, "PICKUP");
+    }
+
+    @Test
+    void applyFailure_isSwallowed_soOrderFlowIsUnaffected() {
+        when(orderRepository.findSalesLinesByIdIn(any())).thenThrow(new IllegalStateException("db down"));
+
+        service.onOrderStatusChanged(event(8, OrderStatus.CANCELLED, OrderStatus.PENDING));
+
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void dailySales_rejectsInvertedAndTooLongRanges() {
+        assertThrows(ValidationException.class, () -> service.dailySales(DAY, DAY.minusDays(1)));
+        assertThrows(ValidationException.class, () -> service.dailySales(DAY, DAY.plusDays(366)));
+    }
+}
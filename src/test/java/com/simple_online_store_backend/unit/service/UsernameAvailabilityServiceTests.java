@@ -0,0 +1,94 @@
+package com.simple_online_store_backend.unit.service;
+
+import com.simple_online_store_backend.dto.person.UsernameAvailabilityResponse;
+import com.simple_online_store_backend.event.PersonRegisteredEvent;
+import com.simple_online_store_backend.service.UsernameAvailabilityService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.ResultSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UsernameAvailabilityServiceTests {
+
+    @Mock NamedParameterJdbcTemplate jdbc;
+
+    private UsernameAvailabilityService builtFrom(String... takenNames) throws Exception {
+        when(jdbc.queryForObject(eq("SELECT COUNT(*) FROM people"), any(MapSqlParameterSource.class), eq(Long.class)))
+                .thenReturn((long) takenNames.length);
+        doAnswer(inv -> {
+            RowCallbackHandler handler = inv.getArgument(2);
+            for (String name : takenNames) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getString(1)).thenReturn(name);
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbc).query(eq("SELECT LOWER(user_name) FROM people"), any(MapSqlParameterSource.class), any(RowCallbackHandler.class));
+
+        UsernameAvailabilityService service = new UsernameAvailabilityService(jdbc, 0.01);
+        service.rebuild();
+        return service;
+    }
+
+    @Test
+    void namesUnknownToTheFilter_areFree_withoutQueryingTheDatabase() throws Exception {
+        UsernameAvailabilityService service = builtFrom("alice", "bob");
+
+        List<UsernameAvailabilityResponse> result = service.check(List.of("carol", "dave"));
+
+        assertTrue(result.stream().allMatch(UsernameAvailabilityResponse::isAvailable));
+        verify(jdbc, never()).queryForList(anyString(), any(MapSqlParameterSource.class), eq(String.class));
+    }
+
+    @Test
+    void possibleHits_areConfirmed_inOneQuery() throws Exception {
+        UsernameAvailabilityService service = builtFrom("alice", "bob");
+        when(jdbc.queryForList(anyString(), any(MapSqlParameterSource.class), eq(String.class)))
+                .thenReturn(List.of("alice"));
+
+        List<UsernameAvailabilityResponse> result = service.check(List.of(" Alice ", "BOB", "carol"));
+
+        assertEquals("Alice", result.get(0).getUserName());
+        assertFalse(result.get(0).isAvailable());
+        // A filter hit the database no longer confirms (e.g. a deleted row) is free
+        assertTrue(result.get(1).isAvailable());
+        assertTrue(result.get(2).isAvailable());
+
+        ArgumentCaptor<MapSqlParameterSource> params = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+        verify(jdbc, times(1)).queryForList(anyString(), params.capture(), eq(String.class));
+        assertTrue(((Collection<?>) params.getValue().getValue("names")).containsAll(Set.of("alice", "bob")));
+    }
+
+    @Test
+    void registrations_areLearned_withoutRebuild() throws Exception {
+        UsernameAvailabilityService service = builtFrom();
+        service.onPersonRegistered(new PersonRegisteredEvent(1, "Newcomer"));
+        when(jdbc.queryForList(anyString(), any(MapSqlParameterSource.class), eq(String.class)))
+                .thenReturn(List.of("newcomer"));
+
+        assertFalse(service.check(List.of("newcomer")).get(0).isAvailable());
+    }
+
+    @Test
+    void beforeFirstBuild_everyNameGoesToTheDatabase() {
+        UsernameAvailabilityService service = new UsernameAvailabilityService(jdbc, 0.01);
+        when(jdbc.queryForList(anyString(), any(MapSqlParameterSource.class), eq(String.class))).thenReturn(List.of());
+
+        assertTrue(service.check(List.of("anyone")).get(0).isAvailable());
+        verify(jdbc).queryForList(anyString(), any(MapSqlParameterSource.class), eq(String.class));
+    }
+}
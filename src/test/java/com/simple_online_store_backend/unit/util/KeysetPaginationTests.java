@@ -0,0 +1,55 @@
+package com.simple_online_store_backend.unit.util;
+
+import com.simple_online_store_backend.exception.ValidationException;
+import com.simple_online_store_backend.util.KeysetPagination;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetPaginationTests {
+
+    private record Page(List<Integer> items, Integer last) {
+    }
+
+    @Test
+    void toPage_withExtraRow_cutsItOff_andReportsLastRow() {
+        Page page = KeysetPagination.toPage(List.of(1, 2, 3), 2, Page::new);
+
+        assertEquals(List.of(1, 2), page.items());
+        assertEquals(2, page.last());
+    }
+
+    @Test
+    void toPage_withoutExtraRow_isTheLastPage() {
+        Page page = KeysetPagination.toPage(List.of(1, 2), 2, Page::new);
+
+        assertEquals(List.of(1, 2), page.items());
+        assertNull(page.last());
+    }
+
+    @Test
+    void cursor_roundTrips_andLastPartKeepsSeparators() {
+        String cursor = KeysetPagination.encodeCursor(1, 42, "a|b");
+
+        String[] parts = KeysetPagination.decodeCursor(cursor, 3, p -> p);
+
+        assertArrayEquals(new String[]{"1", "42", "a|b"}, parts);
+    }
+
+    @Test
+    void decodeCursor_rejectsGarbage() {
+        assertThrows(ValidationException.class, () -> KeysetPagination.decodeCursor("!!", 2, p -> p));
+        String onePart = KeysetPagination.encodeCursor("x");
+        assertThrows(ValidationException.class, () -> KeysetPagination.decodeCursor(onePart, 2, p -> p));
+        String notANumber = KeysetPagination.encodeCursor("x", "y");
+        assertThrows(ValidationException.class,
+                () -> KeysetPagination.decodeCursor(notANumber, 2, p -> Integer.parseInt(p[1])));
+    }
+
+    @Test
+    void escapeLike_escapesWildcardsAndTheEscapeCharacter() {
+        assertEquals("50\\%\\_off\\\\", KeysetPagination.escapeLike("50%_off\\"));
+    }
+}